@@ -0,0 +1,93 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.hadoop.benchmarks;
+
+import org.pentaho.di.core.KettleClientEnvironment;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBoolean;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaNumber;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Rows shared by the format benchmarks: a string, an integer, a number, a boolean and a date field, generated from a
+ * fixed seed so every run reads and writes the same data.
+ */
+final class BenchmarkData {
+  // rows of the generated files, scores are per row
+  static final int ROWS = 100000;
+  static final String[] FIELDS = { "name", "id", "amount", "active", "created" };
+  static final int[] TYPES = {
+    ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_INTEGER, ValueMetaInterface.TYPE_NUMBER,
+    ValueMetaInterface.TYPE_BOOLEAN, ValueMetaInterface.TYPE_DATE };
+  private static final long SEED = 20260615L;
+
+  private BenchmarkData() {
+  }
+
+  static void initKettle() throws KettleException {
+    if ( !KettleClientEnvironment.isInitialized() ) {
+      KettleClientEnvironment.init();
+    }
+  }
+
+  static RowMetaInterface rowMeta() {
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( FIELDS[ 0 ] ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( FIELDS[ 1 ] ) );
+    rowMeta.addValueMeta( new ValueMetaNumber( FIELDS[ 2 ] ) );
+    rowMeta.addValueMeta( new ValueMetaBoolean( FIELDS[ 3 ] ) );
+    rowMeta.addValueMeta( new ValueMetaDate( FIELDS[ 4 ] ) );
+    return rowMeta;
+  }
+
+  static RowMetaAndData[] rows( int count ) {
+    RowMetaInterface rowMeta = rowMeta();
+    Random random = new Random( SEED );
+    RowMetaAndData[] rows = new RowMetaAndData[ count ];
+    for ( int i = 0; i < count; i++ ) {
+      rows[ i ] = new RowMetaAndData( rowMeta,
+        "customer-" + random.nextInt( 10000 ), (long) i, random.nextDouble() * 1000, random.nextBoolean(),
+        new Date( 1700000000000L + random.nextInt( Integer.MAX_VALUE ) ) );
+    }
+    return rows;
+  }
+
+  static Path createTempDirectory( String prefix ) throws IOException {
+    return Files.createTempDirectory( prefix );
+  }
+
+  static void delete( Path directory ) throws IOException {
+    if ( directory == null || !Files.exists( directory ) ) {
+      return;
+    }
+    try ( Stream<Path> paths = Files.walk( directory ) ) {
+      paths.sorted( Comparator.reverseOrder() ).forEach( path -> path.toFile().delete() );
+    }
+  }
+}
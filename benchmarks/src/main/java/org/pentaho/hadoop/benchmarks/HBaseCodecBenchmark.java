@@ -0,0 +1,134 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.hadoop.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.shim.api.internal.hbase.HBaseBytesUtilShim;
+import org.pentaho.hadoop.shim.api.internal.hbase.HBaseValueMeta;
+import org.pentaho.hbase.shim.fake.FakeHBaseConnection;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HBase cell codec of {@link HBaseValueMeta} and the put path of an HBase connection, on the in-memory
+ * {@link FakeHBaseConnection}. Scores are rows per second, every row has one cell of each benchmark field type except
+ * the date.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@State( Scope.Benchmark )
+@Fork( 1 )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+public class HBaseCodecBenchmark {
+  private static final int ROWS = 10000;
+  private static final String FAMILY = "f";
+  private static final String TABLE = "benchmark";
+  // the date is stored as a long, so decoding it is the integer path again
+  private static final int COLUMNS = 4;
+
+  private FakeHBaseConnection connection;
+  private HBaseBytesUtilShim bytesUtil;
+  private RowMetaInterface rowMeta;
+  private Object[][] rows;
+  private HBaseValueMeta[] columns;
+  private byte[][][] cells;
+  private byte[][] keys;
+
+  @Setup( Level.Trial )
+  public void setup() throws Exception {
+    BenchmarkData.initKettle();
+    connection = new FakeHBaseConnection();
+    bytesUtil = connection.getBytesUtil();
+    RowMetaAndData[] data = BenchmarkData.rows( ROWS );
+    rowMeta = data[ 0 ].getRowMeta();
+    rows = new Object[ ROWS ][];
+    columns = new HBaseValueMeta[ COLUMNS ];
+    for ( int c = 0; c < COLUMNS; c++ ) {
+      columns[ c ] = new HBaseValueMeta( FAMILY + HBaseValueMeta.SEPARATOR + BenchmarkData.FIELDS[ c ]
+        + HBaseValueMeta.SEPARATOR + BenchmarkData.FIELDS[ c ], BenchmarkData.TYPES[ c ], -1, -1 );
+    }
+    cells = new byte[ COLUMNS ][ ROWS ][];
+    keys = new byte[ ROWS ][];
+    for ( int r = 0; r < ROWS; r++ ) {
+      rows[ r ] = data[ r ].getData();
+      keys[ r ] = bytesUtil.toBytes( r );
+      for ( int c = 0; c < COLUMNS; c++ ) {
+        cells[ c ][ r ] = HBaseValueMeta.encodeColumnValue( rows[ r ][ c ], rowMeta.getValueMeta( c ), columns[ c ],
+          bytesUtil );
+      }
+    }
+  }
+
+  /**
+   * A new table for every iteration, since the fake table keeps every version of a cell.
+   */
+  @Setup( Level.Iteration )
+  public void createTable() throws Exception {
+    connection.deleteTable( TABLE );
+    connection.createTable( TABLE, Collections.singletonList( FAMILY ), null );
+    connection.newTargetTable( TABLE, null );
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( ROWS )
+  public void decode( Blackhole blackhole ) throws Exception {
+    for ( int r = 0; r < ROWS; r++ ) {
+      for ( int c = 0; c < COLUMNS; c++ ) {
+        blackhole.consume( HBaseValueMeta.decodeColumnValue( cells[ c ][ r ], columns[ c ], bytesUtil ) );
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( ROWS )
+  public void encode( Blackhole blackhole ) throws Exception {
+    for ( int r = 0; r < ROWS; r++ ) {
+      for ( int c = 0; c < COLUMNS; c++ ) {
+        ValueMetaInterface valueMeta = rowMeta.getValueMeta( c );
+        blackhole.consume( HBaseValueMeta.encodeColumnValue( rows[ r ][ c ], valueMeta, columns[ c ], bytesUtil ) );
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( ROWS )
+  public void put() throws Exception {
+    for ( int r = 0; r < ROWS; r++ ) {
+      connection.newTargetTablePut( keys[ r ], false );
+      for ( int c = 0; c < COLUMNS; c++ ) {
+        connection.addColumnToTargetPut( FAMILY, columns[ c ].getColumnName(), false,
+          HBaseValueMeta.encodeColumnValue( rows[ r ][ c ], rowMeta.getValueMeta( c ), columns[ c ], bytesUtil ) );
+      }
+      connection.executeTargetTablePut();
+    }
+  }
+}
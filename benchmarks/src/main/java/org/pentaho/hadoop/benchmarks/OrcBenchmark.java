@@ -0,0 +1,139 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.hadoop.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.IOrcInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoBatchRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+import org.pentaho.hadoop.shim.api.format.OrcSpec;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+import org.pentaho.hadoop.shim.common.format.orc.OrcOutputField;
+import org.pentaho.hadoop.shim.common.format.orc.PentahoOrcInputFormat;
+import org.pentaho.hadoop.shim.common.format.orc.PentahoOrcOutputFormat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ORC read path ({@code OrcConverter}) row by row and in batches, and the write path of
+ * {@code PentahoOrcRecordWriter} into a local file. Scores are rows per second.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@State( Scope.Benchmark )
+@Fork( 1 )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+public class OrcBenchmark {
+  private static final OrcSpec.DataType[] ORC_TYPES = {
+    OrcSpec.DataType.STRING, OrcSpec.DataType.BIGINT, OrcSpec.DataType.DOUBLE, OrcSpec.DataType.BOOLEAN,
+    OrcSpec.DataType.DATE };
+
+  private Path directory;
+  private RowMetaAndData[] rows;
+  private List<OrcOutputField> outputFields;
+  private PentahoOrcInputFormat inputFormat;
+
+  @Setup( Level.Trial )
+  public void setup() throws Exception {
+    BenchmarkData.initKettle();
+    rows = BenchmarkData.rows( BenchmarkData.ROWS );
+    outputFields = new ArrayList<>();
+    for ( int i = 0; i < BenchmarkData.FIELDS.length; i++ ) {
+      OrcOutputField field = new OrcOutputField();
+      field.setFormatFieldName( BenchmarkData.FIELDS[ i ] );
+      field.setPentahoFieldName( BenchmarkData.FIELDS[ i ] );
+      field.setFormatType( ORC_TYPES[ i ] );
+      field.setPentahoType( BenchmarkData.TYPES[ i ] );
+      field.setAllowNull( true );
+      outputFields.add( field );
+    }
+
+    directory = BenchmarkData.createTempDirectory( "orc-benchmark" );
+    String file = directory.resolve( "benchmark.orc" ).toString();
+    write( file );
+
+    inputFormat = new PentahoOrcInputFormat( null );
+    inputFormat.setInputFile( file );
+    List<IOrcInputField> inputFields = inputFormat.readSchema();
+    inputFormat.setSchema( inputFields );
+  }
+
+  @TearDown( Level.Trial )
+  public void tearDown() throws Exception {
+    BenchmarkData.delete( directory );
+  }
+
+  private void write( String file ) throws Exception {
+    PentahoOrcOutputFormat outputFormat = new PentahoOrcOutputFormat();
+    outputFormat.setOutputFile( file, true );
+    outputFormat.setFields( outputFields );
+    try ( IPentahoRecordWriter writer = outputFormat.createRecordWriter() ) {
+      for ( RowMetaAndData row : rows ) {
+        writer.write( row );
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public long readRows( Blackhole blackhole ) throws Exception {
+    long count = 0;
+    try ( IPentahoRecordReader reader = inputFormat.createRecordReader( null ) ) {
+      for ( RowMetaAndData row : reader ) {
+        blackhole.consume( row.getData() );
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public long readBatches( Blackhole blackhole ) throws Exception {
+    long count = 0;
+    try ( IPentahoBatchRecordReader reader = (IPentahoBatchRecordReader) inputFormat.createRecordReader( null ) ) {
+      for ( RecordBatch batch = reader.nextBatch(); batch != null; batch = reader.nextBatch() ) {
+        blackhole.consume( batch );
+        count += batch.getSize();
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public void writeRows() throws Exception {
+    write( directory.resolve( "written.orc" ).toString() );
+  }
+}
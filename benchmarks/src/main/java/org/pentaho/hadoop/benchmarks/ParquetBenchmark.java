@@ -0,0 +1,204 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.hadoop.benchmarks;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.IParquetInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoBatchRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+import org.pentaho.hadoop.shim.common.format.parquet.ParquetOutputField;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoApacheInputFormat;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoApacheOutputFormat;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetWriteSupport;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parquet read path ({@code ParquetConverter}) row by row and in batches, and the write path
+ * ({@link PentahoParquetWriteSupport}) into a record consumer which only consumes the values. Scores are rows per
+ * second.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@State( Scope.Benchmark )
+@Fork( 1 )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+public class ParquetBenchmark {
+  private static final ParquetSpec.DataType[] PARQUET_TYPES = {
+    ParquetSpec.DataType.UTF8, ParquetSpec.DataType.INT_64, ParquetSpec.DataType.DOUBLE, ParquetSpec.DataType.BOOLEAN,
+    ParquetSpec.DataType.DATE };
+
+  private Path directory;
+  private RowMetaAndData[] rows;
+  private PentahoApacheInputFormat inputFormat;
+  private List<IPentahoInputSplit> splits;
+  private PentahoParquetWriteSupport writeSupport;
+
+  @Setup( Level.Trial )
+  public void setup() throws Exception {
+    BenchmarkData.initKettle();
+    rows = BenchmarkData.rows( BenchmarkData.ROWS );
+    List<ParquetOutputField> outputFields = new ArrayList<>();
+    for ( int i = 0; i < BenchmarkData.FIELDS.length; i++ ) {
+      ParquetOutputField field = new ParquetOutputField();
+      field.setFormatFieldName( BenchmarkData.FIELDS[ i ] );
+      field.setPentahoFieldName( BenchmarkData.FIELDS[ i ] );
+      field.setFormatType( PARQUET_TYPES[ i ] );
+      field.setPentahoType( BenchmarkData.TYPES[ i ] );
+      field.setAllowNull( true );
+      outputFields.add( field );
+    }
+    writeSupport = new PentahoParquetWriteSupport( outputFields );
+
+    directory = BenchmarkData.createTempDirectory( "parquet-benchmark" );
+    String file = directory.resolve( "benchmark.parquet" ).toString();
+    PentahoApacheOutputFormat outputFormat = new PentahoApacheOutputFormat();
+    outputFormat.setOutputFile( file, true );
+    outputFormat.setFields( outputFields );
+    IPentahoRecordWriter writer = outputFormat.createRecordWriter();
+    for ( RowMetaAndData row : rows ) {
+      writer.write( row );
+    }
+    writer.close();
+
+    inputFormat = new PentahoApacheInputFormat( null );
+    inputFormat.setInputFile( file );
+    List<IParquetInputField> inputFields = inputFormat.readSchema( file );
+    inputFormat.setSchema( inputFields );
+    splits = inputFormat.getSplits();
+  }
+
+  @TearDown( Level.Trial )
+  public void tearDown() throws Exception {
+    BenchmarkData.delete( directory );
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public long readRows( Blackhole blackhole ) throws Exception {
+    long count = 0;
+    for ( IPentahoInputSplit split : splits ) {
+      try ( IPentahoRecordReader reader = inputFormat.createRecordReader( split ) ) {
+        for ( RowMetaAndData row : reader ) {
+          blackhole.consume( row.getData() );
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public long readBatches( Blackhole blackhole ) throws Exception {
+    long count = 0;
+    for ( IPentahoInputSplit split : splits ) {
+      try ( IPentahoBatchRecordReader reader = (IPentahoBatchRecordReader) inputFormat.createRecordReader( split ) ) {
+        for ( RecordBatch batch = reader.nextBatch(); batch != null; batch = reader.nextBatch() ) {
+          blackhole.consume( batch );
+          count += batch.getSize();
+        }
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public void writeRows( Blackhole blackhole ) {
+    RecordConsumer consumer = new BlackholeRecordConsumer( blackhole );
+    for ( RowMetaAndData row : rows ) {
+      writeSupport.writeRow( row, consumer );
+    }
+  }
+
+  /**
+   * Consumes written values, so the benchmark measures the conversion and not the Parquet encoders.
+   */
+  private static final class BlackholeRecordConsumer extends RecordConsumer {
+    private final Blackhole blackhole;
+
+    private BlackholeRecordConsumer( Blackhole blackhole ) {
+      this.blackhole = blackhole;
+    }
+
+    @Override public void startMessage() {
+    }
+
+    @Override public void endMessage() {
+    }
+
+    @Override public void startField( String field, int index ) {
+      blackhole.consume( index );
+    }
+
+    @Override public void endField( String field, int index ) {
+    }
+
+    @Override public void startGroup() {
+    }
+
+    @Override public void endGroup() {
+    }
+
+    @Override public void addInteger( int value ) {
+      blackhole.consume( value );
+    }
+
+    @Override public void addLong( long value ) {
+      blackhole.consume( value );
+    }
+
+    @Override public void addBoolean( boolean value ) {
+      blackhole.consume( value );
+    }
+
+    @Override public void addBinary( Binary value ) {
+      blackhole.consume( value );
+    }
+
+    @Override public void addFloat( float value ) {
+      blackhole.consume( value );
+    }
+
+    @Override public void addDouble( double value ) {
+      blackhole.consume( value );
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.hadoop.benchmarks;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.mapreduce.converter.CachedTypeConverter;
+import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
+import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of Kettle row values into Hadoop writables as done for every mapper and reducer output row, once with a
+ * converter lookup per value and once through {@link CachedTypeConverter}. Scores are values per second.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@State( Scope.Benchmark )
+@Fork( 1 )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+public class TypeConverterBenchmark {
+  private TypeConverterFactory factory;
+  private ValueMetaInterface stringMeta;
+  private ValueMetaInterface integerMeta;
+  private Object[] strings;
+  private Object[] integers;
+  private CachedTypeConverter<Text> cachedText;
+  private CachedTypeConverter<LongWritable> cachedLong;
+
+  @Setup( Level.Trial )
+  public void setup() throws Exception {
+    BenchmarkData.initKettle();
+    factory = new TypeConverterFactory();
+    RowMetaAndData[] rows = BenchmarkData.rows( BenchmarkData.ROWS );
+    stringMeta = rows[ 0 ].getRowMeta().getValueMeta( 0 );
+    integerMeta = rows[ 0 ].getRowMeta().getValueMeta( 1 );
+    strings = new Object[ rows.length ];
+    integers = new Object[ rows.length ];
+    for ( int i = 0; i < rows.length; i++ ) {
+      strings[ i ] = rows[ i ].getData()[ 0 ];
+      integers[ i ] = rows[ i ].getData()[ 1 ];
+    }
+    cachedText = new CachedTypeConverter<>( factory, Text.class );
+    cachedLong = new CachedTypeConverter<>( factory, LongWritable.class );
+  }
+
+  @SuppressWarnings( { "unchecked", "rawtypes" } )
+  private Object lookupAndConvert( ValueMetaInterface meta, Object value, Class<?> to ) throws Exception {
+    ITypeConverter converter = factory.getConverter( value.getClass(), to );
+    return converter.convert( meta, value );
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public void stringToTextLookup( Blackhole blackhole ) throws Exception {
+    for ( Object value : strings ) {
+      blackhole.consume( lookupAndConvert( stringMeta, value, Text.class ) );
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public void stringToTextCached( Blackhole blackhole ) throws Exception {
+    for ( Object value : strings ) {
+      blackhole.consume( cachedText.convert( stringMeta, value ) );
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public void integerToLongWritableLookup( Blackhole blackhole ) throws Exception {
+    for ( Object value : integers ) {
+      blackhole.consume( lookupAndConvert( integerMeta, value, LongWritable.class ) );
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation( BenchmarkData.ROWS )
+  public void integerToLongWritableCached( Blackhole blackhole ) throws Exception {
+    for ( Object value : integers ) {
+      blackhole.consume( cachedLong.convert( integerMeta, value ) );
+    }
+  }
+}
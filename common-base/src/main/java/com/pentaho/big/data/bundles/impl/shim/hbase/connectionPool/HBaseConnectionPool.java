@@ -23,17 +23,53 @@ import org.pentaho.hbase.shim.common.CommonHBaseConnection;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Created by bryan on 1/25/16.
+ * <p>
+ * Idle connections are kept in lock-free LIFO indexes by source table, by target table and properties, and for
+ * connections without any table, so a checkout finds the preferred connection without scanning the pool. The number
+ * of connections in use is bounded by {@link #MAX_SIZE}, idle connections are closed after {@link #IDLE_TIMEOUT_MS}
+ * and a connection idle for longer than {@link #VALIDATION_INTERVAL_MS} is checked before it is handed out.
  */
 public class HBaseConnectionPool implements Closeable {
-  private final Set<HBaseConnectionPoolConnection> availableConnections;
-  private final Set<HBaseConnectionPoolConnection> inUseConnections;
+  public static final String MAX_SIZE = "pentaho.hbase.pool.max.size";
+  public static final String MAX_WAIT_MS = "pentaho.hbase.pool.max.wait.ms";
+  public static final String IDLE_TIMEOUT_MS = "pentaho.hbase.pool.idle.timeout.ms";
+  public static final String VALIDATION_INTERVAL_MS = "pentaho.hbase.pool.validation.interval.ms";
+  static final int DEFAULT_MAX_SIZE = 1024;
+  static final long DEFAULT_MAX_WAIT_MS = 60000L;
+  static final long DEFAULT_IDLE_TIMEOUT_MS = 300000L;
+  static final long DEFAULT_VALIDATION_INTERVAL_MS = 30000L;
+  // stale index entries are purged at least every that many releases
+  private static final long PURGE_RELEASES = 1024L;
+  // index key for connections without source or target table
+  private static final Object NONE = new Object();
+
+  private final Set<HBaseConnectionPoolConnection> connections = ConcurrentHashMap.newKeySet();
+  private final Deque<Node> all = new ConcurrentLinkedDeque<>();
+  private final Deque<Node> clean = new ConcurrentLinkedDeque<>();
+  private final Map<Object, Deque<Node>> sourceIndex = new ConcurrentHashMap<>();
+  private final Map<Object, Deque<Node>> targetIndex = new ConcurrentHashMap<>();
+  private final Semaphore permits;
+  private final AtomicLong lastPurge = new AtomicLong( System.currentTimeMillis() );
+  private final AtomicLong releases = new AtomicLong();
+  private final int maxSize;
+  private final long maxWaitMs;
+  private final long idleTimeoutMs;
+  private final long validationIntervalMs;
+  private volatile boolean closed;
   private final HBaseShim hBaseShim;
   protected final Properties connectionProps;
   protected final LogChannelInterface logChannelInterface;
@@ -44,82 +80,24 @@ public class HBaseConnectionPool implements Closeable {
     this.hBaseShim = hBaseShim;
     this.connectionProps = connectionProps;
     this.logChannelInterface = logChannelInterface;
-    availableConnections = new HashSet<>();
-    inUseConnections = new HashSet<>();
     this.namedCluster = namedCluster;
+    maxSize = (int) Math.min( Integer.MAX_VALUE, getSetting( MAX_SIZE, DEFAULT_MAX_SIZE ) );
+    maxWaitMs = getSetting( MAX_WAIT_MS, DEFAULT_MAX_WAIT_MS );
+    idleTimeoutMs = getSetting( IDLE_TIMEOUT_MS, DEFAULT_IDLE_TIMEOUT_MS );
+    validationIntervalMs = getSetting( VALIDATION_INTERVAL_MS, DEFAULT_VALIDATION_INTERVAL_MS );
+    permits = new Semaphore( maxSize );
   }
 
-  private HBaseConnectionPoolConnection findBestMatch( String sourceTable ) {
-    HBaseConnectionPoolConnection match = null;
-    for ( HBaseConnectionPoolConnection availableConnection : availableConnections ) {
-      String availableConnectionSourceTable = availableConnection.getSourceTable();
-      if ( sourceTable == null ) {
-        if ( availableConnectionSourceTable == null ) {
-          return availableConnection;
-        }
-      } else {
-        if ( availableConnectionSourceTable == null ) {
-          match = availableConnection;
-        } else if ( sourceTable.equals( availableConnectionSourceTable ) ) {
-          return availableConnection;
-        }
-      }
-    }
-    if ( match == null && availableConnections.size() > 0 ) {
-      return availableConnections.iterator().next();
-    } else {
-      return match;
-    }
-  }
-
-  private HBaseConnectionPoolConnection findBestMatch( String targetTable, Properties targetTableProps ) {
-    HBaseConnectionPoolConnection match = null;
-    for ( HBaseConnectionPoolConnection availableConnection : availableConnections ) {
-      String availableConnectionTargetTable = availableConnection.getTargetTable();
-      if ( targetTable == null ) {
-        if ( availableConnectionTargetTable == null ) {
-          return availableConnection;
-        }
-      } else {
-        if ( availableConnectionTargetTable == null ) {
-          match = availableConnection;
-        } else if ( targetTable.equals( availableConnectionTargetTable ) ) {
-          Properties availableConnectionTargetTableProperties = availableConnection.getTargetTableProperties();
-          if ( targetTableProps == null ) {
-            if ( availableConnectionTargetTableProperties == null ) {
-              return availableConnection;
-            }
-          } else if ( targetTableProps.equals( availableConnectionTargetTableProperties ) ) {
-            return availableConnection;
-          }
-        }
-      }
+  private long getSetting( String name, long defaultValue ) {
+    String value = connectionProps == null ? null : connectionProps.getProperty( name );
+    if ( value == null || value.trim().isEmpty() ) {
+      return defaultValue;
     }
-    if ( match == null && availableConnections.size() > 0 ) {
-      return availableConnections.iterator().next();
-    } else {
-      return match;
-    }
-  }
-
-  private HBaseConnectionPoolConnection findBestMatch() {
-    HBaseConnectionPoolConnection match = null;
-    for ( HBaseConnectionPoolConnection availableConnection : availableConnections ) {
-      String sourceTable = availableConnection.getSourceTable();
-      String targetTable = availableConnection.getTargetTable();
-      if ( targetTable == null ) {
-        if ( sourceTable == null ) {
-          return availableConnection;
-        }
-        match = availableConnection;
-      } else if ( sourceTable == null && match == null ) {
-        match = availableConnection;
-      }
-    }
-    if ( match == null && availableConnections.size() > 0 ) {
-      return availableConnections.iterator().next();
-    } else {
-      return match;
+    try {
+      long result = Long.parseLong( value.trim() );
+      return result > 0 ? result : defaultValue;
+    } catch ( NumberFormatException e ) {
+      throw new IllegalArgumentException( "Invalid value " + value + " of " + name, e );
     }
   }
 
@@ -150,21 +128,17 @@ public class HBaseConnectionPool implements Closeable {
    * @return
    * @throws IOException
    */
-  public synchronized HBaseConnectionHandle getConnectionHandle( String sourceTable ) throws IOException {
-    HBaseConnectionPoolConnection result = findBestMatch( sourceTable );
-    if ( result != null ) {
-      availableConnections.remove( result );
-    } else {
-      result = create();
-    }
+  public HBaseConnectionHandle getConnectionHandle( String sourceTable ) throws IOException {
+    HBaseConnectionPoolConnection result = checkout( sourceIndex.get( sourceTable == null ? NONE : sourceTable ),
+      sourceTable == null ? null : sourceIndex.get( NONE ), all );
     if ( sourceTable != null && !sourceTable.equals( result.getSourceTable() ) ) {
       try {
         result.newSourceTableInternal( sourceTable );
       } catch ( Exception e ) {
+        discard( result );
         throw new IOException( e );
       }
     }
-    inUseConnections.add( result );
     return new HBaseConnectionHandleImpl( this, result );
   }
 
@@ -179,30 +153,21 @@ public class HBaseConnectionPool implements Closeable {
    * @return
    * @throws IOException
    */
-  public synchronized HBaseConnectionHandle getConnectionHandle( String targetTable, Properties targetTableProps )
+  public HBaseConnectionHandle getConnectionHandle( String targetTable, Properties targetTableProps )
     throws IOException {
-    HBaseConnectionPoolConnection result = findBestMatch( targetTable, targetTableProps );
-    if ( result != null ) {
-      availableConnections.remove( result );
-    } else {
-      result = create();
-    }
+    Object key = targetTable == null ? NONE : new TargetKey( targetTable, targetTableProps );
+    HBaseConnectionPoolConnection result = checkout( targetIndex.get( key ),
+      targetTable == null ? null : targetIndex.get( NONE ), all );
     boolean targetTableDifferent = targetTable != null && !targetTable.equals( result.getTargetTable() );
-    boolean propsDifferent = false;
-    Properties resultTargetTableProperties = result.getTargetTableProperties();
-    if ( targetTableProps == null ) {
-      propsDifferent = resultTargetTableProperties != null;
-    } else {
-      propsDifferent = targetTableProps.equals( resultTargetTableProperties );
-    }
+    boolean propsDifferent = !Objects.equals( targetTableProps, result.getTargetTableProperties() );
     if ( targetTableDifferent || propsDifferent ) {
       try {
         result.newTargetTableInternal( targetTable, targetTableProps );
       } catch ( Exception e ) {
+        discard( result );
         throw new IOException( e );
       }
     }
-    inUseConnections.add( result );
     return new HBaseConnectionHandleImpl( this, result );
   }
 
@@ -214,38 +179,217 @@ public class HBaseConnectionPool implements Closeable {
    * @return
    * @throws IOException
    */
-  public synchronized HBaseConnectionHandle getConnectionHandle() throws IOException {
-    HBaseConnectionPoolConnection result = findBestMatch();
-    if ( result != null ) {
-      availableConnections.remove( result );
-    } else {
-      result = create();
+  public HBaseConnectionHandle getConnectionHandle() throws IOException {
+    return new HBaseConnectionHandleImpl( this,
+      checkout( clean, targetIndex.get( NONE ), sourceIndex.get( NONE ), all ) );
+  }
+
+  /**
+   * Takes the first usable idle connection from the indexes in order of preference, or creates a new one.
+   */
+  @SafeVarargs
+  private final HBaseConnectionPoolConnection checkout( Deque<Node>... preferences ) throws IOException {
+    if ( closed ) {
+      throw new IOException( "Connection pool is closed" );
+    }
+    acquirePermit();
+    try {
+      for ( Deque<Node> preference : preferences ) {
+        HBaseConnectionPoolConnection connection;
+        while ( preference != null && ( connection = poll( preference ) ) != null ) {
+          if ( isUsable( connection ) ) {
+            return connection;
+          }
+        }
+      }
+      HBaseConnectionPoolConnection connection = create();
+      connections.add( connection );
+      if ( closed ) {
+        discard( connection );
+        throw new IOException( "Connection pool is closed" );
+      }
+      return connection;
+    } catch ( IOException | RuntimeException e ) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void acquirePermit() throws IOException {
+    try {
+      if ( !permits.tryAcquire( maxWaitMs, TimeUnit.MILLISECONDS ) ) {
+        throw new IOException( "No HBase connection available within " + maxWaitMs + " ms, all " + maxSize
+          + " connections are in use" );
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IOException( e );
     }
-    inUseConnections.add( result );
-    return new HBaseConnectionHandleImpl( this, result );
   }
 
-  protected synchronized void releaseConnection( HBaseConnectionPoolConnection hBaseConnection ) {
-    inUseConnections.remove( hBaseConnection );
-    availableConnections.add( hBaseConnection );
+  private static HBaseConnectionPoolConnection poll( Deque<Node> deque ) {
+    Node node;
+    while ( ( node = deque.pollFirst() ) != null ) {
+      if ( node.isCurrent() && node.connection.claim() ) {
+        return node.connection;
+      }
+    }
+    return null;
   }
 
-  @Override public synchronized void close() throws IOException {
-    for ( HBaseConnectionPoolConnection inUseConnection : inUseConnections ) {
+  /**
+   * Closes the claimed connection if it was idle for too long or fails validation.
+   */
+  private boolean isUsable( HBaseConnectionPoolConnection connection ) {
+    long idle = System.currentTimeMillis() - connection.getIdleSince();
+    if ( idle > idleTimeoutMs ) {
+      closeConnection( connection );
+      return false;
+    }
+    if ( idle > validationIntervalMs ) {
       try {
-        inUseConnection.closeInternal();
+        connection.checkHBaseAvailable();
       } catch ( Exception e ) {
-        logChannelInterface.logError( e.getMessage(), e );
+        if ( logChannelInterface != null ) {
+          logChannelInterface.logDebug( "Discarding HBase connection which failed validation: " + e.getMessage() );
+        }
+        closeConnection( connection );
+        return false;
       }
     }
-    for ( HBaseConnectionPoolConnection availableConnection : availableConnections ) {
+    return true;
+  }
+
+  /**
+   * Closes a connection which is checked out and gives back its permit.
+   */
+  private void discard( HBaseConnectionPoolConnection connection ) {
+    closeConnection( connection );
+    permits.release();
+  }
+
+  private void closeConnection( HBaseConnectionPoolConnection connection ) {
+    connections.remove( connection );
+    if ( connection.markClosed() ) {
       try {
-        availableConnection.closeInternal();
+        connection.closeInternal();
       } catch ( Exception e ) {
-        logChannelInterface.logError( e.getMessage(), e );
+        if ( logChannelInterface != null ) {
+          logChannelInterface.logError( e.getMessage(), e );
+        }
       }
     }
-    inUseConnections.clear();
-    availableConnections.clear();
+  }
+
+  protected void releaseConnection( HBaseConnectionPoolConnection hBaseConnection ) {
+    if ( hBaseConnection == null ) {
+      return;
+    }
+    if ( closed ) {
+      closeConnection( hBaseConnection );
+    } else {
+      Node node = new Node( hBaseConnection, hBaseConnection.markIdle( System.currentTimeMillis() ) );
+      String sourceTable = hBaseConnection.getSourceTable();
+      String targetTable = hBaseConnection.getTargetTable();
+      if ( sourceTable == null && targetTable == null ) {
+        clean.offerFirst( node );
+      }
+      index( sourceIndex, sourceTable == null ? NONE : sourceTable, node );
+      index( targetIndex,
+        targetTable == null ? NONE : new TargetKey( targetTable, hBaseConnection.getTargetTableProperties() ), node );
+      all.offerFirst( node );
+      // the pool may have been closed meanwhile, and its close() missed the connection
+      if ( closed ) {
+        closeConnection( hBaseConnection );
+      }
+    }
+    permits.release();
+    purgeIfDue();
+  }
+
+  private static void index( Map<Object, Deque<Node>> index, Object key, Node node ) {
+    index.computeIfAbsent( key, k -> new ConcurrentLinkedDeque<>() ).offerFirst( node );
+  }
+
+  /**
+   * Closes connections idle for longer than the idle timeout and drops index entries of connections which were
+   * checked out from another index.
+   */
+  private void purgeIfDue() {
+    long now = System.currentTimeMillis();
+    long last = lastPurge.get();
+    boolean due = now - last > idleTimeoutMs / 2 || releases.incrementAndGet() % PURGE_RELEASES == 0;
+    if ( !due || !lastPurge.compareAndSet( last, now ) ) {
+      return;
+    }
+    for ( HBaseConnectionPoolConnection connection : connections ) {
+      if ( connection.isIdle() && now - connection.getIdleSince() > idleTimeoutMs && connection.claimForEviction() ) {
+        connections.remove( connection );
+        try {
+          connection.closeInternal();
+        } catch ( Exception e ) {
+          if ( logChannelInterface != null ) {
+            logChannelInterface.logError( e.getMessage(), e );
+          }
+        }
+      }
+    }
+    all.removeIf( node -> !node.isCurrent() );
+    clean.removeIf( node -> !node.isCurrent() );
+    sourceIndex.values().forEach( deque -> deque.removeIf( node -> !node.isCurrent() ) );
+    targetIndex.values().forEach( deque -> deque.removeIf( node -> !node.isCurrent() ) );
+  }
+
+  @Override public void close() throws IOException {
+    closed = true;
+    for ( HBaseConnectionPoolConnection connection : connections ) {
+      closeConnection( connection );
+    }
+    all.clear();
+    clean.clear();
+    sourceIndex.clear();
+    targetIndex.clear();
+  }
+
+  /**
+   * Idle connection in an index, valid as long as the connection was not checked out since.
+   */
+  private static final class Node {
+    private final HBaseConnectionPoolConnection connection;
+    private final long stamp;
+
+    private Node( HBaseConnectionPoolConnection connection, long stamp ) {
+      this.connection = connection;
+      this.stamp = stamp;
+    }
+
+    private boolean isCurrent() {
+      return connection.isIdleSince( stamp );
+    }
+  }
+
+  private static final class TargetKey {
+    private final String table;
+    private final Properties properties;
+
+    private TargetKey( String table, Properties properties ) {
+      this.table = table;
+      this.properties = properties;
+    }
+
+    @Override public boolean equals( Object o ) {
+      if ( this == o ) {
+        return true;
+      }
+      if ( o == null || getClass() != o.getClass() ) {
+        return false;
+      }
+      TargetKey that = (TargetKey) o;
+      return table.equals( that.table ) && Objects.equals( properties, that.properties );
+    }
+
+    @Override public int hashCode() {
+      return table.hashCode();
+    }
   }
 }
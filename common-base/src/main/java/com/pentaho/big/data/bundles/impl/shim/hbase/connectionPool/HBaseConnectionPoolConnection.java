@@ -18,6 +18,7 @@ import com.pentaho.big.data.bundles.impl.shim.hbase.HBaseConnectionWrapper;
 import org.pentaho.hadoop.shim.spi.HBaseConnection;
 
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by bryan on 1/26/16.
@@ -27,6 +28,14 @@ public class HBaseConnectionPoolConnection extends HBaseConnectionWrapper {
   private String targetTable;
   private Properties targetTableProperties;
 
+  // pool bookkeeping, a connection is handed out by moving it from IDLE to IN_USE
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int CLOSED = 2;
+  private final AtomicInteger state = new AtomicInteger( IN_USE );
+  private volatile long releaseCount;
+  private volatile long idleSince;
+
   public HBaseConnectionPoolConnection( HBaseConnection delegate ) {
     super( delegate );
   }
@@ -63,6 +72,56 @@ public class HBaseConnectionPoolConnection extends HBaseConnectionWrapper {
     return sourceTable;
   }
 
+  /**
+   * Marks the connection as returned to the pool. Only the holder of the connection calls this.
+   *
+   * @return stamp of this release, see {@link #isIdleSince(long)}
+   */
+  long markIdle( long now ) {
+    idleSince = now;
+    long stamp = releaseCount + 1;
+    releaseCount = stamp;
+    // stays closed if the pool closed it meanwhile
+    state.compareAndSet( IN_USE, IDLE );
+    return stamp;
+  }
+
+  /**
+   * @return true if the connection is still idle since the release with the given stamp
+   */
+  boolean isIdleSince( long stamp ) {
+    return state.get() == IDLE && releaseCount == stamp;
+  }
+
+  boolean isIdle() {
+    return state.get() == IDLE;
+  }
+
+  long getIdleSince() {
+    return idleSince;
+  }
+
+  /**
+   * @return true if the connection was idle and now belongs to the caller
+   */
+  boolean claim() {
+    return state.compareAndSet( IDLE, IN_USE );
+  }
+
+  /**
+   * @return true if the connection was idle and is now closed for the pool
+   */
+  boolean claimForEviction() {
+    return state.compareAndSet( IDLE, CLOSED );
+  }
+
+  /**
+   * @return false if the connection was already closed for the pool
+   */
+  boolean markClosed() {
+    return state.getAndSet( CLOSED ) != CLOSED;
+  }
+
   protected void closeInternal() throws Exception {
     closeSourceTableInternal();
     closeTargetTableInternal();
@@ -0,0 +1,103 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.big.data.impl.shim.mapreduce;
+
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.hadoop.shim.api.internal.fs.FileSystem;
+import org.pentaho.hadoop.shim.api.internal.fs.Path;
+import org.pentaho.hadoop.shim.api.mapreduce.MapReduceJobAdvanced;
+import org.pentaho.hadoop.shim.api.mapreduce.MapReduceService;
+import org.pentaho.hadoop.shim.api.mapreduce.TaskCompletionEvent;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deletes a path staged for a single job once the job is seen complete or is killed.
+ */
+class CleanupMapReduceJobAdvancedImpl implements MapReduceJobAdvanced {
+  private final MapReduceJobAdvanced delegate;
+  private final FileSystem fs;
+  private final Path stagedPath;
+  private final LogChannelInterface log;
+  private final AtomicBoolean cleanedUp = new AtomicBoolean();
+
+  CleanupMapReduceJobAdvancedImpl( MapReduceJobAdvanced delegate, FileSystem fs, Path stagedPath,
+                                   LogChannelInterface log ) {
+    this.delegate = delegate;
+    this.fs = fs;
+    this.stagedPath = stagedPath;
+    this.log = log;
+  }
+
+  @Override public void killJob() throws IOException {
+    delegate.killJob();
+    cleanUp();
+  }
+
+  @Override public boolean waitOnCompletion( long timeout, TimeUnit timeUnit, MapReduceService.Stoppable stoppable )
+    throws IOException, InterruptedException {
+    return cleanUpIfComplete( delegate.waitOnCompletion( timeout, timeUnit, stoppable ) );
+  }
+
+  @Override public double getSetupProgress() throws IOException {
+    return delegate.getSetupProgress();
+  }
+
+  @Override public double getMapProgress() throws IOException {
+    return delegate.getMapProgress();
+  }
+
+  @Override public double getReduceProgress() throws IOException {
+    return delegate.getReduceProgress();
+  }
+
+  @Override public boolean isSuccessful() throws IOException {
+    return delegate.isSuccessful();
+  }
+
+  @Override public boolean isComplete() throws IOException {
+    return cleanUpIfComplete( delegate.isComplete() );
+  }
+
+  @Override public TaskCompletionEvent[] getTaskCompletionEvents( int startIndex ) throws IOException {
+    return delegate.getTaskCompletionEvents( startIndex );
+  }
+
+  @Override public String[] getTaskDiagnostics( Object taskAttemptId ) throws IOException {
+    return delegate.getTaskDiagnostics( taskAttemptId );
+  }
+
+  private boolean cleanUpIfComplete( boolean complete ) {
+    if ( complete ) {
+      cleanUp();
+    }
+    return complete;
+  }
+
+  /**
+   * Deletes the staged path once. Failures are logged, they don't change the state of the job.
+   */
+  private void cleanUp() {
+    if ( !cleanedUp.compareAndSet( false, true ) ) {
+      return;
+    }
+    try {
+      fs.delete( stagedPath, true );
+    } catch ( IOException e ) {
+      log.logError( "Unable to delete " + stagedPath.toUri().getPath(), e );
+    }
+  }
+}
@@ -61,6 +61,7 @@ import org.pentaho.hadoop.shim.api.internal.fs.FileSystem;
 import org.pentaho.hadoop.shim.api.internal.fs.Path;
 import org.pentaho.hadoop.shim.api.mapreduce.MapReduceJobAdvanced;
 import org.pentaho.hadoop.shim.api.mapreduce.PentahoMapReduceJobBuilder;
+import org.pentaho.hadoop.shim.api.mapreduce.PentahoMapReduceTransport;
 import org.pentaho.hadoop.shim.common.DistributedCacheUtilImpl;
 import org.pentaho.hadoop.shim.spi.HadoopShim;
 import org.pentaho.metastore.api.IMetaStore;
@@ -78,10 +79,13 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
 
 /**
  * Created by bryan on 1/8/16.
@@ -98,6 +102,7 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
   public static final String PENTAHO_MAPREDUCE_PROPERTY_KETTLE_INSTALLATION_ID = "pmr.kettle.installation.id";
   public static final String PENTAHO_MAPREDUCE_PROPERTY_ADDITIONAL_PLUGINS = "pmr.kettle.additional.plugins";
   public static final String PENTAHO_MAPREDUCE_PROPERTY_EXCLUDE_FILES = "pmr.kettle.exclude.plugin.files";
+  public static final String PENTAHO_MAPREDUCE_PROPERTY_COMPACT_TRANSPORT = "pmr.compact.transport";
   public static final String PENTAHO_MAP_REDUCE_JOB_BUILDER_IMPL_INPUT_STEP_NOT_SPECIFIED =
     "PentahoMapReduceJobBuilderImpl.InputStepNotSpecified";
   public static final String PENTAHO_MAP_REDUCE_JOB_BUILDER_IMPL_INPUT_STEP_NOT_FOUND =
@@ -155,6 +160,7 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
   @VisibleForTesting
   static final String PROTOBUF_GENCODE_FLAG = "-Dcom.google.protobuf.use_unsafe_pre22_gencode=true";
   public static final String VARIABLE_SPACE = "variableSpace";
+  private static final String TRANSPORT_FOLDER_NAME = "pmr-transport";
   private final HadoopShim hadoopShim;
   private final LogChannelInterface log;
   private final FileObject vfsPluginDirectory;
@@ -494,6 +500,7 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
     cleanOutputPath( conf );
 
     FileSystem fs = hadoopShim.getFileSystem( conf );
+    Path transportDir = null;
 
     if ( Boolean.parseBoolean( getProperty( conf, pmrProperties, PENTAHO_MAPREDUCE_PROPERTY_USE_DISTRIBUTED_CACHE,
       Boolean.toString( true ) ) ) ) {
@@ -546,6 +553,11 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
 
         stageMetaStoreForHadoop( conf, fs, installPath );
 
+        if ( Boolean.parseBoolean( getProperty( conf, pmrProperties, PENTAHO_MAPREDUCE_PROPERTY_COMPACT_TRANSPORT,
+          Boolean.toString( true ) ) ) ) {
+          transportDir = stageJobTransport( conf, fs, installPath );
+        }
+
         log.logBasic( BaseMessages.getString( PKG, JOB_ENTRY_HADOOP_TRANS_JOB_EXECUTOR_CONFIGURING_JOB_WITH_KETTLE_AT,
           kettleEnvInstallDir.toUri().getPath() ) );
 
@@ -556,13 +568,33 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
         hadoopShim.getDistributedCacheUtil().configureWithKettleEnvironment( conf, fs, kettleEnvInstallDir );
         log.logBasic( MAPREDUCE_APPLICATION_CLASSPATH + ": " + conf.get( MAPREDUCE_APPLICATION_CLASSPATH ) );
       } catch ( Exception ex ) {
+        deleteTransport( fs, transportDir );
         throw new IOException(
           BaseMessages.getString( PKG, JOB_ENTRY_HADOOP_TRANS_JOB_EXECUTOR_INSTALLATION_OF_KETTLE_FAILED ), ex );
       }
     }
-    JobConf jobConf = conf.getAsDelegateConf( JobConf.class );
-    jobConf.getCredentials().addAll( UserGroupInformation.getCurrentUser().getCredentials() );
-    return super.submit( conf, shimIdentifier );
+    MapReduceJobAdvanced job;
+    try {
+      JobConf jobConf = conf.getAsDelegateConf( JobConf.class );
+      jobConf.getCredentials().addAll( UserGroupInformation.getCurrentUser().getCredentials() );
+      job = super.submit( conf, shimIdentifier );
+    } catch ( IOException | RuntimeException e ) {
+      deleteTransport( fs, transportDir );
+      throw e;
+    }
+    // the transport file holds the variables of the job, so it is only kept while the job runs
+    return transportDir == null ? job : new CleanupMapReduceJobAdvancedImpl( job, fs, transportDir, log );
+  }
+
+  private void deleteTransport( FileSystem fs, Path transportDir ) {
+    if ( transportDir == null ) {
+      return;
+    }
+    try {
+      fs.delete( transportDir, true );
+    } catch ( IOException e ) {
+      log.logError( "Unable to delete " + transportDir.toUri().getPath(), e );
+    }
   }
 
   protected void stageMetaStoreForHadoop( Configuration conf, FileSystem fs, String installPath )
@@ -598,6 +630,59 @@ public class PentahoMapReduceJobBuilderImpl extends MapReduceJobBuilderImpl impl
     hadoopShim.getDistributedCacheUtil().addCachedFiles( conf, fs, hdfsMetaStoreDirForCurrentJobPath, null );
   }
 
+  /**
+   * Moves the transformations and variables of the job out of the job configuration into a compressed file in the
+   * distributed cache. The file is private to the submitting user and staged in a directory of its own, which
+   * {@link #submit(Configuration, String)} deletes once the job is complete.
+   *
+   * @return the directory of the staged file, or null when the job has no transformations
+   */
+  protected Path stageJobTransport( Configuration conf, FileSystem fs, String installPath ) throws Exception {
+    Map<String, String> properties = new LinkedHashMap<>();
+    for ( String name : new String[] { TRANSFORMATION_MAP_XML, TRANSFORMATION_COMBINER_XML,
+      TRANSFORMATION_REDUCE_XML } ) {
+      String value = conf.get( name );
+      if ( value != null ) {
+        properties.put( name, value );
+      }
+    }
+    if ( properties.isEmpty() ) {
+      return null;
+    }
+    VariableSpace variableSpace = removeLogging( getVariableSpace() );
+    Map<String, String> variables = new TreeMap<>();
+    for ( String name : variableSpace.listVariables() ) {
+      variables.put( name, variableSpace.getVariable( name ) );
+    }
+
+    byte[] data = PentahoMapReduceTransport.encode( properties, variables );
+    String fileName = PentahoMapReduceTransport.fileName( data );
+    Path userDir = fs.asPath( fs.asPath( installPath, TRANSPORT_FOLDER_NAME ),
+      UserGroupInformation.getCurrentUser().getShortUserName() );
+    Path transportDir = fs.asPath( userDir, UUID.randomUUID().toString() );
+    Path transportPath = fs.asPath( transportDir, fileName );
+    java.nio.file.Path localTransport = Files.createTempFile( TRANSPORT_FOLDER_NAME,
+      PentahoMapReduceTransport.FILE_EXTENSION );
+    try {
+      Files.write( localTransport, data );
+      hadoopShim.getDistributedCacheUtil()
+        .stageForCache( KettleVFS.getFileObject( localTransport.toString() ), fs, transportPath, "", false, false );
+    } finally {
+      Files.deleteIfExists( localTransport );
+    }
+    hadoopShim.getDistributedCacheUtil().addCachedFiles( conf, fs, transportPath, null );
+    conf.set( PentahoMapReduceTransport.TRANSPORT_FILE, fileName );
+
+    JobConf jobConf = conf.getAsDelegateConf( JobConf.class );
+    for ( String name : properties.keySet() ) {
+      jobConf.unset( name );
+    }
+    jobConf.unset( VARIABLE_SPACE );
+    log.logDetailed( "Staged transformations and variables of the job to " + transportPath.toUri().getPath() + " ("
+      + data.length + " bytes)" );
+    return transportDir;
+  }
+
   private void snapshotMetaStore( String metaStoreSnapshotDir ) throws MetaStoreException {
     IMetaStore snapshot = new XmlMetaStore( metaStoreSnapshotDir );
     try {
@@ -0,0 +1,139 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.hadoop.hbase.factory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Mutation;
+
+/**
+ * Collects mutations into batches of up to a number of rows or bytes and writes every batch on a background thread,
+ * so the caller keeps producing rows while the previous batch is sent to the region servers.
+ * <p>
+ * Batches are written in order by a single thread, and at most {@link #MAX_PENDING_BATCHES} are queued, after that
+ * {@link #mutate(Mutation)} waits. A failed batch is reported by the next call of {@link #mutate(Mutation)},
+ * {@link #flush()} or {@link #close()}.
+ */
+class HBase10BatchWriter {
+  static final int DEFAULT_BATCH_ROWS = 1000;
+  static final long DEFAULT_BATCH_BYTES = 2L * 1024 * 1024;
+  static final int MAX_PENDING_BATCHES = 2;
+
+  private final BufferedMutator mutator;
+  private final int batchRows;
+  private final long batchBytes;
+  private final ExecutorService executor;
+  private final Semaphore pendingBatches = new Semaphore( MAX_PENDING_BATCHES );
+  private final Queue<IOException> failures = new ConcurrentLinkedQueue<>();
+  private List<Mutation> batch = new ArrayList<>();
+  private long bytes;
+
+  HBase10BatchWriter( BufferedMutator mutator, int batchRows, long batchBytes ) {
+    this.mutator = mutator;
+    this.batchRows = batchRows > 0 ? batchRows : DEFAULT_BATCH_ROWS;
+    this.batchBytes = batchBytes > 0 ? batchBytes : DEFAULT_BATCH_BYTES;
+    executor = Executors.newSingleThreadExecutor( runnable -> {
+      Thread thread = new Thread( runnable, "pentaho-hbase-writer-" + mutator.getName() );
+      thread.setDaemon( true );
+      return thread;
+    } );
+  }
+
+  void mutate( Mutation mutation ) throws IOException {
+    checkFailures();
+    batch.add( mutation );
+    bytes += mutation.heapSize();
+    if ( batch.size() >= batchRows || bytes >= batchBytes ) {
+      submit();
+    }
+  }
+
+  /**
+   * Writes the rows collected so far and waits until all batches are written.
+   */
+  void flush() throws IOException {
+    submit();
+    acquire( MAX_PENDING_BATCHES );
+    pendingBatches.release( MAX_PENDING_BATCHES );
+    checkFailures();
+  }
+
+  void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void submit() throws IOException {
+    if ( batch.isEmpty() ) {
+      return;
+    }
+    List<Mutation> toWrite = batch;
+    batch = new ArrayList<>( toWrite.size() );
+    bytes = 0;
+    acquire( 1 );
+    try {
+      executor.execute( () -> write( toWrite ) );
+    } catch ( RuntimeException e ) {
+      pendingBatches.release();
+      throw new IOException( "Unable to write batch of " + toWrite.size() + " rows", e );
+    }
+  }
+
+  private void write( List<Mutation> toWrite ) {
+    try {
+      if ( failures.isEmpty() ) {
+        mutator.mutate( toWrite );
+        mutator.flush();
+      } else {
+        failures.add( new IOException( "Batch of " + toWrite.size() + " rows skipped after an earlier failure" ) );
+      }
+    } catch ( IOException | RuntimeException e ) {
+      failures.add( new IOException( "Unable to write batch of " + toWrite.size() + " rows to "
+        + mutator.getName() + ": " + e.getMessage(), e ) );
+    } finally {
+      pendingBatches.release();
+    }
+  }
+
+  private void acquire( int permits ) throws IOException {
+    try {
+      pendingBatches.acquire( permits );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IOException( "Interrupted while waiting for batches to be written", e );
+    }
+  }
+
+  private void checkFailures() throws IOException {
+    IOException failure = failures.poll();
+    if ( failure != null ) {
+      for ( IOException other = failures.poll(); other != null; other = failures.poll() ) {
+        failure.addSuppressed( other );
+      }
+      throw failure;
+    }
+  }
+}
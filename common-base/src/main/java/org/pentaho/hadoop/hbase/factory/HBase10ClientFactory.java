@@ -31,23 +31,25 @@ import org.pentaho.hbase.mapred.PentahoTableRecordReader;
 
 import java.io.IOException;
 
+/**
+ * Client factory on top of the HBase connection shared by all factories of the same cluster, see
+ * {@link SharedHBaseConnections}. The connection is taken on first use, so factories which only wrap tables don't
+ * open one.
+ */
 public class HBase10ClientFactory implements HBaseClientFactory {
   protected final Configuration conf;
   protected Connection conn = null;
   protected NamedCluster namedCluster;
+  private SharedHBaseConnections.Lease lease;
 
   public HBase10ClientFactory( Configuration conf ) throws IOException {
     this.conf = conf;
-    if ( conf != null ) {
-      conn = ConnectionFactory.createConnection( conf );
-    } else {
-      conn = null;
-    }
   }
 
   public synchronized Connection getConnection() throws IOException {
     if ( conn == null ) {
-      conn = ConnectionFactory.createConnection( conf );
+      lease = SharedHBaseConnections.acquire( conf );
+      conn = lease.getConnection();
     }
 
     return conn;
@@ -71,11 +73,16 @@ public class HBase10ClientFactory implements HBaseClientFactory {
     }
   }
 
-  @Override public void close() {
+  @Override public synchronized void close() {
     try {
-      conn.close();
+      if ( lease != null ) {
+        lease.close();
+      }
     } catch ( IOException e ) {
       e.printStackTrace();
+    } finally {
+      lease = null;
+      conn = null;
     }
   }
 
@@ -103,6 +110,7 @@ public class HBase10ClientFactory implements HBaseClientFactory {
       Table10InputFormatDiscloser invoker = new Table10InputFormatDiscloser( common );
 
       @Override protected void setHBaseTable( Configuration conf, String tableName ) throws IOException {
+        // not shared, since the input format closes the connection with the table
         final Connection conn = ConnectionFactory.createConnection( conf );
         invoker.initializeTable( conn, TableName.valueOf( tableName ) );
       }
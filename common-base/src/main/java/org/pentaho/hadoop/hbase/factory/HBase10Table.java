@@ -22,6 +22,7 @@ import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
@@ -34,6 +35,9 @@ class HBase10Table implements HBaseTable {
   private final Table tab;
   private BufferedMutator mutator = null;
   private boolean autoFlush = true;
+  private long writeBufferSize;
+  private int writeBatchSize;
+  private HBase10BatchWriter batchWriter = null;
   private final Connection conn;
 
   HBase10Table( Connection conn, String tableName ) throws IOException {
@@ -62,20 +66,61 @@ class HBase10Table implements HBaseTable {
     return mutator;
   }
 
+  /**
+   * Without auto flush, mutations are written in batches on a background thread, see {@link HBase10BatchWriter}.
+   */
+  private synchronized HBase10BatchWriter getBatchWriter() throws IOException {
+    if ( batchWriter == null ) {
+      batchWriter = new HBase10BatchWriter( getBufferedMutator(), writeBatchSize, writeBufferSize );
+    }
+    return batchWriter;
+  }
+
+  /**
+   * Without the table method, mutations written so far are flushed and a new mutator with the buffer size is used.
+   */
   @Override
-  public void setWriteBufferSize( long bufferSize ) throws IOException {
+  public synchronized void setWriteBufferSize( long bufferSize ) throws IOException {
+    writeBufferSize = bufferSize;
     try {
       tab.getClass().getMethod( "setWriteBufferSize", long.class ).invoke( tab, bufferSize );
     } catch ( NoSuchMethodException | IllegalAccessException | InvocationTargetException e ) {
+      closeWriters();
       mutator = conn.getBufferedMutator( new BufferedMutatorParams( tab.getName() ).writeBufferSize( bufferSize ) );
     }
   }
 
+  /**
+   * Flushes and closes the batch writer and the mutator, so the next mutation opens new ones.
+   */
+  private synchronized void closeWriters() throws IOException {
+    try {
+      if ( batchWriter != null ) {
+        batchWriter.close();
+      }
+    } finally {
+      batchWriter = null;
+      if ( mutator != null ) {
+        BufferedMutator closing = mutator;
+        mutator = null;
+        closing.close();
+      }
+    }
+  }
+
   @Override
   public void setAutoFlush( boolean autoFlush ) throws IOException {
+    if ( autoFlush && batchWriter != null ) {
+      batchWriter.flush();
+    }
     this.autoFlush = autoFlush;
   }
 
+  @Override
+  public void setWriteBatchSize( int batchSize ) throws IOException {
+    writeBatchSize = batchSize;
+  }
+
   @Override
   public boolean isAutoFlush() throws IOException {
     return autoFlush;
@@ -93,22 +138,24 @@ class HBase10Table implements HBaseTable {
 
   @Override
   public void flushCommits() throws IOException {
-    getBufferedMutator().flush();
+    if ( batchWriter != null ) {
+      batchWriter.flush();
+    } else {
+      getBufferedMutator().flush();
+    }
   }
 
   @Override
   public void delete( Delete toDel ) throws IOException {
-    getBufferedMutator().mutate( toDel );
-    if ( autoFlush ) {
-      getBufferedMutator().flush();
-    }
+    mutate( toDel );
   }
 
   @Override
   public void close() throws IOException {
-    tab.close();
-    if ( mutator != null ) {
-      mutator.close();
+    try {
+      closeWriters();
+    } finally {
+      tab.close();
     }
   }
 
@@ -126,9 +173,15 @@ class HBase10Table implements HBaseTable {
   }
 
   void put( Put toPut ) throws IOException {
-    getBufferedMutator().mutate( toPut );
+    mutate( toPut );
+  }
+
+  private void mutate( Mutation mutation ) throws IOException {
     if ( autoFlush ) {
+      getBufferedMutator().mutate( mutation );
       getBufferedMutator().flush();
+    } else {
+      getBatchWriter().mutate( mutation );
     }
   }
 
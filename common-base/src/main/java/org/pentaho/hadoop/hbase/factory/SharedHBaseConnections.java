@@ -0,0 +1,151 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.hbase.factory;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.security.UserGroupInformation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * HBase connections shared by all client factories with the same configuration and user.
+ * <p>
+ * A {@link Connection} is heavyweight (ZooKeeper session, region cache, thread pools), while tables and admins taken
+ * from it are cheap, so one connection per cluster is enough. Connections are reference counted and closed when the
+ * last lease is closed.
+ */
+public final class SharedHBaseConnections {
+  private static final Map<Key, Entry> CONNECTIONS = new ConcurrentHashMap<>();
+
+  private SharedHBaseConnections() {
+  }
+
+  /**
+   * Lease on the connection for the configuration, creating the connection if there is none yet.
+   */
+  public static Lease acquire( Configuration conf ) throws IOException {
+    Key key = new Key( conf, UserGroupInformation.getCurrentUser().getUserName() );
+    try {
+      // compute() serializes acquire and release per key, so a connection is never closed while it is handed out
+      Entry entry = CONNECTIONS.compute( key, ( k, current ) -> {
+        Entry result = current;
+        if ( result == null || result.connection.isClosed() ) {
+          try {
+            result = new Entry( k, ConnectionFactory.createConnection( conf ) );
+          } catch ( IOException e ) {
+            throw new UncheckedIOException( e );
+          }
+        }
+        result.references++;
+        return result;
+      } );
+      return new Lease( entry );
+    } catch ( UncheckedIOException e ) {
+      throw e.getCause();
+    }
+  }
+
+  private static void release( Entry entry ) throws IOException {
+    AtomicBoolean last = new AtomicBoolean();
+    CONNECTIONS.compute( entry.key, ( k, current ) -> {
+      if ( --entry.references > 0 ) {
+        return current;
+      }
+      last.set( true );
+      // the entry may have been replaced after its connection was closed elsewhere
+      return current == entry ? null : current;
+    } );
+    if ( last.get() ) {
+      entry.connection.close();
+    }
+  }
+
+  /**
+   * Use of a shared connection. The connection must not be closed directly, close the lease instead.
+   */
+  public static final class Lease implements Closeable {
+    private final Entry entry;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Lease( Entry entry ) {
+      this.entry = entry;
+    }
+
+    public Connection getConnection() {
+      return entry.connection;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if ( closed.compareAndSet( false, true ) ) {
+        release( entry );
+      }
+    }
+  }
+
+  private static final class Entry {
+    private final Key key;
+    private final Connection connection;
+    // guarded by CONNECTIONS.compute() on the key
+    private int references;
+
+    private Entry( Key key, Connection connection ) {
+      this.key = key;
+      this.connection = connection;
+    }
+  }
+
+  /**
+   * All configuration properties and the user, since a connection is authenticated as the user who opened it.
+   */
+  private static final class Key {
+    private final Map<String, String> properties = new TreeMap<>();
+    private final String user;
+    private final int hashCode;
+
+    private Key( Configuration conf, String user ) {
+      for ( Map.Entry<String, String> property : conf ) {
+        properties.put( property.getKey(), property.getValue() );
+      }
+      this.user = user;
+      hashCode = Objects.hash( properties, user );
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+      if ( this == o ) {
+        return true;
+      }
+      if ( o == null || getClass() != o.getClass() ) {
+        return false;
+      }
+      Key key = (Key) o;
+      return hashCode == key.hashCode && Objects.equals( user, key.user ) && properties.equals( key.properties );
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
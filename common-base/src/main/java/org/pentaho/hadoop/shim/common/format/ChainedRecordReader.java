@@ -0,0 +1,108 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoBatchRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Record reader which reads split parts one after another in the given order. Only one split is open at a time.
+ * <p>
+ * Batches are read from the split readers which support them, and filled from the rows of the others.
+ */
+public class ChainedRecordReader implements IPentahoBatchRecordReader {
+  private final Iterator<? extends IPentahoInputSplit> splits;
+  private final SplitReaderFactory factory;
+  private final RowBatchFiller rowBatches = new RowBatchFiller();
+  private IPentahoRecordReader current;
+  private Iterator<RowMetaAndData> rows = Collections.emptyIterator();
+
+  public ChainedRecordReader( List<? extends IPentahoInputSplit> splits, SplitReaderFactory factory ) {
+    this.splits = splits.iterator();
+    this.factory = factory;
+  }
+
+  private boolean nextSplit() {
+    if ( !splits.hasNext() ) {
+      return false;
+    }
+    try {
+      closeCurrent();
+      current = factory.createRecordReader( splits.next() );
+      rows = current.iterator();
+      return true;
+    } catch ( Exception e ) {
+      throw new IllegalStateException( "some error while opening split", e );
+    }
+  }
+
+  private void closeCurrent() throws IOException {
+    if ( current != null ) {
+      IPentahoRecordReader reader = current;
+      current = null;
+      reader.close();
+    }
+  }
+
+  @Override
+  public Iterator<RowMetaAndData> iterator() {
+    return new Iterator<RowMetaAndData>() {
+      @Override
+      public boolean hasNext() {
+        while ( !rows.hasNext() ) {
+          if ( !nextSplit() ) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public RowMetaAndData next() {
+        if ( !hasNext() ) {
+          throw new NoSuchElementException();
+        }
+        return rows.next();
+      }
+    };
+  }
+
+  @Override
+  public RecordBatch nextBatch() throws IOException {
+    if ( current == null && !nextSplit() ) {
+      return null;
+    }
+    while ( true ) {
+      RecordBatch batch = current instanceof IPentahoBatchRecordReader
+        ? ( (IPentahoBatchRecordReader) current ).nextBatch() : rowBatches.fill( rows );
+      if ( batch != null || !nextSplit() ) {
+        return batch;
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeCurrent();
+  }
+}
@@ -0,0 +1,115 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBase;
+import org.pentaho.di.core.row.value.ValueMetaConversionException;
+import org.pentaho.di.core.row.value.ValueMetaConverter;
+import org.pentaho.hadoop.shim.api.format.IFormatInputField;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row meta and value conversions of the input fields of a file reader, resolved once per reader. Readers add the
+ * fields in row order with the Kettle type of the values they read from the file, and convert read values by column.
+ */
+public class InputFieldPlan {
+  private static final Logger logger = LogManager.getLogger( InputFieldPlan.class );
+
+  private final RowMetaAndData rowMetaAndData = new RowMetaAndData();
+  private final List<Conversion> conversions = new ArrayList<>();
+
+  /**
+   * Adds the next column of the row. A converter is only created when the field type differs from the source type.
+   *
+   * @param sourceType Kettle type of the values read for the field
+   * @return value meta of the column
+   */
+  public ValueMetaInterface addField( IFormatInputField inputField, int sourceType ) {
+    rowMetaAndData.addValue( inputField.getPentahoFieldName(), inputField.getPentahoType(), null );
+    ValueMetaInterface valueMeta = rowMetaAndData.getValueMeta( rowMetaAndData.size() - 1 );
+    String stringFormat = inputField.getStringFormat();
+    if ( ( stringFormat != null ) && ( stringFormat.trim().length() > 0 ) ) {
+      valueMeta.setConversionMask( stringFormat );
+    }
+    conversions.add( new Conversion( sourceType, inputField.getPentahoType(), stringFormat ) );
+    return valueMeta;
+  }
+
+  public RowMetaInterface getRowMeta() {
+    return rowMetaAndData.getRowMeta();
+  }
+
+  public int size() {
+    return conversions.size();
+  }
+
+  public int getTargetType( int column ) {
+    return conversions.get( column ).targetType;
+  }
+
+  /**
+   * @return {@code true} if values of the column are returned as read
+   */
+  public boolean isUnconverted( int column ) {
+    return conversions.get( column ).converter == null;
+  }
+
+  /**
+   * Converts a value read for the column to the type of the field. Values which can't be converted become null.
+   */
+  public Object convert( int column, Object value ) {
+    return conversions.get( column ).convert( value );
+  }
+
+  private static final class Conversion {
+    private final int sourceType;
+    private final int targetType;
+    private final ValueMetaConverter converter;
+
+    Conversion( int sourceType, int targetType, String stringFormat ) {
+      this.sourceType = sourceType;
+      this.targetType = targetType;
+      if ( sourceType == targetType ) {
+        converter = null;
+      } else {
+        String dateFormat = stringFormat;
+        if ( ( dateFormat == null ) || ( dateFormat.trim().length() == 0 ) ) {
+          dateFormat = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
+        }
+        converter = new ValueMetaConverter();
+        converter.setDatePattern( new SimpleDateFormat( dateFormat ) );
+      }
+    }
+
+    Object convert( Object value ) {
+      if ( converter == null ) {
+        return value;
+      }
+      try {
+        return converter.convertFromSourceToTargetDataType( sourceType, targetType, value );
+      } catch ( ValueMetaConversionException e ) {
+        logger.error( e );
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.apache.hadoop.fs.Path;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record writer which writes rows into a directory of part files instead of one file.
+ * <p>
+ * A new file is started when the current one reaches the maximum size or number of rows. With partition fields, rows
+ * go into Hive style {@code field=value} subdirectories, every partition with its own writer and files, so partitions
+ * can be read independently. Only a limited number of files is kept open; when a row comes for another partition, the
+ * least recently used file is finished and the partition continues in a new file later.
+ */
+public class MultiFileRecordWriter implements IPentahoRecordWriter {
+  public static final int DEFAULT_MAX_OPEN_FILES = 32;
+  public static final String DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+  private static final int SIZE_CHECK_ROWS = 100;
+  private static final String ESCAPED_CHARS = "\"#%'*/:=?\\\u007F{[]^";
+
+  private final Path directory;
+  private final String extension;
+  private final FileWriterFactory factory;
+  private String filePrefix = "part";
+  private List<String> partitionFields = Collections.emptyList();
+  private long maxFileSize;
+  private long maxRowsPerFile;
+  private int maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
+
+  private final Map<String, PartitionWriter> openWriters = new LinkedHashMap<>( 16, 0.75f, true );
+  private final Map<String, Integer> fileNumbers = new HashMap<>();
+  private RowMetaInterface boundRowMeta;
+  private int[] partitionIndexes;
+
+  /**
+   * Opens a writer for one part file.
+   */
+  @FunctionalInterface
+  public interface FileWriterFactory {
+    SizedRecordWriter createRecordWriter( Path file ) throws Exception;
+  }
+
+  /**
+   * Writer of one part file, which knows how much it has written.
+   */
+  public interface SizedRecordWriter extends IPentahoRecordWriter {
+    /**
+     * Bytes written and buffered so far.
+     */
+    long getDataSize();
+  }
+
+  public MultiFileRecordWriter( Path directory, String extension, FileWriterFactory factory ) {
+    this.directory = directory;
+    this.extension = extension;
+    this.factory = factory;
+  }
+
+  public void setFilePrefix( String filePrefix ) {
+    this.filePrefix = filePrefix;
+  }
+
+  public void setPartitionFields( List<String> partitionFields ) {
+    this.partitionFields = partitionFields == null ? Collections.emptyList() : partitionFields;
+  }
+
+  public void setMaxFileSize( long maxFileSize ) {
+    this.maxFileSize = maxFileSize;
+  }
+
+  public void setMaxRowsPerFile( long maxRowsPerFile ) {
+    this.maxRowsPerFile = maxRowsPerFile;
+  }
+
+  public void setMaxOpenFiles( int maxOpenFiles ) {
+    if ( maxOpenFiles < 1 ) {
+      throw new IllegalArgumentException( "At least one file should be open" );
+    }
+    this.maxOpenFiles = maxOpenFiles;
+  }
+
+  @Override
+  public void write( RowMetaAndData row ) throws Exception {
+    String partition = partition( row );
+    PartitionWriter writer = openWriters.get( partition );
+    if ( writer == null ) {
+      if ( openWriters.size() >= maxOpenFiles ) {
+        Iterator<PartitionWriter> eldest = openWriters.values().iterator();
+        PartitionWriter evicted = eldest.next();
+        eldest.remove();
+        evicted.finishFile();
+      }
+      writer = new PartitionWriter( partition );
+      openWriters.put( partition, writer );
+    }
+    writer.write( row );
+  }
+
+  /**
+   * Relative directory of the row's partition, empty without partition fields.
+   */
+  String partition( RowMetaAndData row ) throws Exception {
+    if ( partitionFields.isEmpty() ) {
+      return "";
+    }
+    if ( row.getRowMeta() != boundRowMeta ) {
+      partitionIndexes = new int[ partitionFields.size() ];
+      for ( int i = 0; i < partitionIndexes.length; i++ ) {
+        partitionIndexes[ i ] = row.getRowMeta().indexOfValue( partitionFields.get( i ) );
+        if ( partitionIndexes[ i ] < 0 ) {
+          throw new IllegalArgumentException( "Partition field '" + partitionFields.get( i ) + "' not found in row" );
+        }
+      }
+      boundRowMeta = row.getRowMeta();
+    }
+    StringBuilder path = new StringBuilder();
+    for ( int i = 0; i < partitionIndexes.length; i++ ) {
+      if ( i > 0 ) {
+        path.append( Path.SEPARATOR );
+      }
+      String value = row.getString( partitionIndexes[ i ], null );
+      escape( path, partitionFields.get( i ) ).append( '=' );
+      if ( value == null || value.isEmpty() ) {
+        path.append( DEFAULT_PARTITION );
+      } else {
+        escape( path, value );
+      }
+    }
+    return path.toString();
+  }
+
+  /**
+   * Escapes path characters the way Hive does for partition names.
+   */
+  static StringBuilder escape( StringBuilder path, String value ) {
+    for ( int i = 0; i < value.length(); i++ ) {
+      char c = value.charAt( i );
+      if ( c < ' ' || ESCAPED_CHARS.indexOf( c ) >= 0 ) {
+        path.append( '%' ).append( String.format( "%02X", (int) c ) );
+      } else {
+        path.append( c );
+      }
+    }
+    return path;
+  }
+
+  @Override
+  public void close() throws IOException {
+    List<PartitionWriter> writers = new ArrayList<>( openWriters.values() );
+    openWriters.clear();
+    IOException failure = null;
+    for ( PartitionWriter writer : writers ) {
+      try {
+        writer.finishFile();
+      } catch ( IOException e ) {
+        if ( failure == null ) {
+          failure = e;
+        } else {
+          failure.addSuppressed( e );
+        }
+      }
+    }
+    if ( failure != null ) {
+      throw failure;
+    }
+  }
+
+  private class PartitionWriter {
+    private final String partition;
+    private SizedRecordWriter file;
+    private long rows;
+
+    PartitionWriter( String partition ) {
+      this.partition = partition;
+    }
+
+    void write( RowMetaAndData row ) throws Exception {
+      if ( file == null ) {
+        file = factory.createRecordWriter( nextFile() );
+        rows = 0;
+      }
+      file.write( row );
+      rows++;
+      if ( ( maxRowsPerFile > 0 && rows >= maxRowsPerFile )
+        || ( maxFileSize > 0 && rows % SIZE_CHECK_ROWS == 0 && file.getDataSize() >= maxFileSize ) ) {
+        finishFile();
+      }
+    }
+
+    private Path nextFile() {
+      int number = fileNumbers.merge( partition, 1, Integer::sum ) - 1;
+      String name = String.format( "%s-%05d%s", filePrefix, number, extension );
+      return partition.isEmpty() ? new Path( directory, name ) : new Path( new Path( directory, partition ), name );
+    }
+
+    void finishFile() throws IOException {
+      if ( file != null ) {
+        SizedRecordWriter finished = file;
+        file = null;
+        finished.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Record reader which reads several splits at once on a local thread pool and merges their rows into one iterator.
+ * <p>
+ * Rows of one split keep their order, but rows of different splits may interleave. Split readers must return a new
+ * row for every record, because rows are handed over between threads.
+ */
+public class ParallelRecordReader implements IPentahoRecordReader {
+  public static final int DEFAULT_QUEUE_SIZE = 1024;
+  private static final long OFFER_TIMEOUT_MS = 100;
+  private static final RowMetaAndData SPLIT_DONE = new RowMetaAndData();
+
+  private final BlockingQueue<RowMetaAndData> queue;
+  private final ExecutorService executor;
+  private final AtomicReference<Exception> failure = new AtomicReference<>();
+  private final int splitCount;
+  private int finishedSplits;
+  private volatile boolean closed;
+
+  public ParallelRecordReader( List<? extends IPentahoInputSplit> splits, int threads, SplitReaderFactory factory,
+                               ClassLoader classLoader ) {
+    this( splits, threads, DEFAULT_QUEUE_SIZE, factory, classLoader );
+  }
+
+  public ParallelRecordReader( List<? extends IPentahoInputSplit> splits, int threads, int queueSize,
+                               SplitReaderFactory factory, ClassLoader classLoader ) {
+    splitCount = splits.size();
+    queue = new ArrayBlockingQueue<>( queueSize );
+    int poolSize = Math.max( 1, Math.min( threads, splitCount ) );
+    AtomicInteger threadNumber = new AtomicInteger();
+    executor = Executors.newFixedThreadPool( poolSize, runnable -> {
+      Thread thread = new Thread( runnable, "pentaho-split-reader-" + threadNumber.incrementAndGet() );
+      thread.setDaemon( true );
+      thread.setContextClassLoader( classLoader );
+      return thread;
+    } );
+    for ( IPentahoInputSplit split : splits ) {
+      executor.execute( () -> readSplit( split, factory ) );
+    }
+    executor.shutdown();
+  }
+
+  private void readSplit( IPentahoInputSplit split, SplitReaderFactory factory ) {
+    try {
+      if ( closed ) {
+        return;
+      }
+      try ( IPentahoRecordReader reader = factory.createRecordReader( split ) ) {
+        Iterator<RowMetaAndData> rows = reader.iterator();
+        while ( rows.hasNext() && put( rows.next() ) ) {
+          // rows are handed over to the consumer by put()
+        }
+      }
+    } catch ( Exception e ) {
+      failure.compareAndSet( null, e );
+    } finally {
+      put( SPLIT_DONE );
+    }
+  }
+
+  private boolean put( RowMetaAndData row ) {
+    try {
+      while ( !closed ) {
+        if ( queue.offer( row, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS ) ) {
+          return true;
+        }
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private RowMetaAndData take() {
+    try {
+      return queue.take();
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException( "interrupted while reading splits", e );
+    }
+  }
+
+  private void checkFailure() {
+    Exception e = failure.get();
+    if ( e != null ) {
+      throw new IllegalStateException( "some error while reading split", e );
+    }
+  }
+
+  @Override
+  public Iterator<RowMetaAndData> iterator() {
+    return new Iterator<RowMetaAndData>() {
+      private RowMetaAndData next;
+
+      @Override
+      public boolean hasNext() {
+        while ( next == null && finishedSplits < splitCount ) {
+          RowMetaAndData row = take();
+          if ( row == SPLIT_DONE ) {
+            finishedSplits++;
+            checkFailure();
+          } else {
+            next = row;
+          }
+        }
+        return next != null;
+      }
+
+      @Override
+      public RowMetaAndData next() {
+        if ( !hasNext() ) {
+          throw new NoSuchElementException();
+        }
+        RowMetaAndData row = next;
+        next = null;
+        return row;
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    executor.shutdownNow();
+    queue.clear();
+  }
+}
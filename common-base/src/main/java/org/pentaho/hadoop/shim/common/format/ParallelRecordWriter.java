@@ -0,0 +1,133 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Record writer which hands rows over to several writer threads, each writing through its own writer, e.g. into its own
+ * files.
+ * <p>
+ * Rows are passed in chunks through a bounded queue, and go to whichever thread is free, so the order of rows between
+ * writers is not kept. A failure of a writer thread is thrown from the next write or from close.
+ */
+public class ParallelRecordWriter implements IPentahoRecordWriter {
+  public static final int CHUNK_SIZE = 256;
+  private static final long OFFER_TIMEOUT_MS = 100;
+  private static final List<RowMetaAndData> END = new ArrayList<>( 0 );
+
+  private final BlockingQueue<List<RowMetaAndData>> queue;
+  private final ExecutorService executor;
+  private final AtomicReference<Exception> failure = new AtomicReference<>();
+  private final int threads;
+  private List<RowMetaAndData> chunk = new ArrayList<>( CHUNK_SIZE );
+
+  /**
+   * Opens the writer of one thread.
+   */
+  @FunctionalInterface
+  public interface WriterFactory {
+    IPentahoRecordWriter createRecordWriter( int writerNumber ) throws Exception;
+  }
+
+  public ParallelRecordWriter( int threads, WriterFactory factory, ClassLoader classLoader ) {
+    this.threads = threads;
+    queue = new ArrayBlockingQueue<>( threads * 2 );
+    AtomicInteger threadNumber = new AtomicInteger();
+    executor = Executors.newFixedThreadPool( threads, runnable -> {
+      Thread thread = new Thread( runnable, "pentaho-record-writer-" + threadNumber.incrementAndGet() );
+      thread.setDaemon( true );
+      thread.setContextClassLoader( classLoader );
+      return thread;
+    } );
+    for ( int i = 0; i < threads; i++ ) {
+      int writerNumber = i;
+      executor.execute( () -> runWriter( writerNumber, factory ) );
+    }
+    executor.shutdown();
+  }
+
+  private void runWriter( int writerNumber, WriterFactory factory ) {
+    try ( IPentahoRecordWriter writer = factory.createRecordWriter( writerNumber ) ) {
+      for ( List<RowMetaAndData> rows = queue.take(); rows != END; rows = queue.take() ) {
+        for ( RowMetaAndData row : rows ) {
+          writer.write( row );
+        }
+      }
+    } catch ( Exception e ) {
+      failure.compareAndSet( null, e );
+    }
+  }
+
+  @Override
+  public void write( RowMetaAndData row ) throws Exception {
+    // callers may reuse the data array of the row
+    chunk.add( new RowMetaAndData( row.getRowMeta(), row.getData().clone() ) );
+    if ( chunk.size() == CHUNK_SIZE ) {
+      put( chunk );
+      chunk = new ArrayList<>( CHUNK_SIZE );
+    }
+  }
+
+  private void put( List<RowMetaAndData> rows ) throws InterruptedException {
+    while ( !queue.offer( rows, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS ) ) {
+      checkFailure();
+    }
+    checkFailure();
+  }
+
+  private void checkFailure() {
+    Exception e = failure.get();
+    if ( e != null ) {
+      executor.shutdownNow();
+      throw new IllegalStateException( "some error while writing rows", e );
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if ( !chunk.isEmpty() ) {
+        put( chunk );
+        chunk = new ArrayList<>( 0 );
+      }
+      for ( int i = 0; i < threads; i++ ) {
+        put( END );
+      }
+      executor.awaitTermination( Long.MAX_VALUE, TimeUnit.MILLISECONDS );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      executor.shutdownNow();
+      throw new IOException( "interrupted while writing rows", e );
+    } catch ( IllegalStateException e ) {
+      throw new IOException( e.getMessage(), e.getCause() );
+    }
+    Exception e = failure.get();
+    if ( e != null ) {
+      throw new IOException( "some error while writing rows", e );
+    }
+  }
+}
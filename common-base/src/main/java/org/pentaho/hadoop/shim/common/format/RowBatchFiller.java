@@ -0,0 +1,63 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+
+import java.util.Iterator;
+
+/**
+ * Fills record batches with rows of a row iterator, for record readers which can't decode straight into batches. The
+ * batch is created with the row meta of the first row and refilled by every call.
+ */
+public class RowBatchFiller {
+  private final int capacity;
+  private RecordBatch batch;
+
+  public RowBatchFiller() {
+    this( RecordBatch.DEFAULT_CAPACITY );
+  }
+
+  public RowBatchFiller( int capacity ) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Next batch of rows from the iterator, or null when it has no more rows.
+   */
+  public RecordBatch fill( Iterator<RowMetaAndData> rows ) {
+    if ( !rows.hasNext() ) {
+      return null;
+    }
+    RowMetaAndData row = rows.next();
+    if ( batch == null ) {
+      batch = new RecordBatch( row.getRowMeta(), capacity );
+    }
+    int size = 0;
+    while ( true ) {
+      Object[] data = row.getData();
+      for ( int c = 0; c < batch.getRowMeta().size(); c++ ) {
+        batch.setObject( c, size, c < data.length ? data[ c ] : null );
+      }
+      size++;
+      if ( size == capacity || !rows.hasNext() ) {
+        break;
+      }
+      row = rows.next();
+    }
+    batch.setSize( size );
+    return batch;
+  }
+}
@@ -0,0 +1,25 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+
+/**
+ * Opens a record reader for one split part, used by readers which combine several splits.
+ */
+@FunctionalInterface
+public interface SplitReaderFactory {
+  IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) throws Exception;
+}
@@ -0,0 +1,30 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.pentaho.hadoop.shim.api.format.AvroSpec;
+import org.pentaho.hadoop.shim.api.format.IAvroInputField;
+import org.pentaho.hadoop.shim.common.format.BaseFormatInputField;
+
+public class AvroInputField extends BaseFormatInputField implements IAvroInputField {
+  @Override
+  public AvroSpec.DataType getAvroType() {
+    return AvroSpec.DataType.getDataType( getFormatType() );
+  }
+
+  @Override
+  public void setAvroType( AvroSpec.DataType avroType ) {
+    setFormatType( avroType.getId() );
+  }
+}
@@ -0,0 +1,37 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.pentaho.hadoop.shim.api.format.AvroSpec;
+import org.pentaho.hadoop.shim.api.format.IAvroOutputField;
+import org.pentaho.hadoop.shim.common.format.BaseFormatOutputField;
+
+public class AvroOutputField extends BaseFormatOutputField implements IAvroOutputField {
+  @Override
+  public AvroSpec.DataType getAvroType() {
+    return AvroSpec.DataType.getDataType( formatType );
+  }
+
+  @Override
+  public void setFormatType( AvroSpec.DataType avroType ) {
+    this.formatType = avroType.getId();
+  }
+
+  @Override
+  public void setFormatType( int formatType ) {
+    if ( formatType >= 0 && formatType < AvroSpec.DataType.values().length ) {
+      this.formatType = formatType;
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.hadoop.shim.api.format.AvroSpec;
+import org.pentaho.hadoop.shim.api.format.IAvroInputField;
+import org.pentaho.hadoop.shim.common.format.InputFieldPlan;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Decodes Avro records into Kettle rows. Field positions and Avro types are resolved once from the reader schema, so
+ * decoding a record only reads its fields, and all rows share one row meta.
+ */
+class AvroRowDecoder {
+  private final InputFieldPlan plan = new InputFieldPlan();
+  private final RowMetaInterface rowMeta;
+  private final Column[] columns;
+  private final ZoneId zone = ZoneId.systemDefault();
+
+  AvroRowDecoder( Schema readerSchema, List<? extends IAvroInputField> inputFields ) {
+    List<Column> columnList = new ArrayList<>();
+    for ( IAvroInputField inputField : inputFields ) {
+      if ( inputField == null ) {
+        continue;
+      }
+      Schema.Field field = readerSchema.getField( inputField.getFormatFieldName() );
+      Schema fieldSchema = field == null ? null : AvroSchemaConverter.nonNull( field.schema() );
+      AvroSpec.DataType sourceType = fieldSchema == null ? null : AvroSchemaConverter.dataType( fieldSchema );
+      if ( sourceType == null ) {
+        throw new IllegalArgumentException( "Field " + inputField.getFormatFieldName() + " can't be read from Avro" );
+      }
+      plan.addField( inputField, sourceType.getPdiType() );
+      int scale = sourceType == AvroSpec.DataType.DECIMAL
+        ? ( (LogicalTypes.Decimal) fieldSchema.getLogicalType() ).getScale() : 0;
+      columnList.add( new Column( field.pos(), sourceType, scale ) );
+    }
+    rowMeta = plan.getRowMeta();
+    columns = columnList.toArray( new Column[ 0 ] );
+  }
+
+  RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * New row with the values of the record. Values are copied, so the record can be reused for the next one.
+   */
+  RowMetaAndData decode( GenericRecord record ) {
+    Object[] data = new Object[ columns.length ];
+    for ( int i = 0; i < columns.length; i++ ) {
+      Column column = columns[ i ];
+      data[ i ] = plan.convert( i, read( column, record.get( column.position ) ) );
+    }
+    return new RowMetaAndData( rowMeta, data );
+  }
+
+  private Object read( Column column, Object value ) {
+    if ( value == null ) {
+      return null;
+    }
+    switch ( column.sourceType ) {
+      case BOOLEAN:
+      case LONG:
+      case DOUBLE:
+        return value;
+      case INTEGER:
+        return ( (Integer) value ).longValue();
+      case FLOAT:
+        return ( (Float) value ).doubleValue();
+      case STRING:
+        return value.toString();
+      case BYTES:
+        return bytes( value );
+      case DECIMAL:
+        return new BigDecimal( new BigInteger( bytes( value ) ), column.scale );
+      case DATE:
+        LocalDate day = LocalDate.ofEpochDay( (Integer) value );
+        return Date.from( day.atStartOfDay( zone ).toInstant() );
+      case TIMESTAMP_MILLIS:
+        return new Timestamp( (Long) value );
+      case TIMESTAMP_MICROS:
+        long micros = (Long) value;
+        Timestamp timestamp = new Timestamp( Math.floorDiv( micros, 1000L ) );
+        timestamp.setNanos( (int) Math.floorMod( micros, 1000000L ) * 1000 );
+        return timestamp;
+      default:
+        return null;
+    }
+  }
+
+  private static byte[] bytes( Object value ) {
+    if ( value instanceof GenericFixed ) {
+      return ( (GenericFixed) value ).bytes().clone();
+    }
+    ByteBuffer buffer = (ByteBuffer) value;
+    return Arrays.copyOfRange( buffer.array(), buffer.arrayOffset() + buffer.position(),
+      buffer.arrayOffset() + buffer.limit() );
+  }
+
+  /**
+   * Record position and Avro type of one output field.
+   */
+  private static final class Column {
+    private final int position;
+    private final AvroSpec.DataType sourceType;
+    private final int scale;
+
+    Column( int position, AvroSpec.DataType sourceType, int scale ) {
+      this.position = position;
+      this.sourceType = sourceType;
+      this.scale = scale;
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.JsonProperties;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.pentaho.hadoop.shim.api.format.AvroSpec;
+import org.pentaho.hadoop.shim.api.format.IAvroInputField;
+import org.pentaho.hadoop.shim.api.format.IAvroOutputField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Converts between Avro record schemas and Pentaho fields. Nullable fields are unions of null and one other type.
+ */
+public class AvroSchemaConverter {
+  static final String RECORD_NAME = "PentahoRecord";
+  static final String RECORD_NAMESPACE = "org.pentaho.hadoop";
+
+  /**
+   * Input fields for the fields of the record schema which have a supported type.
+   */
+  public List<IAvroInputField> buildInputFields( Schema schema ) {
+    List<IAvroInputField> inputFields = new ArrayList<>();
+    for ( Schema.Field field : schema.getFields() ) {
+      Schema fieldSchema = nonNull( field.schema() );
+      AvroSpec.DataType dataType = fieldSchema == null ? null : dataType( fieldSchema );
+      if ( dataType == null ) {
+        continue;
+      }
+      AvroInputField inputField = new AvroInputField();
+      inputField.setFormatFieldName( field.name() );
+      inputField.setPentahoFieldName( field.name() );
+      inputField.setAvroType( dataType );
+      inputField.setPentahoType( dataType.getPdiType() );
+      if ( dataType == AvroSpec.DataType.DECIMAL ) {
+        LogicalTypes.Decimal decimal = (LogicalTypes.Decimal) fieldSchema.getLogicalType();
+        inputField.setPrecision( decimal.getPrecision() );
+        inputField.setScale( decimal.getScale() );
+      }
+      inputFields.add( inputField );
+    }
+    return inputFields;
+  }
+
+  /**
+   * Record schema with one field per output field, in the same order.
+   */
+  public Schema buildSchema( List<? extends IAvroOutputField> outputFields ) {
+    List<Schema.Field> fields = new ArrayList<>();
+    for ( IAvroOutputField outputField : outputFields ) {
+      Schema type = createSchema( outputField );
+      if ( outputField.getAllowNull() ) {
+        fields.add( new Schema.Field( outputField.getFormatFieldName(),
+          Schema.createUnion( Arrays.asList( Schema.create( Schema.Type.NULL ), type ) ), null,
+          JsonProperties.NULL_VALUE ) );
+      } else {
+        fields.add( new Schema.Field( outputField.getFormatFieldName(), type, null, (Object) null ) );
+      }
+    }
+    return Schema.createRecord( RECORD_NAME, null, RECORD_NAMESPACE, false, fields );
+  }
+
+  /**
+   * Record schema with only the given fields of the file schema, which makes the reader skip all other fields.
+   */
+  public static Schema project( Schema fileSchema, List<? extends IAvroInputField> inputFields ) {
+    Set<String> names = new LinkedHashSet<>();
+    for ( IAvroInputField inputField : inputFields ) {
+      if ( inputField != null ) {
+        names.add( inputField.getFormatFieldName() );
+      }
+    }
+    List<Schema.Field> fields = new ArrayList<>();
+    for ( Schema.Field field : fileSchema.getFields() ) {
+      if ( names.remove( field.name() ) ) {
+        fields.add( new Schema.Field( field.name(), field.schema(), field.doc(), field.defaultVal() ) );
+      }
+    }
+    if ( !names.isEmpty() ) {
+      throw new IllegalArgumentException(
+        "Fields " + names + " do not exist in the Avro file.  Please use the getFields button" );
+    }
+    return Schema.createRecord( fileSchema.getName(), fileSchema.getDoc(), fileSchema.getNamespace(), false,
+      fields );
+  }
+
+  /**
+   * The non null type of a nullable union, the schema itself when it's not a union, or null for other unions.
+   */
+  static Schema nonNull( Schema schema ) {
+    if ( schema.getType() != Schema.Type.UNION ) {
+      return schema;
+    }
+    Schema result = null;
+    for ( Schema type : schema.getTypes() ) {
+      if ( type.getType() != Schema.Type.NULL ) {
+        if ( result != null ) {
+          return null;
+        }
+        result = type;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Type of a non union schema, or null when it has no Pentaho counterpart. Enums are read as strings and fixed as
+   * bytes.
+   */
+  static AvroSpec.DataType dataType( Schema schema ) {
+    LogicalType logicalType = schema.getLogicalType();
+    if ( logicalType instanceof LogicalTypes.Decimal ) {
+      return AvroSpec.DataType.DECIMAL;
+    } else if ( logicalType instanceof LogicalTypes.Date ) {
+      return AvroSpec.DataType.DATE;
+    } else if ( logicalType instanceof LogicalTypes.TimestampMillis ) {
+      return AvroSpec.DataType.TIMESTAMP_MILLIS;
+    } else if ( logicalType instanceof LogicalTypes.TimestampMicros ) {
+      return AvroSpec.DataType.TIMESTAMP_MICROS;
+    }
+    switch ( schema.getType() ) {
+      case BOOLEAN:
+        return AvroSpec.DataType.BOOLEAN;
+      case INT:
+        return AvroSpec.DataType.INTEGER;
+      case LONG:
+        return AvroSpec.DataType.LONG;
+      case FLOAT:
+        return AvroSpec.DataType.FLOAT;
+      case DOUBLE:
+        return AvroSpec.DataType.DOUBLE;
+      case STRING:
+      case ENUM:
+        return AvroSpec.DataType.STRING;
+      case BYTES:
+      case FIXED:
+        return AvroSpec.DataType.BYTES;
+      default:
+        return null;
+    }
+  }
+
+  private static Schema createSchema( IAvroOutputField field ) {
+    AvroSpec.DataType dataType = field.getAvroType();
+    switch ( dataType ) {
+      case BOOLEAN:
+        return Schema.create( Schema.Type.BOOLEAN );
+      case INTEGER:
+        return Schema.create( Schema.Type.INT );
+      case LONG:
+        return Schema.create( Schema.Type.LONG );
+      case FLOAT:
+        return Schema.create( Schema.Type.FLOAT );
+      case DOUBLE:
+        return Schema.create( Schema.Type.DOUBLE );
+      case STRING:
+        return Schema.create( Schema.Type.STRING );
+      case BYTES:
+        return Schema.create( Schema.Type.BYTES );
+      case DECIMAL:
+        int precision = field.getPrecision() > 0 ? field.getPrecision() : AvroSpec.DEFAULT_DECIMAL_PRECISION;
+        int scale = field.getPrecision() > 0 ? field.getScale() : AvroSpec.DEFAULT_DECIMAL_SCALE;
+        return LogicalTypes.decimal( precision, scale ).addToSchema( Schema.create( Schema.Type.BYTES ) );
+      case DATE:
+        return LogicalTypes.date().addToSchema( Schema.create( Schema.Type.INT ) );
+      case TIMESTAMP_MILLIS:
+        return LogicalTypes.timestampMillis().addToSchema( Schema.create( Schema.Type.LONG ) );
+      case TIMESTAMP_MICROS:
+        return LogicalTypes.timestampMicros().addToSchema( Schema.create( Schema.Type.LONG ) );
+      default:
+        throw new IllegalArgumentException( "Field " + field.getFormatFieldName() + ": unsupported type " + dataType );
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.mapred.FsInput;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
+import org.pentaho.hadoop.shim.api.format.IAvroInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoAvroInputFormat;
+import org.pentaho.hadoop.shim.common.format.ChainedRecordReader;
+import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.ParallelRecordReader;
+import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads Avro data files with {@link DataFileReader}. A directory is read as all of its Avro files in name order.
+ */
+public class PentahoAvroInputFormat extends HadoopFormatBase implements IPentahoAvroInputFormat {
+
+  protected static final String NOT_NULL_MSG = "filename and inputfields must not be null";
+  protected String fileName;
+  protected List<? extends IAvroInputField> inputFields;
+
+  protected Configuration conf;
+  protected long splitSize = Long.MAX_VALUE;
+
+  public PentahoAvroInputFormat( NamedCluster namedCluster ) {
+    conf = inClassloader( () -> createConfigurationWithClassLoader( namedCluster, getClass().getClassLoader() ) );
+  }
+
+  /**
+   * One split per file by default. When the split size is set, every file is cut into byte ranges of up to that
+   * size.
+   */
+  @Override
+  public List<IPentahoInputSplit> getSplits() {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    return inClassloader( () -> {
+      Path path = new Path( fileName );
+      FileSystem fs = getFileSystem( path );
+      List<IPentahoInputSplit> splits = new ArrayList<>();
+      for ( FileStatus file : listFiles( path, fs ) ) {
+        if ( splitSize == Long.MAX_VALUE ) {
+          splits.add( PentahoAvroInputSplit.wholeFile( file.getPath() ) );
+        } else {
+          splits.addAll( PentahoAvroInputSplit.fromLength( file.getPath(), file.getLen(), splitSize ) );
+        }
+      }
+      return splits;
+    } );
+  }
+
+  /**
+   * Reads the given split, or all Avro files of the input one after another when the split is not from
+   * {@link #getSplits()}.
+   */
+  @Override
+  public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    requireNonNull( inputFields, NOT_NULL_MSG );
+    if ( split instanceof PentahoAvroInputSplit ) {
+      return inClassloader( () -> createSplitReader( (PentahoAvroInputSplit) split ) );
+    }
+    List<IPentahoInputSplit> splits = getSplits();
+    if ( splits.size() == 1 ) {
+      return createRecordReader( splits.get( 0 ) );
+    }
+    return new ChainedRecordReader( splits, this::createRecordReader );
+  }
+
+  @Override
+  public IPentahoRecordReader createRecordReader( List<IPentahoInputSplit> splits, int threads ) {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    requireNonNull( inputFields, NOT_NULL_MSG );
+    return new ParallelRecordReader( splits, threads, this::createRecordReader, getClass().getClassLoader() );
+  }
+
+  protected IPentahoRecordReader createSplitReader( PentahoAvroInputSplit split ) throws IOException {
+    return new PentahoAvroRecordReader( openInput( split.getPath() ), inputFields, split.getOffset(),
+      split.getEnd() );
+  }
+
+  /**
+   * Seekable input of one Avro file.
+   */
+  protected SeekableInput openInput( Path file ) throws IOException {
+    new S3NCredentialUtils().applyS3CredentialsToHadoopConfigurationIfNecessary( fileName, conf );
+    return new FsInput( file, conf );
+  }
+
+  /**
+   * File system of the input files.
+   */
+  protected FileSystem getFileSystem( Path path ) throws IOException {
+    new S3NCredentialUtils().applyS3CredentialsToHadoopConfigurationIfNecessary( fileName, conf );
+    return FileSystem.get( path.toUri(), conf );
+  }
+
+  /**
+   * The file itself, or all Avro files of a directory in name order.
+   */
+  static List<FileStatus> listFiles( Path path, FileSystem fs ) throws IOException {
+    FileStatus status;
+    try {
+      status = fs.getFileStatus( path );
+    } catch ( FileNotFoundException e ) {
+      throw new NoSuchFileException( path.toString() );
+    }
+    if ( !status.isDirectory() ) {
+      return Collections.singletonList( status );
+    }
+    List<FileStatus> files = new ArrayList<>();
+    Collections.addAll( files, fs.listStatus( path, file -> file.getName().endsWith( ".avro" ) ) );
+    if ( files.isEmpty() ) {
+      throw new NoSuchFileException( path.toString() );
+    }
+    files.sort( ( a, b ) -> a.getPath().compareTo( b.getPath() ) );
+    return files;
+  }
+
+  @Override
+  public List<IAvroInputField> readSchema() {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    return inClassloader( () -> {
+      Path path = new Path( fileName );
+      Path file = listFiles( path, getFileSystem( path ) ).get( 0 ).getPath();
+      try ( DataFileReader<GenericRecord> reader =
+              new DataFileReader<>( openInput( file ), new GenericDatumReader<>() ) ) {
+        return new AvroSchemaConverter().buildInputFields( reader.getSchema() );
+      }
+    } );
+  }
+
+  /**
+   * Set schema from user's metadata. Pentaho field names and types may differ from the file.
+   */
+  @Override
+  public void setSchema( List<IAvroInputField> inputFields ) {
+    this.inputFields = inputFields;
+  }
+
+  @Override
+  public void setInputFile( String fileName ) {
+    this.fileName = S3NCredentialUtils.scrubFilePathIfNecessary( fileName );
+  }
+
+  @Override
+  public void setSplitSize( long splitSize ) {
+    this.splitSize = splitSize > 0 ? splitSize : Long.MAX_VALUE;
+  }
+
+}
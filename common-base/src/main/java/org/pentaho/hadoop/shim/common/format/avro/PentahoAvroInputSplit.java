@@ -0,0 +1,78 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.hadoop.fs.Path;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte range of one Avro file. A split reads the blocks which start after the first sync marker in its range, up to
+ * the first sync marker after its end, so each block is read by exactly one split.
+ */
+public class PentahoAvroInputSplit implements IPentahoInputSplit {
+  private final Path path;
+  private final long offset;
+  private final long length;
+
+  public PentahoAvroInputSplit( Path path, long offset, long length ) {
+    this.path = path;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Split covering the whole file.
+   */
+  public static PentahoAvroInputSplit wholeFile( Path path ) {
+    return new PentahoAvroInputSplit( path, 0, Long.MAX_VALUE );
+  }
+
+  /**
+   * Splits of up to {@code maxSplitSize} bytes covering the whole file.
+   */
+  public static List<PentahoAvroInputSplit> fromLength( Path path, long fileLength, long maxSplitSize ) {
+    List<PentahoAvroInputSplit> splits = new ArrayList<>();
+    for ( long offset = 0; offset < fileLength; offset += maxSplitSize ) {
+      splits.add( new PentahoAvroInputSplit( path, offset, Math.min( maxSplitSize, fileLength - offset ) ) );
+    }
+    return splits;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Position after which the split stops at the next sync marker.
+   */
+  public long getEnd() {
+    return length > Long.MAX_VALUE - offset ? Long.MAX_VALUE : offset + length;
+  }
+
+  @Override
+  public String toString() {
+    return path + ":" + offset + "+" + length;
+  }
+}
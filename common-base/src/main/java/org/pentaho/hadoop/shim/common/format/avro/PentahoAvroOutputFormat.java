@@ -0,0 +1,131 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.pentaho.di.core.logging.LogChannel;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.util.StringUtil;
+import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
+import org.pentaho.hadoop.shim.api.format.IAvroOutputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoAvroOutputFormat;
+import org.pentaho.hadoop.shim.api.format.org.pentaho.hadoop.shim.pvfs.api.PvfsHadoopBridgeFileSystemExtension;
+import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
+import org.pentaho.hadoop.shim.common.format.SensitiveLoggingUtils;
+
+import java.nio.file.FileAlreadyExistsException;
+import java.util.List;
+
+/**
+ * Writes Avro data files with {@link org.apache.avro.file.DataFileWriter}.
+ */
+public class PentahoAvroOutputFormat extends HadoopFormatBase implements IPentahoAvroOutputFormat {
+
+  protected static final LogChannelInterface logger = LogChannel.GENERAL;
+  protected static final String INVALID_OUTPUT_FILE_MESSAGE =
+    "Invalid Avro output file path or connection settings. Check the host/path and authentication configuration.";
+
+  protected String outputFilename;
+  protected Configuration conf;
+  protected CodecFactory codec = CodecFactory.nullCodec();
+  protected int syncInterval = DEFAULT_SYNC_INTERVAL;
+  protected List<? extends IAvroOutputField> fields;
+
+  public PentahoAvroOutputFormat() {
+    this( null );
+  }
+
+  public PentahoAvroOutputFormat( NamedCluster namedCluster ) {
+    conf = inClassloader( () -> createConfigurationWithClassLoader( namedCluster, getClass().getClassLoader() ) );
+  }
+
+  @Override public IPentahoRecordWriter createRecordWriter() {
+    logger.logDetailed( "Initializing Avro Writer" );
+    if ( fields == null ) {
+      throw new IllegalStateException( "Invalid state.  The fields to write are null" );
+    }
+    if ( outputFilename == null ) {
+      throw new IllegalStateException( "Invalid state.  The outputFileName is null" );
+    }
+    Schema schema = new AvroSchemaConverter().buildSchema( fields );
+    return inClassloader( () -> {
+      Path outputFile = new Path( outputFilename );
+      FileSystem fs = FileSystem.get( outputFile.toUri(), conf );
+      return new PentahoAvroRecordWriter( fields, schema, fs.create( outputFile, false ), codec, syncInterval );
+    } );
+  }
+
+  @Override
+  public void setFields( List<? extends IAvroOutputField> fields ) {
+    this.fields = fields;
+  }
+
+  @Override
+  public void setOutputFile( String file, boolean override ) throws Exception {
+    try {
+      this.outputFilename = S3NCredentialUtils.scrubFilePathIfNecessary( file );
+      S3NCredentialUtils util = new S3NCredentialUtils();
+      util.applyS3CredentialsToHadoopConfigurationIfNecessary( file, conf );
+      Path outputFile = new Path( outputFilename );
+      FileSystem fs = FileSystem.get( outputFile.toUri(), conf );
+      if ( fs.exists( outputFile ) ) {
+        if ( override ) {
+          fs.delete( outputFile, true );
+        } else {
+          throw new FileAlreadyExistsException( file );
+        }
+      }
+    } catch ( FileAlreadyExistsException e ) {
+      throw e;
+    } catch ( Exception e ) {
+      SensitiveLoggingUtils.logSanitizedInitializationError( INVALID_OUTPUT_FILE_MESSAGE, file, e );
+      throw SensitiveLoggingUtils.sanitizedIllegalStateException( INVALID_OUTPUT_FILE_MESSAGE, e );
+    }
+  }
+
+  @Override
+  public void setCompression( String codecName ) {
+    try {
+      codec = codecName == null ? CodecFactory.nullCodec() : CodecFactory.fromString( codecName );
+    } catch ( AvroRuntimeException e ) {
+      throw new IllegalArgumentException( "Avro codec " + codecName + " is not available in the Avro version of this "
+        + "shim, use null, deflate, snappy, bzip2 or xz", e );
+    }
+  }
+
+  @Override
+  public void setSyncInterval( int bytes ) {
+    if ( bytes > 0 ) {
+      syncInterval = bytes;
+    }
+  }
+
+  public String generateAlias( String pvfsPath ) {
+    return inClassloader( () -> {
+        FileSystem fs = FileSystem.get( StringUtil.toUri( pvfsPath ), conf );
+        if ( fs instanceof PvfsHadoopBridgeFileSystemExtension ) {
+          return ( ( PvfsHadoopBridgeFileSystemExtension ) fs ).generateAlias( pvfsPath );
+        } else {
+          return null;
+        }
+      }
+    );
+  }
+}
@@ -0,0 +1,95 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.IAvroInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the blocks of one split of an Avro file. Only the fields of the input fields are decoded, through a reader
+ * schema projected from the file schema.
+ */
+public class PentahoAvroRecordReader implements IPentahoInputFormat.IPentahoRecordReader {
+  private static final Logger logger = LogManager.getLogger( PentahoAvroRecordReader.class );
+
+  private final DataFileReader<GenericRecord> reader;
+  private final AvroRowDecoder decoder;
+  private final long end;
+  private final boolean bounded;
+  private GenericRecord record;
+
+  public PentahoAvroRecordReader( SeekableInput input, List<? extends IAvroInputField> inputFields, long offset,
+                                  long end ) throws IOException {
+    GenericDatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
+    reader = new DataFileReader<>( input, datumReader );
+    try {
+      Schema readerSchema = AvroSchemaConverter.project( reader.getSchema(), inputFields );
+      datumReader.setExpected( readerSchema );
+      decoder = new AvroRowDecoder( readerSchema, inputFields );
+      if ( offset > 0 ) {
+        reader.sync( offset );
+      }
+    } catch ( IOException | RuntimeException e ) {
+      reader.close();
+      throw e;
+    }
+    this.end = end;
+    // pastSync adds the sync size to the position, which overflows for unbounded splits
+    bounded = end <= Long.MAX_VALUE - DataFileConstants.SYNC_SIZE;
+  }
+
+  @Override
+  public Iterator<RowMetaAndData> iterator() {
+    return new Iterator<RowMetaAndData>() {
+
+      @Override
+      public boolean hasNext() {
+        try {
+          return reader.hasNext() && !( bounded && reader.pastSync( end ) );
+        } catch ( IOException e ) {
+          logger.error( e.getMessage(), e );
+          return false;
+        }
+      }
+
+      @Override
+      public RowMetaAndData next() {
+        if ( !hasNext() ) {
+          throw new NoSuchElementException();
+        }
+        record = reader.next( record );
+        return decoder.decode( record );
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,189 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.AvroSpec;
+import org.pentaho.hadoop.shim.api.format.IAvroOutputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Writes rows into an Avro data file with {@link DataFileWriter}. Field encoders are bound to the row meta once, and
+ * one record is reused for all rows.
+ * <p>
+ * Null values of nullable fields are written as nulls, null values of other fields as the default value of the field.
+ */
+public class PentahoAvroRecordWriter implements IPentahoOutputFormat.IPentahoRecordWriter {
+  private static final long DAY_MILLIS = 24L * 60L * 60L * 1000L;
+
+  private final List<? extends IAvroOutputField> fields;
+  private final Schema schema;
+  private final DataFileWriter<GenericRecord> writer;
+  private final GenericData.Record record;
+  private RowMetaInterface boundRowMeta;
+  private FieldEncoder[] encoders;
+
+  public PentahoAvroRecordWriter( List<? extends IAvroOutputField> fields, Schema schema, OutputStream out,
+                                  CodecFactory codec, int syncInterval ) throws IOException {
+    this.fields = fields;
+    this.schema = schema;
+    writer = new DataFileWriter<>( new GenericDatumWriter<GenericRecord>( schema ) );
+    writer.setCodec( codec );
+    writer.setSyncInterval( syncInterval );
+    writer.create( schema, out );
+    record = new GenericData.Record( schema );
+  }
+
+  @Override
+  public void write( RowMetaAndData row ) throws Exception {
+    if ( row.getRowMeta() != boundRowMeta ) {
+      bind( row.getRowMeta() );
+    }
+    Object[] data = row.getData();
+    for ( int i = 0; i < encoders.length; i++ ) {
+      record.put( i, encoders[ i ].encode( data ) );
+    }
+    writer.append( record );
+  }
+
+  private void bind( RowMetaInterface rowMeta ) throws KettleValueException {
+    encoders = new FieldEncoder[ fields.size() ];
+    for ( int i = 0; i < encoders.length; i++ ) {
+      IAvroOutputField field = fields.get( i );
+      int rowIndex = rowMeta.indexOfValue( field.getPentahoFieldName() );
+      if ( rowIndex < 0 ) {
+        throw new IllegalArgumentException( "Field " + field.getPentahoFieldName() + " is not in the input rows" );
+      }
+      encoders[ i ] = new FieldEncoder( field, schema.getFields().get( i ).schema(), rowMeta.getValueMeta( rowIndex ),
+        rowIndex );
+    }
+    boundRowMeta = rowMeta;
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  /**
+   * Converts one field of Kettle rows into its Avro value. The default value is converted once.
+   */
+  private static final class FieldEncoder {
+    private final IAvroOutputField field;
+    private final AvroSpec.DataType type;
+    private final ValueMetaInterface valueMeta;
+    private final int rowIndex;
+    private final int scale;
+    private final Object defaultValue;
+
+    FieldEncoder( IAvroOutputField field, Schema fieldSchema, ValueMetaInterface valueMeta, int rowIndex )
+      throws KettleValueException {
+      this.field = field;
+      this.type = field.getAvroType();
+      this.valueMeta = valueMeta;
+      this.rowIndex = rowIndex;
+      Schema nonNull = AvroSchemaConverter.nonNull( fieldSchema );
+      scale = type == AvroSpec.DataType.DECIMAL ? ( (LogicalTypes.Decimal) nonNull.getLogicalType() ).getScale() : 0;
+      if ( field.getDefaultValue() == null ) {
+        defaultValue = null;
+      } else {
+        ValueMetaString defaultMeta = new ValueMetaString( field.getPentahoFieldName() );
+        defaultMeta.setConversionMask( valueMeta.getConversionMask() );
+        defaultMeta.setDateFormatTimeZone( valueMeta.getDateFormatTimeZone() );
+        defaultValue = encode( defaultMeta, field.getDefaultValue() );
+      }
+    }
+
+    Object encode( Object[] data ) throws KettleValueException {
+      Object value = data[ rowIndex ];
+      if ( value != null ) {
+        return encode( valueMeta, value );
+      }
+      if ( field.getAllowNull() ) {
+        return null;
+      }
+      if ( defaultValue == null ) {
+        throw new IllegalArgumentException( "Field " + field.getFormatFieldName() + " does not allow nulls" );
+      }
+      return defaultValue;
+    }
+
+    private Object encode( ValueMetaInterface meta, Object value ) throws KettleValueException {
+      switch ( type ) {
+        case BOOLEAN:
+          return meta.getBoolean( value );
+        case INTEGER:
+          return Math.toIntExact( meta.getInteger( value ) );
+        case LONG:
+          return meta.getInteger( value );
+        case FLOAT:
+          return meta.getNumber( value ).floatValue();
+        case DOUBLE:
+          return meta.getNumber( value );
+        case STRING:
+          return meta.getString( value );
+        case BYTES:
+          return ByteBuffer.wrap( meta.getBinary( value ) );
+        case DECIMAL:
+          BigDecimal decimal = meta.getBigNumber( value ).setScale( scale, RoundingMode.HALF_UP );
+          return ByteBuffer.wrap( decimal.unscaledValue().toByteArray() );
+        case DATE:
+          return epochDay( meta.getDate( value ), meta.getDateFormatTimeZone() );
+        case TIMESTAMP_MILLIS:
+          return meta.getDate( value ).getTime();
+        case TIMESTAMP_MICROS:
+          Date date = meta.getDate( value );
+          if ( date instanceof Timestamp ) {
+            Timestamp timestamp = (Timestamp) date;
+            return Math.floorDiv( timestamp.getTime(), 1000L ) * 1000000L + timestamp.getNanos() / 1000;
+          }
+          return date.getTime() * 1000L;
+        default:
+          throw new IllegalArgumentException( "Field " + field.getFormatFieldName() + ": unsupported type " + type );
+      }
+    }
+  }
+
+  /**
+   * Days since epoch of the date in the time zone, or in the default time zone when it's null.
+   */
+  static int epochDay( Date date, TimeZone timeZone ) {
+    if ( timeZone == null ) {
+      timeZone = TimeZone.getDefault();
+    }
+    long millis = date.getTime();
+    return Math.toIntExact( Math.floorDiv( millis + timeZone.getOffset( millis ), DAY_MILLIS ) );
+  }
+}
@@ -0,0 +1,375 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBase;
+import org.pentaho.hadoop.shim.api.format.IOrcOutputField;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Writes one output field into its column of a row batch. Created for a row meta and a batch, so the field index,
+ * column vector and default value are resolved only once.
+ * <p>
+ * Null values of nullable fields are written as nulls, null values of other fields as the default value of the field.
+ * Values which can't be converted are logged and skipped, as before.
+ */
+abstract class OrcColumnWriter {
+  private static final Logger logger = LogManager.getLogger( OrcColumnWriter.class );
+  private static final long DAY_MILLIS = 24L * 60L * 60L * 1000L;
+
+  protected final IOrcOutputField field;
+  protected final int rowIndex;
+
+  private OrcColumnWriter( IOrcOutputField field, int rowIndex ) {
+    this.field = field;
+    this.rowIndex = rowIndex;
+  }
+
+  /**
+   * Column writer for the field of rows with the given row meta.
+   *
+   * @param inputMeta value meta of the field in the rows
+   * @param rowIndex  index of the field in the rows
+   */
+  static OrcColumnWriter create( IOrcOutputField field, ValueMetaInterface inputMeta, int rowIndex,
+                                 ColumnVector vector ) {
+    String defaultValue = field.getDefaultValue();
+    switch ( field.getOrcType() ) {
+      case BOOLEAN:
+        return new BooleanWriter( field, rowIndex, (LongColumnVector) vector,
+          defaultValue != null && Boolean.parseBoolean( defaultValue ) );
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+      case BIGINT:
+        return new LongWriter( field, rowIndex, (LongColumnVector) vector,
+          defaultValue != null ? Long.parseLong( defaultValue ) : 0 );
+      case BINARY:
+        return new BinaryWriter( field, rowIndex, (BytesColumnVector) vector,
+          defaultValue != null ? defaultValue.getBytes( StandardCharsets.UTF_8 ) : new byte[ 0 ] );
+      case FLOAT:
+      case DOUBLE:
+        return new DoubleWriter( field, rowIndex, (DoubleColumnVector) vector,
+          defaultValue != null ? Double.parseDouble( defaultValue ) : 0 );
+      case DECIMAL:
+        return new DecimalWriter( field, rowIndex, (DecimalColumnVector) vector,
+          defaultValue != null ? new BigDecimal( defaultValue ) : BigDecimal.ZERO );
+      case CHAR:
+      case VARCHAR:
+      case STRING:
+        return new StringWriter( field, rowIndex, (BytesColumnVector) vector,
+          defaultValue != null ? defaultValue : "" );
+      case DATE:
+        return new DateWriter( field, rowIndex, (LongColumnVector) vector, defaultDate( field, inputMeta ),
+          inputMeta.getDateFormatTimeZone() );
+      case TIMESTAMP:
+        return new TimestampWriter( field, rowIndex, (TimestampColumnVector) vector, defaultDate( field, inputMeta ) );
+      default:
+        throw new RuntimeException(
+          "Field: " + field.getDefaultValue() + "  Undefined type: " + field.getOrcType().getName() );
+    }
+  }
+
+  private static Date defaultDate( IOrcOutputField field, ValueMetaInterface inputMeta ) {
+    if ( field.getDefaultValue() == null ) {
+      return new Date( 0 );
+    }
+    String conversionMask = inputMeta.getConversionMask();
+    if ( conversionMask == null ) {
+      conversionMask = ValueMetaBase.DEFAULT_DATE_PARSE_MASK;
+    }
+    try {
+      return new SimpleDateFormat( conversionMask ).parse( field.getDefaultValue() );
+    } catch ( ParseException e ) {
+      logger.error( e );
+      return new Date( 0 );
+    }
+  }
+
+  /**
+   * Days since epoch of the date in the time zone, or in the default time zone when it's null.
+   */
+  static int epochDay( Date date, TimeZone timeZone ) {
+    if ( timeZone == null ) {
+      timeZone = TimeZone.getDefault();
+    }
+    long millis = date.getTime();
+    return Math.toIntExact( Math.floorDiv( millis + timeZone.getOffset( millis ), DAY_MILLIS ) );
+  }
+
+  void write( RowMetaAndData row, int batchRow ) {
+    ColumnVector vector = vector();
+    if ( row.getData()[ rowIndex ] == null && field.getAllowNull() ) {
+      vector.isNull[ batchRow ] = true;
+      vector.noNulls = false;
+      return;
+    }
+    vector.isNull[ batchRow ] = false;
+    try {
+      setValue( row, batchRow );
+    } catch ( KettleValueException e ) {
+      logger.error( e );
+    }
+  }
+
+  protected abstract ColumnVector vector();
+
+  protected abstract void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException;
+
+  private static class BooleanWriter extends OrcColumnWriter {
+    private final LongColumnVector vector;
+    private final boolean defaultValue;
+
+    BooleanWriter( IOrcOutputField field, int rowIndex, LongColumnVector vector, boolean defaultValue ) {
+      super( field, rowIndex );
+      this.vector = vector;
+      this.defaultValue = defaultValue;
+    }
+
+    @Override protected ColumnVector vector() {
+      return vector;
+    }
+
+    @Override protected void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException {
+      vector.vector[ batchRow ] = row.getBoolean( rowIndex, defaultValue ) ? 1L : 0L;
+    }
+  }
+
+  private static class LongWriter extends OrcColumnWriter {
+    private final LongColumnVector vector;
+    private final long defaultValue;
+
+    LongWriter( IOrcOutputField field, int rowIndex, LongColumnVector vector, long defaultValue ) {
+      super( field, rowIndex );
+      this.vector = vector;
+      this.defaultValue = defaultValue;
+    }
+
+    @Override protected ColumnVector vector() {
+      return vector;
+    }
+
+    @Override protected void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException {
+      vector.vector[ batchRow ] = row.getInteger( rowIndex, defaultValue );
+    }
+  }
+
+  private static class BinaryWriter extends OrcColumnWriter {
+    private final BytesColumnVector vector;
+    private final byte[] defaultValue;
+
+    BinaryWriter( IOrcOutputField field, int rowIndex, BytesColumnVector vector, byte[] defaultValue ) {
+      super( field, rowIndex );
+      this.vector = vector;
+      this.defaultValue = defaultValue;
+    }
+
+    @Override protected ColumnVector vector() {
+      return vector;
+    }
+
+    @Override protected void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException {
+      // the writer copies the bytes when the batch is added, so the value is only referenced
+      byte[] value = row.getBinary( rowIndex, defaultValue );
+      vector.setRef( batchRow, value, 0, value.length );
+    }
+  }
+
+  private static class DoubleWriter extends OrcColumnWriter {
+    private final DoubleColumnVector vector;
+    private final double defaultValue;
+
+    DoubleWriter( IOrcOutputField field, int rowIndex, DoubleColumnVector vector, double defaultValue ) {
+      super( field, rowIndex );
+      this.vector = vector;
+      this.defaultValue = defaultValue;
+    }
+
+    @Override protected ColumnVector vector() {
+      return vector;
+    }
+
+    @Override protected void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException {
+      double number = row.getNumber( rowIndex, defaultValue );
+      if ( field.getScale() > 0 ) {
+        number = new BigDecimal( number ).setScale( field.getScale(), BigDecimal.ROUND_HALF_UP ).doubleValue();
+      }
+      vector.vector[ batchRow ] = number;
+    }
+  }
+
+  private static class DecimalWriter extends OrcColumnWriter {
+    private final DecimalColumnVector vector;
+    private final BigDecimal defaultValue;
+
+    DecimalWriter( IOrcOutputField field, int rowIndex, DecimalColumnVector vector, BigDecimal defaultValue ) {
+      super( field, rowIndex );
+      this.vector = vector;
+      this.defaultValue = defaultValue;
+    }
+
+    @Override protected ColumnVector vector() {
+      return vector;
+    }
+
+    @Override protected void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException {
+      vector.vector[ batchRow ].set( HiveDecimal.create( row.getBigNumber( rowIndex, defaultValue ) ) );
+    }
+  }
+
+  /**
+   * Encodes strings as UTF-8 straight into the shared buffer of the column vector.
+   */
+  private static class StringWriter extends OrcColumnWriter {
+    private final BytesColumnVector vector;
+    private final String defaultValue;
+
+    StringWriter( IOrcOutputField field, int rowIndex, BytesColumnVector vector, String defaultValue ) {
+      super( field, rowIndex );
+      this.vector = vector;
+      this.defaultValue = defaultValue;
+    }
+
+    @Override protected ColumnVector vector() {
+      return vector;
+    }
+
+    @Override protected void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException {
+      String value = row.getString( rowIndex, defaultValue );
+      if ( value == null ) {
+        value = "";
+      }
+      if ( vector.getValPreallocatedBytes() == null ) {
+        vector.initBuffer();
+      }
+      int length = utf8Length( value );
+      vector.ensureValPreallocated( length );
+      encodeUtf8( value, vector.getValPreallocatedBytes(), vector.getValPreallocatedStart() );
+      vector.setValPreallocated( batchRow, length );
+    }
+  }
+
+  static int utf8Length( String value ) {
+    int length = value.length();
+    for ( int i = 0; i < value.length(); i++ ) {
+      char c = value.charAt( i );
+      if ( c >= 0x80 ) {
+        if ( c < 0x800 ) {
+          length++;
+        } else if ( !Character.isSurrogate( c ) ) {
+          length += 2;
+        } else if ( Character.isHighSurrogate( c ) && i + 1 < value.length()
+          && Character.isLowSurrogate( value.charAt( i + 1 ) ) ) {
+          // four bytes for the pair
+          length += 2;
+          i++;
+        }
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Same bytes as {@link String#getBytes} with UTF-8, unpaired surrogates become '?'.
+   */
+  static void encodeUtf8( String value, byte[] buffer, int offset ) {
+    int pos = offset;
+    for ( int i = 0; i < value.length(); i++ ) {
+      char c = value.charAt( i );
+      if ( c < 0x80 ) {
+        buffer[ pos++ ] = (byte) c;
+      } else if ( c < 0x800 ) {
+        buffer[ pos++ ] = (byte) ( 0xC0 | ( c >> 6 ) );
+        buffer[ pos++ ] = (byte) ( 0x80 | ( c & 0x3F ) );
+      } else if ( Character.isSurrogate( c ) ) {
+        if ( Character.isHighSurrogate( c ) && i + 1 < value.length()
+          && Character.isLowSurrogate( value.charAt( i + 1 ) ) ) {
+          int codePoint = Character.toCodePoint( c, value.charAt( ++i ) );
+          buffer[ pos++ ] = (byte) ( 0xF0 | ( codePoint >> 18 ) );
+          buffer[ pos++ ] = (byte) ( 0x80 | ( ( codePoint >> 12 ) & 0x3F ) );
+          buffer[ pos++ ] = (byte) ( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+          buffer[ pos++ ] = (byte) ( 0x80 | ( codePoint & 0x3F ) );
+        } else {
+          buffer[ pos++ ] = (byte) '?';
+        }
+      } else {
+        buffer[ pos++ ] = (byte) ( 0xE0 | ( c >> 12 ) );
+        buffer[ pos++ ] = (byte) ( 0x80 | ( ( c >> 6 ) & 0x3F ) );
+        buffer[ pos++ ] = (byte) ( 0x80 | ( c & 0x3F ) );
+      }
+    }
+  }
+
+  private static class DateWriter extends OrcColumnWriter {
+    private final LongColumnVector vector;
+    private final Date defaultValue;
+    private final TimeZone timeZone;
+
+    DateWriter( IOrcOutputField field, int rowIndex, LongColumnVector vector, Date defaultValue,
+                TimeZone timeZone ) {
+      super( field, rowIndex );
+      this.vector = vector;
+      this.defaultValue = defaultValue;
+      this.timeZone = timeZone;
+    }
+
+    @Override protected ColumnVector vector() {
+      return vector;
+    }
+
+    @Override protected void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException {
+      vector.vector[ batchRow ] = epochDay( row.getDate( rowIndex, defaultValue ), timeZone );
+    }
+  }
+
+  private static class TimestampWriter extends OrcColumnWriter {
+    private final TimestampColumnVector vector;
+    private final Date defaultValue;
+
+    TimestampWriter( IOrcOutputField field, int rowIndex, TimestampColumnVector vector, Date defaultValue ) {
+      super( field, rowIndex );
+      this.vector = vector;
+      this.defaultValue = defaultValue;
+    }
+
+    @Override protected ColumnVector vector() {
+      return vector;
+    }
+
+    @Override protected void setValue( RowMetaAndData row, int batchRow ) throws KettleValueException {
+      // millisecond precision, as a Timestamp made from Date.getTime()
+      long millis = row.getDate( rowIndex, defaultValue ).getTime();
+      vector.time[ batchRow ] = millis;
+      vector.nanos[ batchRow ] = (int) Math.floorMod( millis, 1000L ) * 1000000;
+    }
+  }
+}
@@ -14,149 +14,76 @@
 package org.pentaho.hadoop.shim.common.format.orc;
 
 
-import com.google.common.annotations.VisibleForTesting;
-import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
-import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
-import org.apache.logging.log4j.LogManager;
 import org.apache.orc.TypeDescription;
 import org.pentaho.di.core.RowMetaAndData;
-import org.pentaho.di.core.row.ValueMetaInterface;
-import org.pentaho.di.core.row.value.ValueMetaBase;
-import org.pentaho.di.core.row.value.ValueMetaConversionException;
-import org.pentaho.di.core.row.value.ValueMetaConverter;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.ZoneId;
-import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.logging.log4j.Logger;
-
 /**
  * Created by tkafalas 11/7/2017
  */
 public class OrcConverter {
-  private ValueMetaConverter valueMetaConverter = new ValueMetaConverter();
-  private static final Logger logger = LogManager.getLogger( OrcConverter.class );
+  private OrcRowDecoder decoder;
+  private List<? extends IOrcInputField> decoderInputFields;
+  private Map<String, Integer> decoderSubscripts;
+  private List<? extends IOrcInputField> decoderOrcFields;
 
   public RowMetaAndData convertFromOrc( VectorizedRowBatch batch, int currentBatchRow,
                                         List<? extends IOrcInputField> dialogInputFields,
                                         TypeDescription typeDescription,
                                         Map<String, Integer> schemaToOrcSubcripts,
                                         List<? extends IOrcInputField> orcInputFields ) {
-    return convertFromOrc( new RowMetaAndData(), batch, currentBatchRow, dialogInputFields, typeDescription,
-      schemaToOrcSubcripts, orcInputFields );
+    return getDecoder( dialogInputFields, schemaToOrcSubcripts, orcInputFields ).decode( batch, currentBatchRow );
   }
 
-  @VisibleForTesting
-  RowMetaAndData convertFromOrc( RowMetaAndData rowMetaAndData, VectorizedRowBatch batch, int currentBatchRow,
-                                 List<? extends IOrcInputField> dialogInputFields, TypeDescription typeDescription,
-                                 Map<String, Integer> schemaToOrcSubcripts,
-                                 List<? extends IOrcInputField> orcInputFields ) {
-
+  /**
+   * Empty batch with the same row meta as rows returned by {@link #convertFromOrc}.
+   */
+  public RecordBatch createRecordBatch( List<? extends IOrcInputField> dialogInputFields, int capacity ) {
+    RowMetaAndData rowMetaAndData = new RowMetaAndData();
     for ( IOrcInputField inputField : dialogInputFields ) {
-      IOrcInputField orcField = getFormatField( inputField.getFormatFieldName(), orcInputFields );
       if ( inputField != null ) {
-        ColumnVector columnVector = batch.cols[ schemaToOrcSubcripts.get( inputField.getPentahoFieldName() ) ];
-        Object orcToPentahoValue =
-          convertFromSourceToTargetDataType( columnVector, currentBatchRow, orcField.getPentahoType() );
-
-        Object convertToSchemaValue = null;
-        try {
-          String dateFormatStr = inputField.getStringFormat();
-          if ( ( dateFormatStr == null ) || ( dateFormatStr.trim().length() == 0 ) ) {
-            dateFormatStr = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
-          }
-          valueMetaConverter.setDatePattern( new SimpleDateFormat( dateFormatStr ) );
-          convertToSchemaValue = valueMetaConverter
-            .convertFromSourceToTargetDataType( orcField.getPentahoType(), inputField.getPentahoType(),
-              orcToPentahoValue );
-        } catch ( ValueMetaConversionException e ) {
-          logger.error( e );
-        }
-        rowMetaAndData.addValue( inputField.getPentahoFieldName(), inputField.getPentahoType(), convertToSchemaValue );
+        rowMetaAndData.addValue( inputField.getPentahoFieldName(), inputField.getPentahoType(), null );
         String stringFormat = inputField.getStringFormat();
         if ( ( stringFormat != null ) && ( stringFormat.trim().length() > 0 ) ) {
           rowMetaAndData.getValueMeta( rowMetaAndData.size() - 1 ).setConversionMask( stringFormat );
         }
       }
     }
-
-    return rowMetaAndData;
+    return new RecordBatch( rowMetaAndData.getRowMeta(), capacity );
   }
 
-  protected static Object convertFromSourceToTargetDataType( ColumnVector columnVector, int currentBatchRow,
-                                                             int orcValueMetaInterface ) {
-
-    int indexToLookup = columnVector.isRepeating ? 0 : currentBatchRow;
-    if ( columnVector.isNull[ indexToLookup ] ) {
-      return null;
-    }
-    switch ( orcValueMetaInterface ) {
-      case ValueMetaInterface.TYPE_INET:
-        try {
-          return InetAddress.getByName( new String( ( (BytesColumnVector) columnVector ).vector[ indexToLookup ],
-            ( (BytesColumnVector) columnVector ).start[ indexToLookup ],
-            ( (BytesColumnVector) columnVector ).length[ indexToLookup ] ) );
-        } catch ( UnknownHostException e ) {
-          e.printStackTrace();
-        }
-        break;
-
-      case ValueMetaInterface.TYPE_STRING:
-        return new String( ( (BytesColumnVector) columnVector ).vector[ indexToLookup ],
-          ( (BytesColumnVector) columnVector ).start[ indexToLookup ],
-          ( (BytesColumnVector) columnVector ).length[ indexToLookup ] );
-
-      case ValueMetaInterface.TYPE_INTEGER:
-        return ( (LongColumnVector) columnVector ).vector[ indexToLookup ];
-
-      case ValueMetaInterface.TYPE_NUMBER:
-        return ( (DoubleColumnVector) columnVector ).vector[ indexToLookup ];
-
-      case ValueMetaInterface.TYPE_BIGNUMBER:
-        HiveDecimalWritable obj = ( (DecimalColumnVector) columnVector ).vector[ indexToLookup ];
-        return obj.getHiveDecimal().bigDecimalValue();
-
-      case ValueMetaInterface.TYPE_TIMESTAMP:
-        Timestamp timestamp = new Timestamp( ( (TimestampColumnVector) columnVector ).time[ indexToLookup ] );
-        timestamp.setNanos( ( (TimestampColumnVector) columnVector ).nanos[ indexToLookup ] );
-        return timestamp;
-
-      case ValueMetaInterface.TYPE_DATE:
-        LocalDate localDate =
-          LocalDate.ofEpochDay( 0 ).plusDays( ( (LongColumnVector) columnVector ).vector[ indexToLookup ] );
-        Date dateValue = Date.from( localDate.atStartOfDay( ZoneId.systemDefault() ).toInstant() );
-        return dateValue;
-
-      case ValueMetaInterface.TYPE_BOOLEAN:
-        return ( (LongColumnVector) columnVector ).vector[ indexToLookup ] != 0;
+  /**
+   * Converts rows of the ORC batch from {@code fromRow} into the record batch, as many as fit. Integer and number
+   * columns which need no type conversion are copied without boxing.
+   *
+   * @return number of converted rows
+   */
+  public int convertFromOrc( RecordBatch recordBatch, VectorizedRowBatch batch, int fromRow,
+                             List<? extends IOrcInputField> dialogInputFields,
+                             Map<String, Integer> schemaToOrcSubcripts,
+                             List<? extends IOrcInputField> orcInputFields ) {
+    return getDecoder( dialogInputFields, schemaToOrcSubcripts, orcInputFields ).decode( recordBatch, batch, fromRow );
+  }
 
-      case ValueMetaInterface.TYPE_BINARY:
-        byte[] origBytes = ( (BytesColumnVector) columnVector ).vector[ indexToLookup ];
-        int startPos = ( (BytesColumnVector) columnVector ).start[ indexToLookup ];
-        byte[] newBytes = Arrays.copyOfRange( origBytes, startPos,
-          startPos + ( (BytesColumnVector) columnVector ).length[ indexToLookup ] );
-        return newBytes;
-      default:
-        return null;
+  /**
+   * Decoder for the fields, built again only when other field lists are passed.
+   */
+  private OrcRowDecoder getDecoder( List<? extends IOrcInputField> dialogInputFields,
+                                    Map<String, Integer> schemaToOrcSubcripts,
+                                    List<? extends IOrcInputField> orcInputFields ) {
+    if ( decoder == null || decoderInputFields != dialogInputFields || decoderSubscripts != schemaToOrcSubcripts
+      || decoderOrcFields != orcInputFields ) {
+      decoder = new OrcRowDecoder( dialogInputFields, schemaToOrcSubcripts, orcInputFields, false );
+      decoderInputFields = dialogInputFields;
+      decoderSubscripts = schemaToOrcSubcripts;
+      decoderOrcFields = orcInputFields;
     }
-
-    //if none of the cases match return a null
-    return null;
+    return decoder;
   }
 
   public IOrcInputField getFormatField( String formatFieldName, List<? extends IOrcInputField> fields ) {
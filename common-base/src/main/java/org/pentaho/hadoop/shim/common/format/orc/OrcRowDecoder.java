@@ -0,0 +1,218 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IOrcInputField;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+import org.pentaho.hadoop.shim.common.format.InputFieldPlan;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes rows of ORC batches into Kettle rows. Field lookups are resolved once, so decoding a row only reads the
+ * vectors, and all rows share one row meta.
+ * <p>
+ * With lazy strings, string columns are kept as UTF-8 bytes in binary string storage and decoded by the row meta only
+ * when a value is actually used.
+ */
+class OrcRowDecoder {
+  private static final Logger logger = LogManager.getLogger( OrcRowDecoder.class );
+
+  private final InputFieldPlan plan = new InputFieldPlan();
+  private final RowMetaInterface rowMeta;
+  private final Column[] columns;
+  private final ZoneId zone = ZoneId.systemDefault();
+
+  OrcRowDecoder( List<? extends IOrcInputField> dialogInputFields, Map<String, Integer> schemaToOrcSubcripts,
+                 List<? extends IOrcInputField> orcInputFields, boolean lazyStrings ) {
+    Map<String, IOrcInputField> orcFields = new HashMap<>();
+    for ( IOrcInputField orcField : orcInputFields ) {
+      orcFields.putIfAbsent( orcField.getFormatFieldName(), orcField );
+    }
+    List<Column> columnList = new ArrayList<>();
+    for ( IOrcInputField inputField : dialogInputFields ) {
+      if ( inputField == null ) {
+        continue;
+      }
+      IOrcInputField orcField = orcFields.get( inputField.getFormatFieldName() );
+      if ( orcField == null ) {
+        throw new IllegalArgumentException( "Column " + inputField.getFormatFieldName() + " is not in the ORC schema" );
+      }
+      ValueMetaInterface valueMeta = plan.addField( inputField, orcField.getPentahoType() );
+      Column column = new Column( schemaToOrcSubcripts.get( inputField.getPentahoFieldName() ),
+        orcField.getPentahoType() );
+      if ( lazyStrings && column.sourceType == ValueMetaInterface.TYPE_STRING
+        && inputField.getPentahoType() == ValueMetaInterface.TYPE_STRING ) {
+        setBinaryStringStorage( valueMeta );
+        column.binaryString = true;
+      }
+      columnList.add( column );
+    }
+    rowMeta = plan.getRowMeta();
+    columns = columnList.toArray( new Column[ 0 ] );
+  }
+
+  private static void setBinaryStringStorage( ValueMetaInterface valueMeta ) {
+    ValueMetaString storageMeta = new ValueMetaString( valueMeta.getName() );
+    storageMeta.setStringEncoding( StandardCharsets.UTF_8.name() );
+    valueMeta.setStringEncoding( StandardCharsets.UTF_8.name() );
+    valueMeta.setStorageMetadata( storageMeta );
+    valueMeta.setStorageType( ValueMetaInterface.STORAGE_TYPE_BINARY_STRING );
+  }
+
+  RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * New row with the values of one batch row. The row meta is shared by all rows.
+   */
+  RowMetaAndData decode( VectorizedRowBatch batch, int row ) {
+    Object[] data = new Object[ columns.length ];
+    for ( int i = 0; i < columns.length; i++ ) {
+      Column column = columns[ i ];
+      data[ i ] = plan.convert( i, read( column, batch.cols[ column.vectorIndex ], row ) );
+    }
+    return new RowMetaAndData( rowMeta, data );
+  }
+
+  /**
+   * Decodes rows of the ORC batch from {@code fromRow} into the record batch, as many as fit. Integer and number
+   * columns which need no type conversion are copied without boxing.
+   *
+   * @return number of decoded rows
+   */
+  int decode( RecordBatch recordBatch, VectorizedRowBatch batch, int fromRow ) {
+    int rows = Math.min( batch.size - fromRow, recordBatch.getCapacity() );
+    for ( int c = 0; c < columns.length; c++ ) {
+      Column column = columns[ c ];
+      ColumnVector columnVector = batch.cols[ column.vectorIndex ];
+      boolean unconverted = plan.isUnconverted( c );
+      if ( unconverted && plan.getTargetType( c ) == ValueMetaInterface.TYPE_INTEGER ) {
+        long[] vector = ( (LongColumnVector) columnVector ).vector;
+        for ( int i = 0; i < rows; i++ ) {
+          int index = columnVector.isRepeating ? 0 : fromRow + i;
+          if ( !columnVector.noNulls && columnVector.isNull[ index ] ) {
+            recordBatch.setNull( c, i );
+          } else {
+            recordBatch.setLong( c, i, vector[ index ] );
+          }
+        }
+      } else if ( unconverted && plan.getTargetType( c ) == ValueMetaInterface.TYPE_NUMBER ) {
+        double[] vector = ( (DoubleColumnVector) columnVector ).vector;
+        for ( int i = 0; i < rows; i++ ) {
+          int index = columnVector.isRepeating ? 0 : fromRow + i;
+          if ( !columnVector.noNulls && columnVector.isNull[ index ] ) {
+            recordBatch.setNull( c, i );
+          } else {
+            recordBatch.setDouble( c, i, vector[ index ] );
+          }
+        }
+      } else {
+        for ( int i = 0; i < rows; i++ ) {
+          recordBatch.setObject( c, i, plan.convert( c, read( column, columnVector, fromRow + i ) ) );
+        }
+      }
+    }
+    recordBatch.setSize( rows );
+    return rows;
+  }
+
+  private Object read( Column column, ColumnVector columnVector, int row ) {
+    int index = columnVector.isRepeating ? 0 : row;
+    if ( !columnVector.noNulls && columnVector.isNull[ index ] ) {
+      return null;
+    }
+    switch ( column.sourceType ) {
+      case ValueMetaInterface.TYPE_STRING:
+        BytesColumnVector strings = (BytesColumnVector) columnVector;
+        if ( column.binaryString ) {
+          return Arrays.copyOfRange( strings.vector[ index ], strings.start[ index ],
+            strings.start[ index ] + strings.length[ index ] );
+        }
+        return new String( strings.vector[ index ], strings.start[ index ], strings.length[ index ],
+          StandardCharsets.UTF_8 );
+      case ValueMetaInterface.TYPE_INTEGER:
+        return ( (LongColumnVector) columnVector ).vector[ index ];
+      case ValueMetaInterface.TYPE_NUMBER:
+        return ( (DoubleColumnVector) columnVector ).vector[ index ];
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        return ( (DecimalColumnVector) columnVector ).vector[ index ].getHiveDecimal().bigDecimalValue();
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        TimestampColumnVector timestamps = (TimestampColumnVector) columnVector;
+        Timestamp timestamp = new Timestamp( timestamps.time[ index ] );
+        timestamp.setNanos( timestamps.nanos[ index ] );
+        return timestamp;
+      case ValueMetaInterface.TYPE_DATE:
+        LocalDate day = LocalDate.ofEpochDay( ( (LongColumnVector) columnVector ).vector[ index ] );
+        return Date.from( day.atStartOfDay( zone ).toInstant() );
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        return ( (LongColumnVector) columnVector ).vector[ index ] != 0;
+      case ValueMetaInterface.TYPE_BINARY:
+        BytesColumnVector bytes = (BytesColumnVector) columnVector;
+        return Arrays.copyOfRange( bytes.vector[ index ], bytes.start[ index ],
+          bytes.start[ index ] + bytes.length[ index ] );
+      case ValueMetaInterface.TYPE_INET:
+        BytesColumnVector addresses = (BytesColumnVector) columnVector;
+        String address = new String( addresses.vector[ index ], addresses.start[ index ], addresses.length[ index ],
+          StandardCharsets.UTF_8 );
+        try {
+          return InetAddress.getByName( address );
+        } catch ( UnknownHostException e ) {
+          logger.error( e );
+          return null;
+        }
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Vector and ORC type of one output field.
+   */
+  private static final class Column {
+    private final int vectorIndex;
+    private final int sourceType;
+    private boolean binaryString;
+
+    Column( int vectorIndex, int sourceType ) {
+      this.vectorIndex = vectorIndex;
+      this.sourceType = sourceType;
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.common.type.HiveDecimal;
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
+import org.apache.orc.TypeDescription;
+import org.pentaho.hadoop.shim.api.format.PushDownFilter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts {@link PushDownFilter} into ORC {@link SearchArgument}, which lets the ORC reader skip stripes and row groups
+ * by their indexes and bloom filters.
+ * <p>
+ * Only top level columns with a comparable ORC type are converted. Parts of the filter which can't be converted are
+ * dropped from AND, and make the whole OR or NOT unconvertible, so the search argument never skips rows which match the
+ * original filter.
+ */
+public class OrcSearchArgumentBuilder {
+  private final Map<String, TypeDescription> columns = new HashMap<>();
+
+  public OrcSearchArgumentBuilder( TypeDescription schema ) {
+    List<String> names = schema.getFieldNames();
+    List<TypeDescription> children = schema.getChildren();
+    for ( int i = 0; i < names.size(); i++ ) {
+      columns.put( names.get( i ), children.get( i ) );
+    }
+  }
+
+  /**
+   * @return search argument or null if nothing could be pushed down
+   */
+  public SearchArgument build( PushDownFilter filter ) {
+    PushDownFilter supported = prune( filter, false );
+    if ( supported == null ) {
+      return null;
+    }
+    SearchArgument.Builder builder = SearchArgumentFactory.newBuilder();
+    add( builder, supported );
+    return builder.build();
+  }
+
+  /**
+   * Removes parts of the filter which can't be converted.
+   *
+   * @param exact true if the result must be equivalent to the filter, i.e. conjuncts can't be dropped (under NOT)
+   */
+  private PushDownFilter prune( PushDownFilter filter, boolean exact ) {
+    switch ( filter.getOperator() ) {
+      case AND:
+        List<PushDownFilter> and = new ArrayList<>();
+        for ( PushDownFilter child : filter.getChildren() ) {
+          PushDownFilter p = prune( child, exact );
+          if ( p != null ) {
+            and.add( p );
+          } else if ( exact ) {
+            return null;
+          }
+        }
+        return and.isEmpty() ? null : PushDownFilter.and( and.toArray( new PushDownFilter[ 0 ] ) );
+      case OR:
+        List<PushDownFilter> or = new ArrayList<>();
+        for ( PushDownFilter child : filter.getChildren() ) {
+          PushDownFilter p = prune( child, exact );
+          if ( p == null ) {
+            return null;
+          }
+          or.add( p );
+        }
+        return PushDownFilter.or( or.toArray( new PushDownFilter[ 0 ] ) );
+      case NOT:
+        PushDownFilter child = prune( filter.getChildren().get( 0 ), true );
+        return child == null ? null : PushDownFilter.not( child );
+      default:
+        TypeDescription column = columns.get( filter.getField() );
+        if ( column == null || leafType( column ) == null ) {
+          return null;
+        }
+        if ( filter.getValue() != null && literal( column, filter.getValue() ) == null ) {
+          return null;
+        }
+        return filter;
+    }
+  }
+
+  private void add( SearchArgument.Builder builder, PushDownFilter filter ) {
+    switch ( filter.getOperator() ) {
+      case AND:
+        builder.startAnd();
+        filter.getChildren().forEach( c -> add( builder, c ) );
+        builder.end();
+        return;
+      case OR:
+        builder.startOr();
+        filter.getChildren().forEach( c -> add( builder, c ) );
+        builder.end();
+        return;
+      case NOT:
+        builder.startNot();
+        add( builder, filter.getChildren().get( 0 ) );
+        builder.end();
+        return;
+      default:
+        addLeaf( builder, filter );
+    }
+  }
+
+  private void addLeaf( SearchArgument.Builder builder, PushDownFilter filter ) {
+    String name = filter.getField();
+    TypeDescription column = columns.get( name );
+    PredicateLeaf.Type type = leafType( column );
+    Object literal = filter.getValue() == null ? null : literal( column, filter.getValue() );
+    // search arguments have only EQ, LT and LT_EQ, the others are expressed through NOT
+    switch ( filter.getOperator() ) {
+      case EQ:
+        builder.equals( name, type, literal );
+        break;
+      case NOT_EQ:
+        builder.startNot().equals( name, type, literal ).end();
+        break;
+      case LT:
+        builder.lessThan( name, type, literal );
+        break;
+      case LT_EQ:
+        builder.lessThanEquals( name, type, literal );
+        break;
+      case GT:
+        builder.startNot().lessThanEquals( name, type, literal ).end();
+        break;
+      case GT_EQ:
+        builder.startNot().lessThan( name, type, literal ).end();
+        break;
+      case IS_NULL:
+        builder.isNull( name, type );
+        break;
+      case IS_NOT_NULL:
+        builder.startNot().isNull( name, type ).end();
+        break;
+      default:
+        throw new IllegalArgumentException( "Unexpected filter " + filter );
+    }
+  }
+
+  /**
+   * Dates and timestamps are not converted, since ORC statistics and Kettle values may use different time zones.
+   */
+  private static PredicateLeaf.Type leafType( TypeDescription column ) {
+    switch ( column.getCategory() ) {
+      case BOOLEAN:
+        return PredicateLeaf.Type.BOOLEAN;
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+        return PredicateLeaf.Type.LONG;
+      case FLOAT:
+      case DOUBLE:
+        return PredicateLeaf.Type.FLOAT;
+      case STRING:
+      case VARCHAR:
+        return PredicateLeaf.Type.STRING;
+      case DECIMAL:
+        return PredicateLeaf.Type.DECIMAL;
+      default:
+        return null;
+    }
+  }
+
+  private static Object literal( TypeDescription column, Object value ) {
+    switch ( leafType( column ) ) {
+      case BOOLEAN:
+        return value instanceof Boolean ? value : null;
+      case LONG:
+        if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+          return ( (Number) value ).longValue();
+        }
+        if ( value instanceof BigInteger && ( (BigInteger) value ).bitLength() < 64 ) {
+          return ( (BigInteger) value ).longValue();
+        }
+        return null;
+      case FLOAT:
+        return value instanceof Number && !( value instanceof BigDecimal ) ? ( (Number) value ).doubleValue() : null;
+      case STRING:
+        return value instanceof String ? value : null;
+      case DECIMAL:
+        if ( value instanceof BigDecimal ) {
+          HiveDecimal decimal = HiveDecimal.create( (BigDecimal) value );
+          return decimal == null ? null : new HiveDecimalWritable( decimal );
+        }
+        return null;
+      default:
+        return null;
+    }
+  }
+}
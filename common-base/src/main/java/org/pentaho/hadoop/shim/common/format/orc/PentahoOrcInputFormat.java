@@ -14,14 +14,23 @@
 package org.pentaho.hadoop.shim.common.format.orc;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.orc.OrcFile;
 import org.apache.orc.Reader;
 import org.apache.orc.TypeDescription;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
 import org.pentaho.hadoop.shim.api.format.IOrcMetaData;
 import org.pentaho.hadoop.shim.api.format.IPentahoOrcInputFormat;
+import org.pentaho.hadoop.shim.api.format.PushDownFilter;
+import org.pentaho.hadoop.shim.common.format.ChainedRecordReader;
 import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.ParallelRecordReader;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Objects.requireNonNull;
@@ -36,23 +45,92 @@ public class PentahoOrcInputFormat extends HadoopFormatBase implements IPentahoO
   protected List<? extends IOrcInputField> inputFields;
 
   protected Configuration conf;
+  protected long splitSize = Long.MAX_VALUE;
+  protected PushDownFilter filter;
+  protected boolean lazyStrings;
 
   public PentahoOrcInputFormat( NamedCluster namedCluster ) {
     conf = inClassloader( () -> createConfigurationWithClassLoader( namedCluster, getClass().getClassLoader() ) );
   }
 
+  /**
+   * One split per file by default. When the split size is set, stripes of every file are grouped into splits of up to
+   * that size.
+   */
+  @Override
+  public List<IPentahoInputSplit> getSplits() {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    return inClassloader( () -> {
+      Path path = new Path( fileName );
+      FileSystem fs = getFileSystem( path );
+      List<IPentahoInputSplit> splits = new ArrayList<>();
+      for ( Path file : PentahoOrcRecordReader.listFiles( path, fs ) ) {
+        if ( splitSize == Long.MAX_VALUE ) {
+          splits.add( PentahoOrcInputSplit.wholeFile( file ) );
+        } else {
+          try ( Reader reader = OrcFile.createReader( file, OrcFile.readerOptions( conf ).filesystem( fs ) ) ) {
+            splits.addAll( PentahoOrcInputSplit.fromStripes( file, reader.getStripes(), splitSize ) );
+          }
+        }
+      }
+      return splits;
+    } );
+  }
+
+  /**
+   * Reads the given split, or all ORC files of the input one after another when the split is not from
+   * {@link #getSplits()}.
+   */
   @Override
   public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) {
     requireNonNull( fileName, NOT_NULL_MSG );
     requireNonNull( inputFields, NOT_NULL_MSG );
-    return inClassloader( () -> new PentahoOrcRecordReader( fileName, conf, inputFields ) );
+    if ( split instanceof PentahoOrcInputSplit ) {
+      return inClassloader( () -> createSplitReader( (PentahoOrcInputSplit) split ) );
+    }
+    List<IPentahoInputSplit> splits = getSplits();
+    if ( splits.size() == 1 ) {
+      return createRecordReader( splits.get( 0 ) );
+    }
+    return new ChainedRecordReader( splits, this::createRecordReader );
+  }
+
+  @Override
+  public IPentahoRecordReader createRecordReader( List<IPentahoInputSplit> splits, int threads ) {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    requireNonNull( inputFields, NOT_NULL_MSG );
+    return new ParallelRecordReader( splits, threads, this::createRecordReader, getClass().getClassLoader() );
+  }
+
+  protected IPentahoRecordReader createSplitReader( PentahoOrcInputSplit split ) throws IOException {
+    Path path = split.getPath();
+    Reader reader = OrcFile.createReader( path, OrcFile.readerOptions( conf ).filesystem( getFileSystem( path ) ) );
+    try {
+      PentahoOrcRecordReader recordReader = new PentahoOrcRecordReader( path.toString(), inputFields, reader,
+        reader.options().range( split.getOffset(), split.getLength() ), filter );
+      recordReader.setLazyStrings( lazyStrings );
+      return recordReader;
+    } catch ( RuntimeException e ) {
+      reader.close();
+      throw e;
+    }
+  }
+
+  /**
+   * File system of the input files.
+   */
+  protected FileSystem getFileSystem( Path path ) throws IOException {
+    new S3NCredentialUtils().applyS3CredentialsToHadoopConfigurationIfNecessary( fileName, conf );
+    return FileSystem.get( path.toUri(), conf );
   }
 
   @Override
   public List<IOrcInputField> readSchema() {
-    return inClassloader( () -> readSchema(
-      PentahoOrcRecordReader.getReader(
-        requireNonNull( fileName, NOT_NULL_MSG ), conf ) ) );
+    return inClassloader( () -> {
+      try ( Reader reader = PentahoOrcRecordReader.getReader( requireNonNull( fileName, NOT_NULL_MSG ), conf ) ) {
+        return readSchema( reader );
+      }
+    } );
   }
 
   protected List<IOrcInputField> readSchema( Reader orcReader ) {
@@ -83,5 +161,20 @@ public class PentahoOrcInputFormat extends HadoopFormatBase implements IPentahoO
     this.fileName = S3NCredentialUtils.scrubFilePathIfNecessary( fileName );
   }
 
+  @Override
+  public void setSplitSize( long splitSize ) {
+    this.splitSize = splitSize > 0 ? splitSize : Long.MAX_VALUE;
+  }
+
+  @Override
+  public void setFilter( PushDownFilter filter ) {
+    this.filter = filter;
+  }
+
+  @Override
+  public void setLazyStrings( boolean lazyStrings ) {
+    this.lazyStrings = lazyStrings;
+  }
+
 
 }
@@ -0,0 +1,87 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.orc.StripeInformation;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Part of one ORC file. The byte range always starts and ends at stripe boundaries, so that stripes are read by exactly
+ * one split.
+ */
+public class PentahoOrcInputSplit implements IPentahoInputSplit {
+  private final Path path;
+  private final long offset;
+  private final long length;
+
+  public PentahoOrcInputSplit( Path path, long offset, long length ) {
+    this.path = path;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Split covering the whole file.
+   */
+  public static PentahoOrcInputSplit wholeFile( Path path ) {
+    return new PentahoOrcInputSplit( path, 0, Long.MAX_VALUE );
+  }
+
+  /**
+   * Groups consecutive stripes into splits not larger than {@code maxSplitSize}, except for a single stripe which is
+   * larger than that.
+   */
+  public static List<PentahoOrcInputSplit> fromStripes( Path path, List<StripeInformation> stripes,
+                                                        long maxSplitSize ) {
+    List<PentahoOrcInputSplit> splits = new ArrayList<>();
+    long start = -1;
+    long end = -1;
+    for ( StripeInformation stripe : stripes ) {
+      long stripeEnd = stripe.getOffset() + stripe.getLength();
+      if ( start >= 0 && stripeEnd - start > maxSplitSize ) {
+        splits.add( new PentahoOrcInputSplit( path, start, end - start ) );
+        start = -1;
+      }
+      if ( start < 0 ) {
+        start = stripe.getOffset();
+      }
+      end = stripeEnd;
+    }
+    if ( start >= 0 ) {
+      splits.add( new PentahoOrcInputSplit( path, start, end - start ) );
+    }
+    return splits;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public String toString() {
+    return path + ":" + offset + "+" + length;
+  }
+}
@@ -25,6 +25,8 @@ import org.pentaho.hadoop.shim.api.format.IOrcOutputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoOrcOutputFormat;
 import org.pentaho.hadoop.shim.api.format.org.pentaho.hadoop.shim.pvfs.api.PvfsHadoopBridgeFileSystemExtension;
 import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.MultiFileRecordWriter;
+import org.pentaho.hadoop.shim.common.format.ParallelRecordWriter;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 import org.pentaho.hadoop.shim.common.format.SensitiveLoggingUtils;
 
@@ -46,6 +48,8 @@ public class PentahoOrcOutputFormat extends HadoopFormatBase implements IPentaho
   protected int compressSize = 0;
   protected int stripeSize = DEFAULT_STRIPE_SIZE;
   protected List<? extends IOrcOutputField> fields;
+  protected int writerThreads = 1;
+  protected long maxFileSize;
 
   public PentahoOrcOutputFormat() {
     this( null );
@@ -66,9 +70,30 @@ public class PentahoOrcOutputFormat extends HadoopFormatBase implements IPentaho
     OrcSchemaConverter converter = new OrcSchemaConverter();
     TypeDescription schema = converter.buildTypeDescription( fields );
 
+    if ( writerThreads > 1 ) {
+      return new ParallelRecordWriter( writerThreads,
+        writerNumber -> createPartWriter( schema, String.format( "part-%03d", writerNumber ) ),
+        getClass().getClassLoader() );
+    }
+    if ( maxFileSize > 0 ) {
+      return createPartWriter( schema, "part" );
+    }
     return new PentahoOrcRecordWriter( fields, schema, outputFilename, conf );
   }
 
+  /**
+   * Writes part files with the given name prefix into the output directory, rolled by size. Each part writer gets
+   * its own copy of the configuration, as part writers may run in parallel and ORC writers change the configuration.
+   */
+  protected IPentahoRecordWriter createPartWriter( TypeDescription schema, String filePrefix ) {
+    Configuration partConf = new Configuration( conf );
+    MultiFileRecordWriter writer = new MultiFileRecordWriter( new Path( outputFilename ), ".orc",
+      file -> new PentahoOrcRecordWriter( fields, schema, file.toString(), partConf ) );
+    writer.setFilePrefix( filePrefix );
+    writer.setMaxFileSize( maxFileSize );
+    return writer;
+  }
+
   @Override
   public void setFields( List<? extends IOrcOutputField> fields ) {
     this.fields = fields;
@@ -142,6 +167,16 @@ public class PentahoOrcOutputFormat extends HadoopFormatBase implements IPentaho
     }
   }
 
+  @Override
+  public void setWriterThreads( int threads ) {
+    writerThreads = Math.max( 1, threads );
+  }
+
+  @Override
+  public void setMaxFileSize( long size ) {
+    maxFileSize = size;
+  }
+
   public String generateAlias( String pvfsPath ) {
     return inClassloader( () -> {
         FileSystem fs = FileSystem.get( StringUtil.toUri( pvfsPath ), conf );
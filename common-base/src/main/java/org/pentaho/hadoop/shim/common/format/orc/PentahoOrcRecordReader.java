@@ -20,6 +20,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PathFilter;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.orc.OrcFile;
@@ -30,10 +31,16 @@ import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
 import org.pentaho.hadoop.shim.api.format.IOrcMetaData;
 import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
+import org.pentaho.hadoop.shim.api.format.PushDownFilter;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 
 import java.io.IOException;
 import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -42,7 +49,7 @@ import java.util.Map;
 /**
  * Created by tkafalas on 11/7/2017.
  */
-public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecordReader {
+public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoBatchRecordReader {
   protected static Logger logger = LogManager.getLogger( PentahoOrcRecordReader.class );
   protected List<? extends IOrcInputField> dialogInputFields;  //Comes from Dialog
   protected List<? extends IOrcInputField> orcInputFields;  //Comes from OrcFile combined with custom metadata
@@ -52,26 +59,23 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
   protected TypeDescription typeDescription;
   protected Map<String, Integer> schemaToOrcSubcripts;
   protected OrcConverter orcConverter = new OrcConverter();
-
-  protected PentahoOrcRecordReader( String fileName, Configuration conf,
-                          List<? extends IOrcInputField> dialogInputFields ) {
-    this.dialogInputFields = dialogInputFields;
-
-    Reader reader = getReader( fileName, conf );
-    readRows( fileName, reader );
-  }
-
-  protected PentahoOrcRecordReader( String fileName, List<? extends IOrcInputField> dialogInputFields, Reader reader ) {
+  protected RecordBatch recordBatch;
+  private final Reader reader;
+  private OrcRowDecoder rowDecoder;
+  private boolean lazyStrings;
+
+  /**
+   * Reads the part of the file selected by options, skipping row groups which can't match the filter. The reader is
+   * closed with the record reader.
+   */
+  protected PentahoOrcRecordReader( String fileName, List<? extends IOrcInputField> dialogInputFields, Reader reader,
+                                    Reader.Options options, PushDownFilter filter ) {
     this.dialogInputFields = dialogInputFields;
-    readRows( fileName, reader );
+    this.reader = reader;
+    readRows( fileName, options, filter );
   }
 
-  private void readRows( String fileName, Reader reader ) {
-    try {
-      recordReader = reader.rows();
-    } catch ( IOException e ) {
-      throw new IllegalArgumentException( "Unable to get record reader for file " + fileName, e );
-    }
+  private void readRows( String fileName, Reader.Options options, PushDownFilter filter ) {
     typeDescription = reader.getSchema();
     OrcSchemaConverter orcSchemaConverter = new OrcSchemaConverter();
     orcInputFields = orcSchemaConverter.buildInputFields( typeDescription );
@@ -101,6 +105,21 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
       }
     }
 
+    Reader.Options readOptions = options == null ? reader.options() : options;
+    // decode only the columns of the input fields
+    readOptions.include( includedColumns( typeDescription, schemaToOrcSubcripts.values() ) );
+    if ( filter != null ) {
+      SearchArgument searchArgument = new OrcSearchArgumentBuilder( typeDescription ).build( filter );
+      if ( searchArgument != null ) {
+        readOptions.searchArgument( searchArgument, typeDescription.getFieldNames().toArray( new String[ 0 ] ) );
+      }
+    }
+    try {
+      recordReader = reader.rows( readOptions );
+    } catch ( IOException e ) {
+      throw new IllegalArgumentException( "Unable to get record reader for file " + fileName, e );
+    }
+
     try {
       setNextBatch();
     } catch ( IOException e ) {
@@ -108,6 +127,20 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
     }
   }
 
+  /**
+   * Include mask by ORC column id: the root struct and the given top level columns with all their nested columns.
+   */
+  static boolean[] includedColumns( TypeDescription schema, Collection<Integer> fieldNumbers ) {
+    boolean[] include = new boolean[ schema.getMaximumId() + 1 ];
+    include[ schema.getId() ] = true;
+    List<TypeDescription> children = schema.getChildren();
+    for ( Integer fieldNumber : fieldNumbers ) {
+      TypeDescription child = children.get( fieldNumber );
+      Arrays.fill( include, child.getId(), child.getMaximumId() + 1, true );
+    }
+    return include;
+  }
+
   static Reader getReader( String fileName, Configuration conf ) {
 
     try {
@@ -115,18 +148,7 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
       util.applyS3CredentialsToHadoopConfigurationIfNecessary( fileName, conf );
       Path filePath = new Path( S3NCredentialUtils.scrubFilePathIfNecessary( fileName ) );
       FileSystem fs = FileSystem.get( filePath.toUri(), conf );
-      if ( !fs.exists( filePath ) ) {
-        throw new NoSuchFileException( fileName );
-      }
-      if ( fs.getFileStatus( filePath ).isDirectory() ) {
-        PathFilter pathFilter = file -> file.getName().endsWith( ".orc" );
-
-        FileStatus[] fileStatuses = fs.listStatus( filePath, pathFilter );
-        if ( fileStatuses.length == 0 ) {
-          throw new NoSuchFileException( fileName );
-        }
-        filePath = fileStatuses[ 0 ].getPath();
-      }
+      filePath = listFiles( filePath, fs ).get( 0 );
       return OrcFile.createReader( filePath,
         OrcFile.readerOptions( conf ).filesystem( fs ) );
     } catch ( IOException e ) {
@@ -134,14 +156,71 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
     }
   }
 
+  /**
+   * The file itself, or all ORC files of a directory in name order.
+   */
+  static List<Path> listFiles( Path filePath, FileSystem fs ) throws IOException {
+    if ( !fs.exists( filePath ) ) {
+      throw new NoSuchFileException( filePath.toString() );
+    }
+    if ( !fs.getFileStatus( filePath ).isDirectory() ) {
+      return Collections.singletonList( filePath );
+    }
+    PathFilter pathFilter = file -> file.getName().endsWith( ".orc" );
+
+    FileStatus[] fileStatuses = fs.listStatus( filePath, pathFilter );
+    if ( fileStatuses.length == 0 ) {
+      throw new NoSuchFileException( filePath.toString() );
+    }
+    List<Path> files = new ArrayList<>( fileStatuses.length );
+    for ( FileStatus fileStatus : fileStatuses ) {
+      files.add( fileStatus.getPath() );
+    }
+    Collections.sort( files );
+    return files;
+  }
+
+
+  /**
+   * Keeps string values as UTF-8 bytes in binary string storage until they are used.
+   */
+  public void setLazyStrings( boolean lazyStrings ) {
+    this.lazyStrings = lazyStrings;
+    rowDecoder = null;
+    recordBatch = null;
+  }
+
+  private OrcRowDecoder getRowDecoder() {
+    if ( rowDecoder == null ) {
+      rowDecoder = new OrcRowDecoder( dialogInputFields, schemaToOrcSubcripts, orcInputFields, lazyStrings );
+    }
+    return rowDecoder;
+  }
 
   protected boolean setNextBatch() throws IOException {
     currentBatchRow = 0;
     return recordReader.nextBatch( batch );
   }
 
+  @Override public RecordBatch nextBatch() throws IOException {
+    while ( currentBatchRow >= batch.size ) {
+      if ( !setNextBatch() ) {
+        return null;
+      }
+    }
+    if ( recordBatch == null ) {
+      recordBatch = new RecordBatch( getRowDecoder().getRowMeta(), batch.getMaxSize() );
+    }
+    currentBatchRow += getRowDecoder().decode( recordBatch, batch, currentBatchRow );
+    return recordBatch;
+  }
+
   @Override public void close() throws IOException {
-    recordReader.close();
+    try {
+      recordReader.close();
+    } finally {
+      reader.close();
+    }
   }
 
 
@@ -161,11 +240,9 @@ public class PentahoOrcRecordReader implements IPentahoInputFormat.IPentahoRecor
       }
 
       @Override public RowMetaAndData next() {
-        RowMetaAndData rowMeta =
-          orcConverter.convertFromOrc( batch, currentBatchRow, dialogInputFields, typeDescription, schemaToOrcSubcripts,
-            orcInputFields );
+        RowMetaAndData row = getRowDecoder().decode( batch, currentBatchRow );
         currentBatchRow++;
-        return rowMeta;
+        return row;
       }
     };
   }
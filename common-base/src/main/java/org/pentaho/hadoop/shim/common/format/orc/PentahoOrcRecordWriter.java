@@ -14,81 +14,42 @@
 package org.pentaho.hadoop.shim.common.format.orc;
 
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.hive.common.type.HiveDecimal;
-import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.DecimalColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
-import org.apache.hadoop.hive.ql.exec.vector.TimestampColumnVector;
 import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
-import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.orc.OrcFile;
+import org.apache.orc.StripeInformation;
 import org.apache.orc.TypeDescription;
 import org.apache.orc.Writer;
 import org.pentaho.di.core.RowMetaAndData;
 import org.apache.hadoop.conf.Configuration;
-import org.pentaho.di.core.exception.KettleValueException;
-import org.pentaho.di.core.plugins.IValueMetaConverter;
-import org.pentaho.di.core.row.RowMeta;
-import org.pentaho.di.core.row.ValueMetaInterface;
-import org.pentaho.di.core.row.value.ValueMetaBase;
-import org.pentaho.di.core.row.value.ValueMetaBigNumber;
-import org.pentaho.di.core.row.value.ValueMetaBinary;
-import org.pentaho.di.core.row.value.ValueMetaBoolean;
-import org.pentaho.di.core.row.value.ValueMetaConversionException;
-import org.pentaho.di.core.row.value.ValueMetaConverter;
-import org.pentaho.di.core.row.value.ValueMetaDate;
-import org.pentaho.di.core.row.value.ValueMetaInteger;
-import org.pentaho.di.core.row.value.ValueMetaInternetAddress;
-import org.pentaho.di.core.row.value.ValueMetaNumber;
-import org.pentaho.di.core.row.value.ValueMetaString;
-import org.pentaho.di.core.row.value.ValueMetaTimestamp;
+import org.pentaho.di.core.row.RowMetaInterface;
 import org.pentaho.hadoop.shim.api.format.IOrcOutputField;
-import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat;
+import org.pentaho.hadoop.shim.common.format.MultiFileRecordWriter;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 import org.pentaho.hadoop.shim.common.format.SensitiveLoggingUtils;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.math.BigDecimal;
-import java.nio.ByteBuffer;
-import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.util.Date;
 import java.util.List;
-import java.util.TimeZone;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by tkafalas on 11/3/2017.
  */
-public class PentahoOrcRecordWriter implements IPentahoOutputFormat.IPentahoRecordWriter {
+public class PentahoOrcRecordWriter implements MultiFileRecordWriter.SizedRecordWriter {
   private final TypeDescription schema;
   protected VectorizedRowBatch batch;
   protected int batchRowNumber;
   protected Writer writer;
-  protected final IValueMetaConverter valueMetaConverter = new ValueMetaConverter();
-  private final String dateFormatString = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK; //TODO: Get this from UI
-  private SimpleDateFormat datePattern = new SimpleDateFormat( dateFormatString );
-  protected RowMeta outputRowMeta = new RowMeta();
-  protected RowMetaAndData outputRowMetaAndData;
   protected static final Logger logger = LogManager.getLogger( PentahoOrcRecordWriter.class );
   protected List<? extends IOrcOutputField> fields;
+  private OrcColumnWriter[] columnWriters;
+  private RowMetaInterface boundRowMeta;
+  private VectorizedRowBatch boundBatch;
 
   public PentahoOrcRecordWriter( List<? extends IOrcOutputField> fields, TypeDescription schema, String filePath,
                                  Configuration conf ) {
     this.fields = fields;
     this.schema = schema;
-    final AtomicInteger fieldNumber = new AtomicInteger();  //Mutable field count
-    fields.forEach( field -> setOutputMeta( fieldNumber, field ) );
-    outputRowMetaAndData = new RowMetaAndData( outputRowMeta, new Object[ fieldNumber.get() ] );
 
     try {
       S3NCredentialUtils util = new S3NCredentialUtils();
@@ -107,221 +68,58 @@ public class PentahoOrcRecordWriter implements IPentahoOutputFormat.IPentahoReco
     // new OrcMetaDataWriter( writer ).write( fields );
   }
 
-  protected void setOutputMeta( AtomicInteger fieldNumber, IOrcOutputField field ) {
-    outputRowMeta.addValueMeta( getValueMetaInterface( field.getPentahoFieldName(), field.getOrcType().getPdiType() ) );
-    fieldNumber.getAndIncrement();
-  }
-
   @Override public void write( RowMetaAndData row ) throws Exception {
-    final AtomicInteger fieldNumber = new AtomicInteger();  //Mutable field count
+    if ( row.getRowMeta() != boundRowMeta || batch != boundBatch ) {
+      bindColumns( row.getRowMeta() );
+    }
     batchRowNumber = batch.size++;
 
-    fields.forEach( field -> setFieldValue( fieldNumber, field, row ) );
-    if ( batch.size == batch.getMaxSize() - 1 ) {
+    for ( OrcColumnWriter columnWriter : columnWriters ) {
+      columnWriter.write( row, batchRowNumber );
+    }
+    if ( batch.size == batch.getMaxSize() ) {
       writer.addRowBatch( batch );
       batch.reset();
     }
   }
 
-  private void setFieldValue( AtomicInteger fieldNumber, IOrcOutputField field,
-                              RowMetaAndData rowMetaAndData ) {
-    int fieldNo = fieldNumber.getAndIncrement();
-    ColumnVector columnVector = batch.cols[ fieldNo ];
-    int rowMetaIndex = rowMetaAndData.getRowMeta().indexOfValue( field.getPentahoFieldName() );
-
-    if ( rowMetaAndData.getData()[ rowMetaIndex ] == null ) {
-      if ( field.getAllowNull() ) {
-        columnVector.isNull[ batchRowNumber ] = true;
-        columnVector.noNulls = false;
-        return;
+  /**
+   * Creates column writers for the fields of rows with the given row meta, in the columns of the current batch.
+   */
+  private void bindColumns( RowMetaInterface rowMeta ) {
+    OrcColumnWriter[] writers = new OrcColumnWriter[ fields.size() ];
+    for ( int i = 0; i < writers.length; i++ ) {
+      IOrcOutputField field = fields.get( i );
+      int rowIndex = rowMeta.indexOfValue( field.getPentahoFieldName() );
+      if ( rowIndex < 0 ) {
+        throw new IllegalArgumentException( "Field " + field.getPentahoFieldName() + " not found in the row" );
       }
+      writers[ i ] = OrcColumnWriter.create( field, rowMeta.getValueMeta( rowIndex ), rowIndex, batch.cols[ i ] );
     }
-
-    columnVector.isNull[ batchRowNumber ] = false;
-    int inlineType = rowMetaAndData.getRowMeta().getValueMeta( rowMetaIndex ).getType();
-    Object inlineValue = rowMetaAndData.getData()[ rowMetaIndex ];
-    Object setValue = null;
-
-    try {
-      setValue = valueMetaConverter
-        .convertFromSourceToTargetDataType( inlineType, field.getOrcType().getPdiType(), inlineValue );
-    } catch ( ValueMetaConversionException e ) {
-      logger.error( e );
-    }
-    //Set the final converted value
-    outputRowMetaAndData.getData()[ rowMetaIndex ] = setValue;
-
-    switch ( field.getOrcType() ) {
-      case BOOLEAN:
-        try {
-          ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
-            rowMetaAndData.getBoolean( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? Boolean.valueOf( field.getDefaultValue() ) : false ) ? 1L : 0L;
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
-        break;
-      case TINYINT:
-      case SMALLINT:
-      case INTEGER:
-      case BIGINT:
-        try {
-          ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
-            rowMetaAndData.getInteger( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? Long.valueOf( field.getDefaultValue() ) : 0 );
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
-        break;
-      case BINARY:
-        try {
-          setBytesColumnVector( ( (BytesColumnVector) columnVector ),
-            rowMetaAndData.getBinary( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? field.getDefaultValue().getBytes() : new byte[ 0 ] ) );
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
-        break;
-      case FLOAT:
-      case DOUBLE:
-        try {
-          double number = rowMetaAndData.getNumber( field.getPentahoFieldName(),
-            field.getDefaultValue() != null ? new Double( field.getDefaultValue() ) : new Double( 0 ) );
-          number = applyScale( number, field );
-          ( (DoubleColumnVector) columnVector ).vector[ batchRowNumber ] = number;
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
-        break;
-      case DECIMAL:
-        try {
-          ( (DecimalColumnVector) columnVector ).vector[ batchRowNumber ] = new HiveDecimalWritable( HiveDecimal.create(
-            rowMetaAndData.getBigNumber( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? new BigDecimal( field.getDefaultValue() ) : new BigDecimal( 0 ) ) ) );
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
-        break;
-      case CHAR:
-      case VARCHAR:
-      case STRING:
-        try {
-          setBytesColumnVector( ( (BytesColumnVector) columnVector ),
-            rowMetaAndData.getString( field.getPentahoFieldName(),
-              field.getDefaultValue() != null ? field.getDefaultValue() : "" ) );
-        } catch ( KettleValueException e ) {
-          logger.error( e );
-        }
-        break;
-      case DATE:
-        try {
-          String conversionMask = rowMetaAndData.getValueMeta( rowMetaIndex ).getConversionMask();
-          if ( conversionMask == null ) {
-            conversionMask = ValueMetaBase.DEFAULT_DATE_PARSE_MASK;
-          }
-          DateFormat dateFormat = new SimpleDateFormat( conversionMask );
-          Date defaultDate =
-            field.getDefaultValue() != null ? dateFormat.parse( field.getDefaultValue() ) : new Date( 0 );
-          Date date = rowMetaAndData.getDate( field.getPentahoFieldName(), defaultDate );
-          ( (LongColumnVector) columnVector ).vector[ batchRowNumber ] =
-            getOrcDate( date, rowMetaAndData.getValueMeta( rowMetaIndex ).getDateFormatTimeZone() );
-        } catch ( KettleValueException | ParseException e ) {
-          logger.error( e );
-        }
-        break;
-      case TIMESTAMP:
-        try {
-          String conversionMask = rowMetaAndData.getValueMeta( rowMetaIndex ).getConversionMask();
-          if ( conversionMask == null ) {
-            conversionMask = ValueMetaBase.DEFAULT_DATE_PARSE_MASK;
-          }
-          DateFormat dateFormat = new SimpleDateFormat( conversionMask );
-          ( (TimestampColumnVector) columnVector ).set( batchRowNumber,
-            new Timestamp( rowMetaAndData.getDate( field.getPentahoFieldName(),
-                field.getDefaultValue() != null ? ( dateFormat.parse( field.getDefaultValue() ) ) : new Date( 0 ) )
-              .getTime() ) );
-        } catch ( KettleValueException | ParseException e ) {
-          logger.error( e );
-        }
-        break;
-      default:
-        throw new RuntimeException(
-          "Field: " + field.getDefaultValue() + "  Undefined type: " + field.getOrcType().getName() );
-    }
-  }
-
-  private double applyScale( double number, IOrcOutputField outputField ) {
-    if ( outputField.getScale() > 0 ) {
-      BigDecimal bd = new BigDecimal( number );
-      bd = bd.setScale( outputField.getScale(), BigDecimal.ROUND_HALF_UP );
-      number = bd.doubleValue();
-    }
-    return number;
-  }
-
-
-  protected int getOrcDate( Date date, TimeZone timeZone ) {
-    if ( timeZone == null ) {
-      timeZone = TimeZone.getDefault();
-    }
-    LocalDate rowDate = date.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-    return Math.toIntExact( ChronoUnit.DAYS.between( LocalDate.ofEpochDay( 0 ), rowDate ) );
+    columnWriters = writers;
+    boundRowMeta = rowMeta;
+    boundBatch = batch;
   }
 
-  private void setBytesColumnVector( BytesColumnVector bytesColumnVector, String value ) {
-    if ( value == null ) {
-      setBytesColumnVector( bytesColumnVector, new byte[ 0 ] );
-    } else {
-      setBytesColumnVector( bytesColumnVector, value.getBytes() );
+  /**
+   * Bytes of the written stripes and of the data buffered by the ORC writer.
+   */
+  @Override public long getDataSize() {
+    try {
+      long size = writer.estimateMemory();
+      for ( StripeInformation stripe : writer.getStripes() ) {
+        size += stripe.getLength();
+      }
+      return size;
+    } catch ( Exception e ) {
+      throw new IllegalStateException( "Unable to get size of ORC file", e );
     }
   }
 
-  protected void setBytesColumnVector( BytesColumnVector bytesColumnVector, byte[] value ) {
-    bytesColumnVector.vector[ batchRowNumber ] = value;
-    bytesColumnVector.start[ batchRowNumber ] = 0;
-    bytesColumnVector.length[ batchRowNumber ] = value.length;
-  }
-
   @Override public void close() throws IOException {
     if ( batch.size > 0 ) {
       writer.addRowBatch( batch );
     }
     writer.close();
   }
-
-  private ByteBuffer toByteBuffer( int i ) throws UnsupportedEncodingException {
-    return toByteBuffer( String.valueOf( i ) );
-  }
-
-  private ByteBuffer toByteBuffer( String s ) throws UnsupportedEncodingException {
-    return ByteBuffer.wrap( s.getBytes( "UTF-8" ) );
-  }
-
-  private ByteBuffer toByteBuffer( boolean b ) throws UnsupportedEncodingException {
-    return ByteBuffer.wrap( String.valueOf( b ).getBytes( "UTF-8" ) );
-  }
-
-  private ValueMetaInterface getValueMetaInterface( String fieldName, int fieldType ) {
-    switch ( fieldType ) {
-      case ValueMetaInterface.TYPE_INET:
-        return new ValueMetaInternetAddress( fieldName );
-      case ValueMetaInterface.TYPE_STRING:
-        return new ValueMetaString( fieldName );
-      case ValueMetaInterface.TYPE_INTEGER:
-        return new ValueMetaInteger( fieldName );
-      case ValueMetaInterface.TYPE_NUMBER:
-        return new ValueMetaNumber( fieldName );
-      case ValueMetaInterface.TYPE_BIGNUMBER:
-        return new ValueMetaBigNumber( fieldName );
-      case ValueMetaInterface.TYPE_TIMESTAMP:
-        return new ValueMetaTimestamp( fieldName );
-      case ValueMetaInterface.TYPE_DATE:
-        return new ValueMetaDate( fieldName );
-      case ValueMetaInterface.TYPE_BOOLEAN:
-        return new ValueMetaBoolean( fieldName );
-      case ValueMetaInterface.TYPE_BINARY:
-        return new ValueMetaBinary( fieldName );
-    }
-    return null;
-  }
 }
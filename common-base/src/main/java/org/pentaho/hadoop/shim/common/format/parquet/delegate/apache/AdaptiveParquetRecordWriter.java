@@ -0,0 +1,285 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+package org.pentaho.hadoop.shim.common.format.parquet.delegate.apache;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetOutputFormat;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.hadoop.shim.api.format.IParquetOutputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Record writer which keeps the first rows, chooses encoding settings from them and only then opens the real writer.
+ * <p>
+ * Dictionary encoding is enabled for columns with few distinct values. Pages are sized to hold about
+ * {@value #PAGE_VALUES} values of the widest column, and row groups about {@value #ROW_GROUP_ROWS} rows, within
+ * bounds.
+ */
+public class AdaptiveParquetRecordWriter implements IPentahoRecordWriter {
+  static final double MAX_DICTIONARY_RATIO = 0.5;
+  static final int PAGE_VALUES = 20000;
+  static final int MIN_PAGE_SIZE = 64 * 1024;
+  static final int MAX_PAGE_SIZE = 1024 * 1024;
+  static final int MAX_DICTIONARY_PAGE_SIZE = 4 * 1024 * 1024;
+  static final long ROW_GROUP_ROWS = 1000000;
+  static final long MIN_ROW_GROUP_SIZE = 16L * 1024 * 1024;
+  static final long MAX_ROW_GROUP_SIZE = 128L * 1024 * 1024;
+
+  private final List<? extends IParquetOutputField> fields;
+  private final int sampleRows;
+  private final WriterFactory factory;
+  private List<RowMetaAndData> sample = new ArrayList<>();
+  private IPentahoRecordWriter writer;
+
+  /**
+   * Opens the real writer with the chosen settings.
+   */
+  @FunctionalInterface
+  public interface WriterFactory {
+    IPentahoRecordWriter createRecordWriter( Settings settings ) throws Exception;
+  }
+
+  public AdaptiveParquetRecordWriter( List<? extends IParquetOutputField> fields, int sampleRows,
+                                      WriterFactory factory ) {
+    this.fields = fields;
+    this.sampleRows = sampleRows;
+    this.factory = factory;
+  }
+
+  @Override
+  public void write( RowMetaAndData row ) throws Exception {
+    if ( writer != null ) {
+      writer.write( row );
+      return;
+    }
+    // callers may reuse the data array of the row
+    sample.add( new RowMetaAndData( row.getRowMeta(), row.getData().clone() ) );
+    if ( sample.size() >= sampleRows ) {
+      startWriter();
+    }
+  }
+
+  private void startWriter() throws Exception {
+    List<RowMetaAndData> rows = sample;
+    sample = null;
+    writer = factory.createRecordWriter( choose( fields, rows ) );
+    for ( RowMetaAndData row : rows ) {
+      writer.write( row );
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if ( writer == null ) {
+        startWriter();
+      }
+    } catch ( IOException e ) {
+      throw e;
+    } catch ( Exception e ) {
+      throw new IOException( "Unable to write sampled rows", e );
+    }
+    writer.close();
+  }
+
+  /**
+   * Settings for the sampled rows.
+   */
+  public static Settings choose( List<? extends IParquetOutputField> fields, List<RowMetaAndData> rows )
+    throws KettleValueException {
+    Map<String, Boolean> dictionary = new LinkedHashMap<>();
+    double rowBytes = 0;
+    double widestColumn = 0;
+    long dictionaryBytes = 0;
+    for ( IParquetOutputField field : fields ) {
+      if ( field.getFormatFieldName() == null ) {
+        continue;
+      }
+      ColumnSample column = new ColumnSample( field );
+      for ( RowMetaAndData row : rows ) {
+        column.add( row );
+      }
+      boolean useDictionary = column.useDictionary();
+      dictionary.put( field.getFormatFieldName(), useDictionary );
+      double width = useDictionary ? column.dictionaryIdWidth() : column.averageWidth();
+      rowBytes += width;
+      widestColumn = Math.max( widestColumn, width );
+      if ( useDictionary ) {
+        dictionaryBytes = Math.max( dictionaryBytes, column.dictionaryBytes() );
+      }
+    }
+    int pageSize = (int) clamp( (long) ( widestColumn * PAGE_VALUES ), MIN_PAGE_SIZE, MAX_PAGE_SIZE );
+    // room for the dictionary to grow past the sample before falling back to plain encoding
+    int dictionaryPageSize = (int) clamp( dictionaryBytes * 4, pageSize, MAX_DICTIONARY_PAGE_SIZE );
+    long rowGroupSize = clamp( (long) ( rowBytes * ROW_GROUP_ROWS ), MIN_ROW_GROUP_SIZE, MAX_ROW_GROUP_SIZE );
+    return new Settings( dictionary, pageSize, dictionaryPageSize, rowGroupSize );
+  }
+
+  private static long clamp( long value, long min, long max ) {
+    return Math.max( min, Math.min( max, value ) );
+  }
+
+  /**
+   * Distinct values and average plain encoded width of one column in the sample.
+   */
+  private static class ColumnSample {
+    private final IParquetOutputField field;
+    private final Set<Object> distinct = new HashSet<>();
+    private long values;
+    private long bytes;
+    private long distinctBytes;
+
+    ColumnSample( IParquetOutputField field ) {
+      this.field = field;
+    }
+
+    void add( RowMetaAndData row ) throws KettleValueException {
+      int index = row.getRowMeta().indexOfValue( field.getPentahoFieldName() );
+      if ( index < 0 || row.getData()[ index ] == null ) {
+        return;
+      }
+      Object key;
+      int width;
+      switch ( field.getParquetType() ) {
+        case UTF8:
+          String string = row.getString( index, null );
+          key = string;
+          width = string == null ? 0 : string.length() + 4;
+          break;
+        case BINARY:
+          byte[] binary = row.getBinary( index, null );
+          key = binary == null ? null : ByteBuffer.wrap( binary );
+          width = binary == null ? 0 : binary.length + 4;
+          break;
+        default:
+          key = row.getData()[ index ];
+          width = fixedWidth();
+      }
+      if ( key == null ) {
+        return;
+      }
+      values++;
+      bytes += width;
+      if ( distinct.add( key ) ) {
+        distinctBytes += width;
+      }
+    }
+
+    private int fixedWidth() {
+      switch ( field.getParquetType() ) {
+        case BOOLEAN:
+          return 1;
+        case INT_32:
+        case DATE:
+        case FLOAT:
+        case DECIMAL_INT_32:
+          return 4;
+        case INT_96:
+          return 12;
+        case DECIMAL:
+          return ( field.getPrecision() + 1 ) / 2 + 4;
+        default:
+          return 8;
+      }
+    }
+
+    boolean useDictionary() {
+      return values > 0 && field.getParquetType() != ParquetSpec.DataType.BOOLEAN
+        && distinct.size() <= values * MAX_DICTIONARY_RATIO;
+    }
+
+    double averageWidth() {
+      return values == 0 ? fixedWidth() : (double) bytes / values;
+    }
+
+    /**
+     * Bytes of a dictionary id, bit packed.
+     */
+    double dictionaryIdWidth() {
+      return Math.max( 1, 64 - Long.numberOfLeadingZeros( distinct.size() ) ) / 8.0;
+    }
+
+    long dictionaryBytes() {
+      return distinctBytes;
+    }
+  }
+
+  /**
+   * Chosen dictionary encoding by column, and sizes in bytes.
+   */
+  public static class Settings {
+    private final Map<String, Boolean> dictionaryColumns;
+    private final int pageSize;
+    private final int dictionaryPageSize;
+    private final long rowGroupSize;
+
+    Settings( Map<String, Boolean> dictionaryColumns, int pageSize, int dictionaryPageSize, long rowGroupSize ) {
+      this.dictionaryColumns = Collections.unmodifiableMap( dictionaryColumns );
+      this.pageSize = pageSize;
+      this.dictionaryPageSize = dictionaryPageSize;
+      this.rowGroupSize = rowGroupSize;
+    }
+
+    public Map<String, Boolean> getDictionaryColumns() {
+      return dictionaryColumns;
+    }
+
+    public int getPageSize() {
+      return pageSize;
+    }
+
+    public int getDictionaryPageSize() {
+      return dictionaryPageSize;
+    }
+
+    public long getRowGroupSize() {
+      return rowGroupSize;
+    }
+
+    /**
+     * Copy of the configuration with the settings for writers created by {@link ParquetOutputFormat}, dictionary by
+     * column path. Sizes already in the configuration are kept, and so is the dictionary setting when it was
+     * configured.
+     */
+    public Configuration apply( Configuration conf, boolean dictionaryConfigured ) {
+      Configuration applied = new Configuration( conf );
+      if ( !dictionaryConfigured ) {
+        for ( Map.Entry<String, Boolean> column : dictionaryColumns.entrySet() ) {
+          applied.setBoolean( ParquetOutputFormat.ENABLE_DICTIONARY + "#" + column.getKey(), column.getValue() );
+        }
+      }
+      if ( conf.get( ParquetOutputFormat.PAGE_SIZE ) == null ) {
+        applied.setInt( ParquetOutputFormat.PAGE_SIZE, pageSize );
+      }
+      if ( conf.get( ParquetOutputFormat.DICTIONARY_PAGE_SIZE ) == null ) {
+        applied.setInt( ParquetOutputFormat.DICTIONARY_PAGE_SIZE, dictionaryPageSize );
+      }
+      if ( conf.get( ParquetOutputFormat.BLOCK_SIZE ) == null ) {
+        applied.setLong( ParquetOutputFormat.BLOCK_SIZE, rowGroupSize );
+      }
+      return applied;
+    }
+  }
+}
@@ -42,6 +42,7 @@ import org.pentaho.di.core.row.value.ValueMetaString;
 import org.pentaho.di.core.row.value.ValueMetaTimestamp;
 import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
 import org.pentaho.hadoop.shim.common.format.parquet.ParquetInputField;
 
 import java.math.BigDecimal;
@@ -53,6 +54,7 @@ import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -69,10 +71,20 @@ import static java.lang.Math.pow;
 public class ParquetConverter {
   public static final int PARQUET_JOB_ID = Integer.MAX_VALUE;
   public static final String PARQUET_SCHEMA_CONF_KEY = "PentahoParquetSchema";
+  /**
+   * When true, the same row buffer is returned for every record, so callers must copy values they want to keep.
+   */
+  public static final String PARQUET_REUSE_ROW_CONF_KEY = "PentahoParquetReuseRow";
   private final List<? extends IParquetInputField> inputFields;
+  private final boolean reuseRow;
 
   public ParquetConverter( List<? extends IParquetInputField> inputFields ) {
+    this( inputFields, false );
+  }
+
+  public ParquetConverter( List<? extends IParquetInputField> inputFields, boolean reuseRow ) {
     this.inputFields = inputFields;
+    this.reuseRow = reuseRow;
   }
 
   public static List<IParquetInputField> buildInputFields( MessageType schema ) {
@@ -236,29 +248,16 @@ public class ParquetConverter {
   }
 
   public static class MyGroupConverter extends GroupConverter {
+    private static final Logger logger = LogManager.getLogger( MyGroupConverter.class );
+    private static final RowMetaAndData BATCH_RECORD = new RowMetaAndData();
     private final RowMeta fields = new RowMeta();
     protected RowMetaAndData current;
+    private RecordBatch batch;
+    private int batchRow;
     private final Converter[] converters;
-    private int count;
-    private final IValueMetaConverter valueMetaConverter = new ValueMetaConverter();
-    private static final Logger logger = LogManager.getLogger( MyGroupConverter.class );
-
-    private Object convertFromSourceToTargetType( IValueMetaConverter valueMetaConverter, Object stagingValue,
-                                                  IParquetInputField f ) {
-      try {
-        String dateFormatStr = f.getStringFormat();
-        if ( ( dateFormatStr == null ) || ( dateFormatStr.trim().length() == 0 ) ) {
-          dateFormatStr = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
-        }
-        valueMetaConverter.setDatePattern( new SimpleDateFormat( dateFormatStr ) );
-
-        return valueMetaConverter.convertFromSourceToTargetDataType(
-          f.getParquetType().getPdiType(), f.getPentahoType(), stagingValue );
-      } catch ( ValueMetaConversionException e ) {
-        logger.error( e );
-        return null;
-      }
-    }
+    private final FieldConversion[] conversions;
+    private final int count;
+    private final boolean reuseRow;
 
     private void addValueMeta( int pdiType, String pentahoFieldName ) {
       switch ( pdiType ) {
@@ -293,13 +292,16 @@ public class ParquetConverter {
     }
 
     public MyGroupConverter( ParquetConverter converter ) {
-      count = 0;
+      int fieldCount = 0;
       for ( IParquetInputField f : converter.inputFields ) {
         if ( f.getFormatFieldName() != null ) {
-          count++;
+          fieldCount++;
         }
       }
+      count = fieldCount;
+      reuseRow = converter.reuseRow;
       converters = new Converter[ count ];
+      conversions = new FieldConversion[ count ];
       int i = 0;
       for ( IParquetInputField f : converter.inputFields ) {
         if ( f.getFormatFieldName() == null ) {
@@ -308,24 +310,24 @@ public class ParquetConverter {
 
         final int index = i;
         addValueMeta( f.getPentahoType(), f.getPentahoFieldName() );
+        applyConversionMask( index, f );
+        conversions[ i ] = new FieldConversion( f );
 
         switch ( f.getParquetType().getPdiType() ) {
           case ValueMetaInterface.TYPE_NUMBER:
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addDouble( double value ) {
-                current.getData()[ index ] = value;
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                if ( batch != null && conversions[ index ].isIdentity() ) {
+                  batch.setDouble( index, batchRow, value );
+                } else {
+                  setValue( index, value );
+                }
               }
 
               @Override
               public void addFloat( float value ) {
-                current.getData()[ index ] = new BigDecimal( String.valueOf( value ) ).doubleValue();
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, new BigDecimal( String.valueOf( value ) ).doubleValue() );
               }
             };
             break;
@@ -333,17 +335,16 @@ public class ParquetConverter {
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addInt( int value ) {
-                current.getData()[ index ] = (long) value;
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
+                addLong( value );
               }
 
               @Override
               public void addLong( long value ) {
-                current.getData()[ index ] = value;
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                if ( batch != null && conversions[ index ].isIdentity() ) {
+                  batch.setLong( index, batchRow, value );
+                } else {
+                  setValue( index, value );
+                }
               }
             };
             break;
@@ -351,26 +352,17 @@ public class ParquetConverter {
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addBinary( Binary value ) {
-                current.getData()[ index ] = binaryToDecimal( value, f.getPrecision(), f.getScale() );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, binaryToDecimal( value, f.getPrecision(), f.getScale() ) );
               }
 
               @Override
               public void addInt( int value ) {
-                current.getData()[ index ] = new BigDecimal( BigInteger.valueOf( value ), f.getScale() );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, new BigDecimal( BigInteger.valueOf( value ), f.getScale() ) );
               }
 
               @Override
               public void addLong( long value ) {
-                current.getData()[ index ] = new BigDecimal( BigInteger.valueOf( value ), f.getScale() );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, new BigDecimal( BigInteger.valueOf( value ), f.getScale() ) );
               }
             };
             break;
@@ -378,10 +370,7 @@ public class ParquetConverter {
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addBinary( Binary value ) {
-                current.getData()[ index ] = value.toStringUsingUTF8();
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, value.toStringUsingUTF8() );
               }
             };
             break;
@@ -389,10 +378,7 @@ public class ParquetConverter {
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addBoolean( boolean value ) {
-                current.getData()[ index ] = value;
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, value );
               }
             };
             break;
@@ -400,24 +386,19 @@ public class ParquetConverter {
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addBinary( Binary value ) {
-                current.getData()[ index ] = value.getBytes();
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, value.getBytes() );
               }
             };
             break;
           case ValueMetaInterface.TYPE_BINARY:
+            final boolean binaryAsString = f.getPentahoType() == ValueMetaBase.TYPE_STRING;
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addBinary( Binary value ) {
-                if ( f.getPentahoType() == ValueMetaBase.TYPE_STRING ) {
-                  current.getData()[ index ] = value.toStringUsingUTF8();
+                if ( binaryAsString ) {
+                  setConverted( index, value.toStringUsingUTF8() );
                 } else {
-                  current.getData()[ index ] = value.getBytes();
-                  current.getData()[ index ] =
-                    convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                  updateValueMeta( index, f );
+                  setValue( index, value.getBytes() );
                 }
               }
             };
@@ -426,28 +407,19 @@ public class ParquetConverter {
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addLong( long value ) {
-                current.getData()[ index ] = new Date( value );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, new Date( value ) );
               }
 
               // the number of days from the Unix epoch, 1 January 1970.
               @Override
               public void addInt( int value ) {
                 LocalDate localDate = LocalDate.ofEpochDay( 0 ).plusDays( value );
-                current.getData()[ index ] = Date.from( localDate.atStartOfDay( ZoneId.systemDefault() ).toInstant() );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, Date.from( localDate.atStartOfDay( ZoneId.systemDefault() ).toInstant() ) );
               }
 
               @Override
               public void addBinary( Binary value ) {
-                current.getData()[ index ] = new Date( dateFromInt96( value ) );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, new Date( dateFromInt96( value ) ) );
               }
             };
             break;
@@ -455,27 +427,18 @@ public class ParquetConverter {
             converters[ i ] = new PrimitiveConverter() {
               @Override
               public void addLong( long value ) {
-                current.getData()[ index ] = new Timestamp( value );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, new Timestamp( value ) );
               }
 
               // the number of days from the Unix epoch, 1 January 1970.
               @Override
               public void addInt( int value ) {
-                current.getData()[ index ] = new Timestamp( value * 24L * 60L * 60L * 1000L );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, new Timestamp( value * 24L * 60L * 60L * 1000L ) );
               }
 
               @Override
               public void addBinary( Binary value ) {
-                current.getData()[ index ] = new Timestamp( dateFromInt96( value ) );
-                current.getData()[ index ] =
-                  convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
-                updateValueMeta( index, f );
+                setValue( index, new Timestamp( dateFromInt96( value ) ) );
               }
             };
             break;
@@ -486,13 +449,10 @@ public class ParquetConverter {
                 try {
                   byte[] bytes = value.getBytes();
                   if ( bytes == null || bytes.length == 0 ) {
-                    current.getData()[ index ] = null;
+                    setConverted( index, null );
                   } else {
-                    current.getData()[ index ] = InetAddress.getByAddress( bytes );
-                    current.getData()[ index ] =
-                      convertFromSourceToTargetType( valueMetaConverter, current.getData()[ index ], f );
+                    setValue( index, InetAddress.getByAddress( bytes ) );
                   }
-                  updateValueMeta( index, f );
                 } catch ( Exception ex ) {
                   throw new RuntimeException( ex );
                 }
@@ -504,13 +464,36 @@ public class ParquetConverter {
         }
         i++;
       }
+    }
+
+    private void setValue( int index, Object stagingValue ) {
+      setConverted( index, conversions[ index ].convert( stagingValue ) );
+    }
+
+    private void setConverted( int index, Object value ) {
+      if ( batch != null ) {
+        batch.setObject( index, batchRow, value );
+      } else {
+        current.getData()[ index ] = value;
+      }
+    }
 
+    /**
+     * Switches the converter to writing records into a batch instead of rows. Every record is written at the current
+     * batch size, so the reader accepts a record by increasing the size.
+     */
+    public RecordBatch createBatch( int capacity ) {
+      batch = new RecordBatch( fields, capacity );
+      return batch;
     }
 
-    private void updateValueMeta( int index, IParquetInputField inputField ) {
+    /**
+     * The row meta is shared by all records, so the conversion mask only needs to be set once per field.
+     */
+    private void applyConversionMask( int index, IParquetInputField inputField ) {
       String stringFormat = inputField.getStringFormat();
-      if ( ( stringFormat != null ) && ( stringFormat.trim().length() > 0 ) ) {
-        current.getValueMeta( index ).setConversionMask( stringFormat );
+      if ( ( stringFormat != null ) && ( stringFormat.trim().length() > 0 ) && index < fields.size() ) {
+        fields.getValueMeta( index ).setConversionMask( stringFormat );
       }
     }
 
@@ -535,8 +518,19 @@ public class ParquetConverter {
 
     @Override
     public void start() {
-      current = new RowMetaAndData( fields );
-      current.setData( new Object[ count ] );
+      if ( batch != null ) {
+        // values missing from the record (nulls) do not reach a converter
+        batchRow = batch.getSize();
+        for ( int c = 0; c < count; c++ ) {
+          batch.setNull( c, batchRow );
+        }
+      } else if ( reuseRow && current != null ) {
+        // values missing from the record (nulls) do not reach a converter, so clear the previous record first
+        Arrays.fill( current.getData(), null );
+      } else {
+        current = new RowMetaAndData( fields );
+        current.setData( new Object[ count ] );
+      }
     }
 
     @Override
@@ -550,7 +544,49 @@ public class ParquetConverter {
 
 
     public RowMetaAndData getCurrentRecord() {
-      return current;
+      // filtered records are skipped by a null record, so batch mode returns a marker
+      return batch != null ? BATCH_RECORD : current;
+    }
+
+    /**
+     * Conversion from the value read from the file into the requested Pentaho type. Resolved once per field when the
+     * reader is opened, so that no converter or date format has to be created per value.
+     */
+    private static class FieldConversion {
+      private final int sourceType;
+      private final int targetType;
+      private final IValueMetaConverter valueMetaConverter;
+
+      FieldConversion( IParquetInputField f ) {
+        sourceType = f.getParquetType().getPdiType();
+        targetType = f.getPentahoType();
+        if ( sourceType == targetType ) {
+          valueMetaConverter = null;
+        } else {
+          String dateFormatStr = f.getStringFormat();
+          if ( ( dateFormatStr == null ) || ( dateFormatStr.trim().length() == 0 ) ) {
+            dateFormatStr = ValueMetaBase.DEFAULT_DATE_FORMAT_MASK;
+          }
+          valueMetaConverter = new ValueMetaConverter();
+          valueMetaConverter.setDatePattern( new SimpleDateFormat( dateFormatStr ) );
+        }
+      }
+
+      boolean isIdentity() {
+        return valueMetaConverter == null;
+      }
+
+      Object convert( Object stagingValue ) {
+        if ( valueMetaConverter == null || stagingValue == null ) {
+          return stagingValue;
+        }
+        try {
+          return valueMetaConverter.convertFromSourceToTargetDataType( sourceType, targetType, stagingValue );
+        } catch ( ValueMetaConversionException e ) {
+          logger.error( e );
+          return null;
+        }
+      }
     }
 
     static BigDecimal binaryToDecimal( Binary value, int precision, int scale ) {
@@ -0,0 +1,296 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.parquet.delegate.apache;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.pentaho.hadoop.shim.api.format.IParquetInputField;
+import org.pentaho.hadoop.shim.api.format.PushDownFilter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts {@link PushDownFilter} into Parquet filter2 {@link FilterPredicate}, which is used by the Parquet reader for
+ * row group pruning by statistics and dictionaries and for record level filtering.
+ * <p>
+ * Only fields of the read schema with a comparable Parquet type are converted. Parts of the filter which can't be
+ * converted are dropped from AND, and make the whole OR or NOT unconvertible, so the resulting predicate never removes
+ * rows which match the original filter.
+ */
+public class ParquetFilterBuilder {
+  private final Map<String, IParquetInputField> fields = new HashMap<>();
+
+  public ParquetFilterBuilder( List<? extends IParquetInputField> inputFields ) {
+    for ( IParquetInputField f : inputFields ) {
+      if ( f.getFormatFieldName() != null ) {
+        fields.put( f.getFormatFieldName(), f );
+      }
+    }
+  }
+
+  /**
+   * @return predicate or null if nothing could be pushed down
+   */
+  public FilterPredicate build( PushDownFilter filter ) {
+    return convert( filter, false );
+  }
+
+  /**
+   * @param exact true if the result must be equivalent to the filter, i.e. conjuncts can't be dropped (under NOT)
+   */
+  private FilterPredicate convert( PushDownFilter filter, boolean exact ) {
+    switch ( filter.getOperator() ) {
+      case AND:
+        FilterPredicate and = null;
+        for ( PushDownFilter child : filter.getChildren() ) {
+          FilterPredicate p = convert( child, exact );
+          if ( p == null ) {
+            if ( exact ) {
+              return null;
+            }
+          } else {
+            and = and == null ? p : FilterApi.and( and, p );
+          }
+        }
+        return and;
+      case OR:
+        FilterPredicate or = null;
+        for ( PushDownFilter child : filter.getChildren() ) {
+          FilterPredicate p = convert( child, exact );
+          if ( p == null ) {
+            return null;
+          }
+          or = or == null ? p : FilterApi.or( or, p );
+        }
+        return or;
+      case NOT:
+        FilterPredicate child = convert( filter.getChildren().get( 0 ), true );
+        return child == null ? null : FilterApi.not( child );
+      default:
+        return convertLeaf( filter );
+    }
+  }
+
+  private FilterPredicate convertLeaf( PushDownFilter filter ) {
+    IParquetInputField field = fields.get( filter.getField() );
+    if ( field == null || field.getParquetType() == null ) {
+      return null;
+    }
+    String column = field.getFormatFieldName();
+    Object value = filter.getValue();
+    switch ( field.getParquetType() ) {
+      case INT_32:
+      case INT_8:
+      case INT_16:
+      case UINT_8:
+      case UINT_16:
+        Long intValue = toLong( value );
+        if ( value != null && ( intValue == null || intValue != intValue.intValue() ) ) {
+          return null;
+        }
+        return compare( filter.getOperator(), FilterApi.intColumn( column ),
+          intValue == null ? null : intValue.intValue() );
+      case INT_64:
+      case TIMESTAMP_MILLIS:
+        Long longValue = value instanceof Date ? Long.valueOf( ( (Date) value ).getTime() ) : toLong( value );
+        if ( value != null && longValue == null ) {
+          return null;
+        }
+        return compare( filter.getOperator(), FilterApi.longColumn( column ), longValue );
+      case DATE:
+        Integer days = toEpochDay( value );
+        if ( value != null && days == null ) {
+          return null;
+        }
+        return compare( filter.getOperator(), FilterApi.intColumn( column ), days );
+      case DOUBLE:
+        if ( value != null && !( value instanceof Number ) ) {
+          return null;
+        }
+        return compare( filter.getOperator(), FilterApi.doubleColumn( column ),
+          value == null ? null : ( (Number) value ).doubleValue() );
+      case FLOAT:
+        if ( value != null && !( value instanceof Float ) ) {
+          // comparing with a double value rounded to float could drop matching rows
+          return null;
+        }
+        return compare( filter.getOperator(), FilterApi.floatColumn( column ), (Float) value );
+      case UTF8:
+      case ENUM:
+        if ( value != null && !( value instanceof String ) ) {
+          return null;
+        }
+        return compare( filter.getOperator(), FilterApi.binaryColumn( column ),
+          value == null ? null : Binary.fromString( (String) value ) );
+      case BINARY:
+        if ( value != null && !( value instanceof byte[] ) ) {
+          return null;
+        }
+        return compare( filter.getOperator(), FilterApi.binaryColumn( column ),
+          value == null ? null : Binary.fromConstantByteArray( (byte[]) value ) );
+      case BOOLEAN:
+        return compareBoolean( filter.getOperator(), FilterApi.booleanColumn( column ), value );
+      case DECIMAL:
+      case DECIMAL_INT_32:
+      case DECIMAL_INT_64:
+        return compareDecimal( filter.getOperator(), field, value );
+      default:
+        return null;
+    }
+  }
+
+  private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt> FilterPredicate
+    compare( PushDownFilter.Operator operator, C column, T value ) {
+    switch ( operator ) {
+      case EQ:
+        return FilterApi.eq( column, value );
+      case NOT_EQ:
+        return FilterApi.notEq( column, value );
+      case LT:
+        return FilterApi.lt( column, value );
+      case LT_EQ:
+        return FilterApi.ltEq( column, value );
+      case GT:
+        return FilterApi.gt( column, value );
+      case GT_EQ:
+        return FilterApi.gtEq( column, value );
+      case IS_NULL:
+        return FilterApi.eq( column, null );
+      case IS_NOT_NULL:
+        return FilterApi.notEq( column, null );
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Decimals are compared by their unscaled value in the scale of the column. Binary decimals are ordered by the signed
+   * comparator of the column, but dictionaries match them by bytes as written, so equality becomes a closed range.
+   * Fixed length decimals are not pushed down.
+   */
+  private static FilterPredicate compareDecimal( PushDownFilter.Operator operator, IParquetInputField field,
+                                                 Object value ) {
+    BigInteger unscaled = value == null ? null : toUnscaled( value, field.getScale() );
+    if ( value != null && unscaled == null ) {
+      return null;
+    }
+    String column = field.getFormatFieldName();
+    switch ( field.getParquetType() ) {
+      case DECIMAL_INT_32:
+        if ( unscaled != null && unscaled.bitLength() > 31 ) {
+          return null;
+        }
+        return compare( operator, FilterApi.intColumn( column ), unscaled == null ? null : unscaled.intValue() );
+      case DECIMAL_INT_64:
+        if ( unscaled != null && unscaled.bitLength() > 63 ) {
+          return null;
+        }
+        return compare( operator, FilterApi.longColumn( column ), unscaled == null ? null : unscaled.longValue() );
+      default:
+        Operators.BinaryColumn binaryColumn = FilterApi.binaryColumn( column );
+        Binary binary = unscaled == null ? null : Binary.fromConstantByteArray( unscaled.toByteArray() );
+        switch ( operator ) {
+          case EQ:
+            return FilterApi.and( FilterApi.gtEq( binaryColumn, binary ), FilterApi.ltEq( binaryColumn, binary ) );
+          case NOT_EQ:
+            return null;
+          default:
+            return compare( operator, binaryColumn, binary );
+        }
+    }
+  }
+
+  private static FilterPredicate compareBoolean( PushDownFilter.Operator operator, Operators.BooleanColumn column,
+                                                 Object value ) {
+    if ( value != null && !( value instanceof Boolean ) ) {
+      return null;
+    }
+    switch ( operator ) {
+      case EQ:
+        return FilterApi.eq( column, (Boolean) value );
+      case NOT_EQ:
+        return FilterApi.notEq( column, (Boolean) value );
+      case IS_NULL:
+        return FilterApi.eq( column, null );
+      case IS_NOT_NULL:
+        return FilterApi.notEq( column, null );
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Integral values only, since comparison of an integer column with a fractional value can't be expressed exactly.
+   */
+  private static Long toLong( Object value ) {
+    if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+      return ( (Number) value ).longValue();
+    }
+    if ( value instanceof BigInteger && ( (BigInteger) value ).bitLength() < 64 ) {
+      return ( (BigInteger) value ).longValue();
+    }
+    return null;
+  }
+
+  /**
+   * Unscaled value of a decimal or integral value in the given scale, or null if it has more fraction digits.
+   */
+  private static BigInteger toUnscaled( Object value, int scale ) {
+    BigDecimal decimal;
+    if ( value instanceof BigDecimal ) {
+      decimal = (BigDecimal) value;
+    } else if ( value instanceof BigInteger ) {
+      decimal = new BigDecimal( (BigInteger) value );
+    } else {
+      Long longValue = toLong( value );
+      if ( longValue == null ) {
+        return null;
+      }
+      decimal = BigDecimal.valueOf( longValue );
+    }
+    try {
+      return decimal.setScale( scale ).unscaledValue();
+    } catch ( ArithmeticException e ) {
+      return null;
+    }
+  }
+
+  /**
+   * Parquet DATE is the number of days from the Unix epoch, read in the default time zone by {@link ParquetConverter}.
+   */
+  private static Integer toEpochDay( Object value ) {
+    if ( value instanceof Date ) {
+      // java.sql.Date doesn't support toInstant()
+      Instant instant = Instant.ofEpochMilli( ( (Date) value ).getTime() );
+      LocalDate date = instant.atZone( ZoneId.systemDefault() ).toLocalDate();
+      if ( !date.atStartOfDay( ZoneId.systemDefault() ).toInstant().equals( instant ) ) {
+        // time part can't be compared with a day number
+        return null;
+      }
+      return (int) date.toEpochDay();
+    }
+    Long days = toLong( value );
+    return days == null || days != days.intValue() ? null : days.intValue();
+  }
+}
@@ -0,0 +1,208 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+package org.pentaho.hadoop.shim.common.format.parquet.delegate.apache;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.Footer;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JVM wide cache of parquet footers and schemas by file, shared by preview, metadata lookup and execution.
+ * <p>
+ * Entries remember the length and modification time of the file they were read from, so a changed file is read again.
+ * The cache is bounded by the estimated heap size of its entries, the least recently used entries are dropped first.
+ */
+public class ParquetFooterCache {
+  public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+  // rough heap sizes of the parts of an entry, statistics included in the column chunk
+  static final int ENTRY_BYTES = 256;
+  static final int SCHEMA_COLUMN_BYTES = 128;
+  static final int BLOCK_BYTES = 128;
+  static final int COLUMN_CHUNK_BYTES = 512;
+  private static final ParquetFooterCache INSTANCE = new ParquetFooterCache( DEFAULT_MAX_BYTES );
+
+  private final long maxBytes;
+  private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>( 16, 0.75f, true );
+  private long bytes;
+
+  /**
+   * Reads footers of files which are not cached.
+   */
+  @FunctionalInterface
+  public interface FooterReader {
+    List<Footer> readFooters( Collection<FileStatus> files ) throws IOException;
+  }
+
+  /**
+   * @param maxBytes estimated heap size above which entries are dropped
+   */
+  public ParquetFooterCache( long maxBytes ) {
+    this.maxBytes = maxBytes;
+  }
+
+  public static ParquetFooterCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Schema of the file, read without row group metadata when nothing is cached.
+   */
+  public MessageType getSchema( Configuration conf, FileStatus file ) throws IOException {
+    Entry entry = get( file );
+    if ( entry != null ) {
+      return entry.schema;
+    }
+    List<Footer> footers = ParquetFileReader.readFooters( conf, file, true );
+    if ( footers.isEmpty() ) {
+      return null;
+    }
+    MessageType schema = footers.get( 0 ).getParquetMetadata().getFileMetaData().getSchema();
+    put( file, new Entry( file, null, schema ) );
+    return schema;
+  }
+
+  /**
+   * Full footers of the files, in the order of the files. Footers which are not cached are read by the reader.
+   */
+  public List<Footer> getFooters( Collection<FileStatus> files, FooterReader reader ) throws IOException {
+    Map<Path, ParquetMetadata> found = new LinkedHashMap<>();
+    Map<Path, FileStatus> missing = new LinkedHashMap<>();
+    for ( FileStatus file : files ) {
+      Entry entry = get( file );
+      if ( entry != null && entry.footer != null ) {
+        found.put( file.getPath(), entry.footer );
+      } else {
+        missing.put( file.getPath(), file );
+      }
+    }
+    if ( !missing.isEmpty() ) {
+      for ( Footer footer : reader.readFooters( missing.values() ) ) {
+        FileStatus file = missing.get( footer.getFile() );
+        if ( file != null ) {
+          ParquetMetadata metadata = footer.getParquetMetadata();
+          put( file, new Entry( file, metadata, metadata.getFileMetaData().getSchema() ) );
+          found.put( file.getPath(), metadata );
+        }
+      }
+    }
+    List<Footer> footers = new ArrayList<>( files.size() );
+    for ( FileStatus file : files ) {
+      ParquetMetadata metadata = found.get( file.getPath() );
+      if ( metadata != null ) {
+        footers.add( new Footer( file.getPath(), metadata ) );
+      }
+    }
+    return footers;
+  }
+
+  /**
+   * Cached entry if the file didn't change since it was read.
+   */
+  private synchronized Entry get( FileStatus file ) {
+    Entry entry = entries.get( file.getPath() );
+    if ( entry == null ) {
+      return null;
+    }
+    if ( entry.length != file.getLen() || entry.modificationTime != file.getModificationTime() ) {
+      remove( file.getPath() );
+      return null;
+    }
+    return entry;
+  }
+
+  private synchronized void put( FileStatus file, Entry entry ) {
+    Entry current = entries.get( file.getPath() );
+    // keep the full footer when only the schema was read again
+    if ( current != null && entry.footer == null && current.modificationTime == entry.modificationTime
+      && current.length == entry.length ) {
+      return;
+    }
+    remove( file.getPath() );
+    if ( entry.bytes > maxBytes ) {
+      return;
+    }
+    entries.put( file.getPath(), entry );
+    bytes += entry.bytes;
+    Iterator<Entry> eldest = entries.values().iterator();
+    while ( bytes > maxBytes ) {
+      bytes -= eldest.next().bytes;
+      eldest.remove();
+    }
+  }
+
+  private void remove( Path path ) {
+    Entry removed = entries.remove( path );
+    if ( removed != null ) {
+      bytes -= removed.bytes;
+    }
+  }
+
+  /**
+   * Estimated heap size of the cached entries.
+   */
+  public synchronized long getCachedBytes() {
+    return bytes;
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    bytes = 0;
+  }
+
+  /**
+   * Rough heap size of a footer and schema. Key value metadata often holds whole schemas of other formats, so it is
+   * counted by its length.
+   */
+  static long estimateBytes( ParquetMetadata footer, MessageType schema ) {
+    long estimate = ENTRY_BYTES + (long) schema.getColumns().size() * SCHEMA_COLUMN_BYTES;
+    if ( footer != null ) {
+      for ( BlockMetaData block : footer.getBlocks() ) {
+        estimate += BLOCK_BYTES + (long) block.getColumns().size() * COLUMN_CHUNK_BYTES;
+      }
+      for ( Map.Entry<String, String> metadata : footer.getFileMetaData().getKeyValueMetaData().entrySet() ) {
+        String value = metadata.getValue();
+        estimate += 2L * ( metadata.getKey().length() + ( value == null ? 0 : value.length() ) );
+      }
+    }
+    return estimate;
+  }
+
+  private static final class Entry {
+    final long length;
+    final long modificationTime;
+    final ParquetMetadata footer;
+    final MessageType schema;
+    final long bytes;
+
+    Entry( FileStatus file, ParquetMetadata footer, MessageType schema ) {
+      this.length = file.getLen();
+      this.modificationTime = file.getModificationTime();
+      this.footer = footer;
+      this.schema = schema;
+      this.bytes = estimateBytes( footer, schema );
+    }
+  }
+}
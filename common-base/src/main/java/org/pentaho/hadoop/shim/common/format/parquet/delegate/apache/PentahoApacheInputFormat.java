@@ -20,11 +20,11 @@ import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.TaskAttemptID;
 import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
 import org.apache.parquet.hadoop.Footer;
 import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetInputFormat;
 import org.apache.parquet.hadoop.ParquetRecordReader;
-import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.schema.MessageType;
 import org.pentaho.di.core.RowMetaAndData;
@@ -34,16 +34,21 @@ import org.pentaho.hadoop.shim.ShimConfigsLoader;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetInputFormat;
+import org.pentaho.hadoop.shim.api.format.PushDownFilter;
 import org.pentaho.hadoop.shim.common.ConfigurationProxy;
 import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.ParallelRecordReader;
 import org.pentaho.hadoop.shim.common.format.ReadFileFilter;
 import org.pentaho.hadoop.shim.common.format.ReadFilesFilter;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 import org.pentaho.hadoop.shim.common.format.parquet.ParquetInputFieldList;
 import org.pentaho.hadoop.shim.common.format.parquet.PentahoInputSplitImpl;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -59,6 +64,10 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
 
   private ParquetInputFormat<RowMetaAndData> nativeParquetInputFormat;
   protected Job job;
+  private boolean splitFiles;
+  private List<IParquetInputField> inputFields;
+  private PushDownFilter filter;
+  private long splitSize;
 
   public PentahoApacheInputFormat( NamedCluster namedCluster ) {
     logger.logBasic( "We are initializing parquet input format" );
@@ -67,7 +76,7 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
       Configuration conf = createConfigurationWithClassLoader( namedCluster, getClass().getClassLoader() );
       job = Job.getInstance( conf );
 
-      nativeParquetInputFormat = new ParquetInputFormat<>();
+      nativeParquetInputFormat = new CachingParquetInputFormat();
 
       ParquetInputFormat.setReadSupportClass( job, PentahoParquetReadSupport.class );
       ParquetInputFormat.setTaskSideMetaData( job, false );
@@ -76,7 +85,36 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
 
   @Override public void setSchema( List<IParquetInputField> inputFields ) throws Exception {
     ParquetInputFieldList fieldList = new ParquetInputFieldList( inputFields );
-    inClassloader( () -> job.getConfiguration().set( ParquetConverter.PARQUET_SCHEMA_CONF_KEY, fieldList.marshall() ) );
+    this.inputFields = inputFields;
+    inClassloader( () -> {
+      job.getConfiguration().set( ParquetConverter.PARQUET_SCHEMA_CONF_KEY, fieldList.marshall() );
+      applyFilter();
+    } );
+  }
+
+  @Override public void setFilter( PushDownFilter filter ) throws Exception {
+    this.filter = filter;
+    inClassloader( this::applyFilter );
+  }
+
+  /**
+   * Filter is converted by the types of the read schema, so it's applied after both are known.
+   */
+  private void applyFilter() {
+    Configuration conf = job.getConfiguration();
+    conf.unset( ParquetInputFormat.FILTER_PREDICATE );
+    if ( filter == null || inputFields == null ) {
+      return;
+    }
+    FilterPredicate predicate = new ParquetFilterBuilder( inputFields ).build( filter );
+    if ( predicate == null ) {
+      logger.logDetailed( "Filter " + filter + " can't be pushed down to the parquet reader" );
+      return;
+    }
+    ParquetInputFormat.setFilterPredicate( conf, predicate );
+    conf.setBoolean( ParquetInputFormat.STATS_FILTERING_ENABLED, true );
+    conf.setBoolean( ParquetInputFormat.DICTIONARY_FILTERING_ENABLED, true );
+    conf.setBoolean( ParquetInputFormat.RECORD_FILTERING_ENABLED, true );
   }
 
   @Override public void setInputFile( String file ) throws Exception {
@@ -86,10 +124,7 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
       Path filePath = new Path( S3NCredentialUtils.scrubFilePathIfNecessary( file ) );
       FileSystem fs = FileSystem.get( filePath.toUri(), job.getConfiguration() );
       filePath = fs.makeQualified( filePath );
-      if ( !fs.exists( filePath ) ) {
-        throw new NoSuchFileException( file );
-      }
-      if ( fs.getFileStatus( filePath ).isDirectory() ) { // directory
+      if ( getFileStatus( fs, filePath, file ).isDirectory() ) { // directory
         setInputPaths( job, filePath );
         setInputDirRecursive( job, true );
       } else { // file
@@ -114,11 +149,9 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
         Path filePath = new Path( S3NCredentialUtils.scrubFilePathIfNecessary( file ) );
         FileSystem fs = FileSystem.get( filePath.toUri(), job.getConfiguration() );
         filePath = fs.makeQualified( filePath );
-        if ( !fs.exists( filePath ) ) {
-          throw new NoSuchFileException( file );
-        }
+        FileStatus fileStatus = getFileStatus( fs, filePath, file );
         filePaths[i++] = filePath.toUri().toString();
-        if ( fs.getFileStatus( filePath ).isDirectory() ) { // directory
+        if ( fileStatus.isDirectory() ) { // directory
           pathIsDir = true;
         }
       }
@@ -137,23 +170,42 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
     } );
   }
 
+  /**
+   * Status of an input path, one call to the file system instead of checking existence first.
+   */
+  private static FileStatus getFileStatus( FileSystem fs, Path filePath, String file ) throws IOException {
+    try {
+      return fs.getFileStatus( filePath );
+    } catch ( FileNotFoundException e ) {
+      throw new NoSuchFileException( file );
+    }
+  }
+
+  /**
+   * Files splitting is disabled unless requested by {@link #setSplitFiles(boolean)}, because some parquet files can't
+   * be splitted by errors in previous implementation or other things. Parquet reports source of problem only to logs,
+   * not to exception. See CorruptDeltaByteArrays.requiresSequentialReads().
+   * <p>
+   * mapr510 and mapr520 doesn't support SPLIT_FILES property
+   */
   @Override
-  @SuppressWarnings("squid:CommentedOutCodeLine")
-  public void setSplitSize( long blockSize )
-    throws Exception {
-    inClassloader( ()
-      -> /**
-     * TODO Files splitting is temporary disabled. We need some UI
-     * checkbox for allow it, because some parquet files can't be
-     * splitted by errors in previous implementation or other
-     * things. Parquet reports source of problem only to logs, not
-     * to exception. See
-     * CorruptDeltaByteArrays.requiresSequentialReads().
-     *
-     * mapr510 and mapr520 doesn't support SPLIT_FILES property
-     */
-      // ParquetInputFormat.setMaxInputSplitSize( job, blockSize );
-      job.getConfiguration().setBoolean( ParquetInputFormat.SPLIT_FILES, false ) );
+  public void setSplitSize( long blockSize ) throws Exception {
+    this.splitSize = blockSize;
+    inClassloader( this::applySplitSettings );
+  }
+
+  @Override
+  public void setSplitFiles( boolean splitFiles ) throws Exception {
+    this.splitFiles = splitFiles;
+    inClassloader( this::applySplitSettings );
+  }
+
+  private void applySplitSettings() {
+    if ( splitFiles && splitSize > 0 ) {
+      // splits produced from footers always start and end at row group boundaries
+      ParquetInputFormat.setMaxInputSplitSize( job, splitSize );
+    }
+    job.getConfiguration().setBoolean( ParquetInputFormat.SPLIT_FILES, splitFiles );
   }
 
   @Override public List<IPentahoInputSplit> getSplits() {
@@ -165,18 +217,30 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
 
   // for parquet not actual to point split
   @Override public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) throws Exception {
+    return createRecordReader( split, job.getConfiguration() );
+  }
+
+  @Override public IPentahoRecordReader createRecordReader( List<IPentahoInputSplit> splits, int threads ) {
+    // rows are handed over between threads, so every record must get its own row
+    Configuration conf = new Configuration( job.getConfiguration() );
+    conf.setBoolean( ParquetConverter.PARQUET_REUSE_ROW_CONF_KEY, false );
+    return new ParallelRecordReader( splits, threads, split -> createRecordReader( split, conf ),
+      getClass().getClassLoader() );
+  }
+
+  private IPentahoRecordReader createRecordReader( IPentahoInputSplit split, Configuration conf ) {
     return inClassloader( () -> {
       PentahoInputSplitImpl pentahoInputSplit = ( PentahoInputSplitImpl ) split;
       InputSplit inputSplit = pentahoInputSplit.getInputSplit();
 
-      ReadSupport<RowMetaAndData> readSupport = new PentahoParquetReadSupport();
+      PentahoParquetReadSupport readSupport = new PentahoParquetReadSupport();
 
       ParquetRecordReader<RowMetaAndData> nativeRecordReader
-        = new ParquetRecordReader<>( readSupport, ParquetInputFormat.getFilter( job.getConfiguration() ) );
-      TaskAttemptContextImpl task = new TaskAttemptContextImpl( job.getConfiguration(), new TaskAttemptID() );
+        = new ParquetRecordReader<>( readSupport, ParquetInputFormat.getFilter( conf ) );
+      TaskAttemptContextImpl task = new TaskAttemptContextImpl( conf, new TaskAttemptID() );
       nativeRecordReader.initialize( inputSplit, task );
 
-      return new PentahoParquetRecordReader( nativeRecordReader );
+      return new PentahoParquetRecordReader( nativeRecordReader, readSupport );
     } );
   }
 
@@ -188,6 +252,10 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
       Path filePath = new Path( S3NCredentialUtils.scrubFilePathIfNecessary( file ) );
       FileSystem fs = FileSystem.get( filePath.toUri(), conf );
       FileStatus fileStatus = fs.getFileStatus( filePath );
+      if ( fileStatus.isFile() ) {
+        MessageType schema = ParquetFooterCache.getInstance().getSchema( conf, fileStatus );
+        return schema == null ? new ArrayList<>() : ParquetConverter.buildInputFields( schema );
+      }
       List<Footer> footers = ParquetFileReader.readFooters( conf, fileStatus, true );
       if ( footers.isEmpty() ) {
         return new ArrayList<>();
@@ -198,4 +266,20 @@ public class PentahoApacheInputFormat extends HadoopFormatBase implements IPenta
       }
     } );
   }
+
+  /**
+   * Takes footers for splits from the JVM wide {@link ParquetFooterCache}.
+   */
+  private static class CachingParquetInputFormat extends ParquetInputFormat<RowMetaAndData> {
+    @Override
+    public List<Footer> getFooters( Configuration configuration, Collection<FileStatus> statuses )
+      throws IOException {
+      if ( isTaskSideMetaData( configuration ) ) {
+        // footers without row groups must not be cached as full ones
+        return super.getFooters( configuration, statuses );
+      }
+      return ParquetFooterCache.getInstance()
+        .getFooters( statuses, missing -> super.getFooters( configuration, missing ) );
+    }
+  }
 }
@@ -26,7 +26,10 @@ import org.apache.logging.log4j.Logger;
 import org.apache.parquet.column.ParquetProperties;
 import org.apache.parquet.hadoop.ParquetOutputFormat;
 import org.apache.parquet.hadoop.ParquetRecordWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
 import org.pentaho.di.core.RowMetaAndData;
 import org.pentaho.di.core.util.StringUtil;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
@@ -34,12 +37,16 @@ import org.pentaho.hadoop.shim.api.format.IParquetOutputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetOutputFormat;
 import org.pentaho.hadoop.shim.api.format.org.pentaho.hadoop.shim.pvfs.api.PvfsHadoopBridgeFileSystemExtension;
 import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.MultiFileRecordWriter;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
 import org.pentaho.hadoop.shim.common.format.SensitiveLoggingUtils;
 
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.apache.hadoop.mapreduce.lib.output.FileOutputFormat.setOutputPath;
 
@@ -53,6 +60,11 @@ public class PentahoApacheOutputFormat extends HadoopFormatBase implements IPent
   protected Job job;
   protected Path outputFile;
   private List<? extends IParquetOutputField> outputFields;
+  private long maxFileSize;
+  private long maxRowsPerFile;
+  private List<String> partitionFields = Collections.emptyList();
+  private int adaptiveSampleRows;
+  private boolean dictionaryConfigured;
 
   public PentahoApacheOutputFormat() {
     this( null );
@@ -125,6 +137,7 @@ public class PentahoApacheOutputFormat extends HadoopFormatBase implements IPent
   @Override
   public void enableDictionary( boolean useDictionary ) throws Exception {
     inClassloader( () -> ParquetOutputFormat.setEnableDictionary( job, useDictionary ) );
+    dictionaryConfigured = true;
   }
 
   @Override
@@ -142,6 +155,70 @@ public class PentahoApacheOutputFormat extends HadoopFormatBase implements IPent
     inClassloader( () -> ParquetOutputFormat.setDictionaryPageSize( job, size ) );
   }
 
+  @Override
+  public void setAdaptiveEncoding( int sampleRows ) {
+    adaptiveSampleRows = sampleRows;
+  }
+
+  @Override
+  public void setMaxFileSize( long size ) {
+    maxFileSize = size;
+  }
+
+  @Override
+  public void setMaxRowsPerFile( long rows ) {
+    maxRowsPerFile = rows;
+  }
+
+  @Override
+  public void setPartitionFields( List<String> fieldNames ) {
+    partitionFields = fieldNames == null ? Collections.emptyList() : fieldNames;
+  }
+
+  @Override
+  public void setBloomFilter( String formatFieldName, long expectedDistinctValues, double falsePositiveProbability ) {
+    if ( expectedDistinctValues < 0 ) {
+      throw new IllegalArgumentException( "Expected distinct values must not be negative" );
+    }
+    if ( falsePositiveProbability < 0 || falsePositiveProbability >= 1 ) {
+      throw new IllegalArgumentException( "False positive probability must be between 0 and 1" );
+    }
+    inClassloader( () -> {
+      Configuration conf = job.getConfiguration();
+      conf.setBoolean( columnKey( ParquetOutputFormat.BLOOM_FILTER_ENABLED, formatFieldName ), true );
+      if ( expectedDistinctValues > 0 ) {
+        conf.setLong( columnKey( ParquetOutputFormat.BLOOM_FILTER_EXPECTED_NDV, formatFieldName ),
+          expectedDistinctValues );
+      }
+      if ( falsePositiveProbability > 0 ) {
+        conf.setDouble( columnKey( ParquetOutputFormat.BLOOM_FILTER_FPP, formatFieldName ), falsePositiveProbability );
+      }
+    } );
+  }
+
+  @Override
+  public void setStatisticsTruncateLength( int length ) {
+    if ( length <= 0 ) {
+      throw new IllegalArgumentException( "Truncate length must be positive" );
+    }
+    inClassloader( () -> job.getConfiguration().setInt( ParquetOutputFormat.STATISTICS_TRUNCATE_LENGTH, length ) );
+  }
+
+  @Override
+  public void setColumnIndexTruncateLength( int length ) {
+    if ( length <= 0 ) {
+      throw new IllegalArgumentException( "Truncate length must be positive" );
+    }
+    inClassloader( () -> job.getConfiguration().setInt( ParquetOutputFormat.COLUMN_INDEX_TRUNCATE_LENGTH, length ) );
+  }
+
+  /**
+   * Per column key, as read by {@link ParquetOutputFormat}.
+   */
+  private static String columnKey( String key, String column ) {
+    return key + "#" + column;
+  }
+
   @Override
   public IPentahoRecordWriter createRecordWriter() throws Exception {
     if ( outputFile == null ) {
@@ -150,13 +227,31 @@ public class PentahoApacheOutputFormat extends HadoopFormatBase implements IPent
     if ( ( outputFields == null ) || outputFields.isEmpty() ) {
       throw new IllegalStateException( "Schema is not defined" );
     }
+    if ( adaptiveSampleRows > 0 ) {
+      // chosen settings go into a copy, so explicit settings and later writers of the job are not affected
+      return new AdaptiveParquetRecordWriter( outputFields, adaptiveSampleRows, settings -> createConfiguredWriter(
+        inClassloader( () -> settings.apply( job.getConfiguration(), dictionaryConfigured ) ),
+        dictionaryConfigured ? Collections.emptyMap() : settings.getDictionaryColumns() ) );
+    }
+    return createConfiguredWriter( job.getConfiguration(), Collections.emptyMap() );
+  }
+
+  /**
+   * Writer with the given settings.
+   *
+   * @param dictionaryColumns dictionary encoding by column, for part file writers
+   */
+  private IPentahoRecordWriter createConfiguredWriter( Configuration conf, Map<String, Boolean> dictionaryColumns ) {
+    if ( maxFileSize > 0 || maxRowsPerFile > 0 || !partitionFields.isEmpty() ) {
+      return createMultiFileWriter( conf, dictionaryColumns );
+    }
 
     return inClassloader( () -> {
       FixedParquetOutputFormat nativeParquetOutputFormat
         = new FixedParquetOutputFormat( new PentahoParquetWriteSupport( outputFields ) );
 
       TaskAttemptID taskAttemptID = new TaskAttemptID( "qq", 111, TaskType.MAP, 11, 11 );
-      TaskAttemptContextImpl task = new TaskAttemptContextImpl( job.getConfiguration(), taskAttemptID );
+      TaskAttemptContextImpl task = new TaskAttemptContextImpl( conf, taskAttemptID );
       try {
 
         ParquetRecordWriter<RowMetaAndData> recordWriter
@@ -172,6 +267,79 @@ public class PentahoApacheOutputFormat extends HadoopFormatBase implements IPent
     } );
   }
 
+  /**
+   * Writes part files into the output directory, rolled by size or rows and split into partition directories.
+   */
+  private IPentahoRecordWriter createMultiFileWriter( Configuration conf, Map<String, Boolean> dictionaryColumns ) {
+    List<IParquetOutputField> fileFields = new ArrayList<>();
+    for ( IParquetOutputField field : outputFields ) {
+      if ( !partitionFields.contains( field.getPentahoFieldName() ) ) {
+        fileFields.add( field );
+      }
+    }
+    if ( fileFields.isEmpty() ) {
+      throw new IllegalStateException( "Schema has no fields besides partition fields" );
+    }
+    MultiFileRecordWriter writer =
+      new MultiFileRecordWriter( outputFile, ".parquet",
+        file -> createFileWriter( file, fileFields, conf, dictionaryColumns ) );
+    writer.setPartitionFields( partitionFields );
+    writer.setMaxFileSize( maxFileSize );
+    writer.setMaxRowsPerFile( maxRowsPerFile );
+    return writer;
+  }
+
+  private MultiFileRecordWriter.SizedRecordWriter createFileWriter( Path file, List<IParquetOutputField> fileFields,
+                                                                    Configuration conf,
+                                                                    Map<String, Boolean> dictionaryColumns ) {
+    return inClassloader( () -> {
+      WriterBuilder builder = new WriterBuilder( HadoopOutputFile.fromPath( file, conf ), fileFields );
+      for ( Map.Entry<String, Boolean> column : dictionaryColumns.entrySet() ) {
+        builder.withDictionaryEncoding( column.getKey(), column.getValue() );
+      }
+      applyColumnStatistics( builder, conf, fileFields );
+      ParquetWriter<RowMetaAndData> writer = builder
+        .withConf( conf )
+        .withCompressionCodec( ParquetOutputFormat.getCompression( conf ) )
+        .withRowGroupSize( ParquetOutputFormat.getLongBlockSize( conf ) )
+        .withPageSize( ParquetOutputFormat.getPageSize( conf ) )
+        .withDictionaryPageSize( ParquetOutputFormat.getDictionaryPageSize( conf ) )
+        .withDictionaryEncoding( ParquetOutputFormat.getEnableDictionary( conf ) )
+        .withWriterVersion( ParquetOutputFormat.getWriterVersion( conf ) )
+        .build();
+      return new PartFileWriter( writer );
+    } );
+  }
+
+  /**
+   * Bloom filter and truncation settings of the job for a part file writer.
+   */
+  private static void applyColumnStatistics( WriterBuilder builder, Configuration conf,
+                                             List<IParquetOutputField> fileFields ) {
+    for ( IParquetOutputField field : fileFields ) {
+      String column = field.getFormatFieldName();
+      if ( conf.getBoolean( columnKey( ParquetOutputFormat.BLOOM_FILTER_ENABLED, column ), false ) ) {
+        builder.withBloomFilterEnabled( column, true );
+        long ndv = conf.getLong( columnKey( ParquetOutputFormat.BLOOM_FILTER_EXPECTED_NDV, column ), 0 );
+        if ( ndv > 0 ) {
+          builder.withBloomFilterNDV( column, ndv );
+        }
+        double fpp = conf.getDouble( columnKey( ParquetOutputFormat.BLOOM_FILTER_FPP, column ), 0 );
+        if ( fpp > 0 ) {
+          builder.withBloomFilterFPP( column, fpp );
+        }
+      }
+    }
+    int statisticsLength = conf.getInt( ParquetOutputFormat.STATISTICS_TRUNCATE_LENGTH, 0 );
+    if ( statisticsLength > 0 ) {
+      builder.withStatisticsTruncateLength( statisticsLength );
+    }
+    int columnIndexLength = conf.getInt( ParquetOutputFormat.COLUMN_INDEX_TRUNCATE_LENGTH, 0 );
+    if ( columnIndexLength > 0 ) {
+      builder.withColumnIndexTruncateLength( columnIndexLength );
+    }
+  }
+
   public String generateAlias( String pvfsPath ) {
     return inClassloader( () -> {
         if ( pvfsPath.startsWith( "s3" ) ) {
@@ -190,6 +358,48 @@ public class PentahoApacheOutputFormat extends HadoopFormatBase implements IPent
     );
   }
 
+  private static class WriterBuilder extends ParquetWriter.Builder<RowMetaAndData, WriterBuilder> {
+    private final List<IParquetOutputField> fields;
+
+    WriterBuilder( HadoopOutputFile file, List<IParquetOutputField> fields ) {
+      super( file );
+      this.fields = fields;
+    }
+
+    @Override
+    protected WriterBuilder self() {
+      return this;
+    }
+
+    @Override
+    protected WriteSupport<RowMetaAndData> getWriteSupport( Configuration conf ) {
+      return new PentahoParquetWriteSupport( fields );
+    }
+  }
+
+  private static class PartFileWriter implements MultiFileRecordWriter.SizedRecordWriter {
+    private final ParquetWriter<RowMetaAndData> writer;
+
+    PartFileWriter( ParquetWriter<RowMetaAndData> writer ) {
+      this.writer = writer;
+    }
+
+    @Override
+    public void write( RowMetaAndData row ) throws IOException {
+      writer.write( row );
+    }
+
+    @Override
+    public long getDataSize() {
+      return writer.getDataSize();
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.close();
+    }
+  }
+
   public class FixedParquetOutputFormat extends ParquetOutputFormat<RowMetaAndData> {
     public FixedParquetOutputFormat( PentahoParquetWriteSupport writeSupport ) {
       super( writeSupport );
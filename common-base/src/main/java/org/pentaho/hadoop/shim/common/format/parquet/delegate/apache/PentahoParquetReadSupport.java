@@ -31,6 +31,7 @@ import org.pentaho.hadoop.shim.common.format.parquet.ParquetInputFieldList;
 public class PentahoParquetReadSupport extends ReadSupport<RowMetaAndData> {
   ParquetConverter converter;
   List<? extends IParquetInputField> fields;
+  ParquetConverter.MyRecordMaterializer materializer;
 
   @Override
   public ReadContext init( InitContext context ) {
@@ -40,7 +41,8 @@ public class PentahoParquetReadSupport extends ReadSupport<RowMetaAndData> {
     }
 
     ParquetInputFieldList schema = ParquetInputFieldList.unmarshall( schemaStr );
-    converter = new ParquetConverter( schema.getFields() );
+    converter = new ParquetConverter( schema.getFields(),
+      context.getConfiguration().getBoolean( ParquetConverter.PARQUET_REUSE_ROW_CONF_KEY, false ) );
 
     // get all fields from file's schema
     MessageType fileSchema = context.getFileSchema();
@@ -62,6 +64,7 @@ public class PentahoParquetReadSupport extends ReadSupport<RowMetaAndData> {
   public RecordMaterializer<RowMetaAndData> prepareForRead( Configuration configuration,
                                                             Map<String, String> keyValueMetaData,
                                                             MessageType fileSchema, ReadContext readContext ) {
-    return new ParquetConverter.MyRecordMaterializer( converter );
+    materializer = new ParquetConverter.MyRecordMaterializer( converter );
+    return materializer;
   }
 }
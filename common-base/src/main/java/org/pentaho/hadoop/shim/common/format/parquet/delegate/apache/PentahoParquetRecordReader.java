@@ -18,17 +18,31 @@ import java.util.Iterator;
 
 import org.apache.parquet.hadoop.ParquetRecordReader;
 import org.pentaho.di.core.RowMetaAndData;
-import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoBatchRecordReader;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+import org.pentaho.hadoop.shim.common.format.RowBatchFiller;
 
 /**
  * Created by Vasilina_Terehova on 7/29/2017.
  */
-public class PentahoParquetRecordReader implements IPentahoRecordReader {
+public class PentahoParquetRecordReader implements IPentahoBatchRecordReader {
 
   private final ParquetRecordReader<RowMetaAndData> nativeParquetRecordReader;
+  private final PentahoParquetReadSupport readSupport;
+  private RecordBatch batch;
+  private RowBatchFiller rowBatches;
 
   public PentahoParquetRecordReader( ParquetRecordReader<RowMetaAndData> parquetReader ) {
+    this( parquetReader, null );
+  }
+
+  /**
+   * @param readSupport read support of the initialized reader. Without it, batches are filled from the rows.
+   */
+  public PentahoParquetRecordReader( ParquetRecordReader<RowMetaAndData> parquetReader,
+                                     PentahoParquetReadSupport readSupport ) {
     this.nativeParquetRecordReader = parquetReader;
+    this.readSupport = readSupport;
   }
 
   @Override
@@ -36,6 +50,34 @@ public class PentahoParquetRecordReader implements IPentahoRecordReader {
     nativeParquetRecordReader.close();
   }
 
+  /**
+   * Records are converted straight into the batch, without a row per record, when the read support is known.
+   */
+  @Override
+  public RecordBatch nextBatch() throws IOException {
+    if ( readSupport == null || readSupport.materializer == null ) {
+      if ( rowBatches == null ) {
+        rowBatches = new RowBatchFiller();
+      }
+      return rowBatches.fill( iterator() );
+    }
+    if ( batch == null ) {
+      ParquetConverter.MyGroupConverter root =
+        (ParquetConverter.MyGroupConverter) readSupport.materializer.getRootConverter();
+      batch = root.createBatch( RecordBatch.DEFAULT_CAPACITY );
+    }
+    batch.reset();
+    try {
+      while ( batch.getSize() < batch.getCapacity() && nativeParquetRecordReader.nextKeyValue() ) {
+        batch.setSize( batch.getSize() + 1 );
+      }
+    } catch ( InterruptedException e ) {
+      // this should never happen
+      throw new IllegalArgumentException( "sync error while reading parquet file", e );
+    }
+    return batch.getSize() == 0 ? null : batch;
+  }
+
   @Override
   public Iterator<RowMetaAndData> iterator() {
     return new Iterator<RowMetaAndData>() {
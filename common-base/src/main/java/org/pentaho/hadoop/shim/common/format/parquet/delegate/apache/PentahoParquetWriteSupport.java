@@ -21,12 +21,6 @@ import java.nio.ByteOrder;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
-import java.time.temporal.JulianFields;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -50,10 +44,19 @@ import org.pentaho.di.core.row.value.ValueMetaBase;
 import org.pentaho.hadoop.shim.api.format.IParquetOutputField;
 import org.pentaho.hadoop.shim.api.format.ParquetSpec;
 
+/**
+ * Writes Kettle rows through a write plan: the output fields are resolved once, and bound to row indexes whenever the
+ * row meta of the incoming rows changes, so writing a row doesn't look up fields by name.
+ */
 public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
+  private static final long DAY_MILLIS = 24L * 60L * 60L * 1000L;
+
   private RecordConsumer consumer;
   private List<? extends IParquetOutputField> outputFields;
   byte[] timestampBuffer = new byte[ 12 ];
+  private final ByteBuffer int96Buffer = ByteBuffer.wrap( timestampBuffer ).order( ByteOrder.LITTLE_ENDIAN );
+  private FieldPlan[] plan;
+  private RowMetaInterface boundRowMeta;
 
   public PentahoParquetWriteSupport( List<? extends IParquetOutputField> outputFields ) {
     this.outputFields = outputFields;
@@ -62,7 +65,9 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
   @Override
   public WriteContext init( Configuration configuration ) {
     try {
-      return new WriteContext( createParquetSchema(), new TreeMap<>() );
+      MessageType schema = createParquetSchema();
+      plan = createPlan();
+      return new WriteContext( schema, new TreeMap<>() );
     } catch ( Exception ex ) {
       throw new RuntimeException( ex );
     }
@@ -92,16 +97,30 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
     return new MessageType( "parquet-schema", types );
   }
 
-  public void writeRow( RowMetaAndData row, RecordConsumer consumer ) {
-    consumer.startMessage();
-    int index = 0;
+  private FieldPlan[] createPlan() {
+    List<FieldPlan> fields = new ArrayList<>();
     for ( IParquetOutputField f : outputFields ) {
-      if ( f.getFormatFieldName() == null ) {
-        continue;
+      if ( f.getFormatFieldName() != null ) {
+        fields.add( new FieldPlan( f, fields.size() ) );
+      }
+    }
+    return fields.toArray( new FieldPlan[ 0 ] );
+  }
+
+  public void writeRow( RowMetaAndData row, RecordConsumer consumer ) {
+    if ( plan == null ) {
+      plan = createPlan();
+    }
+    if ( row.getRowMeta() != boundRowMeta ) {
+      for ( FieldPlan field : plan ) {
+        field.bind( row.getRowMeta() );
       }
+      boundRowMeta = row.getRowMeta();
+    }
+    consumer.startMessage();
+    for ( FieldPlan field : plan ) {
       try {
-        writeField( f, index, row, consumer );
-        index++;
+        writeField( field, row, consumer );
       } catch ( KettleValueException ex ) {
         throw new RuntimeException( ex );
       }
@@ -109,16 +128,10 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
     consumer.endMessage();
   }
 
-  private void writeField( IParquetOutputField field, int index, RowMetaAndData row, RecordConsumer consumer )
+  private void writeField( FieldPlan fieldPlan, RowMetaAndData row, RecordConsumer consumer )
     throws KettleValueException {
-    RowMetaInterface rmi = row.getRowMeta();
-    int fieldIndex = row.getRowMeta().indexOfValue( field.getPentahoFieldName() );
-    ValueMetaInterface vmi = rmi.getValueMeta( fieldIndex );
-    String conversionMask = null;
-    String defaultValue = null;
-    DateFormat dateFormat = null;
-    TimeZone timeZone = null;
-    LocalDate localDate = null;
+    IParquetOutputField field = fieldPlan.field;
+    int fieldIndex = fieldPlan.rowIndex;
 
     if ( fieldIndex < 0 ) {
       if ( field.getAllowNull() ) {
@@ -127,7 +140,7 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
         throw new KettleValueException( "Required field '" + field.getPentahoFieldName() + "' not found in rowset" );
       }
     }
-    if ( row.isEmptyValue( field.getPentahoFieldName() ) ) {
+    if ( isEmpty( fieldPlan.valueMeta, row.getData()[ fieldIndex ] ) ) {
       if ( field.getAllowNull() ) {
         return;
       } else {
@@ -135,114 +148,14 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
           throw new KettleValueException(
             "Required field '" + field.getPentahoFieldName() + "' contains no data and default values not defined" );
         } else {
-          // put default value
-          BigDecimal bigDecimal;
-          consumer.startField( field.getFormatFieldName(), index );
-          switch ( field.getParquetType() ) {
-            case FLOAT:
-              consumer.addFloat( applyScale( Float.parseFloat( field.getDefaultValue() ), field ) );
-              break;
-            case DOUBLE:
-              consumer.addDouble( applyScale( Double.parseDouble( field.getDefaultValue() ), field ) );
-              break;
-            case BINARY:
-            case UTF8:
-              consumer.addBinary( Binary.fromString( field.getDefaultValue() ) );
-              break;
-            case BOOLEAN:
-              consumer.addBoolean( Boolean.parseBoolean( field.getDefaultValue() ) );
-              break;
-            case INT_32:
-              consumer.addInteger( Integer.parseInt( field.getDefaultValue() ) );
-              break;
-            case TIMESTAMP_MILLIS:
-            case INT_64:
-              consumer.addLong( Long.parseLong( field.getDefaultValue() ) );
-              break;
-            case INT_96:
-              Date date = null;
-              defaultValue = field.getDefaultValue();
-              conversionMask =
-                ( vmi.getConversionMask() == null ) ? ValueMetaBase.DEFAULT_DATE_PARSE_MASK : vmi.getConversionMask();
-              dateFormat = new SimpleDateFormat( conversionMask );
-              try {
-                date = dateFormat.parse( defaultValue );
-              } catch ( ParseException pe ) {
-                date = new Date( 0 );
-              }
-
-              timeZone = vmi.getDateFormatTimeZone();
-              if ( timeZone == null ) {
-                timeZone = TimeZone.getDefault();
-              }
-
-              localDate = date.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-              long julianDay = JulianFields.JULIAN_DAY.getFrom( localDate );
-
-              LocalDateTime ldt = LocalDateTime.ofInstant( date.toInstant(), timeZone.toZoneId() );
-              ZonedDateTime zdt = ldt.atZone( timeZone.toZoneId() );
-              ZonedDateTime utc = zdt.withZoneSameInstant( ZoneId.of( "UTC" ) );
-
-              long timeOfDayNanos =
-                utc.toInstant().toEpochMilli() * 1000000L - ( ( julianDay - ParquetSpec.JULIAN_DAY_OF_EPOCH ) * 24L
-                  * 60L * 60L * 1000L * 1000000L );
-              ByteBuffer buf = ByteBuffer.wrap( timestampBuffer );
-
-              buf.order( ByteOrder.LITTLE_ENDIAN ).putLong( timeOfDayNanos ).putInt( (int) julianDay );
-              consumer.addBinary( Binary.fromReusedByteArray( timestampBuffer ) );
-              break;
-            case DECIMAL:
-              bigDecimal = new BigDecimal( field.getDefaultValue() );
-              if ( bigDecimal != null ) {
-                bigDecimal = bigDecimal.round( new MathContext( field.getPrecision(), RoundingMode.HALF_UP ) )
-                  .setScale( field.getScale(), RoundingMode.HALF_UP );
-              }
-              consumer.addBinary( Binary.fromConstantByteArray( bigDecimal.unscaledValue().toByteArray() ) );
-              break;
-            case DECIMAL_INT_32:
-              bigDecimal = new BigDecimal( field.getDefaultValue() );
-              if ( bigDecimal != null ) {
-                bigDecimal = bigDecimal.round( new MathContext( field.getPrecision(), RoundingMode.HALF_UP ) )
-                  .setScale( field.getScale(), RoundingMode.HALF_UP );
-              }
-              consumer.addInteger( bigDecimal.unscaledValue().intValue() );
-              break;
-            case DECIMAL_INT_64:
-              bigDecimal = new BigDecimal( field.getDefaultValue() );
-              if ( bigDecimal != null ) {
-                bigDecimal = bigDecimal.round( new MathContext( field.getPrecision(), RoundingMode.HALF_UP ) )
-                  .setScale( field.getScale(), RoundingMode.HALF_UP );
-              }
-              consumer.addLong( bigDecimal.unscaledValue().longValue() );
-              break;
-            case DATE:
-              Date defaultDate = null;
-              defaultValue = field.getDefaultValue();
-              conversionMask =
-                ( vmi.getConversionMask() == null ) ? ValueMetaBase.DEFAULT_DATE_PARSE_MASK : vmi.getConversionMask();
-              dateFormat = new SimpleDateFormat( conversionMask );
-              try {
-                defaultDate = dateFormat.parse( defaultValue );
-              } catch ( ParseException pe ) {
-                // Do nothing
-              }
-              timeZone = vmi.getDateFormatTimeZone();
-              if ( timeZone == null ) {
-                timeZone = TimeZone.getDefault();
-              }
-              localDate = defaultDate.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-              Integer dateInDays = Math.toIntExact( ChronoUnit.DAYS.between( LocalDate.ofEpochDay( 0 ), localDate ) );
-              consumer.addInteger( dateInDays );
-              break;
-            default:
-              throw new RuntimeException( "Undefined type: " + field.getPentahoType() );
-          }
-          consumer.endField( field.getFormatFieldName(), index );
+          consumer.startField( field.getFormatFieldName(), fieldPlan.index );
+          writeDefault( fieldPlan, consumer );
+          consumer.endField( field.getFormatFieldName(), fieldPlan.index );
           return;
         }
       }
     }
-    consumer.startField( field.getFormatFieldName(), index );
+    consumer.startField( field.getFormatFieldName(), fieldPlan.index );
     switch ( field.getParquetType() ) {
       case FLOAT:
         consumer.addFloat( applyScale( (float) row.getNumber( fieldIndex, 0 ), field ) );
@@ -261,8 +174,7 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
         consumer.addBoolean( row.getBoolean( fieldIndex, false ) );
         break;
       case INT_32:
-        Long tmpLong = row.getInteger( fieldIndex, 0 );
-        consumer.addInteger( tmpLong.intValue() );
+        consumer.addInteger( (int) row.getInteger( fieldIndex, 0 ) );
         break;
       case TIMESTAMP_MILLIS:
         Date timeStamp = row.getDate( fieldIndex, null );
@@ -272,65 +184,195 @@ public class PentahoParquetWriteSupport extends WriteSupport<RowMetaAndData> {
         consumer.addLong( row.getInteger( fieldIndex, 0 ) );
         break;
       case INT_96:
-        Date date = row.getDate( fieldIndex, null );
-        timeZone = vmi.getDateFormatTimeZone();
-        if ( timeZone == null ) {
-          timeZone = TimeZone.getDefault();
-        }
-
-        localDate = date.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-        long julianDay = JulianFields.JULIAN_DAY.getFrom( localDate );
-
-        LocalDateTime ldt = LocalDateTime.ofInstant( date.toInstant(), timeZone.toZoneId() );
-        ZonedDateTime zdt = ldt.atZone( timeZone.toZoneId() );
-        ZonedDateTime utc = zdt.withZoneSameInstant( ZoneId.of( "UTC" ) );
-
-        long timeOfDayNanos =
-          utc.toInstant().toEpochMilli() * 1000000L - ( ( julianDay - ParquetSpec.JULIAN_DAY_OF_EPOCH ) * 24L * 60L
-            * 60L * 1000L * 1000000L );
-        ByteBuffer buf = ByteBuffer.wrap( timestampBuffer );
-        buf.order( ByteOrder.LITTLE_ENDIAN ).putLong( timeOfDayNanos ).putInt( (int) julianDay );
-        consumer.addBinary( Binary.fromReusedByteArray( timestampBuffer ) );
+        consumer.addBinary( toInt96( row.getDate( fieldIndex, null ), fieldPlan.timeZone ) );
         break;
       case DECIMAL:
-        BigDecimal bigDecimal = row.getBigNumber( fieldIndex, null );
-        if ( bigDecimal != null ) {
-          bigDecimal = bigDecimal.round( new MathContext( field.getPrecision(), RoundingMode.HALF_UP ) )
-            .setScale( field.getScale(), RoundingMode.HALF_UP );
-        }
-        consumer.addBinary( Binary.fromConstantByteArray( bigDecimal.unscaledValue().toByteArray() ) );
+        consumer.addBinary( Binary.fromConstantByteArray(
+          fieldPlan.round( row.getBigNumber( fieldIndex, null ) ).unscaledValue().toByteArray() ) );
         break;
       case DECIMAL_INT_32:
-        bigDecimal = row.getBigNumber( fieldIndex, null );
-        if ( bigDecimal != null ) {
-          bigDecimal = bigDecimal.round( new MathContext( field.getPrecision(), RoundingMode.HALF_UP ) )
-            .setScale( field.getScale(), RoundingMode.HALF_UP );
-        }
-        consumer.addInteger( bigDecimal.unscaledValue().intValue() );
+        consumer.addInteger( fieldPlan.round( row.getBigNumber( fieldIndex, null ) ).unscaledValue().intValue() );
         break;
       case DECIMAL_INT_64:
-        bigDecimal = row.getBigNumber( fieldIndex, null );
-        if ( bigDecimal != null ) {
-          bigDecimal = bigDecimal.round( new MathContext( field.getPrecision(), RoundingMode.HALF_UP ) )
-            .setScale( field.getScale(), RoundingMode.HALF_UP );
-        }
-        consumer.addLong( bigDecimal.unscaledValue().longValue() );
+        consumer.addLong( fieldPlan.round( row.getBigNumber( fieldIndex, null ) ).unscaledValue().longValue() );
         break;
       case DATE:
-        Date dateFromRow = row.getDate( fieldIndex, null );
-        timeZone = vmi.getDateFormatTimeZone();
-        if ( timeZone == null ) {
-          timeZone = TimeZone.getDefault();
-        }
-        localDate = dateFromRow.toInstant().atZone( timeZone.toZoneId() ).toLocalDate();
-        Integer dateInDays = Math.toIntExact( ChronoUnit.DAYS.between( LocalDate.ofEpochDay( 0 ), localDate ) );
-        consumer.addInteger( dateInDays );
+        consumer.addInteger( toEpochDay( row.getDate( fieldIndex, null ), fieldPlan.timeZone ) );
         break;
       default:
         throw new RuntimeException( "Undefined type: " + field.getPentahoType() );
     }
 
-    consumer.endField( field.getFormatFieldName(), index );
+    consumer.endField( field.getFormatFieldName(), fieldPlan.index );
+  }
+
+  private void writeDefault( FieldPlan fieldPlan, RecordConsumer consumer ) {
+    Object value = fieldPlan.defaultValue();
+    switch ( fieldPlan.field.getParquetType() ) {
+      case FLOAT:
+        consumer.addFloat( (Float) value );
+        break;
+      case DOUBLE:
+        consumer.addDouble( (Double) value );
+        break;
+      case BINARY:
+      case UTF8:
+      case DECIMAL:
+        consumer.addBinary( (Binary) value );
+        break;
+      case BOOLEAN:
+        consumer.addBoolean( (Boolean) value );
+        break;
+      case INT_32:
+      case DECIMAL_INT_32:
+      case DATE:
+        consumer.addInteger( (Integer) value );
+        break;
+      case TIMESTAMP_MILLIS:
+      case INT_64:
+      case DECIMAL_INT_64:
+        consumer.addLong( (Long) value );
+        break;
+      case INT_96:
+        consumer.addBinary( toInt96( (Date) value, fieldPlan.timeZone ) );
+        break;
+      default:
+        throw new RuntimeException( "Undefined type: " + fieldPlan.field.getPentahoType() );
+    }
+  }
+
+  /**
+   * Same null check as {@link RowMetaAndData#isEmptyValue(String)}, by index.
+   */
+  private static boolean isEmpty( ValueMetaInterface valueMeta, Object value ) throws KettleValueException {
+    switch ( valueMeta.getType() ) {
+      case ValueMetaInterface.TYPE_STRING:
+        return valueMeta.getString( value ) == null;
+      case ValueMetaInterface.TYPE_BOOLEAN:
+        return valueMeta.getBoolean( value ) == null;
+      case ValueMetaInterface.TYPE_INTEGER:
+        return valueMeta.getInteger( value ) == null;
+      case ValueMetaInterface.TYPE_NUMBER:
+        return valueMeta.getNumber( value ) == null;
+      case ValueMetaInterface.TYPE_BIGNUMBER:
+        return valueMeta.getBigNumber( value ) == null;
+      case ValueMetaInterface.TYPE_DATE:
+      case ValueMetaInterface.TYPE_TIMESTAMP:
+        return valueMeta.getDate( value ) == null;
+      case ValueMetaInterface.TYPE_BINARY:
+        return valueMeta.getBinary( value ) == null;
+      default:
+        return valueMeta.isNull( value );
+    }
+  }
+
+  /**
+   * INT96 timestamp: nanoseconds of the day and julian day, little endian. The returned binary reuses one buffer.
+   */
+  private Binary toInt96( Date date, TimeZone timeZone ) {
+    long millis = date.getTime();
+    long epochDay = Math.floorDiv( millis + timeZone.getOffset( millis ), DAY_MILLIS );
+    long timeOfDayNanos = ( millis - epochDay * DAY_MILLIS ) * 1000000L;
+    int96Buffer.clear();
+    int96Buffer.putLong( timeOfDayNanos ).putInt( (int) ( epochDay + ParquetSpec.JULIAN_DAY_OF_EPOCH ) );
+    return Binary.fromReusedByteArray( timestampBuffer );
+  }
+
+  private static int toEpochDay( Date date, TimeZone timeZone ) {
+    long millis = date.getTime();
+    return Math.toIntExact( Math.floorDiv( millis + timeZone.getOffset( millis ), DAY_MILLIS ) );
+  }
+
+  /**
+   * Output field with its position in the message, and its row index and default value for the bound row meta.
+   */
+  private final class FieldPlan {
+    final IParquetOutputField field;
+    final int index;
+    final MathContext mathContext;
+    int rowIndex;
+    ValueMetaInterface valueMeta;
+    TimeZone timeZone;
+    private Object defaultValue;
+
+    FieldPlan( IParquetOutputField field, int index ) {
+      this.field = field;
+      this.index = index;
+      switch ( field.getParquetType() ) {
+        case DECIMAL:
+        case DECIMAL_INT_32:
+        case DECIMAL_INT_64:
+          mathContext = new MathContext( field.getPrecision(), RoundingMode.HALF_UP );
+          break;
+        default:
+          mathContext = null;
+      }
+    }
+
+    void bind( RowMetaInterface rowMeta ) {
+      rowIndex = rowMeta.indexOfValue( field.getPentahoFieldName() );
+      valueMeta = rowIndex < 0 ? null : rowMeta.getValueMeta( rowIndex );
+      timeZone = valueMeta == null || valueMeta.getDateFormatTimeZone() == null
+        ? TimeZone.getDefault() : valueMeta.getDateFormatTimeZone();
+      defaultValue = null;
+    }
+
+    BigDecimal round( BigDecimal value ) {
+      return value.round( mathContext ).setScale( field.getScale(), RoundingMode.HALF_UP );
+    }
+
+    /**
+     * Default value converted for the parquet type, parsed on first use since date masks come from the row meta.
+     */
+    Object defaultValue() {
+      if ( defaultValue == null ) {
+        defaultValue = parseDefault( field.getDefaultValue() );
+      }
+      return defaultValue;
+    }
+
+    private Object parseDefault( String value ) {
+      switch ( field.getParquetType() ) {
+        case FLOAT:
+          return applyScale( Float.parseFloat( value ), field );
+        case DOUBLE:
+          return applyScale( Double.parseDouble( value ), field );
+        case BINARY:
+        case UTF8:
+          return Binary.fromString( value );
+        case BOOLEAN:
+          return Boolean.parseBoolean( value );
+        case INT_32:
+          return Integer.parseInt( value );
+        case TIMESTAMP_MILLIS:
+        case INT_64:
+          return Long.parseLong( value );
+        case INT_96:
+          Date date = parseDate( value );
+          return date == null ? new Date( 0 ) : date;
+        case DECIMAL:
+          return Binary.fromConstantByteArray( round( new BigDecimal( value ) ).unscaledValue().toByteArray() );
+        case DECIMAL_INT_32:
+          return round( new BigDecimal( value ) ).unscaledValue().intValue();
+        case DECIMAL_INT_64:
+          return round( new BigDecimal( value ) ).unscaledValue().longValue();
+        case DATE:
+          return toEpochDay( parseDate( value ), timeZone );
+        default:
+          throw new RuntimeException( "Undefined type: " + field.getPentahoType() );
+      }
+    }
+
+    private Date parseDate( String value ) {
+      String conversionMask = valueMeta.getConversionMask() == null
+        ? ValueMetaBase.DEFAULT_DATE_PARSE_MASK : valueMeta.getConversionMask();
+      DateFormat dateFormat = new SimpleDateFormat( conversionMask );
+      try {
+        return dateFormat.parse( value );
+      } catch ( ParseException pe ) {
+        return null;
+      }
+    }
   }
 
   private double applyScale( double number, IParquetOutputField outputField ) {
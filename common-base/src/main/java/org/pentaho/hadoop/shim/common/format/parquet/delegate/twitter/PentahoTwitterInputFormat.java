@@ -35,6 +35,7 @@ import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.format.IParquetInputField;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetInputFormat;
 import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.ParallelRecordReader;
 import org.pentaho.hadoop.shim.common.format.ReadFileFilter;
 import org.pentaho.hadoop.shim.common.format.ReadFilesFilter;
 import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
@@ -176,6 +177,10 @@ public class PentahoTwitterInputFormat extends HadoopFormatBase implements IPent
     } );
   }
 
+  @Override public IPentahoRecordReader createRecordReader( List<IPentahoInputSplit> splits, int threads ) {
+    return new ParallelRecordReader( splits, threads, this::createRecordReader, getClass().getClassLoader() );
+  }
+
   @Override public List<IParquetInputField> readSchema( String file ) throws Exception {
     return inClassloader( () -> {
       Configuration conf = job.getConfiguration();
@@ -0,0 +1,272 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.text;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.exception.KettleValueException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IFormatInputField;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits lines into columns and converts the columns of the input fields into Kettle values.
+ * <p>
+ * Parsing only records where the columns start and end in the line, in arrays which are reused for every line. Values
+ * are created only for the selected columns, and integers without a conversion mask are parsed straight from the
+ * bytes. Empty values are nulls.
+ */
+class DelimitedRowParser {
+  private static final Logger logger = LogManager.getLogger( DelimitedRowParser.class );
+
+  private final byte delimiter;
+  private final int enclosure;
+  private final Charset charset;
+  private final RowMetaInterface rowMeta;
+  private final int[] columns;
+  private final int[] types;
+  private final boolean[] plainLongs;
+  private final ValueMetaInterface[] storageMetas;
+
+  private byte[] line;
+  private int columnCount;
+  private int[] starts = new int[ 16 ];
+  private int[] ends = new int[ 16 ];
+  private boolean[] escaped = new boolean[ 16 ];
+  private byte[] scratch = new byte[ 256 ];
+  private long parsedLong;
+
+  /**
+   * @param enclosure quote byte, or -1 for none
+   * @param columns   column index of every input field
+   */
+  DelimitedRowParser( byte delimiter, int enclosure, Charset charset, List<? extends IFormatInputField> inputFields,
+                      int[] columns ) {
+    this.delimiter = delimiter;
+    this.enclosure = enclosure;
+    this.charset = charset;
+    this.columns = columns;
+    RowMetaAndData rowMetaAndData = new RowMetaAndData();
+    types = new int[ columns.length ];
+    plainLongs = new boolean[ columns.length ];
+    storageMetas = new ValueMetaInterface[ columns.length ];
+    for ( int i = 0; i < columns.length; i++ ) {
+      IFormatInputField inputField = inputFields.get( i );
+      rowMetaAndData.addValue( inputField.getPentahoFieldName(), inputField.getPentahoType(), null );
+      String stringFormat = inputField.getStringFormat();
+      boolean hasMask = ( stringFormat != null ) && ( stringFormat.trim().length() > 0 );
+      if ( hasMask ) {
+        rowMetaAndData.getValueMeta( i ).setConversionMask( stringFormat );
+      }
+      types[ i ] = inputField.getPentahoType();
+      plainLongs[ i ] = types[ i ] == ValueMetaInterface.TYPE_INTEGER && !hasMask;
+      if ( types[ i ] != ValueMetaInterface.TYPE_STRING ) {
+        ValueMetaString storageMeta = new ValueMetaString( inputField.getPentahoFieldName() );
+        if ( hasMask ) {
+          storageMeta.setConversionMask( stringFormat );
+        }
+        storageMetas[ i ] = storageMeta;
+      }
+    }
+    rowMeta = rowMetaAndData.getRowMeta();
+  }
+
+  RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * Finds the columns of the line. The bytes are kept until the next line is parsed.
+   *
+   * @return number of columns
+   */
+  int parse( byte[] bytes, int length ) {
+    line = bytes;
+    columnCount = 0;
+    int pos = 0;
+    while ( true ) {
+      ensureCapacity( columnCount + 1 );
+      if ( enclosure >= 0 && pos < length && bytes[ pos ] == enclosure ) {
+        int start = pos + 1;
+        int i = start;
+        boolean hasEscapes = false;
+        while ( i < length ) {
+          if ( bytes[ i ] == enclosure ) {
+            if ( i + 1 < length && bytes[ i + 1 ] == enclosure ) {
+              hasEscapes = true;
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        starts[ columnCount ] = start;
+        ends[ columnCount ] = i;
+        escaped[ columnCount ] = hasEscapes;
+        // anything between the closing quote and the delimiter is ignored
+        pos = i;
+        while ( pos < length && bytes[ pos ] != delimiter ) {
+          pos++;
+        }
+      } else {
+        starts[ columnCount ] = pos;
+        while ( pos < length && bytes[ pos ] != delimiter ) {
+          pos++;
+        }
+        ends[ columnCount ] = pos;
+        escaped[ columnCount ] = false;
+      }
+      columnCount++;
+      if ( pos >= length ) {
+        return columnCount;
+      }
+      pos++;
+    }
+  }
+
+  private void ensureCapacity( int capacity ) {
+    if ( capacity > starts.length ) {
+      int size = Math.max( capacity, starts.length * 2 );
+      starts = Arrays.copyOf( starts, size );
+      ends = Arrays.copyOf( ends, size );
+      escaped = Arrays.copyOf( escaped, size );
+    }
+  }
+
+  /**
+   * All columns of the parsed line as strings.
+   */
+  List<String> getStrings() {
+    List<String> strings = new ArrayList<>( columnCount );
+    for ( int i = 0; i < columnCount; i++ ) {
+      strings.add( getString( i ) );
+    }
+    return strings;
+  }
+
+  String getString( int column ) {
+    if ( column >= columnCount || starts[ column ] == ends[ column ] ) {
+      return null;
+    }
+    int start = starts[ column ];
+    int length = ends[ column ] - start;
+    if ( !escaped[ column ] ) {
+      return new String( line, start, length, charset );
+    }
+    if ( scratch.length < length ) {
+      scratch = new byte[ Math.max( length, scratch.length * 2 ) ];
+    }
+    int n = 0;
+    for ( int i = start; i < start + length; i++ ) {
+      scratch[ n++ ] = line[ i ];
+      if ( line[ i ] == enclosure ) {
+        i++;
+      }
+    }
+    return new String( scratch, 0, n, charset );
+  }
+
+  /**
+   * Parses a column of ASCII digits with an optional sign into {@link #parsedLong}.
+   *
+   * @return false when the column is empty, not a plain integer or out of range
+   */
+  private boolean parseLong( int column ) {
+    if ( column >= columnCount || escaped[ column ] ) {
+      return false;
+    }
+    int i = starts[ column ];
+    int end = ends[ column ];
+    if ( i == end ) {
+      return false;
+    }
+    boolean negative = line[ i ] == '-';
+    if ( negative || line[ i ] == '+' ) {
+      i++;
+      if ( i == end ) {
+        return false;
+      }
+    }
+    long value = 0;
+    for ( ; i < end; i++ ) {
+      int digit = line[ i ] - '0';
+      if ( digit < 0 || digit > 9 || value < Long.MIN_VALUE / 10 ) {
+        return false;
+      }
+      value *= 10;
+      if ( value < Long.MIN_VALUE + digit ) {
+        return false;
+      }
+      value -= digit;
+    }
+    if ( !negative && value == Long.MIN_VALUE ) {
+      return false;
+    }
+    parsedLong = negative ? value : -value;
+    return true;
+  }
+
+  /**
+   * New row with the values of the input fields.
+   */
+  RowMetaAndData decode() {
+    Object[] data = new Object[ columns.length ];
+    for ( int i = 0; i < columns.length; i++ ) {
+      data[ i ] = getValue( i );
+    }
+    return new RowMetaAndData( rowMeta, data );
+  }
+
+  /**
+   * Puts the values of the input fields into a row of the batch. Plain integers are not boxed.
+   */
+  void decode( RecordBatch batch, int row ) {
+    for ( int i = 0; i < columns.length; i++ ) {
+      if ( plainLongs[ i ] && parseLong( columns[ i ] ) ) {
+        batch.setLong( i, row, parsedLong );
+      } else {
+        batch.setObject( i, row, getValue( i ) );
+      }
+    }
+  }
+
+  private Object getValue( int field ) {
+    int column = columns[ field ];
+    if ( types[ field ] == ValueMetaInterface.TYPE_STRING ) {
+      return getString( column );
+    }
+    if ( plainLongs[ field ] && parseLong( column ) ) {
+      return parsedLong;
+    }
+    String value = getString( column );
+    if ( value == null ) {
+      return null;
+    }
+    try {
+      return rowMeta.getValueMeta( field ).convertData( storageMetas[ field ], value );
+    } catch ( KettleValueException e ) {
+      logger.error( e );
+      return null;
+    }
+  }
+}
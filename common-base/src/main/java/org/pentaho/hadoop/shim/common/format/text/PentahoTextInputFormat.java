@@ -0,0 +1,269 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.text;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.SplittableCompressionCodec;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
+import org.pentaho.hadoop.shim.api.format.IFormatInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoTextInputFormat;
+import org.pentaho.hadoop.shim.common.format.BaseFormatInputField;
+import org.pentaho.hadoop.shim.common.format.ChainedRecordReader;
+import org.pentaho.hadoop.shim.common.format.HadoopFormatBase;
+import org.pentaho.hadoop.shim.common.format.ParallelRecordReader;
+import org.pentaho.hadoop.shim.common.format.S3NCredentialUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads delimited text files line by line. Columns are selected by their names, taken from the header line or
+ * generated when there is none.
+ */
+public class PentahoTextInputFormat extends HadoopFormatBase implements IPentahoTextInputFormat {
+
+  protected static final String NOT_NULL_MSG = "filename and inputfields must not be null";
+  protected String fileName;
+  protected List<? extends IFormatInputField> inputFields;
+
+  protected Configuration conf;
+  protected long splitSize = Long.MAX_VALUE;
+  protected String delimiter = DEFAULT_DELIMITER;
+  protected String enclosure = DEFAULT_ENCLOSURE;
+  protected boolean header;
+  protected Charset charset = StandardCharsets.UTF_8;
+  private List<String> columnNames;
+
+  public PentahoTextInputFormat( NamedCluster namedCluster ) {
+    conf = inClassloader( () -> createConfigurationWithClassLoader( namedCluster, getClass().getClassLoader() ) );
+  }
+
+  /**
+   * One split per file by default. When the split size is set, files which are not compressed, or compressed by a
+   * splittable codec, are cut into byte ranges of up to that size.
+   */
+  @Override
+  public List<IPentahoInputSplit> getSplits() {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    return inClassloader( () -> {
+      Path path = new Path( fileName );
+      CompressionCodecFactory codecs = new CompressionCodecFactory( conf );
+      List<IPentahoInputSplit> splits = new ArrayList<>();
+      for ( FileStatus file : listFiles( path, getFileSystem( path ) ) ) {
+        CompressionCodec codec = codecs.getCodec( file.getPath() );
+        if ( splitSize == Long.MAX_VALUE || ( codec != null && !( codec instanceof SplittableCompressionCodec ) ) ) {
+          splits.add( new PentahoTextInputSplit( file.getPath(), 0, file.getLen() ) );
+        } else {
+          splits.addAll( PentahoTextInputSplit.fromLength( file.getPath(), file.getLen(), splitSize ) );
+        }
+      }
+      return splits;
+    } );
+  }
+
+  /**
+   * Reads the given split, or all files of the input one after another when the split is not from
+   * {@link #getSplits()}.
+   */
+  @Override
+  public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    requireNonNull( inputFields, NOT_NULL_MSG );
+    if ( split instanceof PentahoTextInputSplit ) {
+      return inClassloader( () -> createSplitReader( (PentahoTextInputSplit) split ) );
+    }
+    List<IPentahoInputSplit> splits = getSplits();
+    if ( splits.size() == 1 ) {
+      return createRecordReader( splits.get( 0 ) );
+    }
+    return new ChainedRecordReader( splits, this::createRecordReader );
+  }
+
+  @Override
+  public IPentahoRecordReader createRecordReader( List<IPentahoInputSplit> splits, int threads ) {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    requireNonNull( inputFields, NOT_NULL_MSG );
+    return new ParallelRecordReader( splits, threads, this::createRecordReader, getClass().getClassLoader() );
+  }
+
+  protected IPentahoRecordReader createSplitReader( PentahoTextInputSplit split ) throws IOException {
+    new S3NCredentialUtils().applyS3CredentialsToHadoopConfigurationIfNecessary( fileName, conf );
+    return new PentahoTextRecordReader( conf, split, createParser( inputFields, columnIndexes() ), header );
+  }
+
+  private DelimitedRowParser createParser( List<? extends IFormatInputField> fields, int[] columns ) {
+    return new DelimitedRowParser( singleByte( delimiter, "Delimiter" ),
+      enclosure == null || enclosure.isEmpty() ? -1 : singleByte( enclosure, "Enclosure" ), charset, fields,
+      columns );
+  }
+
+  private byte singleByte( String value, String name ) {
+    byte[] bytes = value.getBytes( charset );
+    if ( bytes.length != 1 ) {
+      throw new IllegalArgumentException( name + " must be a single byte: " + value );
+    }
+    return bytes[ 0 ];
+  }
+
+  /**
+   * Column index of every input field.
+   */
+  private synchronized int[] columnIndexes() throws IOException {
+    if ( columnNames == null ) {
+      columnNames = readColumnNames();
+    }
+    int[] columns = new int[ inputFields.size() ];
+    for ( int i = 0; i < columns.length; i++ ) {
+      String name = inputFields.get( i ).getFormatFieldName();
+      columns[ i ] = columnNames.indexOf( name );
+      if ( columns[ i ] < 0 ) {
+        throw new IllegalArgumentException(
+          "Column " + name + " does not exist in the text file.  Please use the getFields button" );
+      }
+    }
+    return columns;
+  }
+
+  /**
+   * Names from the header, or generated names for the columns of the first line.
+   */
+  private List<String> readColumnNames() throws IOException {
+    Path path = new Path( fileName );
+    FileStatus file = listFiles( path, getFileSystem( path ) ).get( 0 );
+    DelimitedRowParser parser = createParser( Collections.emptyList(), new int[ 0 ] );
+    try ( PentahoTextRecordReader reader = new PentahoTextRecordReader( conf,
+      new PentahoTextInputSplit( file.getPath(), 0, file.getLen() ), parser, false ) ) {
+      Iterator<RowMetaAndData> lines = reader.iterator();
+      if ( !lines.hasNext() ) {
+        return Collections.emptyList();
+      }
+      lines.next();
+      List<String> names = parser.getStrings();
+      for ( int i = 0; i < names.size(); i++ ) {
+        if ( !header || names.get( i ) == null ) {
+          names.set( i, String.format( "Field_%03d", i + 1 ) );
+        }
+      }
+      return names;
+    }
+  }
+
+  /**
+   * File system of the input files.
+   */
+  protected FileSystem getFileSystem( Path path ) throws IOException {
+    new S3NCredentialUtils().applyS3CredentialsToHadoopConfigurationIfNecessary( fileName, conf );
+    return FileSystem.get( path.toUri(), conf );
+  }
+
+  /**
+   * The file itself, or all visible files of a directory in name order.
+   */
+  static List<FileStatus> listFiles( Path path, FileSystem fs ) throws IOException {
+    FileStatus status;
+    try {
+      status = fs.getFileStatus( path );
+    } catch ( FileNotFoundException e ) {
+      throw new NoSuchFileException( path.toString() );
+    }
+    if ( !status.isDirectory() ) {
+      return Collections.singletonList( status );
+    }
+    List<FileStatus> files = new ArrayList<>();
+    for ( FileStatus child : fs.listStatus( path,
+      file -> !file.getName().startsWith( "_" ) && !file.getName().startsWith( "." ) ) ) {
+      if ( child.isFile() ) {
+        files.add( child );
+      }
+    }
+    if ( files.isEmpty() ) {
+      throw new NoSuchFileException( path.toString() );
+    }
+    files.sort( ( a, b ) -> a.getPath().compareTo( b.getPath() ) );
+    return files;
+  }
+
+  @Override
+  public List<IFormatInputField> readSchema() {
+    requireNonNull( fileName, NOT_NULL_MSG );
+    return inClassloader( () -> {
+      List<IFormatInputField> fields = new ArrayList<>();
+      for ( String name : readColumnNames() ) {
+        BaseFormatInputField field = new BaseFormatInputField();
+        field.setFormatFieldName( name );
+        field.setPentahoFieldName( name );
+        field.setPentahoType( ValueMetaInterface.TYPE_STRING );
+        fields.add( field );
+      }
+      return fields;
+    } );
+  }
+
+  @Override
+  public void setSchema( List<? extends IFormatInputField> inputFields ) {
+    this.inputFields = inputFields;
+  }
+
+  @Override
+  public void setInputFile( String fileName ) {
+    this.fileName = S3NCredentialUtils.scrubFilePathIfNecessary( fileName );
+    columnNames = null;
+  }
+
+  @Override
+  public void setDelimiter( String delimiter ) {
+    this.delimiter = delimiter;
+    columnNames = null;
+  }
+
+  @Override
+  public void setEnclosure( String enclosure ) {
+    this.enclosure = enclosure;
+    columnNames = null;
+  }
+
+  @Override
+  public void setHeader( boolean header ) {
+    this.header = header;
+    columnNames = null;
+  }
+
+  @Override
+  public void setCharset( String charset ) {
+    this.charset = charset == null ? StandardCharsets.UTF_8 : Charset.forName( charset );
+    columnNames = null;
+  }
+
+  @Override
+  public void setSplitSize( long splitSize ) {
+    this.splitSize = splitSize > 0 ? splitSize : Long.MAX_VALUE;
+  }
+
+}
@@ -0,0 +1,67 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.text;
+
+import org.apache.hadoop.fs.Path;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte range of one text file. Like Hadoop's FileSplit, a split reads the lines which start after its first line
+ * break, up to and including the line which crosses its end.
+ */
+public class PentahoTextInputSplit implements IPentahoInputSplit {
+  private final Path path;
+  private final long offset;
+  private final long length;
+
+  public PentahoTextInputSplit( Path path, long offset, long length ) {
+    this.path = path;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Splits of up to {@code maxSplitSize} bytes covering the whole file.
+   */
+  public static List<PentahoTextInputSplit> fromLength( Path path, long fileLength, long maxSplitSize ) {
+    List<PentahoTextInputSplit> splits = new ArrayList<>();
+    for ( long offset = 0; offset < fileLength; offset += maxSplitSize ) {
+      splits.add( new PentahoTextInputSplit( path, offset, Math.min( maxSplitSize, fileLength - offset ) ) );
+    }
+    if ( splits.isEmpty() ) {
+      splits.add( new PentahoTextInputSplit( path, 0, fileLength ) );
+    }
+    return splits;
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public String toString() {
+    return path + ":" + offset + "+" + length;
+  }
+}
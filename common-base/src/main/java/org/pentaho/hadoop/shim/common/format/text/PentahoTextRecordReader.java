@@ -0,0 +1,122 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.text;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.lib.input.LineRecordReader;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the lines of one split with Hadoop's {@link LineRecordReader}, which also takes care of compression codecs
+ * and of lines crossing split boundaries. The line buffer is reused, so only the values of the rows are allocated.
+ * Empty lines are skipped.
+ */
+public class PentahoTextRecordReader implements IPentahoInputFormat.IPentahoBatchRecordReader {
+  private static final Logger logger = LogManager.getLogger( PentahoTextRecordReader.class );
+
+  private final LineRecordReader lineReader;
+  private final DelimitedRowParser parser;
+  private RecordBatch recordBatch;
+  private boolean lineRead;
+  private boolean hasLine;
+
+  PentahoTextRecordReader( Configuration conf, PentahoTextInputSplit split, DelimitedRowParser parser,
+                           boolean skipHeader ) throws IOException {
+    this.parser = parser;
+    lineReader = new LineRecordReader();
+    try {
+      lineReader.initialize( new FileSplit( split.getPath(), split.getOffset(), split.getLength(), null ),
+        new TaskAttemptContextImpl( conf, new TaskAttemptID() ) );
+      if ( skipHeader && split.getOffset() == 0 ) {
+        lineReader.nextKeyValue();
+      }
+    } catch ( IOException | RuntimeException e ) {
+      lineReader.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Moves to the next non empty line and parses it.
+   */
+  private boolean nextLine() throws IOException {
+    if ( !lineRead ) {
+      do {
+        hasLine = lineReader.nextKeyValue();
+      } while ( hasLine && lineReader.getCurrentValue().getLength() == 0 );
+      if ( hasLine ) {
+        Text line = lineReader.getCurrentValue();
+        parser.parse( line.getBytes(), line.getLength() );
+      }
+      lineRead = true;
+    }
+    return hasLine;
+  }
+
+  @Override
+  public RecordBatch nextBatch() throws IOException {
+    if ( recordBatch == null ) {
+      recordBatch = new RecordBatch( parser.getRowMeta(), RecordBatch.DEFAULT_CAPACITY );
+    }
+    int rows = 0;
+    while ( rows < recordBatch.getCapacity() && nextLine() ) {
+      parser.decode( recordBatch, rows++ );
+      lineRead = false;
+    }
+    recordBatch.setSize( rows );
+    return rows == 0 ? null : recordBatch;
+  }
+
+  @Override
+  public Iterator<RowMetaAndData> iterator() {
+    return new Iterator<RowMetaAndData>() {
+
+      @Override
+      public boolean hasNext() {
+        try {
+          return nextLine();
+        } catch ( IOException e ) {
+          logger.error( e.getMessage(), e );
+          return false;
+        }
+      }
+
+      @Override
+      public RowMetaAndData next() {
+        if ( !hasNext() ) {
+          throw new NoSuchElementException();
+        }
+        lineRead = false;
+        return parser.decode();
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    lineReader.close();
+  }
+}
@@ -65,6 +65,7 @@ public interface HBaseConnection {
 
   // constant HTable writing keys
   public static final String HTABLE_WRITE_BUFFER_SIZE_KEY = "htable.writeBufferSize";
+  public static final String HTABLE_WRITE_BATCH_SIZE_KEY = "htable.writeBatchSize";
 
   /**
    * Method for getting a byte utility implementation
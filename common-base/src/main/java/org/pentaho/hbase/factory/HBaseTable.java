@@ -36,6 +36,11 @@ public interface HBaseTable {
 
   void setWriteBufferSize( long bufferSize ) throws IOException;
 
+  /**
+   * Maximum number of rows written in one batch when auto flush is off.
+   */
+  void setWriteBatchSize( int batchSize ) throws IOException;
+
   boolean isAutoFlush() throws IOException;
 
   void setAutoFlush( boolean autoFlush ) throws IOException;
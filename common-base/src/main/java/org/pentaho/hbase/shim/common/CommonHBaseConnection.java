@@ -975,6 +975,9 @@ public class CommonHBaseConnection implements HBaseConnection, IHBaseClientFacto
         if ( key.toString().equals( HTABLE_WRITE_BUFFER_SIZE_KEY ) ) {
           m_targetTable.setWriteBufferSize( Long.parseLong( value ) );
           m_targetTable.setAutoFlush( false );
+        } else if ( key.toString().equals( HTABLE_WRITE_BATCH_SIZE_KEY ) ) {
+          m_targetTable.setWriteBatchSize( Integer.parseInt( value ) );
+          m_targetTable.setAutoFlush( false );
         }
       }
     }
@@ -394,4 +394,43 @@ public class HBaseConnectionPoolTest {
     verify( logChannelInterface ).logError( e1Msg, exception1 );
     verify( logChannelInterface ).logError( e2Msg, exception2 );
   }
+
+  @Test
+  public void testMaxSize() throws IOException {
+    Properties poolProps = new Properties();
+    poolProps.setProperty( HBaseConnectionPool.MAX_SIZE, "1" );
+    poolProps.setProperty( HBaseConnectionPool.MAX_WAIT_MS, "1" );
+    hBaseConnectionPool = new HBaseConnectionPool( hBaseShim, poolProps, logChannelInterface, namedCluster );
+    HBaseConnectionHandle connectionHandle = hBaseConnectionPool.getConnectionHandle();
+    try {
+      hBaseConnectionPool.getConnectionHandle( "source" );
+      fail( "pool is exhausted" );
+    } catch ( IOException e ) {
+      // expected
+    }
+    HBaseConnectionWrapper connection = connectionHandle.getConnection();
+    connectionHandle.close();
+    assertEquals( connection, hBaseConnectionPool.getConnectionHandle( "source" ).getConnection() );
+    assertEquals( 1, mockConnections.size() );
+  }
+
+  @Test
+  public void testIdleConnectionIsValidated() throws Exception {
+    Properties poolProps = new Properties();
+    poolProps.setProperty( HBaseConnectionPool.VALIDATION_INTERVAL_MS, "1" );
+    hBaseConnectionPool = new HBaseConnectionPool( hBaseShim, poolProps, logChannelInterface, namedCluster );
+    HBaseConnectionHandle connectionHandle = hBaseConnectionPool.getConnectionHandle();
+    HBaseConnectionWrapper connection = connectionHandle.getConnection();
+    connectionHandle.close();
+    doThrow( new Exception( "unavailable" ) ).when( mockConnections.get( 0 ) ).checkHBaseAvailable();
+    Thread.sleep( 10 );
+    assertNotEquals( connection, hBaseConnectionPool.getConnectionHandle().getConnection() );
+    verify( mockConnections.get( 0 ) ).close();
+  }
+
+  @Test( expected = IOException.class )
+  public void testClosedPool() throws IOException {
+    hBaseConnectionPool.close();
+    hBaseConnectionPool.getConnectionHandle();
+  }
 }
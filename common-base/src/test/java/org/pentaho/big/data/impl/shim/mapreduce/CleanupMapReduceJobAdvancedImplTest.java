@@ -0,0 +1,95 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.big.data.impl.shim.mapreduce;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.hadoop.shim.api.internal.fs.FileSystem;
+import org.pentaho.hadoop.shim.api.internal.fs.Path;
+import org.pentaho.hadoop.shim.api.mapreduce.MapReduceJobAdvanced;
+import org.pentaho.hadoop.shim.api.mapreduce.MapReduceService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CleanupMapReduceJobAdvancedImplTest {
+  private MapReduceJobAdvanced job;
+  private FileSystem fs;
+  private Path stagedPath;
+  private LogChannelInterface log;
+  private CleanupMapReduceJobAdvancedImpl cleanupJob;
+
+  @Before
+  public void setup() {
+    job = mock( MapReduceJobAdvanced.class );
+    fs = mock( FileSystem.class );
+    stagedPath = mock( Path.class );
+    log = mock( LogChannelInterface.class );
+    cleanupJob = new CleanupMapReduceJobAdvancedImpl( job, fs, stagedPath, log );
+  }
+
+  @Test
+  public void testRunningJobKeepsStagedPath() throws Exception {
+    MapReduceService.Stoppable stoppable = mock( MapReduceService.Stoppable.class );
+    when( job.waitOnCompletion( 1, TimeUnit.SECONDS, stoppable ) ).thenReturn( false );
+
+    assertFalse( cleanupJob.isComplete() );
+    assertFalse( cleanupJob.waitOnCompletion( 1, TimeUnit.SECONDS, stoppable ) );
+
+    verify( fs, never() ).delete( any( Path.class ), anyBoolean() );
+  }
+
+  @Test
+  public void testCompleteJobDeletesStagedPathOnce() throws Exception {
+    MapReduceService.Stoppable stoppable = mock( MapReduceService.Stoppable.class );
+    when( job.waitOnCompletion( 1, TimeUnit.SECONDS, stoppable ) ).thenReturn( true );
+    when( job.isComplete() ).thenReturn( true );
+
+    assertTrue( cleanupJob.waitOnCompletion( 1, TimeUnit.SECONDS, stoppable ) );
+    assertTrue( cleanupJob.isComplete() );
+
+    verify( fs ).delete( stagedPath, true );
+  }
+
+  @Test
+  public void testKilledJobDeletesStagedPath() throws Exception {
+    cleanupJob.killJob();
+
+    verify( job ).killJob();
+    verify( fs ).delete( stagedPath, true );
+  }
+
+  @Test
+  public void testDeleteFailureIsLogged() throws Exception {
+    IOException failure = new IOException( "denied" );
+    when( fs.delete( stagedPath, true ) ).thenThrow( failure );
+    when( stagedPath.toUri() ).thenReturn( new URI( "hdfs://cluster/path/pmr-transport/user/job" ) );
+    when( job.isComplete() ).thenReturn( true );
+
+    assertTrue( cleanupJob.isComplete() );
+
+    verify( log ).logError( "Unable to delete /path/pmr-transport/user/job", failure );
+  }
+}
@@ -14,9 +14,11 @@
 
 package org.pentaho.big.data.impl.shim.mapreduce;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.security.Credentials;
+import org.apache.hadoop.security.UserGroupInformation;
 import org.junit.Before;
 import org.junit.FixMethodOrder;
 import org.junit.Rule;
@@ -24,6 +26,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.junit.runners.MethodSorters;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -64,9 +67,11 @@ import org.pentaho.hadoop.shim.api.internal.Configuration;
 import org.pentaho.hadoop.shim.api.internal.DistributedCacheUtil;
 import org.pentaho.hadoop.shim.api.internal.fs.FileSystem;
 import org.pentaho.hadoop.shim.api.internal.fs.Path;
+import org.pentaho.hadoop.shim.api.mapreduce.PentahoMapReduceTransport;
 import org.pentaho.hadoop.shim.spi.HadoopShim;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -76,6 +81,7 @@ import java.util.Optional;
 import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -942,6 +948,83 @@ public class PentahoMapReduceJobBuilderImplTest {
     verify( distributedCacheUtil ).configureWithKettleEnvironment( conf, fileSystem, kettleEnvInstallDir );
   }
 
+  @Test
+  public void testStageJobTransport() throws Exception {
+    Configuration conf = mock( Configuration.class );
+    JobConf jobConf = mock( JobConf.class );
+    when( conf.getAsDelegateConf( JobConf.class ) ).thenReturn( jobConf );
+    when( conf.get( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_MAP_XML ) ).thenReturn( transXml );
+    variableSpace.setVariable( "KETTLE_TEST", "value" );
+    FileSystem fileSystem = mock( FileSystem.class );
+    DistributedCacheUtil distributedCacheUtil = mock( DistributedCacheUtil.class );
+    when( hadoopShim.getDistributedCacheUtil() ).thenReturn( distributedCacheUtil );
+    Path transportRoot = mock( Path.class );
+    Path userDir = mock( Path.class );
+    Path transportDir = mock( Path.class );
+    Path transportPath = mock( Path.class );
+    when( transportPath.toUri() ).thenReturn( new URI( "hdfs://cluster/path/pmr-transport/user/job/file.pmrt" ) );
+    when( fileSystem.asPath( "/path/", "pmr-transport" ) ).thenReturn( transportRoot );
+    String user = UserGroupInformation.getCurrentUser().getShortUserName();
+    when( fileSystem.asPath( transportRoot, user ) ).thenReturn( userDir );
+    when( fileSystem.asPath( eq( userDir ), anyString() ) ).thenReturn( transportDir );
+    when( fileSystem.asPath( eq( transportDir ), anyString() ) ).thenReturn( transportPath );
+    byte[][] staged = new byte[ 1 ][];
+    doAnswer( invocation -> {
+      FileObject source = invocation.getArgument( 0 );
+      try ( InputStream in = source.getContent().getInputStream() ) {
+        staged[ 0 ] = IOUtils.toByteArray( in );
+      }
+      return null;
+    } ).when( distributedCacheUtil )
+      .stageForCache( any( FileObject.class ), eq( fileSystem ), eq( transportPath ), eq( "" ), eq( false ),
+        eq( false ) );
+
+    assertEquals( transportDir, pentahoMapReduceJobBuilder.stageJobTransport( conf, fileSystem, "/path/" ) );
+
+    String fileName = PentahoMapReduceTransport.fileName( staged[ 0 ] );
+    PentahoMapReduceTransport transport = PentahoMapReduceTransport.read( fileName, staged[ 0 ] );
+    assertEquals( transXml, transport.getProperty( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_MAP_XML ) );
+    assertEquals( "value", transport.getVariables().get( "KETTLE_TEST" ) );
+    verify( fileSystem ).asPath( transportDir, fileName );
+    verify( distributedCacheUtil ).addCachedFiles( conf, fileSystem, transportPath, null );
+    verify( conf ).set( PentahoMapReduceTransport.TRANSPORT_FILE, fileName );
+    verify( jobConf ).unset( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_MAP_XML );
+    verify( jobConf ).unset( PentahoMapReduceJobBuilderImpl.VARIABLE_SPACE );
+  }
+
+  @Test
+  public void testStageJobTransportUsesDirectoryPerJob() throws Exception {
+    Configuration conf = mock( Configuration.class );
+    when( conf.getAsDelegateConf( JobConf.class ) ).thenReturn( mock( JobConf.class ) );
+    when( conf.get( PentahoMapReduceJobBuilderImpl.TRANSFORMATION_REDUCE_XML ) ).thenReturn( transXml );
+    FileSystem fileSystem = mock( FileSystem.class );
+    when( hadoopShim.getDistributedCacheUtil() ).thenReturn( mock( DistributedCacheUtil.class ) );
+    Path path = mock( Path.class );
+    when( path.toUri() ).thenReturn( new URI( "hdfs://cluster/path/pmr-transport/user/job/file.pmrt" ) );
+    when( fileSystem.asPath( anyString(), anyString() ) ).thenReturn( path );
+    when( fileSystem.asPath( any( Path.class ), anyString() ) ).thenReturn( path );
+
+    pentahoMapReduceJobBuilder.stageJobTransport( conf, fileSystem, "/path/" );
+    pentahoMapReduceJobBuilder.stageJobTransport( conf, fileSystem, "/path/" );
+
+    ArgumentCaptor<String> children = ArgumentCaptor.forClass( String.class );
+    verify( fileSystem, times( 8 ) ).asPath( any( Path.class ), children.capture() );
+    List<String> names = children.getAllValues();
+    // user, job directory and file name for each job
+    assertEquals( names.get( 0 ), names.get( 3 ) );
+    assertNotEquals( names.get( 1 ), names.get( 4 ) );
+    assertEquals( names.get( 2 ), names.get( 5 ) );
+  }
+
+  @Test
+  public void testStageJobTransportWithoutTransformations() throws Exception {
+    Configuration conf = mock( Configuration.class );
+
+    assertNull( pentahoMapReduceJobBuilder.stageJobTransport( conf, mock( FileSystem.class ), "/path/" ) );
+
+    verify( conf, never() ).set( eq( PentahoMapReduceTransport.TRANSPORT_FILE ), anyString() );
+  }
+
   // -------------------------------------------------------------------------
   // Tests for appendProtobufGencodeFlag / protobuf regression fix
   // -------------------------------------------------------------------------
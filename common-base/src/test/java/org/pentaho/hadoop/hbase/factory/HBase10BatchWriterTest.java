@@ -0,0 +1,91 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.hadoop.hbase.factory;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HBase10BatchWriterTest {
+  private BufferedMutator mutator;
+
+  @Before
+  public void setup() {
+    mutator = mock( BufferedMutator.class );
+    when( mutator.getName() ).thenReturn( TableName.valueOf( "table" ) );
+  }
+
+  @Test
+  @SuppressWarnings( "unchecked" )
+  public void testWritesBatchesInOrder() throws IOException {
+    ArgumentCaptor<List<Mutation>> captor = ArgumentCaptor.forClass( List.class );
+    HBase10BatchWriter writer = new HBase10BatchWriter( mutator, 2, Long.MAX_VALUE );
+    for ( int i = 0; i < 5; i++ ) {
+      writer.mutate( new Put( Bytes.toBytes( i ) ) );
+    }
+    writer.flush();
+    verify( mutator, times( 3 ) ).mutate( captor.capture() );
+    List<List<Mutation>> written = captor.getAllValues();
+    assertEquals( 2, written.get( 0 ).size() );
+    assertEquals( 2, written.get( 1 ).size() );
+    assertEquals( 1, written.get( 2 ).size() );
+    assertArrayEquals( Bytes.toBytes( 4 ), written.get( 2 ).get( 0 ).getRow() );
+    verify( mutator, times( 3 ) ).flush();
+    writer.close();
+  }
+
+  @Test
+  public void testNothingWrittenBelowThreshold() throws IOException {
+    HBase10BatchWriter writer = new HBase10BatchWriter( mutator, 10, Long.MAX_VALUE );
+    writer.mutate( new Put( Bytes.toBytes( 1 ) ) );
+    verify( mutator, never() ).mutate( anyList() );
+    writer.close();
+    verify( mutator ).mutate( anyList() );
+  }
+
+  @Test
+  public void testFailureIsReported() throws IOException {
+    IOException cause = new IOException( "region server down" );
+    doThrow( cause ).when( mutator ).flush();
+    HBase10BatchWriter writer = new HBase10BatchWriter( mutator, 1, Long.MAX_VALUE );
+    writer.mutate( new Put( Bytes.toBytes( 1 ) ) );
+    try {
+      writer.flush();
+      fail( "batch failure must be reported" );
+    } catch ( IOException e ) {
+      assertEquals( cause, e.getCause() );
+    }
+    writer.close();
+  }
+}
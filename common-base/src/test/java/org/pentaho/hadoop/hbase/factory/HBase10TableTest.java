@@ -0,0 +1,76 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.hbase.factory;
+
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HBase10TableTest {
+  private Connection conn;
+  private BufferedMutator mutator;
+  private BufferedMutator resizedMutator;
+
+  @Before
+  public void setup() throws IOException {
+    TableName name = TableName.valueOf( "table" );
+    Table table = mock( Table.class );
+    when( table.getName() ).thenReturn( name );
+    mutator = mock( BufferedMutator.class );
+    when( mutator.getName() ).thenReturn( name );
+    resizedMutator = mock( BufferedMutator.class );
+    when( resizedMutator.getName() ).thenReturn( name );
+    conn = mock( Connection.class );
+    when( conn.getTable( name ) ).thenReturn( table );
+    when( conn.getBufferedMutator( name ) ).thenReturn( mutator );
+    when( conn.getBufferedMutator( any( BufferedMutatorParams.class ) ) ).thenReturn( resizedMutator );
+  }
+
+  @Test
+  public void testBatchWriterIsFlushedBeforeMutatorIsReplaced() throws IOException {
+    HBase10Table table = new HBase10Table( conn, "table" );
+    table.setAutoFlush( false );
+    table.put( new Put( Bytes.toBytes( 1 ) ) );
+
+    table.setWriteBufferSize( 1024 );
+
+    InOrder order = inOrder( mutator );
+    order.verify( mutator ).mutate( anyList() );
+    order.verify( mutator ).close();
+    verify( resizedMutator, never() ).mutate( anyList() );
+
+    table.put( new Put( Bytes.toBytes( 2 ) ) );
+    table.flushCommits();
+    verify( resizedMutator ).mutate( anyList() );
+    table.close();
+    verify( resizedMutator ).close();
+  }
+}
@@ -0,0 +1,99 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChainedRecordReaderTest {
+
+  private static class RangeSplit implements IPentahoInputSplit {
+    final long from;
+    final long to;
+
+    RangeSplit( long from, long to ) {
+      this.from = from;
+      this.to = to;
+    }
+  }
+
+  private static IPentahoRecordReader rangeReader( IPentahoInputSplit split ) {
+    RangeSplit range = (RangeSplit) split;
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    List<RowMetaAndData> rows = new ArrayList<>();
+    for ( long i = range.from; i < range.to; i++ ) {
+      rows.add( new RowMetaAndData( rowMeta, i ) );
+    }
+    return new IPentahoRecordReader() {
+      @Override
+      public Iterator<RowMetaAndData> iterator() {
+        return rows.iterator();
+      }
+
+      @Override
+      public void close() throws IOException {
+      }
+    };
+  }
+
+  @Test
+  public void readsRowsOfSplitsInOrder() throws Exception {
+    List<Long> ids = new ArrayList<>();
+    try ( ChainedRecordReader reader = new ChainedRecordReader(
+      Arrays.asList( new RangeSplit( 0, 3 ), new RangeSplit( 3, 3 ), new RangeSplit( 3, 5 ) ),
+      ChainedRecordReaderTest::rangeReader ) ) {
+      for ( RowMetaAndData row : reader ) {
+        ids.add( (Long) row.getData()[ 0 ] );
+      }
+    }
+
+    assertEquals( Arrays.asList( 0L, 1L, 2L, 3L, 4L ), ids );
+  }
+
+  @Test
+  public void fillsBatchesFromRowsOfSplitReaders() throws Exception {
+    List<Long> ids = new ArrayList<>();
+    int batches = 0;
+    try ( ChainedRecordReader reader = new ChainedRecordReader(
+      Arrays.asList( new RangeSplit( 0, 1500 ), new RangeSplit( 1500, 1500 ), new RangeSplit( 1500, 2000 ) ),
+      ChainedRecordReaderTest::rangeReader ) ) {
+      for ( RecordBatch batch = reader.nextBatch(); batch != null; batch = reader.nextBatch() ) {
+        batches++;
+        for ( int row = 0; row < batch.getSize(); row++ ) {
+          ids.add( batch.getLong( 0, row ) );
+        }
+      }
+    }
+
+    assertEquals( 3, batches );
+    assertEquals( 2000, ids.size() );
+    for ( int i = 0; i < ids.size(); i++ ) {
+      assertEquals( i, ids.get( i ).longValue() );
+    }
+  }
+}
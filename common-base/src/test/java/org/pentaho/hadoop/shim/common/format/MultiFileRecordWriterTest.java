@@ -0,0 +1,145 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MultiFileRecordWriterTest {
+  private final Path directory = new Path( "/out/data" );
+  private final Map<Path, FakeFileWriter> files = new LinkedHashMap<>();
+  private final RowMeta rowMeta = new RowMeta();
+
+  public MultiFileRecordWriterTest() {
+    rowMeta.addValueMeta( new ValueMetaString( "country" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+  }
+
+  private MultiFileRecordWriter writer() {
+    return new MultiFileRecordWriter( directory, ".parquet", file -> {
+      FakeFileWriter writer = new FakeFileWriter();
+      files.put( file, writer );
+      return writer;
+    } );
+  }
+
+  private RowMetaAndData row( String country, long id ) {
+    return new RowMetaAndData( rowMeta, country, id );
+  }
+
+  @Test
+  public void rollsByRows() throws Exception {
+    MultiFileRecordWriter writer = writer();
+    writer.setMaxRowsPerFile( 2 );
+    for ( int i = 0; i < 5; i++ ) {
+      writer.write( row( "us", i ) );
+    }
+    writer.close();
+
+    assertEquals( Arrays.asList( new Path( "/out/data/part-00000.parquet" ), new Path( "/out/data/part-00001.parquet" ),
+      new Path( "/out/data/part-00002.parquet" ) ), new ArrayList<>( files.keySet() ) );
+    assertEquals( 1, files.get( new Path( "/out/data/part-00002.parquet" ) ).rows.size() );
+    files.values().forEach( f -> assertTrue( f.closed ) );
+  }
+
+  @Test
+  public void rollsBySize() throws Exception {
+    MultiFileRecordWriter writer = writer();
+    writer.setMaxFileSize( 1000 );
+    for ( int i = 0; i < 250; i++ ) {
+      writer.write( row( "us", i ) );
+    }
+    writer.close();
+
+    // 10 bytes per row, the size is checked every 100 rows
+    assertEquals( 3, files.size() );
+    assertEquals( 100, files.get( new Path( "/out/data/part-00000.parquet" ) ).rows.size() );
+  }
+
+  @Test
+  public void writesPartitionsIntoOwnFiles() throws Exception {
+    MultiFileRecordWriter writer = writer();
+    writer.setPartitionFields( Arrays.asList( "country" ) );
+    writer.write( row( "us", 1 ) );
+    writer.write( row( "de", 2 ) );
+    writer.write( row( "us", 3 ) );
+    writer.write( row( null, 4 ) );
+    writer.write( row( "a/b", 5 ) );
+    writer.close();
+
+    assertEquals( 2, files.get( new Path( "/out/data/country=us/part-00000.parquet" ) ).rows.size() );
+    assertEquals( 1, files.get( new Path( "/out/data/country=de/part-00000.parquet" ) ).rows.size() );
+    assertEquals( 1, files.get( new Path(
+      "/out/data/country=" + MultiFileRecordWriter.DEFAULT_PARTITION + "/part-00000.parquet" ) ).rows.size() );
+    assertEquals( 1, files.get( new Path( "/out/data/country=a%2Fb/part-00000.parquet" ) ).rows.size() );
+  }
+
+  @Test
+  public void leastRecentlyUsedFileIsFinished() throws Exception {
+    MultiFileRecordWriter writer = writer();
+    writer.setPartitionFields( Arrays.asList( "country" ) );
+    writer.setMaxOpenFiles( 2 );
+    writer.write( row( "us", 1 ) );
+    writer.write( row( "de", 2 ) );
+    writer.write( row( "us", 3 ) );
+    writer.write( row( "fr", 4 ) );
+
+    assertTrue( files.get( new Path( "/out/data/country=de/part-00000.parquet" ) ).closed );
+    writer.write( row( "de", 5 ) );
+    writer.close();
+
+    assertEquals( 1, files.get( new Path( "/out/data/country=de/part-00001.parquet" ) ).rows.size() );
+    assertEquals( 2, files.get( new Path( "/out/data/country=us/part-00000.parquet" ) ).rows.size() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void unknownPartitionField() throws Exception {
+    MultiFileRecordWriter writer = writer();
+    writer.setPartitionFields( Arrays.asList( "city" ) );
+    writer.write( row( "us", 1 ) );
+  }
+
+  private static class FakeFileWriter implements MultiFileRecordWriter.SizedRecordWriter {
+    final List<RowMetaAndData> rows = new ArrayList<>();
+    boolean closed;
+
+    @Override
+    public void write( RowMetaAndData row ) {
+      rows.add( row );
+    }
+
+    @Override
+    public long getDataSize() {
+      return rows.size() * 10L;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
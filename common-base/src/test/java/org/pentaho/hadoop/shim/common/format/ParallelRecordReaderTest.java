@@ -0,0 +1,115 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class ParallelRecordReaderTest {
+
+  private static class RangeSplit implements IPentahoInputSplit {
+    final long from;
+    final long to;
+
+    RangeSplit( long from, long to ) {
+      this.from = from;
+      this.to = to;
+    }
+  }
+
+  private static IPentahoRecordReader rangeReader( IPentahoInputSplit split ) {
+    RangeSplit range = (RangeSplit) split;
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    List<RowMetaAndData> rows = new ArrayList<>();
+    for ( long i = range.from; i < range.to; i++ ) {
+      rows.add( new RowMetaAndData( rowMeta, i ) );
+    }
+    return new IPentahoRecordReader() {
+      @Override
+      public Iterator<RowMetaAndData> iterator() {
+        return rows.iterator();
+      }
+
+      @Override
+      public void close() throws IOException {
+      }
+    };
+  }
+
+  @Test
+  public void readsAllRowsOfAllSplits() throws Exception {
+    List<IPentahoInputSplit> splits = new ArrayList<>();
+    for ( int i = 0; i < 10; i++ ) {
+      splits.add( new RangeSplit( i * 1000L, ( i + 1 ) * 1000L ) );
+    }
+
+    Set<Long> ids = new TreeSet<>();
+    try ( ParallelRecordReader reader = new ParallelRecordReader( splits, 4, 16, ParallelRecordReaderTest::rangeReader,
+      getClass().getClassLoader() ) ) {
+      for ( RowMetaAndData row : reader ) {
+        ids.add( (Long) row.getData()[ 0 ] );
+      }
+    }
+
+    assertEquals( 10000, ids.size() );
+  }
+
+  @Test
+  public void emptySplitList() {
+    ParallelRecordReader reader = new ParallelRecordReader( new ArrayList<>(), 4,
+      ParallelRecordReaderTest::rangeReader, getClass().getClassLoader() );
+    assertFalse( reader.iterator().hasNext() );
+    reader.close();
+  }
+
+  @Test
+  public void failureOfOneSplitIsReported() {
+    List<IPentahoInputSplit> splits = new ArrayList<>();
+    splits.add( new RangeSplit( 0, 10 ) );
+    splits.add( new RangeSplit( 10, 20 ) );
+
+    ParallelRecordReader reader = new ParallelRecordReader( splits, 2, split -> {
+      if ( ( (RangeSplit) split ).from > 0 ) {
+        throw new IOException( "broken split" );
+      }
+      return rangeReader( split );
+    }, getClass().getClassLoader() );
+    try {
+      for ( RowMetaAndData row : reader ) {
+        // drain rows until the failed split is reported
+      }
+      fail( "failure of the second split should be reported" );
+    } catch ( IllegalStateException e ) {
+      assertEquals( "broken split", e.getCause().getMessage() );
+    } finally {
+      reader.close();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format;
+
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelRecordWriterTest {
+  private final RowMeta rowMeta = new RowMeta();
+
+  public ParallelRecordWriterTest() {
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+  }
+
+  @Test
+  public void allRowsAreWrittenByAllWriters() throws Exception {
+    Set<Long> written = new ConcurrentSkipListSet<>();
+    Map<Integer, Boolean> closed = new ConcurrentHashMap<>();
+    ParallelRecordWriter writer = new ParallelRecordWriter( 4, writerNumber -> new IPentahoRecordWriter() {
+      @Override
+      public void write( RowMetaAndData row ) throws Exception {
+        written.add( row.getInteger( 0, -1 ) );
+      }
+
+      @Override
+      public void close() {
+        closed.put( writerNumber, true );
+      }
+    }, getClass().getClassLoader() );
+
+    Object[] data = new Object[ 1 ];
+    for ( long i = 0; i < 10000; i++ ) {
+      // the same array for every row, the writer must copy it
+      data[ 0 ] = i;
+      writer.write( new RowMetaAndData( rowMeta, data ) );
+    }
+    writer.close();
+
+    assertEquals( 10000, written.size() );
+    assertEquals( 9999L, (long) written.stream().max( Long::compare ).get() );
+    assertEquals( 4, closed.size() );
+  }
+
+  @Test
+  public void failureOfWriterIsThrown() throws Exception {
+    ParallelRecordWriter writer = new ParallelRecordWriter( 2, writerNumber -> new IPentahoRecordWriter() {
+      @Override
+      public void write( RowMetaAndData row ) throws IOException {
+        throw new IOException( "disk full" );
+      }
+
+      @Override
+      public void close() {
+      }
+    }, getClass().getClassLoader() );
+
+    try {
+      for ( long i = 0; i < 100000; i++ ) {
+        writer.write( new RowMetaAndData( rowMeta, i ) );
+      }
+      writer.close();
+      fail( "failure should be thrown" );
+    } catch ( IllegalStateException | IOException e ) {
+      assertTrue( e.getCause() instanceof IOException );
+    }
+  }
+}
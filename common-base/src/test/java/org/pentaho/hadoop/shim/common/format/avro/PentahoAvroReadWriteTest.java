@@ -0,0 +1,179 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.avro;
+
+import org.apache.hadoop.fs.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.core.row.value.ValueMetaBigNumber;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.AvroSpec;
+import org.pentaho.hadoop.shim.api.format.IAvroInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PentahoAvroReadWriteTest {
+  private static final int ROWS = 5000;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private String file;
+  private RowMeta rowMeta;
+
+  @Before
+  public void setup() throws Exception {
+    KettleLogStore.init();
+    file = tempFolder.getRoot().toPath().resolve( "test.avro" ).toString();
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "id" ) );
+    rowMeta.addValueMeta( new ValueMetaBigNumber( "amount" ) );
+    rowMeta.addValueMeta( new ValueMetaDate( "day" ) );
+
+    PentahoAvroOutputFormat outputFormat = new PentahoAvroOutputFormat();
+    outputFormat.setOutputFile( file, true );
+    outputFormat.setFields( Arrays.asList(
+      outputField( "name", AvroSpec.DataType.STRING, true ),
+      outputField( "id", AvroSpec.DataType.LONG, false ),
+      outputField( "amount", AvroSpec.DataType.DECIMAL, true ),
+      outputField( "day", AvroSpec.DataType.DATE, true ) ) );
+    outputFormat.setCompression( "deflate" );
+    outputFormat.setSyncInterval( 1024 );
+    Date day = new Date( 0 );
+    try ( IPentahoRecordWriter writer = outputFormat.createRecordWriter() ) {
+      for ( int i = 0; i < ROWS; i++ ) {
+        writer.write( new RowMetaAndData( rowMeta, i % 10 == 0 ? null : "name" + i, (long) i,
+          new BigDecimal( i + ".25" ), day ) );
+      }
+    }
+  }
+
+  private static AvroOutputField outputField( String name, AvroSpec.DataType type, boolean allowNull ) {
+    AvroOutputField field = new AvroOutputField();
+    field.setFormatFieldName( name );
+    field.setPentahoFieldName( name );
+    field.setFormatType( type );
+    field.setPentahoType( type.getPdiType() );
+    field.setAllowNull( allowNull );
+    if ( type == AvroSpec.DataType.DECIMAL ) {
+      field.setPrecision( "10" );
+      field.setScale( "2" );
+    }
+    return field;
+  }
+
+  @Test
+  public void schemaIsReadFromFile() {
+    PentahoAvroInputFormat inputFormat = new PentahoAvroInputFormat( null );
+    inputFormat.setInputFile( file );
+
+    List<IAvroInputField> fields = inputFormat.readSchema();
+
+    assertEquals( 4, fields.size() );
+    assertEquals( AvroSpec.DataType.DECIMAL, fields.get( 2 ).getAvroType() );
+    assertEquals( ValueMetaInterface.TYPE_BIGNUMBER, fields.get( 2 ).getPentahoType() );
+    assertEquals( 2, fields.get( 2 ).getScale() );
+    assertEquals( ValueMetaInterface.TYPE_DATE, fields.get( 3 ).getPentahoType() );
+  }
+
+  @Test
+  public void projectedFieldsAreRead() throws Exception {
+    PentahoAvroInputFormat inputFormat = new PentahoAvroInputFormat( null );
+    inputFormat.setInputFile( file );
+    List<IAvroInputField> fields = inputFormat.readSchema();
+    inputFormat.setSchema( Arrays.asList( fields.get( 2 ), fields.get( 0 ) ) );
+
+    List<RowMetaAndData> rows = new ArrayList<>();
+    try ( IPentahoRecordReader reader = inputFormat.createRecordReader( null ) ) {
+      reader.forEach( rows::add );
+    }
+
+    assertEquals( ROWS, rows.size() );
+    assertEquals( 2, rows.get( 0 ).size() );
+    assertEquals( new BigDecimal( "1.25" ), rows.get( 1 ).getData()[ 0 ] );
+    assertEquals( "name1", rows.get( 1 ).getData()[ 1 ] );
+    assertNull( rows.get( 10 ).getData()[ 1 ] );
+  }
+
+  @Test
+  public void wholeFileSplitReadsEveryRow() throws Exception {
+    PentahoAvroInputFormat inputFormat = new PentahoAvroInputFormat( null );
+    inputFormat.setInputFile( file );
+    inputFormat.setSchema( Collections.singletonList( inputFormat.readSchema().get( 1 ) ) );
+
+    List<Long> ids = new ArrayList<>();
+    try ( IPentahoRecordReader reader =
+            inputFormat.createRecordReader( PentahoAvroInputSplit.wholeFile( new Path( file ) ) ) ) {
+      reader.forEach( row -> ids.add( (Long) row.getData()[ 0 ] ) );
+    }
+
+    assertEquals( ROWS, ids.size() );
+    assertEquals( ROWS - 1, ids.get( ROWS - 1 ).longValue() );
+  }
+
+  @Test
+  public void splitsReadEveryRowOnce() throws Exception {
+    PentahoAvroInputFormat inputFormat = new PentahoAvroInputFormat( null );
+    inputFormat.setInputFile( file );
+    inputFormat.setSchema( Collections.singletonList( inputFormat.readSchema().get( 1 ) ) );
+    inputFormat.setSplitSize( 4000 );
+
+    List<IPentahoInputSplit> splits = inputFormat.getSplits();
+    assertTrue( splits.size() > 1 );
+    List<Long> ids = new ArrayList<>();
+    for ( IPentahoInputSplit split : splits ) {
+      try ( IPentahoRecordReader reader = inputFormat.createRecordReader( split ) ) {
+        reader.forEach( row -> ids.add( (Long) row.getData()[ 0 ] ) );
+      }
+    }
+
+    assertEquals( ROWS, ids.size() );
+    for ( int i = 0; i < ROWS; i++ ) {
+      assertEquals( i, ids.get( i ).longValue() );
+    }
+  }
+
+  @Test
+  public void dateIsWrittenAsDays() {
+    assertEquals( 1, PentahoAvroRecordWriter.epochDay( new Date( 86400000L ), TimeZone.getTimeZone( "UTC" ) ) );
+    assertEquals( 0, PentahoAvroRecordWriter.epochDay( new Date( 86400000L ), TimeZone.getTimeZone( "GMT-01:00" ) ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void unknownCodecIsRejected() {
+    new PentahoAvroOutputFormat().setCompression( "no-such-codec" );
+  }
+}
@@ -0,0 +1,89 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaDate;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.OrcSpec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OrcColumnWriterTest {
+
+  @Test
+  public void utf8EncodingMatchesStringBytes() {
+    for ( String value : Arrays.asList( "", "abc", "café", "€100", "😀!", "a\ud800b", "\udc00" ) ) {
+      byte[] expected = value.getBytes( StandardCharsets.UTF_8 );
+      assertEquals( value, expected.length, OrcColumnWriter.utf8Length( value ) );
+      byte[] buffer = new byte[ expected.length + 2 ];
+      OrcColumnWriter.encodeUtf8( value, buffer, 2 );
+      assertArrayEquals( value, expected, Arrays.copyOfRange( buffer, 2, buffer.length ) );
+    }
+  }
+
+  @Test
+  public void stringsAndNullsAreWrittenIntoVector() {
+    OrcOutputField field = new OrcOutputField();
+    field.setPentahoFieldName( "name" );
+    field.setFormatFieldName( "name" );
+    field.setFormatType( OrcSpec.DataType.STRING );
+    field.setAllowNull( true );
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "name" ) );
+    BytesColumnVector vector = new BytesColumnVector( 4 );
+
+    OrcColumnWriter writer = OrcColumnWriter.create( field, rowMeta.getValueMeta( 0 ), 0, vector );
+    writer.write( new RowMetaAndData( rowMeta, "café" ), 0 );
+    writer.write( new RowMetaAndData( rowMeta, (Object) null ), 1 );
+
+    assertEquals( "café", vector.toString( 0 ) );
+    assertFalse( vector.isNull[ 0 ] );
+    assertTrue( vector.isNull[ 1 ] );
+    assertFalse( vector.noNulls );
+  }
+
+  @Test
+  public void datesAreDaysInTimeZone() {
+    OrcOutputField field = new OrcOutputField();
+    field.setPentahoFieldName( "day" );
+    field.setFormatFieldName( "day" );
+    field.setFormatType( OrcSpec.DataType.DATE );
+    RowMeta rowMeta = new RowMeta();
+    ValueMetaDate valueMeta = new ValueMetaDate( "day" );
+    valueMeta.setDateFormatTimeZone( TimeZone.getTimeZone( "GMT+02:00" ) );
+    rowMeta.addValueMeta( valueMeta );
+    LongColumnVector vector = new LongColumnVector( 2 );
+
+    OrcColumnWriter writer = OrcColumnWriter.create( field, valueMeta, 0, vector );
+    // 1970-01-01T23:00Z is already the second day at +02:00
+    writer.write( new RowMetaAndData( rowMeta, new Date( 23L * 60 * 60 * 1000 ) ), 0 );
+    writer.write( new RowMetaAndData( rowMeta, new Date( -1L ) ), 1 );
+
+    assertEquals( 1L, vector.vector[ 0 ] );
+    assertEquals( 0L, vector.vector[ 1 ] );
+  }
+}
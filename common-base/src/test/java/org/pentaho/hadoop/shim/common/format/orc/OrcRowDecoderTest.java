@@ -0,0 +1,119 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.LongColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.TypeDescription;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.shim.api.format.OrcSpec;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class OrcRowDecoderTest {
+  private VectorizedRowBatch batch;
+  private List<OrcInputField> orcFields;
+  private Map<String, Integer> subscripts;
+
+  @Before
+  public void setUp() {
+    TypeDescription schema = TypeDescription.fromString( "struct<name:string,age:bigint>" );
+    batch = schema.createRowBatch();
+    BytesColumnVector names = (BytesColumnVector) batch.cols[ 0 ];
+    LongColumnVector ages = (LongColumnVector) batch.cols[ 1 ];
+    names.initBuffer();
+    names.setVal( 0, "café".getBytes( StandardCharsets.UTF_8 ) );
+    ages.vector[ 0 ] = 42;
+    names.noNulls = false;
+    names.isNull[ 1 ] = true;
+    ages.vector[ 1 ] = 7;
+    batch.size = 2;
+
+    orcFields = Arrays.asList( field( "name", ValueMetaInterface.TYPE_STRING ),
+      field( "age", ValueMetaInterface.TYPE_INTEGER ) );
+    subscripts = new HashMap<>();
+    subscripts.put( "name", 0 );
+    subscripts.put( "age", 1 );
+  }
+
+  private static OrcInputField field( String name, int pentahoType ) {
+    OrcInputField field = new OrcInputField();
+    field.setFormatFieldName( name );
+    field.setPentahoFieldName( name );
+    field.setOrcType( pentahoType == ValueMetaInterface.TYPE_STRING ? OrcSpec.DataType.STRING
+      : OrcSpec.DataType.BIGINT );
+    field.setPentahoType( pentahoType );
+    return field;
+  }
+
+  @Test
+  public void rowsShareRowMeta() throws Exception {
+    OrcRowDecoder decoder = new OrcRowDecoder( orcFields, subscripts, orcFields, false );
+
+    RowMetaAndData first = decoder.decode( batch, 0 );
+    RowMetaAndData second = decoder.decode( batch, 1 );
+
+    assertSame( decoder.getRowMeta(), first.getRowMeta() );
+    assertSame( first.getRowMeta(), second.getRowMeta() );
+    assertEquals( "café", first.getString( "name", null ) );
+    assertEquals( 42L, first.getInteger( "age" ).longValue() );
+    assertNull( second.getData()[ 0 ] );
+    assertEquals( 7L, second.getInteger( "age" ).longValue() );
+  }
+
+  @Test
+  public void typesAreConverted() throws Exception {
+    OrcInputField ageAsString = field( "age", ValueMetaInterface.TYPE_STRING );
+    OrcRowDecoder decoder = new OrcRowDecoder( Arrays.asList( ageAsString ), subscripts, orcFields, false );
+
+    assertEquals( "42", decoder.decode( batch, 0 ).getData()[ 0 ] );
+  }
+
+  @Test
+  public void lazyStringsAreDecodedByRowMeta() throws Exception {
+    OrcRowDecoder decoder = new OrcRowDecoder( orcFields, subscripts, orcFields, true );
+
+    RowMetaAndData row = decoder.decode( batch, 0 );
+
+    ValueMetaInterface valueMeta = row.getValueMeta( 0 );
+    assertEquals( ValueMetaInterface.STORAGE_TYPE_BINARY_STRING, valueMeta.getStorageType() );
+    assertArrayEquals( "café".getBytes( StandardCharsets.UTF_8 ), (byte[]) row.getData()[ 0 ] );
+    assertEquals( "café", valueMeta.getString( row.getData()[ 0 ] ) );
+  }
+
+  @Test
+  public void batchDecodesIntoPrimitiveColumns() {
+    OrcRowDecoder decoder = new OrcRowDecoder( orcFields, subscripts, orcFields, false );
+    RecordBatch recordBatch = new RecordBatch( decoder.getRowMeta(), 1 );
+
+    assertEquals( 1, decoder.decode( recordBatch, batch, 1 ) );
+    assertEquals( 1, recordBatch.getSize() );
+    assertEquals( 7L, recordBatch.getLong( 1, 0 ) );
+    assertNull( recordBatch.getObject( 0, 0 ) );
+  }
+}
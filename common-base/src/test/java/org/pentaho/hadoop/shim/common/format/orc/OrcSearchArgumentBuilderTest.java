@@ -0,0 +1,70 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.hive.ql.io.sarg.PredicateLeaf;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgument;
+import org.apache.hadoop.hive.ql.io.sarg.SearchArgumentFactory;
+import org.apache.orc.TypeDescription;
+import org.junit.Test;
+import org.pentaho.hadoop.shim.api.format.PushDownFilter;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class OrcSearchArgumentBuilderTest {
+
+  private final TypeDescription schema =
+    TypeDescription.fromString( "struct<name:string,age:int,born:timestamp,tags:array<string>>" );
+  private final OrcSearchArgumentBuilder builder = new OrcSearchArgumentBuilder( schema );
+
+  @Test
+  public void greaterThanIsNegatedLessThanEquals() {
+    SearchArgument expected = SearchArgumentFactory.newBuilder()
+      .startNot().lessThanEquals( "age", PredicateLeaf.Type.LONG, 30L ).end().build();
+    assertEquals( expected.toString(), builder.build( PushDownFilter.gt( "age", 30 ) ).toString() );
+  }
+
+  @Test
+  public void unsupportedColumnsAreDroppedFromAnd() {
+    PushDownFilter filter = PushDownFilter.and( PushDownFilter.eq( "name", "Alice" ),
+      PushDownFilter.isNull( "born" ), PushDownFilter.isNull( "tags" ), PushDownFilter.eq( "other", 1L ) );
+    SearchArgument expected = SearchArgumentFactory.newBuilder()
+      .equals( "name", PredicateLeaf.Type.STRING, "Alice" ).build();
+    assertEquals( expected.toString(), builder.build( filter ).toString() );
+  }
+
+  @Test
+  public void unsupportedColumnDisablesOrAndNot() {
+    assertNull( builder.build(
+      PushDownFilter.or( PushDownFilter.eq( "name", "Alice" ), PushDownFilter.isNull( "born" ) ) ) );
+    assertNull( builder.build( PushDownFilter.not(
+      PushDownFilter.and( PushDownFilter.eq( "name", "Alice" ), PushDownFilter.isNull( "born" ) ) ) ) );
+  }
+
+  @Test
+  public void fractionalValueIsNotComparedWithIntegerColumn() {
+    assertNull( builder.build( PushDownFilter.lt( "age", 30.5 ) ) );
+  }
+
+  @Test
+  public void includedColumnsContainNestedColumns() {
+    // ids: 0 struct, 1 name, 2 age, 3 born, 4 tags, 5 tags element
+    assertArrayEquals( new boolean[] { true, false, true, false, true, true },
+      PentahoOrcRecordReader.includedColumns( schema, Arrays.asList( 1, 3 ) ) );
+  }
+}
@@ -0,0 +1,62 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.orc;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.orc.StripeInformation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PentahoOrcInputSplitTest {
+
+  private static List<StripeInformation> stripes( long... lengths ) {
+    List<StripeInformation> stripes = new ArrayList<>();
+    long offset = 3;
+    for ( long length : lengths ) {
+      StripeInformation stripe = mock( StripeInformation.class );
+      when( stripe.getOffset() ).thenReturn( offset );
+      when( stripe.getLength() ).thenReturn( length );
+      stripes.add( stripe );
+      offset += length;
+    }
+    return stripes;
+  }
+
+  @Test
+  public void stripesAreGroupedUpToSplitSize() {
+    List<PentahoOrcInputSplit> splits =
+      PentahoOrcInputSplit.fromStripes( new Path( "/tmp/a.orc" ), stripes( 40, 40, 40, 100, 10 ), 100 );
+
+    assertEquals( 4, splits.size() );
+    assertEquals( 3, splits.get( 0 ).getOffset() );
+    assertEquals( 80, splits.get( 0 ).getLength() );
+    assertEquals( 83, splits.get( 1 ).getOffset() );
+    assertEquals( 40, splits.get( 1 ).getLength() );
+    assertEquals( 123, splits.get( 2 ).getOffset() );
+    assertEquals( 100, splits.get( 2 ).getLength() );
+    assertEquals( 223, splits.get( 3 ).getOffset() );
+    assertEquals( 10, splits.get( 3 ).getLength() );
+  }
+
+  @Test
+  public void noStripesNoSplits() {
+    assertEquals( 0, PentahoOrcInputSplit.fromStripes( new Path( "/tmp/a.orc" ), stripes(), 100 ).size() );
+  }
+}
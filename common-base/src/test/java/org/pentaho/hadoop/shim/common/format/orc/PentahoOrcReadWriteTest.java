@@ -41,6 +41,7 @@ import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoOrcOutputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat;
 import org.pentaho.hadoop.shim.api.format.OrcSpec;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
@@ -56,6 +57,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
@@ -263,6 +265,59 @@ public class PentahoOrcReadWriteTest {
     doReadWrite( CompressionKind.NONE, "orcOutputNone.orc", true );
   }
 
+  @Test
+  public void testDirectoryRead() throws Exception {
+    doReadWrite( CompressionKind.NONE, "orcOutput1.orc", false );
+    doReadWrite( CompressionKind.ZLIB, "orcOutput2.orc", false );
+
+    PentahoOrcInputFormat pentahoOrcInputFormat = new PentahoOrcInputFormat( mock( NamedCluster.class ) );
+    pentahoOrcInputFormat.setSchema( orcInputFields );
+    pentahoOrcInputFormat.setInputFile( filePath.substring( 0, filePath.lastIndexOf( '/' ) ) );
+
+    assertEquals( 2, pentahoOrcInputFormat.getSplits().size() );
+    assertEquals( 2 * rowData.length, countRows( pentahoOrcInputFormat.createRecordReader( null ) ) );
+    assertEquals( 2 * rowData.length,
+      countRows( pentahoOrcInputFormat.createRecordReader( pentahoOrcInputFormat.getSplits(), 2 ) ) );
+  }
+
+  @Test
+  public void testBatchRead() throws Exception {
+    doReadWrite( CompressionKind.NONE, "orcOutputBatch.orc", false );
+
+    PentahoOrcInputFormat pentahoOrcInputFormat = new PentahoOrcInputFormat( mock( NamedCluster.class ) );
+    pentahoOrcInputFormat.setSchema( orcInputFields );
+    pentahoOrcInputFormat.setInputFile( filePath );
+
+    List<Object[]> rows = new ArrayList<>();
+    try ( IPentahoInputFormat.IPentahoRecordReader reader = pentahoOrcInputFormat.createRecordReader( null ) ) {
+      for ( RowMetaAndData row : reader ) {
+        rows.add( row.getData() );
+      }
+    }
+    int row = 0;
+    try ( IPentahoInputFormat.IPentahoBatchRecordReader reader =
+            (IPentahoInputFormat.IPentahoBatchRecordReader) pentahoOrcInputFormat.createRecordReader( null ) ) {
+      for ( RecordBatch batch = reader.nextBatch(); batch != null; batch = reader.nextBatch() ) {
+        assertEquals( orcInputFields.size(), batch.getRowMeta().size() );
+        for ( int i = 0; i < batch.getSize(); i++ ) {
+          assertArrayEquals( rows.get( row++ ), batch.getRow( i ) );
+        }
+      }
+    }
+    assertEquals( rows.size(), row );
+  }
+
+  private int countRows( IPentahoInputFormat.IPentahoRecordReader recordReader ) throws Exception {
+    int count = 0;
+    try ( IPentahoInputFormat.IPentahoRecordReader reader = recordReader ) {
+      for ( RowMetaAndData row : reader ) {
+        assertNotNull( row );
+        count++;
+      }
+    }
+    return count;
+  }
+
   private void doReadWrite( CompressionKind compressionType, String outputFileName,
                             boolean overwriteFile )
     throws Exception {
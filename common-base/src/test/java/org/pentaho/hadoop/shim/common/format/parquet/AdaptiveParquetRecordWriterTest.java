@@ -0,0 +1,138 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetOutputFormat;
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.AdaptiveParquetRecordWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveParquetRecordWriterTest {
+  private final RowMeta rowMeta = new RowMeta();
+
+  public AdaptiveParquetRecordWriterTest() {
+    rowMeta.addValueMeta( new ValueMetaString( "Name" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "Age" ) );
+  }
+
+  private List<RowMetaAndData> rows( int count ) {
+    List<RowMetaAndData> rows = new ArrayList<>();
+    for ( long i = 0; i < count; i++ ) {
+      rows.add( new RowMetaAndData( rowMeta, "name" + ( i % 10 ), i ) );
+    }
+    return rows;
+  }
+
+  @Test
+  public void dictionaryIsUsedForFewDistinctValues() throws Exception {
+    AdaptiveParquetRecordWriter.Settings settings = AdaptiveParquetRecordWriter.choose(
+      ParquetUtils.createOutputFields( ParquetSpec.DataType.INT_64 ), rows( 1000 ) );
+
+    assertTrue( settings.getDictionaryColumns().get( "Name" ) );
+    assertFalse( settings.getDictionaryColumns().get( "Age" ) );
+    assertTrue( settings.getPageSize() >= 64 * 1024 && settings.getPageSize() <= 1024 * 1024 );
+    assertTrue( settings.getDictionaryPageSize() >= settings.getPageSize() );
+    assertEquals( 16L * 1024 * 1024, settings.getRowGroupSize() );
+  }
+
+  @Test
+  public void emptySampleKeepsDictionaryOff() throws Exception {
+    AdaptiveParquetRecordWriter.Settings settings = AdaptiveParquetRecordWriter.choose(
+      ParquetUtils.createOutputFields( ParquetSpec.DataType.INT_64 ), new ArrayList<>() );
+
+    assertFalse( settings.getDictionaryColumns().get( "Name" ) );
+    assertFalse( settings.getDictionaryColumns().get( "Age" ) );
+  }
+
+  @Test
+  public void appliedSettingsKeepConfiguredValues() throws Exception {
+    AdaptiveParquetRecordWriter.Settings settings = AdaptiveParquetRecordWriter.choose(
+      ParquetUtils.createOutputFields( ParquetSpec.DataType.INT_64 ), rows( 1000 ) );
+    Configuration conf = new Configuration( false );
+    conf.setInt( ParquetOutputFormat.PAGE_SIZE, 12345 );
+
+    Configuration applied = settings.apply( conf, false );
+
+    assertEquals( 12345, applied.getInt( ParquetOutputFormat.PAGE_SIZE, 0 ) );
+    assertEquals( settings.getRowGroupSize(), applied.getLong( ParquetOutputFormat.BLOCK_SIZE, 0 ) );
+    assertEquals( settings.getDictionaryPageSize(), applied.getInt( ParquetOutputFormat.DICTIONARY_PAGE_SIZE, 0 ) );
+    assertTrue( applied.getBoolean( ParquetOutputFormat.ENABLE_DICTIONARY + "#Name", false ) );
+    assertNull( conf.get( ParquetOutputFormat.BLOCK_SIZE ) );
+    assertNull( conf.get( ParquetOutputFormat.ENABLE_DICTIONARY + "#Name" ) );
+  }
+
+  @Test
+  public void appliedSettingsKeepConfiguredDictionary() throws Exception {
+    AdaptiveParquetRecordWriter.Settings settings = AdaptiveParquetRecordWriter.choose(
+      ParquetUtils.createOutputFields( ParquetSpec.DataType.INT_64 ), rows( 1000 ) );
+
+    Configuration applied = settings.apply( new Configuration( false ), true );
+
+    assertNull( applied.get( ParquetOutputFormat.ENABLE_DICTIONARY + "#Name" ) );
+    assertEquals( settings.getPageSize(), applied.getInt( ParquetOutputFormat.PAGE_SIZE, 0 ) );
+  }
+
+  @Test
+  public void sampledRowsAreWrittenAfterSettingsAreChosen() throws Exception {
+    List<RowMetaAndData> written = new ArrayList<>();
+    AdaptiveParquetRecordWriter.Settings[] chosen = new AdaptiveParquetRecordWriter.Settings[ 1 ];
+    AdaptiveParquetRecordWriter writer = new AdaptiveParquetRecordWriter(
+      ParquetUtils.createOutputFields( ParquetSpec.DataType.INT_64 ), 10, settings -> {
+        chosen[ 0 ] = settings;
+        return new RecordingWriter( written );
+      } );
+
+    for ( RowMetaAndData row : rows( 5 ) ) {
+      writer.write( row );
+    }
+    assertNull( chosen[ 0 ] );
+    writer.close();
+
+    assertNotNull( chosen[ 0 ] );
+    assertEquals( 5, written.size() );
+    assertEquals( 4L, written.get( 4 ).getData()[ 1 ] );
+  }
+
+  private static class RecordingWriter implements IPentahoRecordWriter {
+    private final List<RowMetaAndData> rows;
+
+    RecordingWriter( List<RowMetaAndData> rows ) {
+      this.rows = rows;
+    }
+
+    @Override
+    public void write( RowMetaAndData row ) {
+      rows.add( row );
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.values.bloomfilter.BloomFilter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat.IPentahoRecordWriter;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoApacheOutputFormat;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParquetColumnStatisticsTest {
+  private static final String LONG_NAME = "a name which is much longer than the truncate length ";
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private PentahoApacheOutputFormat outputFormat;
+  private File outputDir;
+
+  @Before
+  public void setUp() throws Exception {
+    KettleLogStore.init();
+    outputFormat = new PentahoApacheOutputFormat();
+    outputFormat.setFields( ParquetUtils.createOutputFields( ParquetSpec.DataType.INT_64 ) );
+    outputDir = tempFolder.getRoot();
+  }
+
+  private void write( File file ) throws Exception {
+    outputFormat.setOutputFile( file.getPath(), true );
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "Name" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "Age" ) );
+    IPentahoRecordWriter writer = outputFormat.createRecordWriter();
+    for ( long i = 0; i < 100; i++ ) {
+      writer.write( new RowMetaAndData( rowMeta, LONG_NAME + i, i ) );
+    }
+    writer.close();
+  }
+
+  private static void assertBloomFilter( Path file ) throws Exception {
+    try ( ParquetFileReader reader =
+            ParquetFileReader.open( HadoopInputFile.fromPath( file, new Configuration() ) ) ) {
+      BlockMetaData block = reader.getFooter().getBlocks().get( 0 );
+      ColumnChunkMetaData name = block.getColumns().get( 0 );
+      ColumnChunkMetaData age = block.getColumns().get( 1 );
+
+      BloomFilter bloomFilter = reader.readBloomFilter( name );
+      assertNotNull( bloomFilter );
+      assertTrue( bloomFilter.findHash( bloomFilter.hash( Binary.fromString( LONG_NAME + 42 ) ) ) );
+      assertNull( reader.readBloomFilter( age ) );
+    }
+  }
+
+  @Test
+  public void bloomFilterIsWrittenForColumn() throws Exception {
+    outputFormat.setBloomFilter( "Name", 100, 0.01 );
+    File file = new File( outputDir, "bloom.parquet" );
+
+    write( file );
+
+    assertBloomFilter( new Path( file.toURI() ) );
+  }
+
+  @Test
+  public void bloomFilterIsWrittenIntoPartFiles() throws Exception {
+    outputFormat.setBloomFilter( "Name", 0, 0 );
+    outputFormat.setMaxRowsPerFile( 1000 );
+    File dir = new File( outputDir, "parts.parquet" );
+
+    write( dir );
+
+    File[] parts = dir.listFiles( ( d, name ) -> name.endsWith( ".parquet" ) );
+    assertNotNull( parts );
+    assertEquals( 1, parts.length );
+    assertBloomFilter( new Path( parts[ 0 ].toURI() ) );
+  }
+
+  @Test
+  public void statisticsAreTruncated() throws Exception {
+    outputFormat.setStatisticsTruncateLength( 8 );
+    File file = new File( outputDir, "truncated.parquet" );
+
+    write( file );
+
+    try ( ParquetFileReader reader =
+            ParquetFileReader.open( HadoopInputFile.fromPath( new Path( file.toURI() ), new Configuration() ) ) ) {
+      ColumnChunkMetaData name = reader.getFooter().getBlocks().get( 0 ).getColumns().get( 0 );
+      assertFalse( name.getStatistics().isEmpty() );
+      assertTrue( name.getStatistics().getMinBytes().length <= 8 );
+      assertTrue( name.getStatistics().getMaxBytes().length <= 8 );
+    }
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void truncateLengthMustBePositive() {
+    outputFormat.setColumnIndexTruncateLength( 0 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void falsePositiveProbabilityMustBeBelowOne() {
+    outputFormat.setBloomFilter( "Name", 100, 1 );
+  }
+}
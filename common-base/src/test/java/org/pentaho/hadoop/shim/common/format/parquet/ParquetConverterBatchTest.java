@@ -0,0 +1,72 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.GroupConverter;
+import org.junit.Test;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.ParquetConverter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParquetConverterBatchTest {
+
+  private static void readRecord( ParquetConverter.MyRecordMaterializer materializer, RecordBatch batch, String name,
+                                  Long age ) {
+    GroupConverter root = materializer.getRootConverter();
+    root.start();
+    root.getConverter( 0 ).asPrimitiveConverter().addBinary( Binary.fromString( name ) );
+    if ( age != null ) {
+      root.getConverter( 1 ).asPrimitiveConverter().addLong( age );
+    }
+    root.end();
+    // accepted by the reader
+    batch.setSize( batch.getSize() + 1 );
+  }
+
+  @Test
+  public void recordsAreWrittenIntoColumns() {
+    ParquetConverter converter = new ParquetConverter(
+      ParquetUtils.createSchema( ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_INTEGER ) );
+    ParquetConverter.MyRecordMaterializer materializer = new ParquetConverter.MyRecordMaterializer( converter );
+    RecordBatch batch =
+      ( (ParquetConverter.MyGroupConverter) materializer.getRootConverter() ).createBatch( 16 );
+
+    readRecord( materializer, batch, "Alice", 30L );
+    readRecord( materializer, batch, "Bob", null );
+
+    assertEquals( 2, batch.getSize() );
+    assertEquals( 30L, batch.getLong( 1, 0 ) );
+    assertTrue( batch.isNull( 1, 1 ) );
+    assertArrayEquals( new Object[] { "Alice", 30L }, batch.getRow( 0 ) );
+    assertArrayEquals( new Object[] { "Bob", null }, batch.getRow( 1 ) );
+  }
+
+  @Test
+  public void convertedValuesAreStoredAsObjects() {
+    ParquetConverter converter = new ParquetConverter(
+      ParquetUtils.createSchema( ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_STRING ) );
+    ParquetConverter.MyRecordMaterializer materializer = new ParquetConverter.MyRecordMaterializer( converter );
+    RecordBatch batch =
+      ( (ParquetConverter.MyGroupConverter) materializer.getRootConverter() ).createBatch( 16 );
+
+    readRecord( materializer, batch, "Alice", 30L );
+
+    assertEquals( "30", batch.getObject( 1, 0 ) );
+  }
+}
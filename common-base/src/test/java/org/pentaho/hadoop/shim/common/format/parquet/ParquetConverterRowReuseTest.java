@@ -0,0 +1,82 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.GroupConverter;
+import org.junit.Test;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.ParquetConverter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ParquetConverterRowReuseTest {
+
+  private static Object[] readRecord( ParquetConverter.MyRecordMaterializer materializer, String name, Long age ) {
+    GroupConverter root = materializer.getRootConverter();
+    root.start();
+    root.getConverter( 0 ).asPrimitiveConverter().addBinary( Binary.fromString( name ) );
+    if ( age != null ) {
+      root.getConverter( 1 ).asPrimitiveConverter().addLong( age );
+    }
+    root.end();
+    return materializer.getCurrentRecord().getData();
+  }
+
+  @Test
+  public void newRowPerRecordByDefault() {
+    ParquetConverter converter = new ParquetConverter(
+      ParquetUtils.createSchema( ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_INTEGER ) );
+    ParquetConverter.MyRecordMaterializer materializer = new ParquetConverter.MyRecordMaterializer( converter );
+
+    Object[] first = readRecord( materializer, "Alice", 30L );
+    Object[] second = readRecord( materializer, "Bob", 40L );
+
+    assertNotSame( first, second );
+    assertEquals( "Alice", first[ 0 ] );
+    assertEquals( 30L, first[ 1 ] );
+    assertEquals( "Bob", second[ 0 ] );
+    assertEquals( 40L, second[ 1 ] );
+  }
+
+  @Test
+  public void rowIsRecycledAndClearedWhenReuseEnabled() {
+    ParquetConverter converter = new ParquetConverter(
+      ParquetUtils.createSchema( ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_INTEGER ), true );
+    ParquetConverter.MyRecordMaterializer materializer = new ParquetConverter.MyRecordMaterializer( converter );
+
+    readRecord( materializer, "Alice", 30L );
+    RowMetaAndData firstRow = materializer.getCurrentRecord();
+    Object[] second = readRecord( materializer, "Bob", null );
+
+    assertSame( firstRow, materializer.getCurrentRecord() );
+    assertEquals( "Bob", second[ 0 ] );
+    assertNull( second[ 1 ] );
+  }
+
+  @Test
+  public void valuesAreConvertedToRequestedType() {
+    ParquetConverter converter = new ParquetConverter(
+      ParquetUtils.createSchema( ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_STRING ) );
+    ParquetConverter.MyRecordMaterializer materializer = new ParquetConverter.MyRecordMaterializer( converter );
+
+    Object[] row = readRecord( materializer, "Alice", 30L );
+
+    assertEquals( "30", row[ 1 ] );
+  }
+}
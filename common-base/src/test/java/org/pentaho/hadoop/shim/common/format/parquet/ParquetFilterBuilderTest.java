@@ -0,0 +1,96 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.io.api.Binary;
+import org.junit.Test;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.shim.api.format.IParquetInputField;
+import org.pentaho.hadoop.shim.api.format.ParquetSpec;
+import org.pentaho.hadoop.shim.api.format.PushDownFilter;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.ParquetFilterBuilder;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ParquetFilterBuilderTest {
+
+  private final ParquetFilterBuilder builder = new ParquetFilterBuilder(
+    ParquetUtils.createSchema( ValueMetaInterface.TYPE_STRING, ValueMetaInterface.TYPE_INTEGER ) );
+
+  @Test
+  public void leafFilters() {
+    assertEquals( FilterApi.gt( FilterApi.longColumn( "Age" ), 30L ),
+      builder.build( PushDownFilter.gt( "Age", 30 ) ) );
+    assertEquals( FilterApi.eq( FilterApi.binaryColumn( "Name" ), Binary.fromString( "Alice" ) ),
+      builder.build( PushDownFilter.eq( "Name", "Alice" ) ) );
+    assertEquals( FilterApi.eq( FilterApi.longColumn( "Age" ), null ),
+      builder.build( PushDownFilter.isNull( "Age" ) ) );
+  }
+
+  @Test
+  public void unknownFieldIsDroppedFromAnd() {
+    PushDownFilter filter = PushDownFilter.and( PushDownFilter.gt( "Age", 30L ), PushDownFilter.eq( "Other", 1L ) );
+    assertEquals( FilterApi.gt( FilterApi.longColumn( "Age" ), 30L ), builder.build( filter ) );
+  }
+
+  @Test
+  public void unknownFieldDisablesOr() {
+    PushDownFilter filter = PushDownFilter.or( PushDownFilter.gt( "Age", 30L ), PushDownFilter.eq( "Other", 1L ) );
+    assertNull( builder.build( filter ) );
+  }
+
+  @Test
+  public void partialAndUnderNotIsNotPushedDown() {
+    PushDownFilter filter = PushDownFilter.not(
+      PushDownFilter.and( PushDownFilter.gt( "Age", 30L ), PushDownFilter.eq( "Other", 1L ) ) );
+    assertNull( builder.build( filter ) );
+  }
+
+  @Test
+  public void decimalValuesAreComparedUnscaled() {
+    ParquetFilterBuilder decimals = new ParquetFilterBuilder( Arrays.asList(
+      decimalField( "Price", ParquetSpec.DataType.DECIMAL_INT_32 ),
+      decimalField( "Total", ParquetSpec.DataType.DECIMAL_INT_64 ),
+      decimalField( "Amount", ParquetSpec.DataType.DECIMAL ) ) );
+
+    assertEquals( FilterApi.gt( FilterApi.intColumn( "Price" ), 1250 ),
+      decimals.build( PushDownFilter.gt( "Price", new BigDecimal( "12.5" ) ) ) );
+    assertEquals( FilterApi.lt( FilterApi.longColumn( "Total" ), 700L ),
+      decimals.build( PushDownFilter.lt( "Total", 7L ) ) );
+    Binary amount = Binary.fromConstantByteArray( BigInteger.valueOf( -105 ).toByteArray() );
+    assertEquals( FilterApi.and( FilterApi.gtEq( FilterApi.binaryColumn( "Amount" ), amount ),
+      FilterApi.ltEq( FilterApi.binaryColumn( "Amount" ), amount ) ),
+      decimals.build( PushDownFilter.eq( "Amount", new BigDecimal( "-1.05" ) ) ) );
+    assertNull( decimals.build( PushDownFilter.notEq( "Amount", BigDecimal.ONE ) ) );
+    assertNull( decimals.build( PushDownFilter.eq( "Price", new BigDecimal( "1.001" ) ) ) );
+  }
+
+  private static IParquetInputField decimalField( String name, ParquetSpec.DataType type ) {
+    ParquetInputField field = new ParquetInputField( name, type, name, ValueMetaInterface.TYPE_BIGNUMBER );
+    field.setPrecision( 9 );
+    field.setScale( 2 );
+    return field;
+  }
+
+  @Test
+  public void fractionalValueIsNotComparedWithIntegerColumn() {
+    assertNull( builder.build( PushDownFilter.lt( "Age", 30.5 ) ) );
+  }
+}
@@ -0,0 +1,121 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.parquet;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.Footer;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.ParquetFooterCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ParquetFooterCacheTest {
+  private final ParquetFooterCache cache = ParquetFooterCache.getInstance();
+  private final List<Path> read = new ArrayList<>();
+
+  @Before
+  @After
+  public void clear() {
+    cache.clear();
+  }
+
+  private List<Footer> readFooters( Collection<FileStatus> files ) {
+    List<Footer> footers = new ArrayList<>();
+    for ( FileStatus file : files ) {
+      read.add( file.getPath() );
+      MessageType schema = new MessageType( "schema", new PrimitiveType( Type.Repetition.OPTIONAL,
+        PrimitiveType.PrimitiveTypeName.INT64, file.getPath().getName() ) );
+      footers.add( new Footer( file.getPath(),
+        new ParquetMetadata( new FileMetaData( schema, Collections.emptyMap(), "test" ), Collections.emptyList() ) ) );
+    }
+    return footers;
+  }
+
+  private static FileStatus file( String name, long length, long modificationTime ) {
+    return new FileStatus( length, false, 1, 128, modificationTime, new Path( "file:///data/" + name ) );
+  }
+
+  @Test
+  public void footersAreReadOnce() throws Exception {
+    List<FileStatus> files = Arrays.asList( file( "a.parquet", 10, 1 ), file( "b.parquet", 20, 1 ) );
+    List<Footer> first = cache.getFooters( files, this::readFooters );
+    List<Footer> second = cache.getFooters( files, this::readFooters );
+
+    assertEquals( 2, read.size() );
+    assertEquals( 2, second.size() );
+    assertEquals( new Path( "file:///data/a.parquet" ), second.get( 0 ).getFile() );
+    assertSame( first.get( 1 ).getParquetMetadata(), second.get( 1 ).getParquetMetadata() );
+  }
+
+  @Test
+  public void changedFileIsReadAgain() throws Exception {
+    cache.getFooters( Collections.singletonList( file( "a.parquet", 10, 1 ) ), this::readFooters );
+    cache.getFooters( Collections.singletonList( file( "a.parquet", 10, 2 ) ), this::readFooters );
+    cache.getFooters( Collections.singletonList( file( "a.parquet", 15, 2 ) ), this::readFooters );
+    cache.getFooters( Collections.singletonList( file( "a.parquet", 15, 2 ) ), this::readFooters );
+
+    assertEquals( 3, read.size() );
+  }
+
+  @Test
+  public void schemaIsTakenFromCachedFooter() throws Exception {
+    FileStatus file = file( "a.parquet", 10, 1 );
+    List<Footer> footers = cache.getFooters( Collections.singletonList( file ), this::readFooters );
+
+    assertSame( footers.get( 0 ).getParquetMetadata().getFileMetaData().getSchema(), cache.getSchema( null, file ) );
+  }
+
+  @Test
+  public void leastRecentlyUsedFootersAreDroppedAboveMaxBytes() throws Exception {
+    cache.getFooters( Collections.singletonList( file( "a.parquet", 10, 1 ) ), this::readFooters );
+    long entryBytes = cache.getCachedBytes();
+    ParquetFooterCache small = new ParquetFooterCache( 2 * entryBytes );
+    read.clear();
+
+    for ( String name : new String[] { "a.parquet", "b.parquet", "c.parquet", "b.parquet", "a.parquet" } ) {
+      small.getFooters( Collections.singletonList( file( name, 10, 1 ) ), this::readFooters );
+    }
+
+    assertEquals( Arrays.asList( new Path( "file:///data/a.parquet" ), new Path( "file:///data/b.parquet" ),
+      new Path( "file:///data/c.parquet" ), new Path( "file:///data/a.parquet" ) ), read );
+    assertEquals( 2 * entryBytes, small.getCachedBytes() );
+  }
+
+  @Test
+  public void footerLargerThanCacheIsNotKept() throws Exception {
+    ParquetFooterCache small = new ParquetFooterCache( 1 );
+    FileStatus file = file( "a.parquet", 10, 1 );
+
+    small.getFooters( Collections.singletonList( file ), this::readFooters );
+    small.getFooters( Collections.singletonList( file ), this::readFooters );
+
+    assertEquals( 2, read.size() );
+    assertEquals( 0, small.getCachedBytes() );
+  }
+}
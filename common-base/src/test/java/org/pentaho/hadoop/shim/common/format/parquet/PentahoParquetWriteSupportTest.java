@@ -15,14 +15,26 @@ package org.pentaho.hadoop.shim.common.format.parquet;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.mockito.InOrder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
 import org.pentaho.di.core.util.Assert;
 import org.junit.Test;
 import org.pentaho.hadoop.shim.api.format.ParquetSpec;
 
 
 import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 
 @RunWith( Parameterized.class )
 public class PentahoParquetWriteSupportTest {
@@ -82,4 +94,50 @@ public class PentahoParquetWriteSupportTest {
         org.junit.Assert.fail( "Invalid provider name used." );
     }
   }
+
+  @Test
+  public void fieldsAreBoundAgainWhenRowMetaChanges() {
+    assumeTrue( "APACHE".equals( provider ) );
+    org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetWriteSupport writeSupport =
+      new org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetWriteSupport(
+        ParquetUtils.createOutputFields( ParquetSpec.DataType.UTF8, false, ParquetSpec.DataType.INT_64, false ) );
+    RecordConsumer consumer = mock( RecordConsumer.class );
+
+    RowMeta nameFirst = new RowMeta();
+    nameFirst.addValueMeta( new ValueMetaString( "Name" ) );
+    nameFirst.addValueMeta( new ValueMetaInteger( "Age" ) );
+    RowMeta ageFirst = new RowMeta();
+    ageFirst.addValueMeta( new ValueMetaInteger( "Age" ) );
+    ageFirst.addValueMeta( new ValueMetaString( "Name" ) );
+
+    writeSupport.writeRow( new RowMetaAndData( nameFirst, "Alice", 30L ), consumer );
+    writeSupport.writeRow( new RowMetaAndData( ageFirst, 40L, "Bob" ), consumer );
+
+    InOrder order = inOrder( consumer );
+    order.verify( consumer ).addBinary( Binary.fromString( "Alice" ) );
+    order.verify( consumer ).addLong( 30L );
+    order.verify( consumer ).addBinary( Binary.fromString( "Bob" ) );
+    order.verify( consumer ).addLong( 40L );
+  }
+
+  @Test
+  public void defaultValueIsWrittenForEmptyRequiredField() {
+    assumeTrue( "APACHE".equals( provider ) );
+    List<ParquetOutputField> fields =
+      ParquetUtils.createOutputFields( ParquetSpec.DataType.UTF8, true, ParquetSpec.DataType.INT_64, false );
+    fields.get( 1 ).setDefaultValue( "7" );
+    org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetWriteSupport writeSupport =
+      new org.pentaho.hadoop.shim.common.format.parquet.delegate.apache.PentahoParquetWriteSupport( fields );
+    RecordConsumer consumer = mock( RecordConsumer.class );
+
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaString( "Name" ) );
+    rowMeta.addValueMeta( new ValueMetaInteger( "Age" ) );
+    writeSupport.writeRow( new RowMetaAndData( rowMeta, "Alice", null ), consumer );
+    writeSupport.writeRow( new RowMetaAndData( rowMeta, "Bob", null ), consumer );
+
+    InOrder order = inOrder( consumer );
+    order.verify( consumer ).addLong( 7L );
+    order.verify( consumer ).addLong( 7L );
+  }
 }
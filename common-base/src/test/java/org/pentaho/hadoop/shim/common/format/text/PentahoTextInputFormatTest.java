@@ -0,0 +1,166 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.common.format.text;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.di.core.RowMetaAndData;
+import org.pentaho.di.core.logging.KettleLogStore;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.shim.api.format.IFormatInputField;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoBatchRecordReader;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoInputSplit;
+import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat.IPentahoRecordReader;
+import org.pentaho.hadoop.shim.api.format.RecordBatch;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PentahoTextInputFormatTest {
+  private static final int ROWS = 3000;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path file;
+
+  @Before
+  public void setup() throws Exception {
+    KettleLogStore.init();
+    file = tempFolder.getRoot().toPath().resolve( "data.csv" );
+    try ( Writer writer = Files.newBufferedWriter( file, StandardCharsets.UTF_8 ) ) {
+      write( writer );
+    }
+  }
+
+  private static void write( Writer writer ) throws Exception {
+    writer.write( "id,name,amount\n" );
+    for ( int i = 0; i < ROWS; i++ ) {
+      writer.write( i + "," + ( i % 10 == 0 ? "" : "\"name, \"\"" + i + "\"\"\"" ) + "," + i + ".5\n" );
+    }
+  }
+
+  private PentahoTextInputFormat inputFormat( Path input ) {
+    PentahoTextInputFormat inputFormat = new PentahoTextInputFormat( null );
+    inputFormat.setInputFile( input.toString() );
+    inputFormat.setHeader( true );
+    return inputFormat;
+  }
+
+  private static List<IFormatInputField> fields( List<IFormatInputField> schema ) {
+    schema.get( 0 ).setPentahoType( ValueMetaInterface.TYPE_INTEGER );
+    schema.get( 2 ).setPentahoType( ValueMetaInterface.TYPE_NUMBER );
+    return schema;
+  }
+
+  @Test
+  public void schemaIsReadFromHeader() {
+    List<IFormatInputField> schema = inputFormat( file ).readSchema();
+
+    assertEquals( 3, schema.size() );
+    assertEquals( "name", schema.get( 1 ).getFormatFieldName() );
+    assertEquals( ValueMetaInterface.TYPE_STRING, schema.get( 1 ).getPentahoType() );
+  }
+
+  @Test
+  public void generatedNamesWithoutHeader() {
+    PentahoTextInputFormat inputFormat = inputFormat( file );
+    inputFormat.setHeader( false );
+
+    assertEquals( "Field_002", inputFormat.readSchema().get( 1 ).getFormatFieldName() );
+  }
+
+  @Test
+  public void quotedValuesAndTypesAreParsed() throws Exception {
+    PentahoTextInputFormat inputFormat = inputFormat( file );
+    List<IFormatInputField> schema = fields( inputFormat.readSchema() );
+    inputFormat.setSchema( Arrays.asList( schema.get( 2 ), schema.get( 1 ), schema.get( 0 ) ) );
+
+    List<RowMetaAndData> rows = new ArrayList<>();
+    try ( IPentahoRecordReader reader = inputFormat.createRecordReader( null ) ) {
+      reader.forEach( rows::add );
+    }
+
+    assertEquals( ROWS, rows.size() );
+    assertEquals( 1.5, rows.get( 1 ).getData()[ 0 ] );
+    assertEquals( "name, \"1\"", rows.get( 1 ).getData()[ 1 ] );
+    assertEquals( 1L, rows.get( 1 ).getData()[ 2 ] );
+    assertNull( rows.get( 10 ).getData()[ 1 ] );
+  }
+
+  @Test
+  public void splitsReadEveryLineOnce() throws Exception {
+    PentahoTextInputFormat inputFormat = inputFormat( file );
+    inputFormat.setSchema( Collections.singletonList( fields( inputFormat.readSchema() ).get( 0 ) ) );
+    inputFormat.setSplitSize( 1000 );
+
+    List<IPentahoInputSplit> splits = inputFormat.getSplits();
+    assertTrue( splits.size() > 1 );
+    List<Long> ids = new ArrayList<>();
+    for ( IPentahoInputSplit split : splits ) {
+      try ( IPentahoRecordReader reader = inputFormat.createRecordReader( split ) ) {
+        reader.forEach( row -> ids.add( (Long) row.getData()[ 0 ] ) );
+      }
+    }
+
+    assertEquals( ROWS, ids.size() );
+    for ( int i = 0; i < ROWS; i++ ) {
+      assertEquals( i, ids.get( i ).longValue() );
+    }
+  }
+
+  @Test
+  public void compressedFileIsOneSplitReadByBatches() throws Exception {
+    Path gzip = tempFolder.getRoot().toPath().resolve( "data.csv.gz" );
+    try ( OutputStream out = new GZIPOutputStream( Files.newOutputStream( gzip ) );
+          Writer writer = new OutputStreamWriter( out, StandardCharsets.UTF_8 ) ) {
+      write( writer );
+    }
+    PentahoTextInputFormat inputFormat = inputFormat( gzip );
+    inputFormat.setSchema( Collections.singletonList( fields( inputFormat.readSchema() ).get( 0 ) ) );
+    inputFormat.setSplitSize( 1000 );
+
+    List<IPentahoInputSplit> splits = inputFormat.getSplits();
+    assertEquals( 1, splits.size() );
+    long count = 0;
+    long sum = 0;
+    try ( IPentahoBatchRecordReader reader =
+            (IPentahoBatchRecordReader) inputFormat.createRecordReader( splits.get( 0 ) ) ) {
+      for ( RecordBatch batch = reader.nextBatch(); batch != null; batch = reader.nextBatch() ) {
+        for ( int row = 0; row < batch.getSize(); row++ ) {
+          sum += batch.getLong( 0, row );
+        }
+        count += batch.getSize();
+      }
+    }
+
+    assertEquals( ROWS, count );
+    assertEquals( (long) ROWS * ( ROWS - 1 ) / 2, sum );
+  }
+}
@@ -0,0 +1,177 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.pentaho.di.core.BaseRowSet;
+import org.pentaho.di.core.row.RowMetaInterface;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Row set which hands rows over to a step in chunks. The producer fills a chunk and queues it when it is full or
+ * flushed, and the step reads the rows of a taken chunk without locking, so the queue is locked once per chunk
+ * instead of once per row. Drained chunk arrays are pooled for the producer.
+ * <p>
+ * One thread puts rows and one thread gets them. Rows of a chunk which is not full are only seen by the step after
+ * {@link #flush()}.
+ */
+class ChunkedRowSet extends BaseRowSet {
+  private static final long PUT_TIMEOUT_MS = 50;
+  private static final long GET_TIMEOUT_MS = 50;
+
+  private final int chunkSize;
+  private final BlockingQueue<Chunk> chunks;
+  private final Queue<Chunk> pool = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queuedRows = new AtomicInteger();
+  // used by the producer only
+  private Chunk filling;
+  // used by the step only, size() reads them without locking
+  private Chunk reading;
+  private int position;
+
+  /**
+   * @param chunkSize rows per chunk
+   * @param maxRows   rows which can be queued before the producer waits, at least two chunks are queued
+   */
+  ChunkedRowSet( int chunkSize, int maxRows ) {
+    if ( chunkSize < 1 ) {
+      throw new IllegalArgumentException( "Chunk size must be positive: " + chunkSize );
+    }
+    this.chunkSize = chunkSize;
+    chunks = new ArrayBlockingQueue<>( Math.max( 2, maxRows / chunkSize ) );
+  }
+
+  @Override
+  public boolean putRow( RowMetaInterface rowMeta, Object[] rowData ) {
+    return putRowWait( rowMeta, rowData, PUT_TIMEOUT_MS, TimeUnit.MILLISECONDS );
+  }
+
+  /**
+   * Adds the row to the current chunk. Only waits when a full chunk can't be queued.
+   */
+  @Override
+  public boolean putRowWait( RowMetaInterface rowMeta, Object[] rowData, long time, TimeUnit tu ) {
+    setRowMeta( rowMeta );
+    if ( filling != null && filling.size == chunkSize && !publish( time, tu ) ) {
+      return false;
+    }
+    if ( filling == null ) {
+      Chunk pooled = pool.poll();
+      filling = pooled != null ? pooled : new Chunk( chunkSize );
+    }
+    filling.rows[ filling.size++ ] = rowData;
+    if ( filling.size == chunkSize ) {
+      // a chunk which can't be queued yet is queued by the next put or flush
+      publish( time, tu );
+    }
+    return true;
+  }
+
+  /**
+   * Queues the rows put since the last full chunk, waiting for room in the queue.
+   */
+  void flush() {
+    publish( Long.MAX_VALUE, TimeUnit.DAYS );
+  }
+
+  private boolean publish( long time, TimeUnit tu ) {
+    if ( filling == null || filling.size == 0 ) {
+      return true;
+    }
+    int size = filling.size;
+    queuedRows.addAndGet( size );
+    try {
+      if ( chunks.offer( filling, time, tu ) ) {
+        filling = null;
+        return true;
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+    queuedRows.addAndGet( -size );
+    return false;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait( GET_TIMEOUT_MS, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    return getRowWait( 0, TimeUnit.MILLISECONDS );
+  }
+
+  @Override
+  public Object[] getRowWait( long timeout, TimeUnit tu ) {
+    Chunk chunk = reading;
+    if ( chunk == null ) {
+      try {
+        chunk = chunks.poll( timeout, tu );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      if ( chunk == null ) {
+        return null;
+      }
+      queuedRows.addAndGet( -chunk.size );
+      position = 0;
+      reading = chunk;
+    }
+    int index = position;
+    Object[] row = chunk.rows[ index ];
+    chunk.rows[ index ] = null;
+    if ( index + 1 == chunk.size ) {
+      reading = null;
+      chunk.size = 0;
+      pool.offer( chunk );
+    } else {
+      position = index + 1;
+    }
+    return row;
+  }
+
+  /**
+   * Rows queued or left in the chunk the step reads, approximate while rows are moving.
+   */
+  @Override
+  public int size() {
+    Chunk chunk = reading;
+    int left = chunk == null ? 0 : Math.max( 0, chunk.size - position );
+    return queuedRows.get() + left;
+  }
+
+  @Override
+  public void clear() {
+    chunks.clear();
+    queuedRows.set( 0 );
+    filling = null;
+    reading = null;
+  }
+
+  private static final class Chunk {
+    private final Object[][] rows;
+    private int size;
+
+    Chunk( int capacity ) {
+      rows = new Object[ capacity ][];
+    }
+  }
+}
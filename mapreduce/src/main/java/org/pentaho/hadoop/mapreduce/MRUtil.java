@@ -14,29 +14,43 @@
 
 package org.pentaho.hadoop.mapreduce;
 
+import com.thoughtworks.xstream.XStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapred.JobConf;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.logging.LogLevel;
 import org.pentaho.di.core.logging.LoggingObjectType;
 import org.pentaho.di.core.logging.SimpleLoggingObject;
 import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.core.variables.Variables;
 import org.pentaho.di.i18n.BaseMessages;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransConfiguration;
 import org.pentaho.di.trans.TransExecutionConfiguration;
 import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.TransMeta.TransformationType;
+import org.pentaho.di.trans.step.StepMeta;
+import org.pentaho.di.trans.steps.missing.MissingTrans;
+import org.pentaho.hadoop.shim.api.mapreduce.PentahoMapReduceTransport;
 
 import org.pentaho.di.core.logging.LogChannel;
 import org.pentaho.di.core.logging.LogChannelInterface;
 
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MRUtil {
 
@@ -57,18 +71,62 @@ public class MRUtil {
    */
   public static final String PROPERTY_PENTAHO_KETTLE_HOME = "pentaho.kettle.home";
 
+  /**
+   * Hadoop Configuration for keeping parsed transformations and variable spaces for later tasks of a reused JVM.
+   * Enabled unless set to {@code false}.
+   */
+  public static final String PROPERTY_PENTAHO_KETTLE_TRANS_CACHE = "pentaho.kettle.trans.cache";
+
+  /**
+   * Most transformations kept per JVM, a task JVM only runs the mapper, combiner and reducer of one job.
+   */
+  private static final int MAX_CACHED_TRANS = 16;
+
+  private static final Map<String, TransTemplate> transTemplates = new ConcurrentHashMap<>();
+
+  private static final Map<String, VariableSpace> variableSpaces = new ConcurrentHashMap<>();
+
+  private static final Map<String, PentahoMapReduceTransport> transports = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a transformation from its configuration XML. The parsed transformation is kept by digest of the XML, so
+   * later tasks of a reused JVM only create a new {@link Trans} for the same transformation meta.
+   */
   public static Trans getTrans( final Configuration conf, final String transXml, boolean singleThreaded )
     throws KettleException {
     initKettleEnvironment( conf );
 
-    TransConfiguration transConfiguration = TransConfiguration.fromXML( transXml );
-    TransMeta transMeta = transConfiguration.getTransMeta();
+    TransTemplate template;
+    if ( conf.getBoolean( PROPERTY_PENTAHO_KETTLE_TRANS_CACHE, true ) ) {
+      String key = digest( transXml ) + ( singleThreaded ? ":single" : ":normal" );
+      template = transTemplates.get( key );
+      if ( template == null ) {
+        template = parseTrans( transXml, singleThreaded );
+        // transformations with missing plugins are parsed again until the plugins are loaded
+        if ( !template.hasMissingPlugins() ) {
+          if ( transTemplates.size() >= MAX_CACHED_TRANS ) {
+            transTemplates.clear();
+          }
+          transTemplates.put( key, template );
+        }
+      }
+    } else {
+      template = parseTrans( transXml, singleThreaded );
+    }
+
     String carteObjectId = UUID.randomUUID().toString();
     SimpleLoggingObject servletLoggingObject =
       new SimpleLoggingObject( "HADOOP_MAPPER", LoggingObjectType.CARTE, null ); //$NON-NLS-1$
     servletLoggingObject.setContainerObjectId( carteObjectId );
+    servletLoggingObject.setLogLevel( template.logLevel );
+
+    return new Trans( template.transMeta, servletLoggingObject );
+  }
+
+  private static TransTemplate parseTrans( String transXml, boolean singleThreaded ) throws KettleException {
+    TransConfiguration transConfiguration = TransConfiguration.fromXML( transXml );
+    TransMeta transMeta = transConfiguration.getTransMeta();
     TransExecutionConfiguration executionConfiguration = transConfiguration.getTransExecutionConfiguration();
-    servletLoggingObject.setLogLevel( executionConfiguration.getLogLevel() );
 
     if ( singleThreaded ) {
       // Set the type to single threaded in case the user forgot...
@@ -83,7 +141,141 @@ public class MRUtil {
       transMeta.setTransformationType( TransformationType.Normal );
     }
 
-    return new Trans( transMeta, servletLoggingObject );
+    return new TransTemplate( transMeta, executionConfiguration.getLogLevel() );
+  }
+
+  /**
+   * Deserializes the variable space of the PDI job. The parsed variables are kept by digest of the XML, and every
+   * call returns a new copy which the task can change.
+   */
+  public static VariableSpace getVariableSpace( final Configuration conf, final String xmlVariableSpace ) {
+    if ( !conf.getBoolean( PROPERTY_PENTAHO_KETTLE_TRANS_CACHE, true ) ) {
+      return parseVariableSpace( xmlVariableSpace );
+    }
+    String key = digest( xmlVariableSpace );
+    VariableSpace parsed = variableSpaces.get( key );
+    if ( parsed == null ) {
+      parsed = parseVariableSpace( xmlVariableSpace );
+      if ( variableSpaces.size() >= MAX_CACHED_TRANS ) {
+        variableSpaces.clear();
+      }
+      variableSpaces.put( key, parsed );
+    }
+    VariableSpace copy = new Variables();
+    copy.copyVariablesFrom( parsed );
+    return copy;
+  }
+
+  /**
+   * Variable space of the PDI job, from the transport file of the job when it was shipped in the distributed cache,
+   * else from the XML in the job configuration. Every call returns a new copy which the task can change.
+   *
+   * @return the variable space, or null when the job has none
+   */
+  public static VariableSpace getVariableSpace( final Configuration conf ) {
+    PentahoMapReduceTransport transport = getTransport( conf );
+    if ( transport == null ) {
+      String xmlVariableSpace = conf.get( "variableSpace" );
+      return StringUtils.isEmpty( xmlVariableSpace ) ? null : getVariableSpace( conf, xmlVariableSpace );
+    }
+    VariableSpace variableSpace = new Variables();
+    try {
+      for ( Map.Entry<String, String> variable : transport.getVariables().entrySet() ) {
+        variableSpace.setVariable( variable.getKey(), variable.getValue() );
+      }
+    } catch ( IOException e ) {
+      throw new IllegalStateException(
+        "Unable to read variables from " + conf.get( PentahoMapReduceTransport.TRANSPORT_FILE ), e );
+    }
+    return variableSpace;
+  }
+
+  /**
+   * Value of a job property which may have been moved from the job configuration into the transport file of the job.
+   * Only the asked property is decompressed.
+   */
+  public static String getJobProperty( final Configuration conf, final String name ) {
+    String value = conf.get( name );
+    if ( value != null ) {
+      return value;
+    }
+    PentahoMapReduceTransport transport = getTransport( conf );
+    if ( transport == null ) {
+      return null;
+    }
+    try {
+      return transport.getProperty( name );
+    } catch ( IOException e ) {
+      throw new IllegalStateException(
+        "Unable to read " + name + " from " + conf.get( PentahoMapReduceTransport.TRANSPORT_FILE ), e );
+    }
+  }
+
+  /**
+   * Transport file of the job in the working directory, read once per JVM.
+   */
+  private static PentahoMapReduceTransport getTransport( Configuration conf ) {
+    String fileName = conf.get( PentahoMapReduceTransport.TRANSPORT_FILE );
+    if ( StringUtils.isEmpty( fileName ) ) {
+      return null;
+    }
+    return transports.computeIfAbsent( fileName, name -> {
+      try {
+        return PentahoMapReduceTransport.read( name, Files.readAllBytes( Paths.get( getWorkingDir(), name ) ) );
+      } catch ( IOException e ) {
+        throw new IllegalStateException( "Unable to read job transport file " + name, e );
+      }
+    } );
+  }
+
+  private static VariableSpace parseVariableSpace( String xmlVariableSpace ) {
+    XStream xStream = new XStream();
+    xStream.allowTypes( new Class[] { Variables.class } );
+    return (VariableSpace) xStream.fromXML( xmlVariableSpace );
+  }
+
+  /**
+   * Drops the kept transformations and variable spaces.
+   */
+  public static void clearTransCache() {
+    transTemplates.clear();
+    variableSpaces.clear();
+    transports.clear();
+  }
+
+  private static String digest( String xml ) {
+    try {
+      byte[] hash = MessageDigest.getInstance( "SHA-256" ).digest( xml.getBytes( StandardCharsets.UTF_8 ) );
+      StringBuilder hex = new StringBuilder( hash.length * 2 );
+      for ( byte b : hash ) {
+        hex.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+      }
+      return hex.toString();
+    } catch ( NoSuchAlgorithmException e ) {
+      throw new IllegalStateException( e );
+    }
+  }
+
+  /**
+   * Parsed transformation meta with the log level of its execution configuration.
+   */
+  private static final class TransTemplate {
+    private final TransMeta transMeta;
+    private final LogLevel logLevel;
+
+    TransTemplate( TransMeta transMeta, LogLevel logLevel ) {
+      this.transMeta = transMeta;
+      this.logLevel = logLevel;
+    }
+
+    boolean hasMissingPlugins() {
+      for ( StepMeta stepMeta : transMeta.getSteps() ) {
+        if ( stepMeta.getStepMetaInterface() instanceof MissingTrans ) {
+          return true;
+        }
+      }
+      return false;
+    }
   }
 
   /**
@@ -19,16 +19,20 @@ import org.apache.hadoop.mapred.Reporter;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.exception.KettleStepException;
 import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
 import org.pentaho.di.trans.step.RowAdapter;
 import org.pentaho.hadoop.mapreduce.PentahoMapRunnable.Counter;
+import org.pentaho.hadoop.mapreduce.converter.CachedTypeConverter;
 import org.pentaho.hadoop.mapreduce.converter.TypeConverterFactory;
-import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
 
 import org.pentaho.di.core.logging.LogChannel;
 import org.pentaho.di.core.logging.LogChannelInterface;
 
 /**
  * Row Listener that forwards rows along to an {@link OutputCollector}.
+ * <p>
+ * Key and value converters are resolved on the first row and the same key and value objects are refilled for every
+ * row, since Hadoop collectors serialize them on {@code collect}.
  */
 public class OutputCollectorRowListener<K, V> extends RowAdapter {
 
@@ -50,6 +54,14 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
 
   private TypeConverterFactory typeConverterFactory;
 
+  private CachedTypeConverter<K> keyConverter;
+
+  private CachedTypeConverter<V> valueConverter;
+
+  private ValueMetaInterface keyMeta;
+
+  private ValueMetaInterface valueMeta;
+
   public OutputCollectorRowListener( OutputCollector<K, V> output, Class<K> outClassK, Class<V> outClassV,
                                      Reporter reporter, boolean debug ) {
     this.output = output;
@@ -59,6 +71,8 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
     this.debug = debug;
 
     this.typeConverterFactory = new TypeConverterFactory();
+    this.keyConverter = new CachedTypeConverter<>( typeConverterFactory, outClassK );
+    this.valueConverter = new CachedTypeConverter<>( typeConverterFactory, outClassV );
 
     outOrdinals = null;
   }
@@ -79,10 +93,10 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
             throw new KettleException(
               "outKey or outValue is not defined in transformation output stream" ); //$NON-NLS-1$
           }
+          keyMeta = rowMeta.getValueMeta( outOrdinals.getKeyOrdinal() );
+          valueMeta = rowMeta.getValueMeta( outOrdinals.getValueOrdinal() );
         }
 
-        // TODO Implement type safe converters
-
         if ( log.isDebug() ) {
           setDebugStatus( reporter,
             "Begin conversion of output key [from:" + ( row[ outOrdinals.getKeyOrdinal() ] == null ? null
@@ -93,22 +107,14 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
           setDebugStatus( reporter, "getConverter: " + ( row[ outOrdinals.getKeyOrdinal() ] == null ? null
             : row[ outOrdinals.getKeyOrdinal() ].getClass() ) );
           setDebugStatus( reporter, "out class: " + outClassK );
-        }
-
-        ITypeConverter converter = typeConverterFactory
-          .getConverter(
-            row[ outOrdinals.getKeyOrdinal() ] == null ? null : row[ outOrdinals.getKeyOrdinal() ].getClass(),
-            outClassK );
-        if ( log.isDebug() ) {
           setDebugStatus( reporter, "ordinals key: " + outOrdinals.getKeyOrdinal() );
           setDebugStatus( reporter, "rowMeta: " + rowMeta );
           setDebugStatus( reporter, "rowMeta: " + rowMeta.getMetaXML() );
-          setDebugStatus( reporter, "meta: " + rowMeta.getValueMeta( outOrdinals.getKeyOrdinal() ) );
+          setDebugStatus( reporter, "meta: " + keyMeta );
           setDebugStatus( reporter, "key: " + row[ outOrdinals.getKeyOrdinal() ] );
         }
 
-        Object outKey =
-          converter.convert( rowMeta.getValueMeta( outOrdinals.getKeyOrdinal() ), row[ outOrdinals.getKeyOrdinal() ] );
+        K outKey = keyConverter.convert( keyMeta, row[ outOrdinals.getKeyOrdinal() ] );
 
         if ( log.isDebug() ) {
           setDebugStatus( reporter,
@@ -116,19 +122,13 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
               //$NON-NLS-1$
               : row[ outOrdinals.getValueOrdinal() ].getClass() ) + "] [to:" + outClassV
               + "]" ); //$NON-NLS-1$ //$NON-NLS-2$
-        }
-        ITypeConverter valueConverter = typeConverterFactory.getConverter(
-          row[ outOrdinals.getValueOrdinal() ] == null ? null : row[ outOrdinals.getValueOrdinal() ].getClass(),
-          outClassV );
-        if ( log.isDebug() ) {
           setDebugStatus( reporter, "ordinals value: " + outOrdinals.getValueOrdinal() );
           setDebugStatus( reporter, "rowMeta: " + rowMeta );
           setDebugStatus( reporter, "rowMeta: " + rowMeta.getMetaXML() );
-          setDebugStatus( reporter, "meta: " + rowMeta.getValueMeta( outOrdinals.getValueOrdinal() ) );
+          setDebugStatus( reporter, "meta: " + valueMeta );
           setDebugStatus( reporter, "value: " + row[ outOrdinals.getValueOrdinal() ] );
         }
-        Object outVal = valueConverter
-          .convert( rowMeta.getValueMeta( outOrdinals.getValueOrdinal() ), row[ outOrdinals.getValueOrdinal() ] );
+        V outVal = valueConverter.convert( valueMeta, row[ outOrdinals.getValueOrdinal() ] );
 
         if ( outKey != null && outVal != null ) {
           if ( log.isDebug() ) {
@@ -136,13 +136,7 @@ public class OutputCollectorRowListener<K, V> extends RowAdapter {
               "Collecting output record [" + outKey + "] - [" + outVal
                 + "]" ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
           }
-          // TODO Implement type safe converters
-          @SuppressWarnings( "unchecked" )
-          K k = (K) outKey;
-          // TODO Implement type safe converters
-          @SuppressWarnings( "unchecked" )
-          V v = (V) outVal;
-          output.collect( k, v );
+          output.collect( outKey, outVal );
         } else {
           if ( outKey == null ) {
             if ( log.isDebug() ) {
@@ -14,7 +14,6 @@
 
 package org.pentaho.hadoop.mapreduce;
 
-import com.thoughtworks.xstream.XStream;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.MapReduceBase;
@@ -112,23 +111,16 @@ public class PentahoMapReduceBase<K, V> extends MapReduceBase {
     reduceInputStepName = job.get( "transformation-reduce-input-stepname" );
     reduceOutputStepName = job.get( "transformation-reduce-output-stepname" );
     reduceSingleThreaded = isReducerSingleThreaded( job );
-    String xmlVariableSpace = job.get( "variableSpace" );
 
-    if ( !Const.isEmpty( xmlVariableSpace ) ) {
-      setDebugStatus( "PentahoMapReduceBase. variableSpace was retrieved from the job.  The contents: " );
+    //  deserialize the variable space, from the job transport file or the xml in the job
+    variableSpace = MRUtil.getVariableSpace( job );
+    if ( variableSpace != null ) {
+      setDebugStatus( "PentahoMapReduceBase. variableSpace was retrieved from the job." );
+      setDebugStatus( "PentahoMapReduceBase: Setting classes variableSpace property.: " );
 
-      //  deserialize from xml to variable space
-      XStream xStream = new XStream();
-      xStream.allowTypes( new Class[] { Variables.class } );
-
-      if ( xStream != null ) {
-        setDebugStatus( "PentahoMapReduceBase: Setting classes variableSpace property.: " );
-        variableSpace = (VariableSpace) xStream.fromXML( xmlVariableSpace );
-
-        for ( String variableName : variableSpace.listVariables() ) {
-          if ( variableName.startsWith( KETTLE_VARIABLE_PREFIX ) ) {
-            System.setProperty( variableName, variableSpace.getVariable( variableName ) );
-          }
+      for ( String variableName : variableSpace.listVariables() ) {
+        if ( variableName.startsWith( KETTLE_VARIABLE_PREFIX ) ) {
+          System.setProperty( variableName, variableSpace.getVariable( variableName ) );
         }
       }
     } else {
@@ -228,14 +220,24 @@ public class PentahoMapReduceBase<K, V> extends MapReduceBase {
     }
 
     try {
+      // transformations shipped in the job transport file are only decompressed for the operation that runs
       if ( mrOperation.equals( MROperations.Map ) ) {
         setDebugStatus( "Creating a transformation for a map." );
+        if ( transMapXml == null ) {
+          transMapXml = MRUtil.getJobProperty( conf, "transformation-map-xml" );
+        }
         trans = MRUtil.getTrans( conf, transMapXml, false );
       } else if ( mrOperation.equals( MROperations.Combine ) ) {
         setDebugStatus( "Creating a transformation for a combiner." );
+        if ( transCombinerXml == null ) {
+          transCombinerXml = MRUtil.getJobProperty( conf, "transformation-combiner-xml" );
+        }
         trans = MRUtil.getTrans( conf, transCombinerXml, isCombinerSingleThreaded( conf ) );
       } else if ( mrOperation.equals( MROperations.Reduce ) ) {
         setDebugStatus( "Creating a transformation for a reduce." );
+        if ( transReduceXml == null ) {
+          transReduceXml = MRUtil.getJobProperty( conf, "transformation-reduce-xml" );
+        }
         trans = MRUtil.getTrans( conf, transReduceXml, isReducerSingleThreaded( conf ) );
       }
     } catch ( KettleException ke ) {
@@ -14,7 +14,6 @@
 
 package org.pentaho.hadoop.mapreduce;
 
-import com.thoughtworks.xstream.XStream;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.MapRunnable;
@@ -28,6 +27,7 @@ import org.pentaho.di.core.logging.KettleLoggingEvent;
 import org.pentaho.di.core.logging.LogLevel;
 import org.pentaho.di.core.logging.LogChannel;
 import org.pentaho.di.core.logging.LogChannelInterface;
+import org.pentaho.di.core.plugins.PluginRegistry;
 import org.pentaho.di.core.row.RowMeta;
 import org.pentaho.di.core.variables.VariableSpace;
 import org.pentaho.di.core.variables.Variables;
@@ -58,11 +58,18 @@ import java.util.concurrent.TimeUnit;
  */
 public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K2, V2> {
   public static final String KETTLE_PMR_PLUGIN_TIMEOUT = "KETTLE_PMR_PLUGIN_TIMEOUT";
+  /**
+   * Number of input records converted before their rows are put into the mapper transformation together.
+   */
+  public static final String KETTLE_PMR_INJECTION_BATCH_SIZE = "KETTLE_PMR_INJECTION_BATCH_SIZE";
+  public static final int DEFAULT_INJECTION_BATCH_SIZE = 100;
 
   private static LogChannelInterface log = new LogChannel( PentahoMapRunnable.class.getName() );
 
   private long pluginWaitTimeout;
 
+  private int injectionBatchSize = DEFAULT_INJECTION_BATCH_SIZE;
+
   protected static enum Counter {
     INPUT_RECORDS, OUTPUT_RECORDS, OUT_RECORD_WITH_NULL_KEY, OUT_RECORD_WITH_NULL_VALUE
   }
@@ -101,6 +108,7 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
   }
 
   public void configure( JobConf job ) {
+    long configureStart = System.currentTimeMillis();
     pluginWaitTimeout = TimeUnit.MINUTES.toMillis( 5 );
 
     //debug = "true".equalsIgnoreCase( job.get( "debug" ) ); //$NON-NLS-1$
@@ -111,21 +119,17 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
     mapOutputStepName = job.get( "transformation-map-output-stepname" );
     reduceInputStepName = job.get( "transformation-reduce-input-stepname" );
     reduceOutputStepName = job.get( "transformation-reduce-output-stepname" );
-    String xmlVariableSpace = job.get( "variableSpace" );
 
     outClassK = (Class<K2>) job.getMapOutputKeyClass();
     outClassV = (Class<V2>) job.getMapOutputValueClass();
 
-    if ( !Const.isEmpty( xmlVariableSpace ) ) {
-      setDebugStatus( "PentahoMapRunnable(): variableSpace was retrieved from the job.  The contents: " );
-      setDebugStatus( xmlVariableSpace );
-
-      //  deserialize from xml to variable space
-      XStream xStream = new XStream();
+    //  deserialize the variable space, from the job transport file or the xml in the job
+    variableSpace = MRUtil.getVariableSpace( job );
+    if ( variableSpace != null ) {
+      setDebugStatus( "PentahoMapRunnable(): variableSpace was retrieved from the job.  The variables: " );
+      setDebugStatus( String.join( ",", variableSpace.listVariables() ) );
 
       setDebugStatus( "PentahoMapRunnable(): Setting classes variableSpace property.: " );
-      xStream.allowTypes( new Class[] { Variables.class } );
-      variableSpace = (VariableSpace) xStream.fromXML( xmlVariableSpace );
 
       for ( String variableName : variableSpace.listVariables() ) {
         if ( variableName.startsWith( KETTLE_VARIABLE_PREFIX ) ) {
@@ -138,6 +142,13 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
             log.logBasic("Unable to parse plugin wait timeout, defaulting to 5 minutes" );
           }
         }
+        if ( KETTLE_PMR_INJECTION_BATCH_SIZE.equals( variableName ) ) {
+          try {
+            injectionBatchSize = Math.max( 1, Integer.parseInt( variableSpace.getVariable( variableName ) ) );
+          } catch ( Exception e ) {
+            log.logBasic( "Unable to parse injection batch size, defaulting to " + DEFAULT_INJECTION_BATCH_SIZE );
+          }
+        }
       }
     } else {
       setDebugStatus( "PentahoMapRunnable(): The PDI Job's variable space was not sent." );
@@ -170,81 +181,86 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
       log.logBasic( "Could not retrieve the log level from the job configuration.  logLevel will not be set." );
     }
 
-    long deadline = 0;
-    boolean first = true;
+    long transStart = System.currentTimeMillis();
+    long deadline = transStart + pluginWaitTimeout;
+    long transMillis = 0;
+    long pluginWaitMillis = 0;
     while ( true ) {
+      long registryChanges = PluginReadiness.changes( PluginRegistry.getInstance() );
+      long createStart = System.currentTimeMillis();
       createTrans( job );
+      transMillis += System.currentTimeMillis() - createStart;
 
-      if ( first ) {
-        deadline = pluginWaitTimeout + System.currentTimeMillis();
-        log.logBasic( PentahoMapRunnable.class + ": Trans creation checking starting now " + new Date().toString() );
-        first = false;
+      List<MissingTrans> missingTranses = findMissingTranses();
+      if ( missingTranses.isEmpty() ) {
+        break;
       }
-
-      List<MissingTrans> missingTranses = new ArrayList<MissingTrans>();
-      for ( StepMeta stepMeta : trans.getTransMeta().getSteps() ) {
-        StepMetaInterface stepMetaInterface = stepMeta.getStepMetaInterface();
-        if ( stepMetaInterface instanceof MissingTrans ) {
-          MissingTrans missingTrans = (MissingTrans) stepMetaInterface;
-          log.logBasic(
-            MissingTrans.class + "{stepName: " + missingTrans.getStepName() + ", missingPluginId: " + missingTrans
-              .getMissingPluginId() + "}" );
-          missingTranses.add( missingTrans );
-        }
+      List<String> missingPluginIds = new ArrayList<>();
+      for ( MissingTrans missingTrans : missingTranses ) {
+        missingPluginIds.add( missingTrans.getMissingPluginId() );
       }
-
-      if ( missingTranses.size() == 0 ) {
-        log.logBasic( PentahoMapRunnable.class + ": Done waiting on plugins now " + new Date().toString() );
-        break;
-      } else {
-        if ( System.currentTimeMillis() > deadline ) {
-          StringBuilder stringBuilder = new StringBuilder( "Failed to initialize plugins: " );
-          for ( MissingTrans missingTrans : missingTranses ) {
-            stringBuilder.append( missingTrans.getMissingPluginId() );
-            stringBuilder.append( " on step " ).append( missingTrans.getStepName() );
-            stringBuilder.append( ", " );
-          }
-          stringBuilder.setLength( stringBuilder.length() - 2 );
-          throw new RuntimeException( stringBuilder.toString() );
-        } else {
-          try {
-            Thread.sleep( Math.min( 100, deadline - System.currentTimeMillis() ) );
-          } catch ( InterruptedException e ) {
-            throw new RuntimeException( e );
-          }
-        }
+      long waitStart = System.currentTimeMillis();
+      // registered plugins can still leave steps missing, so the deadline is checked on every pass
+      if ( waitStart >= deadline ) {
+        throw new RuntimeException( missingPluginsMessage( missingTranses ) );
+      }
+      log.logBasic( PentahoMapRunnable.class + ": Waiting on plugins " + missingPluginIds + " since "
+        + new Date( waitStart ) );
+      boolean ready;
+      try {
+        // when the plugins are registered already, another pass only helps once the registry changed
+        ready = PluginReadiness.awaitChange( PluginRegistry.getInstance(), missingPluginIds, registryChanges,
+          deadline - waitStart );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException( e );
+      }
+      pluginWaitMillis += System.currentTimeMillis() - waitStart;
+      if ( !ready ) {
+        throw new RuntimeException( missingPluginsMessage( missingTranses ) );
       }
     }
+    log.logBasic( PentahoMapRunnable.class + ": Task startup took " + ( System.currentTimeMillis() - configureStart )
+      + " ms: configuration " + ( transStart - configureStart ) + " ms, transformation " + transMillis
+      + " ms, plugin wait " + pluginWaitMillis + " ms" );
   }
 
-  public void injectValue( Object key, ITypeConverter inConverterK, Object value, ITypeConverter inConverterV,
-                           RowMeta injectorRowMeta, RowProducer rowProducer, Reporter reporter ) throws Exception {
-
-    injectValue( key, 0, inConverterK, value, 1, inConverterV, injectorRowMeta, rowProducer, reporter );
+  private static String missingPluginsMessage( List<MissingTrans> missingTranses ) {
+    StringBuilder stringBuilder = new StringBuilder( "Failed to initialize plugins: " );
+    for ( MissingTrans missingTrans : missingTranses ) {
+      stringBuilder.append( missingTrans.getMissingPluginId() );
+      stringBuilder.append( " on step " ).append( missingTrans.getStepName() );
+      stringBuilder.append( ", " );
+    }
+    stringBuilder.setLength( stringBuilder.length() - 2 );
+    return stringBuilder.toString();
   }
 
-  public void injectValue( Object key, int keyOrdinal, ITypeConverter inConverterK, Object value, int valueOrdinal,
-                           ITypeConverter inConverterV, RowMeta injectorRowMeta, RowProducer rowProducer,
-                           Reporter reporter )
-    throws Exception {
-    Object[] row = new Object[ injectorRowMeta.size() ];
-    row[ keyOrdinal ] =
-      inConverterK != null ? inConverterK.convert( injectorRowMeta.getValueMeta( keyOrdinal ), key ) : key;
-    row[ valueOrdinal ] =
-      inConverterV != null ? inConverterV.convert( injectorRowMeta.getValueMeta( valueOrdinal ), value )
-        : value;
-
-    if ( log.isDebug() ) {
-      setDebugStatus( reporter, "Injecting input record [" + row[ keyOrdinal ] + "] - [" + row[ valueOrdinal ] + "]" );
+  /**
+   * Steps of the transformation whose plugins were not registered when it was loaded.
+   */
+  private List<MissingTrans> findMissingTranses() {
+    List<MissingTrans> missingTranses = new ArrayList<MissingTrans>();
+    for ( StepMeta stepMeta : trans.getTransMeta().getSteps() ) {
+      StepMetaInterface stepMetaInterface = stepMeta.getStepMetaInterface();
+      if ( stepMetaInterface instanceof MissingTrans ) {
+        MissingTrans missingTrans = (MissingTrans) stepMetaInterface;
+        log.logBasic(
+          MissingTrans.class + "{stepName: " + missingTrans.getStepName() + ", missingPluginId: " + missingTrans
+            .getMissingPluginId() + "}" );
+        missingTranses.add( missingTrans );
+      }
     }
-
-    rowProducer.putRow( injectorRowMeta, row );
+    return missingTranses;
   }
 
   protected void createTrans( final Configuration conf ) {
 
     try {
       setDebugStatus( "Creating a transformation for a map." );
+      if ( transMapXml == null ) {
+        transMapXml = MRUtil.getJobProperty( conf, "transformation-map-xml" );
+      }
       trans = MRUtil.getTrans( conf, transMapXml, false );
     } catch ( KettleException ke ) {
       throw new RuntimeException( "Error loading transformation", ke ); //$NON-NLS-1$
@@ -315,6 +331,14 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
     this.outClassV = outClassV;
   }
 
+  public int getInjectionBatchSize() {
+    return injectionBatchSize;
+  }
+
+  public void setInjectionBatchSize( int injectionBatchSize ) {
+    this.injectionBatchSize = Math.max( 1, injectionBatchSize );
+  }
+
   public Trans getTrans() {
     return trans;
   }
@@ -423,7 +447,7 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
           setDebugStatus( reporter, "Locating input step: " + mapInputStepName );
           if ( mapInputStepName != null ) {
             // Setup row injection
-            rowProducer = trans.addRowProducer( mapInputStepName, 0 );
+            rowProducer = RowInjector.addRowProducer( trans, mapInputStepName, injectionBatchSize );
             StepInterface inputStep = rowProducer.getStepInterface();
             StepMetaInterface inputStepMeta = inputStep.getStepMeta().getStepMetaInterface();
 
@@ -459,16 +483,19 @@ public class PentahoMapRunnable<K1, V1, K2, V2> implements MapRunnable<K1, V1, K
             trans.startThreads();
             if ( rowProducer != null ) {
 
+              int keyOrdinal = inOrdinals != null ? inOrdinals.getKeyOrdinal() : 0;
+              int valueOrdinal = inOrdinals != null ? inOrdinals.getValueOrdinal() : 1;
+              RowInjector injector = new RowInjector( rowProducer, injectorRowMeta, keyOrdinal, inConverterK,
+                valueOrdinal, inConverterV );
               while ( input.next( key, value ) ) {
-                if ( inOrdinals != null ) {
-                  injectValue( key, inOrdinals.getKeyOrdinal(), inConverterK, value, inOrdinals.getValueOrdinal(),
-                    inConverterV, injectorRowMeta, rowProducer, reporter );
-                } else {
-                  injectValue( key, inConverterK, value, inConverterV, injectorRowMeta, rowProducer, reporter );
+                Object[] row = injector.inject( key, value );
+                if ( log.isDebug() ) {
+                  setDebugStatus( reporter,
+                    "Injecting input record [" + row[ keyOrdinal ] + "] - [" + row[ valueOrdinal ] + "]" );
                 }
               }
 
-              rowProducer.finished();
+              injector.finished();
             }
 
             trans.waitUntilFinished();
@@ -0,0 +1,146 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.plugins.PluginTypeListener;
+import org.pentaho.di.core.plugins.StepPluginType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Waits for step plugins to be registered. Waiting threads are woken by a listener on the plugin registry as soon as
+ * a step plugin is added, instead of polling the registry.
+ */
+class PluginReadiness {
+  /**
+   * Longest wait between checks of the registry, for plugins registered without notifying listeners.
+   */
+  static final long MAX_CHECK_INTERVAL = 1000;
+
+  private static final Object monitor = new Object();
+  private static final List<PluginRegistry> listenedRegistries = new ArrayList<>();
+  private static long changes;
+
+  private PluginReadiness() {
+  }
+
+  /**
+   * @param registry      registry the plugins are registered in
+   * @param pluginIds     ids of the step plugins to wait for
+   * @param timeoutMillis longest time to wait
+   * @return {@code true} when all plugins are registered, {@code false} when the timeout passed first
+   */
+  static boolean await( PluginRegistry registry, Collection<String> pluginIds, long timeoutMillis )
+    throws InterruptedException {
+    return await( registry, pluginIds, 0, false, timeoutMillis );
+  }
+
+  /**
+   * Like {@link #await(PluginRegistry, Collection, long)}, but when the plugins are registered and the registry did
+   * not change since {@code seenChanges}, first waits for a change or for at most {@link #MAX_CHECK_INTERVAL}. Used
+   * to retry a transformation which still misses steps although their plugins are registered.
+   *
+   * @param seenChanges value of {@link #changes(PluginRegistry)} when the plugins were last looked up
+   */
+  static boolean awaitChange( PluginRegistry registry, Collection<String> pluginIds, long seenChanges,
+                              long timeoutMillis ) throws InterruptedException {
+    return await( registry, pluginIds, seenChanges, true, timeoutMillis );
+  }
+
+  /**
+   * Number of step plugin changes seen in the registry, for {@link #awaitChange(PluginRegistry, Collection, long,
+   * long)}.
+   */
+  static long changes( PluginRegistry registry ) {
+    listen( registry );
+    synchronized ( monitor ) {
+      return changes;
+    }
+  }
+
+  private static boolean await( PluginRegistry registry, Collection<String> pluginIds, long seenChanges,
+                                boolean needsChange, long timeoutMillis ) throws InterruptedException {
+    listen( registry );
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    boolean waited = false;
+    while ( true ) {
+      long currentChanges;
+      synchronized ( monitor ) {
+        currentChanges = changes;
+      }
+      // the registry is not queried while holding the monitor, listeners are called under the registry lock
+      if ( ( !needsChange || waited || currentChanges != seenChanges ) && allRegistered( registry, pluginIds ) ) {
+        return true;
+      }
+      long remaining = deadline - System.currentTimeMillis();
+      if ( remaining <= 0 ) {
+        return false;
+      }
+      synchronized ( monitor ) {
+        if ( changes == currentChanges ) {
+          monitor.wait( Math.min( remaining, MAX_CHECK_INTERVAL ) );
+        }
+      }
+      waited = true;
+    }
+  }
+
+  /**
+   * Adds the listener once per registry, as the registry has no way to remove listeners.
+   */
+  private static void listen( PluginRegistry registry ) {
+    synchronized ( listenedRegistries ) {
+      for ( PluginRegistry listened : listenedRegistries ) {
+        if ( listened == registry ) {
+          return;
+        }
+      }
+      registry.addPluginListener( StepPluginType.class, new PluginTypeListener() {
+        @Override
+        public void pluginAdded( Object serviceObject ) {
+          wakeUp();
+        }
+
+        @Override
+        public void pluginRemoved( Object serviceObject ) {
+        }
+
+        @Override
+        public void pluginChanged( Object serviceObject ) {
+          wakeUp();
+        }
+      } );
+      listenedRegistries.add( registry );
+    }
+  }
+
+  private static void wakeUp() {
+    synchronized ( monitor ) {
+      changes++;
+      monitor.notifyAll();
+    }
+  }
+
+  private static boolean allRegistered( PluginRegistry registry, Collection<String> pluginIds ) {
+    for ( String pluginId : pluginIds ) {
+      if ( registry.findPluginWithId( StepPluginType.class, pluginId ) == null ) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
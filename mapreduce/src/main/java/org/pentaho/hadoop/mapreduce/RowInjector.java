@@ -0,0 +1,113 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.trans.RowProducer;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+
+/**
+ * Injects key/value records into a transformation. With a row producer from
+ * {@link #addRowProducer(Trans, String, int)}, rows are handed to the injector step in chunks through a
+ * {@link ChunkedRowSet}, so the step's input queue is locked once per chunk instead of once per record.
+ * <p>
+ * The transformation owns a row once it is put, so every record gets a new row. Rows which hold the key or value
+ * object of the record reader itself are handed over at once, as readers reuse these objects.
+ */
+class RowInjector {
+  private final RowProducer rowProducer;
+  private final ChunkedRowSet chunkedRowSet;
+  private final RowMetaInterface rowMeta;
+  private final int rowSize;
+  private final int keyOrdinal;
+  private final int valueOrdinal;
+  private final ValueMetaInterface keyMeta;
+  private final ValueMetaInterface valueMeta;
+  private final ITypeConverter keyConverter;
+  private final ITypeConverter valueConverter;
+
+  RowInjector( RowProducer rowProducer, RowMetaInterface rowMeta, int keyOrdinal, ITypeConverter keyConverter,
+               int valueOrdinal, ITypeConverter valueConverter ) {
+    this.rowProducer = rowProducer;
+    this.chunkedRowSet =
+      rowProducer.getRowSet() instanceof ChunkedRowSet ? (ChunkedRowSet) rowProducer.getRowSet() : null;
+    this.rowMeta = rowMeta;
+    this.rowSize = rowMeta.size();
+    this.keyOrdinal = keyOrdinal;
+    this.valueOrdinal = valueOrdinal;
+    this.keyMeta = rowMeta.getValueMeta( keyOrdinal );
+    this.valueMeta = rowMeta.getValueMeta( valueOrdinal );
+    this.keyConverter = keyConverter;
+    this.valueConverter = valueConverter;
+  }
+
+  /**
+   * Adds a row producer for the first copy of the step. With a batch size above one, and when the transformation
+   * runs its steps in threads, rows are handed to the step in chunks of that size.
+   */
+  static RowProducer addRowProducer( Trans trans, String stepName, int batchSize ) throws KettleException {
+    TransMeta transMeta = trans.getTransMeta();
+    if ( batchSize <= 1 || transMeta.getTransformationType() != TransMeta.TransformationType.Normal ) {
+      return trans.addRowProducer( stepName, 0 );
+    }
+    StepInterface step = trans.getStepInterface( stepName, 0 );
+    if ( step == null ) {
+      throw new KettleException( "Unable to find step " + stepName + " to inject rows into" );
+    }
+    ChunkedRowSet rowSet = new ChunkedRowSet( batchSize, transMeta.getSizeRowset() );
+    step.addRowSetToInputRowSets( rowSet );
+    return new RowProducer( step, rowSet );
+  }
+
+  /**
+   * Converts the record into a new row and puts it.
+   *
+   * @return the row of the record
+   */
+  @SuppressWarnings( "unchecked" )
+  Object[] inject( Object key, Object value ) throws KettleException {
+    Object[] row = new Object[ rowSize ];
+    Object rowKey = keyConverter != null ? keyConverter.convert( keyMeta, key ) : key;
+    Object rowValue = valueConverter != null ? valueConverter.convert( valueMeta, value ) : value;
+    row[ keyOrdinal ] = rowKey;
+    row[ valueOrdinal ] = rowValue;
+    rowProducer.putRow( rowMeta, row );
+    if ( ( rowKey != null && rowKey == key ) || ( rowValue != null && rowValue == value ) ) {
+      flush();
+    }
+    return row;
+  }
+
+  /**
+   * Hands the rows of the current chunk over to the step.
+   */
+  void flush() {
+    if ( chunkedRowSet != null ) {
+      chunkedRowSet.flush();
+    }
+  }
+
+  /**
+   * Hands the remaining rows over and signals the end of the input.
+   */
+  void finished() {
+    flush();
+    rowProducer.finished();
+  }
+}
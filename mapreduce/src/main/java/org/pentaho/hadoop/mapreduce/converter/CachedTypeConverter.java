@@ -0,0 +1,59 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.hadoop.mapreduce.converter;
+
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.hadoop.mapreduce.converter.spi.ITypeConverter;
+
+/**
+ * Converts values of one row field into one destination type. The converter is looked up for the first value and
+ * again only when the class of the values changes. Destination objects are reused when the converter supports it, so
+ * a returned object is only valid until the next call.
+ *
+ * @param <T> Type to convert to
+ */
+public class CachedTypeConverter<T> {
+  private final TypeConverterFactory factory;
+  private final Class<T> to;
+  private ITypeConverter converter;
+  private Class<?> from;
+  private T reuse;
+
+  public CachedTypeConverter( TypeConverterFactory factory, Class<T> to ) {
+    this.factory = factory;
+    this.to = to;
+  }
+
+  /**
+   * @param meta  Metadata of the field
+   * @param value Value to convert
+   * @return Converted value
+   * @throws TypeConversionException No converter available for the value, or the conversion failed
+   */
+  @SuppressWarnings( "unchecked" )
+  public T convert( ValueMetaInterface meta, Object value ) throws TypeConversionException {
+    Class<?> valueClass = value == null ? null : value.getClass();
+    if ( converter == null || valueClass != from ) {
+      converter = factory.getConverter( valueClass, to );
+      from = valueClass;
+    }
+    T result = (T) converter.convert( meta, value, reuse );
+    // pass through converters return the value itself, which must not be overwritten later
+    if ( result != null && result != value ) {
+      reuse = result;
+    }
+    return result;
+  }
+}
@@ -32,8 +32,14 @@ public class KettleTypeToBooleanWritableConverter implements ITypeConverter<Obje
 
   @Override
   public BooleanWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public BooleanWritable convert( ValueMetaInterface meta, Object obj, BooleanWritable reuse )
+    throws TypeConversionException {
     try {
-      BooleanWritable result = new BooleanWritable();
+      BooleanWritable result = reuse != null ? reuse : new BooleanWritable();
       result.set( meta.getBoolean( obj ) );
       return result;
     } catch ( Exception ex ) {
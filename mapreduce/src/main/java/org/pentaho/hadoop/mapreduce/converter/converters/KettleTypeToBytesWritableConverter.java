@@ -32,8 +32,14 @@ public class KettleTypeToBytesWritableConverter implements ITypeConverter<Object
 
   @Override
   public BytesWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public BytesWritable convert( ValueMetaInterface meta, Object obj, BytesWritable reuse )
+    throws TypeConversionException {
     try {
-      BytesWritable result = new BytesWritable();
+      BytesWritable result = reuse != null ? reuse : new BytesWritable();
       byte[] binary = meta.getBinary( obj );
       result.set( binary, 0, binary.length );
       return result;
@@ -33,8 +33,14 @@ public class KettleTypeToDoubleWritableConverter implements ITypeConverter<Objec
 
   @Override
   public DoubleWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public DoubleWritable convert( ValueMetaInterface meta, Object obj, DoubleWritable reuse )
+    throws TypeConversionException {
     try {
-      DoubleWritable result = new DoubleWritable();
+      DoubleWritable result = reuse != null ? reuse : new DoubleWritable();
       result.set( meta.getNumber( obj ) );
       return result;
     } catch ( KettleValueException ex ) {
@@ -33,8 +33,13 @@ public class KettleTypeToIntWritableConverter implements ITypeConverter<Object,
 
   @Override
   public IntWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public IntWritable convert( ValueMetaInterface meta, Object obj, IntWritable reuse ) throws TypeConversionException {
     try {
-      IntWritable result = new IntWritable();
+      IntWritable result = reuse != null ? reuse : new IntWritable();
       result.set( meta.getInteger( obj ).intValue() );
       return result;
     } catch ( KettleValueException ex ) {
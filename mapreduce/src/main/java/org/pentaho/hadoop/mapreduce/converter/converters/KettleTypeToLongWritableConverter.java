@@ -33,8 +33,14 @@ public class KettleTypeToLongWritableConverter implements ITypeConverter<Object,
 
   @Override
   public LongWritable convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public LongWritable convert( ValueMetaInterface meta, Object obj, LongWritable reuse )
+    throws TypeConversionException {
     try {
-      LongWritable result = new LongWritable();
+      LongWritable result = reuse != null ? reuse : new LongWritable();
       result.set( meta.getInteger( obj ) );
       return result;
     } catch ( KettleValueException ex ) {
@@ -33,10 +33,13 @@ public class KettleTypeToTextConverter implements ITypeConverter<Object, Text> {
 
   @Override
   public Text convert( ValueMetaInterface meta, Object obj ) throws TypeConversionException {
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public Text convert( ValueMetaInterface meta, Object obj, Text reuse ) throws TypeConversionException {
     try {
-      Text text = new Text();
-      text.set( meta.getString( obj ) );
-      return text;
+      return Utf8Text.set( reuse != null ? reuse : new Text(), meta.getString( obj ) );
     } catch ( KettleValueException ex ) {
       throw new TypeConversionException(
         BaseMessages.getString( TypeConverterFactory.class, "ErrorConverting", Text.class.getSimpleName(), obj ), ex );
@@ -31,8 +31,11 @@ public class LongWritableToTextConverter implements ITypeConverter<LongWritable,
 
   @Override
   public Text convert( ValueMetaInterface meta, LongWritable obj ) throws TypeConversionException {
-    Text result = new Text();
-    result.set( String.valueOf( obj.get() ) );
-    return result;
+    return convert( meta, obj, null );
+  }
+
+  @Override
+  public Text convert( ValueMetaInterface meta, LongWritable obj, Text reuse ) throws TypeConversionException {
+    return Utf8Text.set( reuse != null ? reuse : new Text(), obj.get() );
   }
 }
@@ -32,6 +32,11 @@ public class TextToIntegerConverter implements ITypeConverter<Text, Integer> {
 
   @Override
   public Integer convert( ValueMetaInterface meta, Text obj ) throws TypeConversionException {
+    try {
+      return Utf8Text.parseInt( obj );
+    } catch ( NumberFormatException notAscii ) {
+      // not a plain ASCII number, parse the string to accept other digits and to report the error
+    }
     try {
       return Integer.parseInt( obj.toString() );
     } catch ( NumberFormatException ex ) {
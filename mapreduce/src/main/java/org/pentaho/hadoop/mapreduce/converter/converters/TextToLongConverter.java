@@ -32,6 +32,11 @@ public class TextToLongConverter implements ITypeConverter<Text, Long> {
 
   @Override
   public Long convert( ValueMetaInterface meta, Text obj ) throws TypeConversionException {
+    try {
+      return Utf8Text.parseLong( obj );
+    } catch ( NumberFormatException notAscii ) {
+      // not a plain ASCII number, parse the string to accept other digits and to report the error
+    }
     try {
       return Long.parseLong( obj.toString() );
     } catch ( NumberFormatException ex ) {
@@ -30,6 +30,6 @@ public class TextToStringConverter implements ITypeConverter<Text, String> {
 
   @Override
   public String convert( ValueMetaInterface meta, Text obj ) throws TypeConversionException {
-    return obj.toString();
+    return Utf8Text.toString( obj );
   }
 }
@@ -0,0 +1,152 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce.converter.converters;
+
+import org.apache.hadoop.io.Text;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Moves values between Java types and the UTF-8 bytes of {@link Text} without intermediate strings and encoders.
+ * Values are encoded into a buffer of the thread and copied into the reused {@link Text}, which only allocates when
+ * it has to grow.
+ */
+final class Utf8Text {
+  /**
+   * Longer strings are set through {@link Text#set(String)}, so the buffer of a thread stays small.
+   */
+  static final int MAX_BUFFERED_CHARS = 16 * 1024;
+
+  private static final int LONG_DIGITS = 20;
+
+  private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial( () -> new byte[ 256 ] );
+
+  private Utf8Text() {
+  }
+
+  private static byte[] buffer( int size ) {
+    byte[] buffer = BUFFER.get();
+    if ( buffer.length < size ) {
+      buffer = new byte[ Math.max( size, buffer.length * 2 ) ];
+      BUFFER.set( buffer );
+    }
+    return buffer;
+  }
+
+  /**
+   * Sets the text to the UTF-8 bytes of the characters. Unpaired surrogates become '?' as in {@link Text}.
+   */
+  static Text set( Text text, CharSequence chars ) {
+    int length = chars.length();
+    if ( length > MAX_BUFFERED_CHARS ) {
+      text.set( chars.toString() );
+      return text;
+    }
+    byte[] buffer = buffer( length * 3 );
+    int size = 0;
+    for ( int i = 0; i < length; i++ ) {
+      char c = chars.charAt( i );
+      if ( c < 0x80 ) {
+        buffer[ size++ ] = (byte) c;
+      } else if ( c < 0x800 ) {
+        buffer[ size++ ] = (byte) ( 0xC0 | ( c >> 6 ) );
+        buffer[ size++ ] = (byte) ( 0x80 | ( c & 0x3F ) );
+      } else if ( Character.isHighSurrogate( c ) && i + 1 < length
+        && Character.isLowSurrogate( chars.charAt( i + 1 ) ) ) {
+        int codePoint = Character.toCodePoint( c, chars.charAt( ++i ) );
+        buffer[ size++ ] = (byte) ( 0xF0 | ( codePoint >> 18 ) );
+        buffer[ size++ ] = (byte) ( 0x80 | ( ( codePoint >> 12 ) & 0x3F ) );
+        buffer[ size++ ] = (byte) ( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+        buffer[ size++ ] = (byte) ( 0x80 | ( codePoint & 0x3F ) );
+      } else if ( Character.isSurrogate( c ) ) {
+        buffer[ size++ ] = '?';
+      } else {
+        buffer[ size++ ] = (byte) ( 0xE0 | ( c >> 12 ) );
+        buffer[ size++ ] = (byte) ( 0x80 | ( ( c >> 6 ) & 0x3F ) );
+        buffer[ size++ ] = (byte) ( 0x80 | ( c & 0x3F ) );
+      }
+    }
+    text.set( buffer, 0, size );
+    return text;
+  }
+
+  /**
+   * Sets the text to the decimal digits of the value.
+   */
+  static Text set( Text text, long value ) {
+    byte[] buffer = buffer( LONG_DIGITS );
+    int start = LONG_DIGITS;
+    // counts down from a negative value, which also covers Long.MIN_VALUE
+    long remaining = value < 0 ? value : -value;
+    do {
+      buffer[ --start ] = (byte) ( '0' - remaining % 10 );
+      remaining /= 10;
+    } while ( remaining != 0 );
+    if ( value < 0 ) {
+      buffer[ --start ] = '-';
+    }
+    text.set( buffer, start, LONG_DIGITS - start );
+    return text;
+  }
+
+  static String toString( Text text ) {
+    return new String( text.getBytes(), 0, text.getLength(), StandardCharsets.UTF_8 );
+  }
+
+  /**
+   * Parses ASCII decimal digits with an optional sign, as {@link Long#parseLong(String)} does.
+   *
+   * @throws NumberFormatException the text is not an ASCII number in the range of long. Callers parse the string
+   *                               then, to accept other Unicode digits and to report the error.
+   */
+  static long parseLong( Text text ) {
+    byte[] bytes = text.getBytes();
+    int end = text.getLength();
+    int i = 0;
+    boolean negative = false;
+    if ( end > 0 && ( bytes[ 0 ] == '-' || bytes[ 0 ] == '+' ) ) {
+      negative = bytes[ 0 ] == '-';
+      i++;
+    }
+    if ( i == end ) {
+      throw new NumberFormatException();
+    }
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long minBeforeMultiply = limit / 10;
+    long result = 0;
+    for ( ; i < end; i++ ) {
+      int digit = bytes[ i ] - '0';
+      if ( digit < 0 || digit > 9 || result < minBeforeMultiply ) {
+        throw new NumberFormatException();
+      }
+      result *= 10;
+      if ( result < limit + digit ) {
+        throw new NumberFormatException();
+      }
+      result -= digit;
+    }
+    return negative ? result : -result;
+  }
+
+  /**
+   * @throws NumberFormatException as {@link #parseLong(Text)}, also when the number is out of the range of int
+   */
+  static int parseInt( Text text ) {
+    long value = parseLong( text );
+    if ( value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ) {
+      throw new NumberFormatException();
+    }
+    return (int) value;
+  }
+}
@@ -43,4 +43,18 @@ public interface ITypeConverter<F, T> {
    *                                                                        obj} to type {@code T}
    */
   public T convert( ValueMetaInterface meta, F obj ) throws TypeConversionException;
+
+  /**
+   * Convert an object into {@code reuse} when the converter supports it, so that one destination object can be used
+   * for every value. Converters which don't support it return a new object.
+   *
+   * @param meta  Metadata for the object provided
+   * @param obj   Object to convert
+   * @param reuse Object returned by a previous call, or {@code null}
+   * @return Converted object, which may be {@code reuse}
+   * @throws TypeConversionException Error encountered when converting {@code obj} to type {@code T}
+   */
+  public default T convert( ValueMetaInterface meta, F obj, T reuse ) throws TypeConversionException {
+    return convert( meta, obj );
+  }
 }
@@ -0,0 +1,94 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkedRowSetTest {
+  private final RowMeta rowMeta = new RowMeta();
+
+  @Test
+  public void rowsAreReadInOrderAfterFlush() {
+    ChunkedRowSet rowSet = new ChunkedRowSet( 4, 100 );
+    Object[][] rows = new Object[ 6 ][];
+    for ( int i = 0; i < rows.length; i++ ) {
+      rows[ i ] = new Object[] { i };
+      assertTrue( rowSet.putRow( rowMeta, rows[ i ] ) );
+    }
+    assertEquals( 4, rowSet.size() );
+
+    rowSet.flush();
+
+    assertEquals( 6, rowSet.size() );
+    for ( Object[] row : rows ) {
+      assertSame( row, rowSet.getRowImmediate() );
+    }
+    assertNull( rowSet.getRowImmediate() );
+    assertEquals( 0, rowSet.size() );
+  }
+
+  @Test
+  public void producerWaitsWhenQueueIsFull() {
+    ChunkedRowSet rowSet = new ChunkedRowSet( 1, 2 );
+    assertTrue( rowSet.putRowWait( rowMeta, new Object[] { 1 }, 0, TimeUnit.MILLISECONDS ) );
+    assertTrue( rowSet.putRowWait( rowMeta, new Object[] { 2 }, 0, TimeUnit.MILLISECONDS ) );
+    assertTrue( rowSet.putRowWait( rowMeta, new Object[] { 3 }, 0, TimeUnit.MILLISECONDS ) );
+    assertFalse( rowSet.putRowWait( rowMeta, new Object[] { 4 }, 0, TimeUnit.MILLISECONDS ) );
+
+    assertEquals( 1, rowSet.getRowImmediate()[ 0 ] );
+    assertTrue( rowSet.putRowWait( rowMeta, new Object[] { 4 }, 0, TimeUnit.MILLISECONDS ) );
+    rowSet.flush();
+    for ( int i = 2; i <= 4; i++ ) {
+      assertEquals( i, rowSet.getRowImmediate()[ 0 ] );
+    }
+  }
+
+  @Test
+  public void rowsArePassedBetweenThreads() throws Exception {
+    ChunkedRowSet rowSet = new ChunkedRowSet( 7, 20 );
+    int count = 10000;
+    Thread producer = new Thread( () -> {
+      for ( int i = 0; i < count; i++ ) {
+        rowSet.putRowWait( rowMeta, new Object[] { i }, Long.MAX_VALUE, TimeUnit.DAYS );
+      }
+      rowSet.flush();
+      rowSet.setDone();
+    } );
+    producer.start();
+
+    int expected = 0;
+    while ( !( rowSet.isDone() && rowSet.size() == 0 ) ) {
+      Object[] row = rowSet.getRow();
+      if ( row != null ) {
+        assertEquals( expected++, row[ 0 ] );
+      }
+    }
+    producer.join();
+    assertEquals( count, expected );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void chunkSizeMustBePositive() {
+    new ChunkedRowSet( 0, 10 );
+  }
+}
@@ -13,6 +13,9 @@
 
 package org.pentaho.hadoop.mapreduce;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
 import org.apache.hadoop.mapred.OutputCollector;
 
 import java.io.IOException;
@@ -30,6 +33,7 @@ public class MockOutputCollector implements OutputCollector {
 
   private Map<Object, ArrayList<Object>> collection = new HashMap<Object, ArrayList<Object>>();
   private AtomicBoolean closed = new AtomicBoolean( false );
+  private Configuration conf = new Configuration();
 
   public void close() {
     closed.set( true );
@@ -41,12 +45,19 @@ public class MockOutputCollector implements OutputCollector {
       log.logBasic( "Already closeds. Nothing could be added." );
       return;
     }
+    // like Hadoop collectors, keep copies, since key and value objects are reused by the caller
+    arg0 = copy( arg0 );
+    arg1 = copy( arg1 );
     if ( !collection.containsKey( arg0 ) ) {
       collection.put( arg0, new ArrayList<Object>() );
     }
     collection.get( arg0 ).add( arg1 );
   }
 
+  private Object copy( Object o ) {
+    return o instanceof Writable ? WritableUtils.clone( (Writable) o, conf ) : o;
+  }
+
   public Map<Object, ArrayList<Object>> getCollection() {
     return collection;
   }
@@ -0,0 +1,122 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.pentaho.di.core.KettleEnvironment;
+import org.pentaho.di.core.exception.KettleException;
+import org.pentaho.di.core.plugins.PluginInterface;
+import org.pentaho.di.core.plugins.PluginRegistry;
+import org.pentaho.di.core.plugins.StepPluginType;
+
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PluginReadinessTest {
+  private static final String PLUGIN_ID = "PluginReadinessTestStep";
+
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+  private PluginInterface plugin;
+
+  @BeforeClass
+  public static void before() throws KettleException {
+    KettleEnvironment.init();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    if ( plugin != null ) {
+      PluginRegistry.getInstance().removePlugin( StepPluginType.class, plugin );
+    }
+  }
+
+  private PluginInterface stepPlugin() {
+    PluginInterface stepPlugin = mock( PluginInterface.class );
+    when( stepPlugin.getIds() ).thenReturn( new String[] { PLUGIN_ID } );
+    when( stepPlugin.getPluginType() ).thenAnswer( invocation -> StepPluginType.class );
+    when( stepPlugin.matches( PLUGIN_ID ) ).thenReturn( true );
+    return stepPlugin;
+  }
+
+  @Test
+  public void waitEndsWhenPluginIsRegistered() throws Exception {
+    plugin = stepPlugin();
+    executor.schedule( () -> {
+      PluginRegistry.getInstance().registerPlugin( StepPluginType.class, plugin );
+      return null;
+    }, 100, TimeUnit.MILLISECONDS );
+
+    long start = System.currentTimeMillis();
+    boolean ready = PluginReadiness.await( PluginRegistry.getInstance(), Collections.singletonList( PLUGIN_ID ),
+      TimeUnit.SECONDS.toMillis( 30 ) );
+
+    assertTrue( ready );
+    assertTrue( System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis( 10 ) );
+  }
+
+  @Test
+  public void waitEndsAtTimeout() throws Exception {
+    long start = System.currentTimeMillis();
+    boolean ready = PluginReadiness.await( PluginRegistry.getInstance(), Collections.singletonList( PLUGIN_ID ), 50 );
+
+    assertFalse( ready );
+    assertTrue( System.currentTimeMillis() - start >= 50 );
+  }
+
+  @Test
+  public void registeredPluginsNeedNoWait() throws Exception {
+    assertTrue( PluginReadiness.await( PluginRegistry.getInstance(), Collections.emptyList(), 0 ) );
+  }
+
+  @Test
+  public void unchangedRegistryIsNotCheckedAgainAtOnce() throws Exception {
+    PluginRegistry registry = PluginRegistry.getInstance();
+    long changes = PluginReadiness.changes( registry );
+
+    long start = System.currentTimeMillis();
+    boolean ready = PluginReadiness.awaitChange( registry, Collections.emptyList(), changes,
+      TimeUnit.SECONDS.toMillis( 30 ) );
+
+    assertTrue( ready );
+    assertTrue( System.currentTimeMillis() - start >= PluginReadiness.MAX_CHECK_INTERVAL );
+  }
+
+  @Test
+  public void registryChangeEndsWaitForChange() throws Exception {
+    PluginRegistry registry = PluginRegistry.getInstance();
+    long changes = PluginReadiness.changes( registry );
+    plugin = stepPlugin();
+    executor.schedule( () -> {
+      registry.registerPlugin( StepPluginType.class, plugin );
+      return null;
+    }, 100, TimeUnit.MILLISECONDS );
+
+    long start = System.currentTimeMillis();
+    boolean ready = PluginReadiness.awaitChange( registry, Collections.singletonList( PLUGIN_ID ), changes,
+      TimeUnit.SECONDS.toMillis( 30 ) );
+
+    assertTrue( ready );
+    assertTrue( System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis( 10 ) );
+  }
+}
@@ -0,0 +1,107 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.di.core.row.RowMeta;
+import org.pentaho.di.core.row.value.ValueMetaInteger;
+import org.pentaho.di.core.row.value.ValueMetaString;
+import org.pentaho.di.trans.RowProducer;
+import org.pentaho.di.trans.step.StepInterface;
+import org.pentaho.hadoop.mapreduce.converter.converters.LongWritableToLongConverter;
+import org.pentaho.hadoop.mapreduce.converter.converters.TextToStringConverter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class RowInjectorTest {
+  private ChunkedRowSet rowSet;
+  private RowProducer rowProducer;
+  private RowMeta rowMeta;
+
+  @Before
+  public void setUp() {
+    rowSet = new ChunkedRowSet( 3, 100 );
+    rowProducer = new RowProducer( mock( StepInterface.class ), rowSet );
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta( new ValueMetaInteger( "key" ) );
+    rowMeta.addValueMeta( new ValueMetaString( "value" ) );
+  }
+
+  private RowInjector converting() {
+    return new RowInjector( rowProducer, rowMeta, 0, new LongWritableToLongConverter(), 1,
+      new TextToStringConverter() );
+  }
+
+  @Test
+  public void rowsAreHandedOverWhenChunkIsFull() throws Exception {
+    RowInjector injector = converting();
+    LongWritable key = new LongWritable();
+    Text value = new Text();
+
+    for ( long i = 0; i < 2; i++ ) {
+      key.set( i );
+      value.set( "line" + i );
+      injector.inject( key, value );
+    }
+    assertNull( rowSet.getRowImmediate() );
+
+    key.set( 2 );
+    value.set( "line2" );
+    injector.inject( key, value );
+
+    for ( int i = 0; i < 3; i++ ) {
+      assertArrayEquals( new Object[] { (long) i, "line" + i }, rowSet.getRowImmediate() );
+    }
+    assertSame( rowMeta, rowSet.getRowMeta() );
+  }
+
+  @Test
+  public void finishedHandsOverRemainingRows() throws Exception {
+    RowInjector injector = converting();
+    injector.inject( new LongWritable( 1 ), new Text( "a" ) );
+
+    injector.finished();
+
+    assertTrue( rowSet.isDone() );
+    assertEquals( 1, rowSet.size() );
+    assertArrayEquals( new Object[] { 1L, "a" }, rowSet.getRowImmediate() );
+  }
+
+  @Test
+  public void readerObjectsAreNotHeldBack() throws Exception {
+    RowInjector injector = new RowInjector( rowProducer, rowMeta, 0, new LongWritableToLongConverter(), 1, null );
+    Text value = new Text( "reused" );
+
+    Object[] row = injector.inject( new LongWritable( 1 ), value );
+
+    assertSame( value, row[ 1 ] );
+    assertSame( row, rowSet.getRowImmediate() );
+  }
+
+  @Test
+  public void mapRunnableBatchSizeIsAtLeastOne() throws Exception {
+    PentahoMapRunnable mapRunnable = new PentahoMapRunnable();
+    assertEquals( PentahoMapRunnable.DEFAULT_INJECTION_BATCH_SIZE, mapRunnable.getInjectionBatchSize() );
+    mapRunnable.setInjectionBatchSize( 0 );
+    assertEquals( 1, mapRunnable.getInjectionBatchSize() );
+  }
+}
@@ -0,0 +1,60 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce.converter;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+import org.pentaho.di.core.row.ValueMeta;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CachedTypeConverter}
+ */
+public class CachedTypeConverterTest {
+
+  @Test
+  public void destinationIsReused() throws TypeConversionException {
+    CachedTypeConverter<Text> converter = new CachedTypeConverter<>( new TypeConverterFactory(), Text.class );
+    ValueMeta meta = new ValueMeta( "test", ValueMetaInterface.TYPE_STRING );
+
+    Text first = converter.convert( meta, "a" );
+    Text second = converter.convert( meta, "b" );
+
+    assertSame( first, second );
+    assertEquals( new Text( "b" ), second );
+  }
+
+  @Test
+  public void converterFollowsValueClass() throws TypeConversionException {
+    CachedTypeConverter<LongWritable> converter =
+      new CachedTypeConverter<>( new TypeConverterFactory(), LongWritable.class );
+    ValueMeta meta = new ValueMeta( "test", ValueMetaInterface.TYPE_INTEGER );
+
+    assertEquals( new LongWritable( 1L ), converter.convert( meta, 1L ) );
+    assertNull( converter.convert( meta, null ) );
+    assertEquals( new LongWritable( 2L ), converter.convert( meta, 2L ) );
+  }
+
+  @Test
+  public void nullWritable() throws TypeConversionException {
+    CachedTypeConverter<NullWritable> converter =
+      new CachedTypeConverter<>( new TypeConverterFactory(), NullWritable.class );
+
+    assertSame( NullWritable.get(), converter.convert( new ValueMeta( "test" ), "a" ) );
+  }
+}
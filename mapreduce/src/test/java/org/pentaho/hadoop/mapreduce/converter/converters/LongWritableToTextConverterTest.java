@@ -45,4 +45,15 @@ public class LongWritableToTextConverterTest {
       // Expected
     }
   }
+
+  @Test
+  public void convertIntoReused() throws Exception {
+    LongWritableToTextConverter c = new LongWritableToTextConverter();
+    Text reuse = new Text( "a longer previous value" );
+
+    assertSame( reuse, c.convert( null, new LongWritable( Long.MIN_VALUE ), reuse ) );
+    assertEquals( new Text( String.valueOf( Long.MIN_VALUE ) ), reuse );
+    assertSame( reuse, c.convert( null, new LongWritable( 7 ), reuse ) );
+    assertEquals( new Text( "7" ), reuse );
+  }
 }
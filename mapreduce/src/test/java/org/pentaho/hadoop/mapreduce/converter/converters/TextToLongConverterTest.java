@@ -53,4 +53,10 @@ public class TextToLongConverterTest {
     }
 
   }
+
+  @Test
+  public void convertOtherDigits() throws Exception {
+    // Arabic-Indic digits are not parsed from the bytes, Long.parseLong accepts them
+    assertEquals( Long.valueOf( 12 ), new TextToLongConverter().convert( null, new Text( "\u0661\u0662" ) ) );
+  }
 }
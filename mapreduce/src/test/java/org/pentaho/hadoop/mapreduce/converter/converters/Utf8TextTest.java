@@ -0,0 +1,92 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.mapreduce.converter.converters;
+
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class Utf8TextTest {
+  @Test
+  public void setEncodesLikeText() {
+    Text text = new Text();
+    for ( String value : new String[] { "", "plain", "café", "€", "😀 smile", "lone \uD800 surrogate",
+      "\uDC00" } ) {
+      assertSame( text, Utf8Text.set( text, value ) );
+      assertEquals( new Text( value ), text );
+    }
+  }
+
+  @Test
+  public void setLongStringThroughText() {
+    StringBuilder value = new StringBuilder();
+    while ( value.length() <= Utf8Text.MAX_BUFFERED_CHARS ) {
+      value.append( "données " );
+    }
+
+    assertEquals( new Text( value.toString() ), Utf8Text.set( new Text(), value ) );
+  }
+
+  @Test
+  public void setLong() {
+    Text text = new Text();
+    for ( long value : new long[] { 0, 9, -9, 10, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE } ) {
+      assertEquals( String.valueOf( value ), Utf8Text.set( text, value ).toString() );
+    }
+  }
+
+  @Test
+  public void toStringDecodesUtf8() {
+    Text text = new Text( "x" );
+    text.set( new Text( "données" ) );
+
+    assertEquals( "données", Utf8Text.toString( text ) );
+  }
+
+  @Test
+  public void parseLong() {
+    assertEquals( 0L, Utf8Text.parseLong( new Text( "0" ) ) );
+    assertEquals( 42L, Utf8Text.parseLong( new Text( "+42" ) ) );
+    assertEquals( -42L, Utf8Text.parseLong( new Text( "-42" ) ) );
+    assertEquals( Long.MAX_VALUE, Utf8Text.parseLong( new Text( String.valueOf( Long.MAX_VALUE ) ) ) );
+    assertEquals( Long.MIN_VALUE, Utf8Text.parseLong( new Text( String.valueOf( Long.MIN_VALUE ) ) ) );
+  }
+
+  @Test
+  public void parseLongRejectsWhatLongRejects() {
+    for ( String value : new String[] { "", "-", "+", " 1", "1 ", "1a", "9223372036854775808",
+      "-9223372036854775809" } ) {
+      try {
+        Utf8Text.parseLong( new Text( value ) );
+        fail( value );
+      } catch ( NumberFormatException expected ) {
+        // Expected
+      }
+    }
+  }
+
+  @Test( expected = NumberFormatException.class )
+  public void parseIntOutOfRange() {
+    Utf8Text.parseInt( new Text( "2147483648" ) );
+  }
+
+  @Test
+  public void parseIntRange() {
+    assertEquals( Integer.MAX_VALUE, Utf8Text.parseInt( new Text( "2147483647" ) ) );
+    assertEquals( Integer.MIN_VALUE, Utf8Text.parseInt( new Text( "-2147483648" ) ) );
+  }
+}
@@ -14,21 +14,32 @@
 
 package org.pentaho.hadoop.mapreduce.test;
 
+import com.thoughtworks.xstream.XStream;
 import org.apache.hadoop.conf.Configuration;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.pentaho.di.core.Const;
 import org.pentaho.di.core.exception.KettleException;
 import org.pentaho.di.core.logging.KettleLogStore;
 import org.pentaho.di.core.plugins.PluginRegistry;
 import org.pentaho.di.core.row.value.ValueMetaPluginType;
+import org.pentaho.di.core.variables.VariableSpace;
+import org.pentaho.di.core.variables.Variables;
 import org.pentaho.di.trans.Trans;
 import org.pentaho.di.trans.TransConfiguration;
 import org.pentaho.di.trans.TransExecutionConfiguration;
 import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.TransMeta.TransformationType;
 import org.pentaho.hadoop.mapreduce.MRUtil;
+import org.pentaho.hadoop.shim.api.mapreduce.PentahoMapReduceTransport;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
 
 import static org.junit.Assert.*;
 
@@ -52,9 +63,18 @@ public class MRUtilTest {
     transExecConfig = getTestTransExecConfig( transMeta );
   }
 
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
   @Before
   public void setUp() {
     c = new Configuration();
+    MRUtil.clearTransCache();
+  }
+
+  @After
+  public void tearDown() {
+    MRUtil.clearTransCache();
   }
 
   @Test
@@ -118,6 +138,75 @@ public class MRUtilTest {
     assertEquals( TransMeta.TransformationType.SingleThreaded, trans.getTransMeta().getTransformationType() );
   }
 
+  @Test
+  public void createTrans_reusesParsedTransMeta() throws Exception {
+    String xml = transExecConfig.getXML();
+
+    Trans first = MRUtil.getTrans( c, xml, false );
+    Trans second = MRUtil.getTrans( c, xml, false );
+
+    assertNotSame( first, second );
+    assertSame( first.getTransMeta(), second.getTransMeta() );
+    assertNotSame( first.getTransMeta(), MRUtil.getTrans( c, xml, true ).getTransMeta() );
+  }
+
+  @Test
+  public void createTrans_cacheDisabled() throws Exception {
+    c.setBoolean( MRUtil.PROPERTY_PENTAHO_KETTLE_TRANS_CACHE, false );
+    String xml = transExecConfig.getXML();
+
+    Trans first = MRUtil.getTrans( c, xml, false );
+    Trans second = MRUtil.getTrans( c, xml, false );
+
+    assertNotSame( first.getTransMeta(), second.getTransMeta() );
+  }
+
+  @Test
+  public void getVariableSpace_returnsCopies() {
+    Variables variables = new Variables();
+    variables.setVariable( "greeting", "hello" );
+    String xml = new XStream().toXML( variables );
+
+    VariableSpace first = MRUtil.getVariableSpace( c, xml );
+    first.setVariable( "greeting", "changed" );
+    VariableSpace second = MRUtil.getVariableSpace( c, xml );
+
+    assertNotSame( first, second );
+    assertEquals( "hello", second.getVariable( "greeting" ) );
+  }
+
+  @Test
+  public void getJobProperty_readsTransportFile() throws Exception {
+    String xml = transExecConfig.getXML();
+    byte[] data = PentahoMapReduceTransport.encode( Collections.singletonMap( "transformation-map-xml", xml ),
+      Collections.singletonMap( "greeting", "hello" ) );
+    String fileName = PentahoMapReduceTransport.fileName( data );
+    // MRUtil reads the transport file from the working directory
+    System.setProperty( "user.dir", tempFolder.getRoot().getAbsolutePath() );
+    try {
+      Files.write( Paths.get( MRUtil.getWorkingDir(), fileName ), data );
+      c.set( PentahoMapReduceTransport.TRANSPORT_FILE, fileName );
+
+      assertEquals( xml, MRUtil.getJobProperty( c, "transformation-map-xml" ) );
+      assertNull( MRUtil.getJobProperty( c, "transformation-reduce-xml" ) );
+      VariableSpace variableSpace = MRUtil.getVariableSpace( c );
+      assertEquals( "hello", variableSpace.getVariable( "greeting" ) );
+      variableSpace.setVariable( "greeting", "changed" );
+      assertEquals( "hello", MRUtil.getVariableSpace( c ).getVariable( "greeting" ) );
+    } finally {
+      System.setProperty( "user.dir", USER_DIR );
+    }
+  }
+
+  @Test
+  public void getJobProperty_withoutTransportFile() {
+    c.set( "transformation-map-xml", "<xml/>" );
+
+    assertEquals( "<xml/>", MRUtil.getJobProperty( c, "transformation-map-xml" ) );
+    assertNull( MRUtil.getJobProperty( c, "transformation-reduce-xml" ) );
+    assertNull( MRUtil.getVariableSpace( c ) );
+  }
+
   private static TransMeta getTestTransMeta() {
     TransMeta transMeta = new TransMeta();
     transMeta.setName( "Test transformation" );
@@ -0,0 +1,92 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.format;
+
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+import java.util.Arrays;
+
+/**
+ * Avro types of Pentaho fields. Logical types are stored as their base type, e.g. dates as days in an int.
+ */
+public class AvroSpec {
+  @SuppressWarnings( "squid:S1192" ) // string constants
+  public enum DataType {
+    BOOLEAN( "boolean", null, "Boolean", ValueMetaInterface.TYPE_BOOLEAN ),
+    INTEGER( "int", null, "Int", ValueMetaInterface.TYPE_INTEGER ),
+    LONG( "long", null, "Long", ValueMetaInterface.TYPE_INTEGER ),
+    FLOAT( "float", null, "Float", ValueMetaInterface.TYPE_NUMBER ),
+    DOUBLE( "double", null, "Double", ValueMetaInterface.TYPE_NUMBER ),
+    STRING( "string", null, "String", ValueMetaInterface.TYPE_STRING ),
+    BYTES( "bytes", null, "Bytes", ValueMetaInterface.TYPE_BINARY ),
+    DECIMAL( "bytes", "decimal", "Decimal", ValueMetaInterface.TYPE_BIGNUMBER ),
+    DATE( "int", "date", "Date", ValueMetaInterface.TYPE_DATE ),
+    TIMESTAMP_MILLIS( "long", "timestamp-millis", "TimestampMillis", ValueMetaInterface.TYPE_TIMESTAMP ),
+    TIMESTAMP_MICROS( "long", "timestamp-micros", "TimestampMicros", ValueMetaInterface.TYPE_TIMESTAMP );
+
+    private final String baseType;
+    private final String logicalType;
+    private final String name;
+    private final int pdiType;
+
+    DataType( String baseType, String logicalType, String name, int pdiType ) {
+      this.baseType = baseType;
+      this.logicalType = logicalType;
+      this.name = name;
+      this.pdiType = pdiType;
+    }
+
+    public static DataType getDataType( int id ) {
+      return values()[ id ];
+    }
+
+    public int getId() {
+      return ordinal();
+    }
+
+    public boolean isLogicalType() {
+      return logicalType != null;
+    }
+
+    public String getBaseType() {
+      return baseType;
+    }
+
+    public String getLogicalType() {
+      return logicalType;
+    }
+
+    public String getType() {
+      return isLogicalType() ? logicalType : baseType;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getPdiType() {
+      return pdiType;
+    }
+
+    public static String[] getDisplayableTypeNames() {
+      return Arrays.stream( values() )
+        .map( DataType::getName )
+        .sorted()
+        .toArray( String[]::new );
+    }
+  }
+
+  public static final int DEFAULT_DECIMAL_PRECISION = 20;
+  public static final int DEFAULT_DECIMAL_SCALE = 10;
+}
@@ -0,0 +1,20 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.format;
+
+public interface IAvroOutputField extends IFormatOutputField {
+  AvroSpec.DataType getAvroType();
+
+  void setFormatType( AvroSpec.DataType type );
+}
@@ -0,0 +1,42 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.format;
+
+import java.util.List;
+
+public interface IPentahoAvroInputFormat extends IPentahoInputFormat {
+  /**
+   * Read schema for display to user. Only fields of types in {@link AvroSpec.DataType}, or nullable unions of them,
+   * are returned.
+   */
+  List<IAvroInputField> readSchema();
+
+  /**
+   * Set schema for file reading. Only the fields of the schema are decoded.
+   */
+  void setSchema( List<IAvroInputField> inputFields );
+
+  /**
+   * Set input file, or a directory of Avro files.
+   */
+  void setInputFile( String file );
+
+  /**
+   * Maximum split size, bytes. Splits are read from the first sync marker in their range, so every block is read by
+   * exactly one split.
+   */
+  default void setSplitSize( long splitSize ) {
+  }
+
+}
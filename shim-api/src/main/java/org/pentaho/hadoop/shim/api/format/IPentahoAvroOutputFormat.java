@@ -0,0 +1,38 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.format;
+
+import java.util.List;
+
+public interface IPentahoAvroOutputFormat extends IPentahoOutputFormat, IPvfsAliasGenerator {
+  int DEFAULT_SYNC_INTERVAL = 64000; // In bytes
+
+  void setFields( List<? extends IAvroOutputField> fields ) throws Exception;
+
+  void setOutputFile( String file, boolean override ) throws Exception;
+
+  /**
+   * Compression codec by its Avro name. "null", "deflate", "snappy", "bzip2" and "xz" are available with every shim,
+   * newer codecs such as "zstandard" only with shims on Avro 1.9 or later.
+   *
+   * @throws IllegalArgumentException when the Avro version of the shim does not know the codec
+   */
+  void setCompression( String codec );
+
+  /**
+   * Approximate size of blocks, which are also the smallest unit of input splits.
+   */
+  void setSyncInterval( int bytes );
+
+}
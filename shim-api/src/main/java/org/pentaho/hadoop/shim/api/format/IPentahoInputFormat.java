@@ -14,6 +14,7 @@
 package org.pentaho.hadoop.shim.api.format;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -33,9 +34,26 @@ public interface IPentahoInputFormat {
    */
   IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) throws Exception;
 
+  /**
+   * Read several split parts, up to {@code threads} of them at once. Rows of one split keep their order, but rows of
+   * different splits may interleave.
+   */
+  IPentahoRecordReader createRecordReader( List<IPentahoInputSplit> splits, int threads ) throws Exception;
+
   public interface IPentahoInputSplit {
   }
 
   public interface IPentahoRecordReader extends Iterable<RowMetaAndData>, Closeable {
   }
+
+  /**
+   * Record reader which can also return rows by column batches, without an object per row. A reader should be either
+   * iterated or read by batches, not both.
+   */
+  public interface IPentahoBatchRecordReader extends IPentahoRecordReader {
+    /**
+     * Next batch of rows, or null when there are no more rows. The same batch is refilled by every call.
+     */
+    RecordBatch nextBatch() throws IOException;
+  }
 }
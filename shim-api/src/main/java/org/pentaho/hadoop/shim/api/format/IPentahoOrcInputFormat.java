@@ -31,4 +31,23 @@ public interface IPentahoOrcInputFormat extends IPentahoInputFormat {
    */
   void setInputFile( String file );
 
+  /**
+   * Maximum split size, bytes. Splits always contain whole stripes.
+   */
+  default void setSplitSize( long splitSize ) {
+  }
+
+  /**
+   * Filter for skipping stripes and row groups by their indexes. Only columns of the schema are decoded. Filter is
+   * applied on a best effort basis, so returned rows may still not match it.
+   */
+  default void setFilter( PushDownFilter filter ) {
+  }
+
+  /**
+   * Returns strings as UTF-8 bytes in binary string storage, which the row meta decodes only when a value is used.
+   */
+  default void setLazyStrings( boolean lazyStrings ) {
+  }
+
 }
@@ -40,4 +40,19 @@ public interface IPentahoOrcOutputFormat extends IPentahoOutputFormat, IPvfsAlia
 
   void setCompressSize( int kilobytes );
 
+  /**
+   * Write with several threads, each filling its own row batches and files. The output file becomes a directory of
+   * part files, and the order of rows between files is not kept.
+   */
+  default void setWriterThreads( int threads ) {
+  }
+
+  /**
+   * Start a new file when the current one reaches the given size. The output file becomes a directory of part files.
+   *
+   * @param size size in bytes, 0 for no limit
+   */
+  default void setMaxFileSize( long size ) {
+  }
+
 }
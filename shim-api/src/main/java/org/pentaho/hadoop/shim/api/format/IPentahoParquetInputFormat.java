@@ -41,4 +41,18 @@ public interface IPentahoParquetInputFormat extends IPentahoInputFormat {
    * Split size, bytes.
    */
   void setSplitSize( long blockSize ) throws Exception;
+
+  /**
+   * Allow splitting files by row groups. Disabled by default, because some files written by older Parquet versions
+   * can be read only sequentially.
+   */
+  default void setSplitFiles( boolean splitFiles ) throws Exception {
+  }
+
+  /**
+   * Filter for skipping row groups by statistics and dictionaries, and for skipping records before conversion into
+   * rows. Filter is applied on a best effort basis, so returned rows may still not match it.
+   */
+  default void setFilter( PushDownFilter filter ) throws Exception {
+  }
 }
@@ -50,4 +50,63 @@ public interface IPentahoParquetOutputFormat extends IPentahoOutputFormat, IPvfs
    * @param size size in bytes
    */
   void setDictionaryPageSize( int size ) throws Exception;
+
+  /**
+   * Choose dictionary encoding for every column, and page and row group sizes, from the first rows written. Chosen
+   * values are only used for the dictionary and size settings which were not set.
+   *
+   * @param sampleRows number of rows to sample, 0 to use the settings as they are
+   */
+  default void setAdaptiveEncoding( int sampleRows ) throws Exception {
+  }
+
+  /**
+   * Start a new file when the current one reaches the given size. The output file becomes a directory of part files.
+   *
+   * @param size size in bytes, 0 for no limit
+   */
+  default void setMaxFileSize( long size ) throws Exception {
+  }
+
+  /**
+   * Start a new file after the given number of rows. The output file becomes a directory of part files.
+   *
+   * @param rows rows per file, 0 for no limit
+   */
+  default void setMaxRowsPerFile( long rows ) throws Exception {
+  }
+
+  /**
+   * Write rows into Hive style {@code field=value} directories under the output file, by values of the given Pentaho
+   * fields. Each partition has its own writer and files, and partition fields are not written into the files.
+   */
+  default void setPartitionFields( List<String> fieldNames ) throws Exception {
+  }
+
+  /**
+   * Write a bloom filter for the column into every row group, so readers can skip row groups on equality lookups.
+   *
+   * @param formatFieldName          Parquet column name
+   * @param expectedDistinctValues   distinct values expected per row group, 0 to let the writer choose the filter size
+   * @param falsePositiveProbability wanted false positive probability, 0 for the writer default
+   */
+  default void setBloomFilter( String formatFieldName, long expectedDistinctValues, double falsePositiveProbability )
+    throws Exception {
+  }
+
+  /**
+   * Truncate min and max values of binary columns in the footer statistics.
+   *
+   * @param length length in bytes
+   */
+  default void setStatisticsTruncateLength( int length ) throws Exception {
+  }
+
+  /**
+   * Truncate min and max values of binary columns in the column indexes.
+   *
+   * @param length length in bytes
+   */
+  default void setColumnIndexTruncateLength( int length ) throws Exception {
+  }
 }
@@ -0,0 +1,65 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.format;
+
+import java.util.List;
+
+/**
+ * Delimited text files, e.g. CSV or TSV. Files are read line by line, like Hadoop's LineRecordReader, so quoted
+ * values can't contain line breaks. Files compressed by a Hadoop codec are decompressed by their extension.
+ */
+public interface IPentahoTextInputFormat extends IPentahoInputFormat {
+  String DEFAULT_DELIMITER = ",";
+  String DEFAULT_ENCLOSURE = "\"";
+
+  /**
+   * String fields named after the header line, or Field_001, Field_002... without a header.
+   */
+  List<IFormatInputField> readSchema();
+
+  /**
+   * Set fields to read. The format field name selects the column, only the columns of the fields are converted.
+   */
+  void setSchema( List<? extends IFormatInputField> inputFields );
+
+  /**
+   * Set input file, or a directory of text files.
+   */
+  void setInputFile( String file );
+
+  /**
+   * Single byte separator of values, comma by default.
+   */
+  void setDelimiter( String delimiter );
+
+  /**
+   * Single byte quote of values, or null for none. Quotes inside quoted values are doubled.
+   */
+  void setEnclosure( String enclosure );
+
+  /**
+   * Whether the first line of every file holds the column names.
+   */
+  void setHeader( boolean header );
+
+  void setCharset( String charset );
+
+  /**
+   * Maximum split size, bytes. Splits always contain whole lines. Files with a codec which can't be split are read
+   * as one split.
+   */
+  default void setSplitSize( long splitSize ) {
+  }
+
+}
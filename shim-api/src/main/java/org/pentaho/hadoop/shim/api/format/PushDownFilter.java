@@ -0,0 +1,139 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.format;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Format independent row filter which input formats can push down to the file reader (Parquet filter2 predicates, ORC
+ * search arguments), so that blocks which can't match are skipped by their statistics.
+ * <p>
+ * Field names are format field names. Values are plain java objects (Long, Double, String, Boolean, BigDecimal,
+ * Date). Formats convert what they can and ignore the rest, so rows returned by a filtered reader still have to be
+ * checked by the caller when exact results are required.
+ */
+public class PushDownFilter {
+
+  public enum Operator {
+    EQ, NOT_EQ, LT, LT_EQ, GT, GT_EQ, IS_NULL, IS_NOT_NULL, AND, OR, NOT;
+
+    public boolean isLeaf() {
+      return this != AND && this != OR && this != NOT;
+    }
+  }
+
+  private final Operator operator;
+  private final String field;
+  private final Object value;
+  private final List<PushDownFilter> children;
+
+  private PushDownFilter( Operator operator, String field, Object value, List<PushDownFilter> children ) {
+    this.operator = operator;
+    this.field = field;
+    this.value = value;
+    this.children = children;
+  }
+
+  private static PushDownFilter leaf( Operator operator, String field, Object value ) {
+    Objects.requireNonNull( field, "field" );
+    if ( value == null && operator != Operator.IS_NULL && operator != Operator.IS_NOT_NULL ) {
+      throw new IllegalArgumentException( "Value should be defined for " + operator + " on " + field );
+    }
+    return new PushDownFilter( operator, field, value, Collections.emptyList() );
+  }
+
+  public static PushDownFilter eq( String field, Object value ) {
+    return leaf( Operator.EQ, field, value );
+  }
+
+  public static PushDownFilter notEq( String field, Object value ) {
+    return leaf( Operator.NOT_EQ, field, value );
+  }
+
+  public static PushDownFilter lt( String field, Object value ) {
+    return leaf( Operator.LT, field, value );
+  }
+
+  public static PushDownFilter ltEq( String field, Object value ) {
+    return leaf( Operator.LT_EQ, field, value );
+  }
+
+  public static PushDownFilter gt( String field, Object value ) {
+    return leaf( Operator.GT, field, value );
+  }
+
+  public static PushDownFilter gtEq( String field, Object value ) {
+    return leaf( Operator.GT_EQ, field, value );
+  }
+
+  public static PushDownFilter isNull( String field ) {
+    return leaf( Operator.IS_NULL, field, null );
+  }
+
+  public static PushDownFilter isNotNull( String field ) {
+    return leaf( Operator.IS_NOT_NULL, field, null );
+  }
+
+  public static PushDownFilter and( PushDownFilter... children ) {
+    return new PushDownFilter( Operator.AND, null, null, checkChildren( children ) );
+  }
+
+  public static PushDownFilter or( PushDownFilter... children ) {
+    return new PushDownFilter( Operator.OR, null, null, checkChildren( children ) );
+  }
+
+  public static PushDownFilter not( PushDownFilter child ) {
+    return new PushDownFilter( Operator.NOT, null, null, checkChildren( child ) );
+  }
+
+  private static List<PushDownFilter> checkChildren( PushDownFilter... children ) {
+    if ( children.length == 0 ) {
+      throw new IllegalArgumentException( "At least one filter should be declared" );
+    }
+    List<PushDownFilter> list = new ArrayList<>( Arrays.asList( children ) );
+    list.forEach( c -> Objects.requireNonNull( c, "filter" ) );
+    return Collections.unmodifiableList( list );
+  }
+
+  public Operator getOperator() {
+    return operator;
+  }
+
+  /**
+   * Format field name for leaf filters, null for AND/OR/NOT.
+   */
+  public String getField() {
+    return field;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+
+  public List<PushDownFilter> getChildren() {
+    return children;
+  }
+
+  @Override
+  public String toString() {
+    if ( operator.isLeaf() ) {
+      return value == null ? operator + "(" + field + ")" : operator + "(" + field + ", " + value + ")";
+    }
+    return operator + children.toString();
+  }
+}
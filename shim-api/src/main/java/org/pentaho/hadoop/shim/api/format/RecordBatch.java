@@ -0,0 +1,163 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.format;
+
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+
+/**
+ * Column oriented batch of rows. TYPE_INTEGER and TYPE_NUMBER columns are kept in primitive arrays, so readers can fill
+ * them and consumers can read them without an object per value. Other types are kept as their Kettle values.
+ */
+public class RecordBatch {
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private final RowMetaInterface rowMeta;
+  private final int capacity;
+  private final long[][] longs;
+  private final double[][] doubles;
+  private final Object[][] objects;
+  private final boolean[][] nulls;
+  private int size;
+
+  public RecordBatch( RowMetaInterface rowMeta, int capacity ) {
+    if ( capacity <= 0 ) {
+      throw new IllegalArgumentException( "Batch capacity should be positive: " + capacity );
+    }
+    this.rowMeta = rowMeta;
+    this.capacity = capacity;
+    int columns = rowMeta.size();
+    longs = new long[ columns ][];
+    doubles = new double[ columns ][];
+    objects = new Object[ columns ][];
+    nulls = new boolean[ columns ][];
+    for ( int c = 0; c < columns; c++ ) {
+      switch ( rowMeta.getValueMeta( c ).getType() ) {
+        case ValueMetaInterface.TYPE_INTEGER:
+          longs[ c ] = new long[ capacity ];
+          break;
+        case ValueMetaInterface.TYPE_NUMBER:
+          doubles[ c ] = new double[ capacity ];
+          break;
+        default:
+          objects[ c ] = new Object[ capacity ];
+      }
+      nulls[ c ] = new boolean[ capacity ];
+    }
+  }
+
+  public RowMetaInterface getRowMeta() {
+    return rowMeta;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Number of rows in the batch.
+   */
+  public int getSize() {
+    return size;
+  }
+
+  public void setSize( int size ) {
+    if ( size < 0 || size > capacity ) {
+      throw new IllegalArgumentException( "Batch size " + size + " is out of capacity " + capacity );
+    }
+    this.size = size;
+  }
+
+  public void reset() {
+    size = 0;
+  }
+
+  public boolean isNull( int column, int row ) {
+    return nulls[ column ][ row ];
+  }
+
+  /**
+   * Value of a TYPE_INTEGER column. Undefined for nulls.
+   */
+  public long getLong( int column, int row ) {
+    return longs[ column ][ row ];
+  }
+
+  /**
+   * Value of a TYPE_NUMBER column. Undefined for nulls.
+   */
+  public double getDouble( int column, int row ) {
+    return doubles[ column ][ row ];
+  }
+
+  /**
+   * Value of any column as it would be in a Kettle row.
+   */
+  public Object getObject( int column, int row ) {
+    if ( nulls[ column ][ row ] ) {
+      return null;
+    }
+    if ( longs[ column ] != null ) {
+      return longs[ column ][ row ];
+    }
+    if ( doubles[ column ] != null ) {
+      return doubles[ column ][ row ];
+    }
+    return objects[ column ][ row ];
+  }
+
+  /**
+   * New Kettle row with the values of one batch row.
+   */
+  public Object[] getRow( int row ) {
+    Object[] data = new Object[ nulls.length ];
+    for ( int c = 0; c < data.length; c++ ) {
+      data[ c ] = getObject( c, row );
+    }
+    return data;
+  }
+
+  public void setNull( int column, int row ) {
+    nulls[ column ][ row ] = true;
+    if ( objects[ column ] != null ) {
+      objects[ column ][ row ] = null;
+    }
+  }
+
+  public void setLong( int column, int row, long value ) {
+    longs[ column ][ row ] = value;
+    nulls[ column ][ row ] = false;
+  }
+
+  public void setDouble( int column, int row, double value ) {
+    doubles[ column ][ row ] = value;
+    nulls[ column ][ row ] = false;
+  }
+
+  /**
+   * Sets a Kettle value of the column type, unboxing values of primitive columns.
+   */
+  public void setObject( int column, int row, Object value ) {
+    if ( value == null ) {
+      setNull( column, row );
+    } else if ( longs[ column ] != null ) {
+      setLong( column, row, ( (Number) value ).longValue() );
+    } else if ( doubles[ column ] != null ) {
+      setDouble( column, row, ( (Number) value ).doubleValue() );
+    } else {
+      objects[ column ][ row ] = value;
+      nulls[ column ][ row ] = false;
+    }
+  }
+}
@@ -0,0 +1,290 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.mapreduce;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary form of the transformations and variables of a Pentaho MapReduce job. The file is shipped through
+ * the distributed cache and named by the SHA-256 hash of its content, so the job configuration only carries the file
+ * name under {@link #TRANSPORT_FILE}.
+ * <p>
+ * Every job property and the variables are deflated separately and inflated only when asked for, so a mapper does not
+ * pay for the reducer transformation.
+ */
+public final class PentahoMapReduceTransport {
+  /**
+   * Job configuration property holding the name of the transport file in the task working directory.
+   */
+  public static final String TRANSPORT_FILE = "pmr.transport.file";
+
+  public static final String FILE_EXTENSION = ".pmrt";
+
+  private static final int MAGIC = 0x504D5254; // PMRT
+  private static final int VERSION = 1;
+
+  private final byte[] data;
+  private final Map<String, Entry> entries;
+  private final Entry variablesEntry;
+  private final Map<String, String> properties = new HashMap<>();
+  private Map<String, String> variables;
+
+  private PentahoMapReduceTransport( byte[] data, Map<String, Entry> entries, Entry variablesEntry ) {
+    this.data = data;
+    this.entries = entries;
+    this.variablesEntry = variablesEntry;
+  }
+
+  /**
+   * Encodes job properties and variables. Null values are left out.
+   */
+  public static byte[] encode( Map<String, String> properties, Map<String, String> variables ) throws IOException {
+    List<String> names = new ArrayList<>();
+    List<byte[]> raw = new ArrayList<>();
+    for ( Map.Entry<String, String> property : properties.entrySet() ) {
+      if ( property.getValue() != null ) {
+        names.add( property.getKey() );
+        raw.add( property.getValue().getBytes( StandardCharsets.UTF_8 ) );
+      }
+    }
+    raw.add( encodeVariables( variables ) );
+
+    List<byte[]> compressed = new ArrayList<>( raw.size() );
+    for ( byte[] bytes : raw ) {
+      compressed.add( deflate( bytes ) );
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try ( DataOutputStream out = new DataOutputStream( bytes ) ) {
+      out.writeInt( MAGIC );
+      out.writeByte( VERSION );
+      out.writeInt( names.size() );
+      for ( int i = 0; i < raw.size(); i++ ) {
+        if ( i < names.size() ) {
+          out.writeUTF( names.get( i ) );
+        }
+        out.writeInt( raw.get( i ).length );
+        out.writeInt( compressed.get( i ).length );
+      }
+      for ( byte[] entry : compressed ) {
+        out.write( entry );
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Name of the transport file for the encoded data.
+   */
+  public static String fileName( byte[] data ) {
+    try {
+      byte[] hash = MessageDigest.getInstance( "SHA-256" ).digest( data );
+      StringBuilder name = new StringBuilder( hash.length * 2 + FILE_EXTENSION.length() );
+      for ( byte b : hash ) {
+        name.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
+      }
+      return name.append( FILE_EXTENSION ).toString();
+    } catch ( NoSuchAlgorithmException e ) {
+      throw new IllegalStateException( e );
+    }
+  }
+
+  /**
+   * Reads the index of a transport file. Entries are inflated on first use.
+   *
+   * @throws IOException when the data is not a transport file or does not match the file name
+   */
+  public static PentahoMapReduceTransport read( String fileName, byte[] data ) throws IOException {
+    if ( !fileName( data ).equals( fileName ) ) {
+      throw new IOException( "Content of " + fileName + " does not match its hash" );
+    }
+    DataInputStream in = new DataInputStream( new ByteArrayInputStream( data ) );
+    if ( in.readInt() != MAGIC ) {
+      throw new IOException( fileName + " is not a Pentaho MapReduce transport file" );
+    }
+    int version = in.readUnsignedByte();
+    if ( version != VERSION ) {
+      throw new IOException( "Unsupported version " + version + " of " + fileName );
+    }
+    int count = in.readInt();
+    List<String> names = new ArrayList<>( count );
+    List<Entry> index = new ArrayList<>( count + 1 );
+    for ( int i = 0; i <= count; i++ ) {
+      if ( i < count ) {
+        names.add( in.readUTF() );
+      }
+      int rawLength = in.readInt();
+      int compressedLength = in.readInt();
+      index.add( new Entry( 0, rawLength, compressedLength ) );
+    }
+    int offset = data.length - in.available();
+    Map<String, Entry> entries = new LinkedHashMap<>();
+    Entry variablesEntry = null;
+    for ( int i = 0; i <= count; i++ ) {
+      Entry entry = new Entry( offset, index.get( i ).rawLength, index.get( i ).compressedLength );
+      offset += entry.compressedLength;
+      if ( i < count ) {
+        entries.put( names.get( i ), entry );
+      } else {
+        variablesEntry = entry;
+      }
+    }
+    if ( offset != data.length ) {
+      throw new IOException( fileName + " is truncated" );
+    }
+    return new PentahoMapReduceTransport( data, entries, variablesEntry );
+  }
+
+  public Set<String> getPropertyNames() {
+    return Collections.unmodifiableSet( entries.keySet() );
+  }
+
+  /**
+   * @return the property value, or null when the job has no such property
+   */
+  public synchronized String getProperty( String name ) throws IOException {
+    Entry entry = entries.get( name );
+    if ( entry == null ) {
+      return null;
+    }
+    String value = properties.get( name );
+    if ( value == null ) {
+      value = new String( inflate( entry ), StandardCharsets.UTF_8 );
+      properties.put( name, value );
+    }
+    return value;
+  }
+
+  /**
+   * @return variables of the job by name, not modifiable
+   */
+  public synchronized Map<String, String> getVariables() throws IOException {
+    if ( variables == null ) {
+      variables = Collections.unmodifiableMap( decodeVariables( inflate( variablesEntry ) ) );
+    }
+    return variables;
+  }
+
+  private static byte[] encodeVariables( Map<String, String> variables ) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try ( DataOutputStream out = new DataOutputStream( bytes ) ) {
+      int count = 0;
+      for ( String value : variables.values() ) {
+        if ( value != null ) {
+          count++;
+        }
+      }
+      out.writeInt( count );
+      for ( Map.Entry<String, String> variable : variables.entrySet() ) {
+        if ( variable.getValue() != null ) {
+          writeString( out, variable.getKey() );
+          writeString( out, variable.getValue() );
+        }
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Map<String, String> decodeVariables( byte[] bytes ) throws IOException {
+    DataInputStream in = new DataInputStream( new ByteArrayInputStream( bytes ) );
+    int count = in.readInt();
+    Map<String, String> decoded = new LinkedHashMap<>( count * 2 );
+    for ( int i = 0; i < count; i++ ) {
+      decoded.put( readString( in ), readString( in ) );
+    }
+    return decoded;
+  }
+
+  // length prefixed, as values may be longer than writeUTF allows
+  private static void writeString( DataOutputStream out, String value ) throws IOException {
+    byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+    out.writeInt( bytes.length );
+    out.write( bytes );
+  }
+
+  private static String readString( DataInputStream in ) throws IOException {
+    byte[] bytes = new byte[ in.readInt() ];
+    in.readFully( bytes );
+    return new String( bytes, StandardCharsets.UTF_8 );
+  }
+
+  private static byte[] deflate( byte[] bytes ) {
+    Deflater deflater = new Deflater( Deflater.BEST_COMPRESSION );
+    try {
+      deflater.setInput( bytes );
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream( Math.max( 64, bytes.length / 4 ) );
+      byte[] buffer = new byte[ 8192 ];
+      while ( !deflater.finished() ) {
+        out.write( buffer, 0, deflater.deflate( buffer ) );
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private byte[] inflate( Entry entry ) throws IOException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput( data, entry.offset, entry.compressedLength );
+      byte[] bytes = new byte[ entry.rawLength ];
+      int length = 0;
+      while ( length < bytes.length && !inflater.finished() ) {
+        int inflated = inflater.inflate( bytes, length, bytes.length - length );
+        if ( inflated == 0 && ( inflater.needsInput() || inflater.needsDictionary() ) ) {
+          break;
+        }
+        length += inflated;
+      }
+      if ( length != bytes.length ) {
+        throw new IOException( "Transport entry is truncated" );
+      }
+      return bytes;
+    } catch ( DataFormatException e ) {
+      throw new IOException( "Transport entry is corrupt", e );
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static final class Entry {
+    private final int offset;
+    private final int rawLength;
+    private final int compressedLength;
+
+    Entry( int offset, int rawLength, int compressedLength ) {
+      this.offset = offset;
+      this.rawLength = rawLength;
+      this.compressedLength = compressedLength;
+    }
+  }
+}
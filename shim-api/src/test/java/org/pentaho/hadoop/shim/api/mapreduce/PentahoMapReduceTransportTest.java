@@ -0,0 +1,92 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+package org.pentaho.hadoop.shim.api.mapreduce;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PentahoMapReduceTransportTest {
+
+  private static String transformationXml() {
+    StringBuilder xml = new StringBuilder( "<transformation_configuration>" );
+    for ( int i = 0; i < 500; i++ ) {
+      xml.append( "<step><name>Step " ).append( i ).append( "</name><type>Dummy</type></step>" );
+    }
+    return xml.append( "</transformation_configuration>" ).toString();
+  }
+
+  @Test
+  public void propertiesAndVariablesRoundTrip() throws Exception {
+    Map<String, String> properties = new LinkedHashMap<>();
+    properties.put( "transformation-map-xml", transformationXml() );
+    properties.put( "transformation-reduce-xml", "<reduce>café</reduce>" );
+    properties.put( "transformation-combiner-xml", null );
+    Map<String, String> variables = new HashMap<>();
+    variables.put( "KETTLE_PMR_PLUGIN_TIMEOUT", "1000" );
+    variables.put( "empty", "" );
+    variables.put( "removed", null );
+
+    byte[] data = PentahoMapReduceTransport.encode( properties, variables );
+    PentahoMapReduceTransport transport =
+      PentahoMapReduceTransport.read( PentahoMapReduceTransport.fileName( data ), data );
+
+    assertEquals( transformationXml(), transport.getProperty( "transformation-map-xml" ) );
+    assertEquals( "<reduce>café</reduce>", transport.getProperty( "transformation-reduce-xml" ) );
+    assertNull( transport.getProperty( "transformation-combiner-xml" ) );
+    assertEquals( 2, transport.getPropertyNames().size() );
+    assertEquals( 2, transport.getVariables().size() );
+    assertEquals( "1000", transport.getVariables().get( "KETTLE_PMR_PLUGIN_TIMEOUT" ) );
+    assertEquals( "", transport.getVariables().get( "empty" ) );
+  }
+
+  @Test
+  public void encodingIsCompressed() throws Exception {
+    String xml = transformationXml();
+    byte[] data = PentahoMapReduceTransport.encode( Collections.singletonMap( "transformation-map-xml", xml ),
+      Collections.emptyMap() );
+
+    assertTrue( data.length * 10 < xml.getBytes( StandardCharsets.UTF_8 ).length );
+  }
+
+  @Test
+  public void fileNameIsContentHash() throws Exception {
+    byte[] first = PentahoMapReduceTransport.encode( Collections.singletonMap( "a", "1" ), Collections.emptyMap() );
+    byte[] same = PentahoMapReduceTransport.encode( Collections.singletonMap( "a", "1" ), Collections.emptyMap() );
+    byte[] other = PentahoMapReduceTransport.encode( Collections.singletonMap( "a", "2" ), Collections.emptyMap() );
+
+    assertEquals( PentahoMapReduceTransport.fileName( first ), PentahoMapReduceTransport.fileName( same ) );
+    assertNotEquals( PentahoMapReduceTransport.fileName( first ), PentahoMapReduceTransport.fileName( other ) );
+    assertTrue( PentahoMapReduceTransport.fileName( first ).endsWith( PentahoMapReduceTransport.FILE_EXTENSION ) );
+  }
+
+  @Test( expected = IOException.class )
+  public void changedContentIsRejected() throws Exception {
+    byte[] data = PentahoMapReduceTransport.encode( Collections.singletonMap( "a", "1" ), Collections.emptyMap() );
+    String fileName = PentahoMapReduceTransport.fileName( data );
+    data[ data.length - 1 ]++;
+
+    PentahoMapReduceTransport.read( fileName, data );
+  }
+}
@@ -14,13 +14,19 @@
 package org.pentaho.hadoop.shim.hdi.format;
 
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
+import org.pentaho.hadoop.shim.api.format.IPentahoAvroInputFormat;
+import org.pentaho.hadoop.shim.api.format.IPentahoAvroOutputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoInputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoOrcInputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoOrcOutputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoOutputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetInputFormat;
 import org.pentaho.hadoop.shim.api.format.IPentahoParquetOutputFormat;
+import org.pentaho.hadoop.shim.api.format.IPentahoTextInputFormat;
 import org.pentaho.hadoop.shim.common.CommonFormatShim;
+import org.pentaho.hadoop.shim.common.format.avro.PentahoAvroInputFormat;
+import org.pentaho.hadoop.shim.common.format.avro.PentahoAvroOutputFormat;
+import org.pentaho.hadoop.shim.common.format.text.PentahoTextInputFormat;
 import org.pentaho.hadoop.shim.hdi.format.orc.HDIOrcInputFormat;
 import org.pentaho.hadoop.shim.hdi.format.orc.HDIOrcOutputFormat;
 import org.pentaho.hadoop.shim.hdi.format.parquet.HDIApacheInputFormat;
@@ -33,6 +39,10 @@ public class HDIFormatShim extends CommonFormatShim {
       return (T) new HDIApacheInputFormat( namedCluster );
     } else if ( type.isAssignableFrom( IPentahoOrcInputFormat.class ) ) {
       return (T) new HDIOrcInputFormat( namedCluster );
+    } else if ( type.isAssignableFrom( IPentahoAvroInputFormat.class ) ) {
+      return (T) new PentahoAvroInputFormat( namedCluster );
+    } else if ( type.isAssignableFrom( IPentahoTextInputFormat.class ) ) {
+      return (T) new PentahoTextInputFormat( namedCluster );
     }
     throw new IllegalArgumentException( "Not supported HDI scheme format" );
   }
@@ -43,6 +53,8 @@ public class HDIFormatShim extends CommonFormatShim {
       return (T) new HDIApacheOutputFormat( namedCluster );
     } else if ( type.isAssignableFrom( IPentahoOrcOutputFormat.class ) ) {
       return (T) new HDIOrcOutputFormat( namedCluster );
+    } else if ( type.isAssignableFrom( IPentahoAvroOutputFormat.class ) ) {
+      return (T) new PentahoAvroOutputFormat( namedCluster );
     }
     throw new IllegalArgumentException( "Not supported HDI scheme format" );
   }
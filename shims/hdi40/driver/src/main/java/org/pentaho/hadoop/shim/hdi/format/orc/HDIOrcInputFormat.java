@@ -13,11 +13,15 @@
 
 package org.pentaho.hadoop.shim.hdi.format.orc;
 
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.orc.Reader;
 import org.pentaho.hadoop.shim.HadoopShim;
 import org.pentaho.hadoop.shim.api.cluster.NamedCluster;
 import org.pentaho.hadoop.shim.api.format.IOrcInputField;
 import org.pentaho.hadoop.shim.common.format.orc.PentahoOrcInputFormat;
 
+import java.io.IOException;
 import java.util.List;
 
 import static java.util.Objects.requireNonNull;
@@ -33,16 +37,17 @@ public class HDIOrcInputFormat extends PentahoOrcInputFormat {
   }
 
   @Override
-  public IPentahoRecordReader createRecordReader( IPentahoInputSplit split ) {
-    requireNonNull( fileName, NOT_NULL_MSG );
-    requireNonNull( inputFields, NOT_NULL_MSG );
-    return inClassloader( () -> new HDIOrcRecordReader( fileName, conf, inputFields, shim, pentahoConf ) );
+  protected FileSystem getFileSystem( Path path ) throws IOException {
+    return (FileSystem) shim.getFileSystem( pentahoConf ).getDelegate();
   }
 
   @Override
   public List<IOrcInputField> readSchema() {
-    return inClassloader( () -> readSchema(
-            HDIOrcRecordReader.getReader(
-                    requireNonNull( fileName, NOT_NULL_MSG ), conf, shim, pentahoConf ) ) );
+    return inClassloader( () -> {
+      try ( Reader reader = HDIOrcRecordReader.getReader(
+        requireNonNull( fileName, NOT_NULL_MSG ), conf, shim, pentahoConf ) ) {
+        return readSchema( reader );
+      }
+    } );
   }
 }
\ No newline at end of file
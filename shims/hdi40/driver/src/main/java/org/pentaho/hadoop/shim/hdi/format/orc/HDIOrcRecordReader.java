@@ -21,19 +21,13 @@ import org.apache.hadoop.fs.PathFilter;
 import org.apache.orc.OrcFile;
 import org.apache.orc.Reader;
 import org.pentaho.hadoop.shim.HadoopShim;
-import org.pentaho.hadoop.shim.api.format.IOrcInputField;
-import org.pentaho.hadoop.shim.common.format.orc.PentahoOrcRecordReader;
 
 import java.io.IOException;
 import java.nio.file.NoSuchFileException;
-import java.util.List;
 
-public class HDIOrcRecordReader extends PentahoOrcRecordReader {
+public class HDIOrcRecordReader {
 
-  HDIOrcRecordReader( String fileName, Configuration conf,
-                      List<? extends IOrcInputField> dialogInputFields, HadoopShim shim,
-                      org.pentaho.hadoop.shim.api.internal.Configuration pentahoConf ) {
-    super( fileName, dialogInputFields, getReader( fileName, conf, shim, pentahoConf ) );
+  private HDIOrcRecordReader() {
   }
 
   static Reader getReader( String fileName, Configuration conf, HadoopShim shim,